@@ -0,0 +1,117 @@
+/*
+ * Copyright 2017 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.gov.gchq.gaffer.benchmark.accumulostore;
+
+import org.apache.accumulo.core.data.Key;
+import org.apache.accumulo.core.data.Value;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import uk.gov.gchq.gaffer.accumulostore.key.AccumuloElementConverter;
+import uk.gov.gchq.gaffer.benchmark.data.RoadTrafficDataGenerator;
+import uk.gov.gchq.gaffer.commonutil.pair.Pair;
+import uk.gov.gchq.gaffer.data.element.Element;
+import uk.gov.gchq.gaffer.store.schema.Schema;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the throughput of converting road traffic elements to and from
+ * Accumulo keys and values with each {@link AccumuloElementConverter}.
+ * Each invocation converts all the elements generated from
+ * {@link #numLines} road traffic lines.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class AccumuloElementConverterBenchmark {
+    @Param({
+            "uk.gov.gchq.gaffer.accumulostore.key.core.impl.byteEntity.ByteEntityAccumuloElementConverter",
+            "uk.gov.gchq.gaffer.accumulostore.key.core.impl.classic.ClassicAccumuloElementConverter"
+    })
+    public String converterClass;
+
+    @Param("1000")
+    public int numLines;
+
+    private AccumuloElementConverter converter;
+    private List<Element> elements;
+    private List<Key> keys;
+    private List<Value> values;
+
+    @Setup
+    public void setup() throws ReflectiveOperationException {
+        final Schema schema = RoadTrafficDataGenerator.createSchema();
+        converter = createConverter(converterClass, schema);
+        elements = new RoadTrafficDataGenerator().generateElements(numLines);
+
+        keys = new ArrayList<>(elements.size() * 2);
+        values = new ArrayList<>(elements.size() * 2);
+        for (final Element element : elements) {
+            final Pair<Key, Key> keyPair = converter.getKeysFromElement(element);
+            final Value value = converter.getValueFromElement(element);
+            keys.add(keyPair.getFirst());
+            values.add(value);
+            if (null != keyPair.getSecond()) {
+                keys.add(keyPair.getSecond());
+                values.add(value);
+            }
+        }
+    }
+
+    @Benchmark
+    public void elementsToKeyValues(final Blackhole blackhole) {
+        for (final Element element : elements) {
+            blackhole.consume(converter.getKeysFromElement(element));
+            blackhole.consume(converter.getValueFromElement(element));
+        }
+    }
+
+    @Benchmark
+    public void keyValuesToElements(final Blackhole blackhole) {
+        for (int i = 0; i < keys.size(); i++) {
+            blackhole.consume(converter.getFullElement(keys.get(i), values.get(i), false));
+        }
+    }
+
+    @Benchmark
+    public void keysToElementIds(final Blackhole blackhole) {
+        for (final Key key : keys) {
+            blackhole.consume(converter.getElementId(key, false));
+        }
+    }
+
+    static AccumuloElementConverter createConverter(final String converterClass, final Schema schema)
+            throws ReflectiveOperationException {
+        return Class.forName(converterClass)
+                .asSubclass(AccumuloElementConverter.class)
+                .getConstructor(Schema.class)
+                .newInstance(schema);
+    }
+}
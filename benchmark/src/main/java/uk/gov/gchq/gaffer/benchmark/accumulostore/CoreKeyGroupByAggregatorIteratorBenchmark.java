@@ -0,0 +1,134 @@
+/*
+ * Copyright 2017 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.gov.gchq.gaffer.benchmark.accumulostore;
+
+import org.apache.accumulo.core.data.ByteSequence;
+import org.apache.accumulo.core.data.Key;
+import org.apache.accumulo.core.data.Range;
+import org.apache.accumulo.core.data.Value;
+import org.apache.accumulo.core.iterators.SortedMapIterator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import uk.gov.gchq.gaffer.accumulostore.key.AccumuloElementConverter;
+import uk.gov.gchq.gaffer.accumulostore.key.core.impl.CoreKeyGroupByAggregatorIterator;
+import uk.gov.gchq.gaffer.accumulostore.key.core.impl.CoreKeyGroupByCombiner;
+import uk.gov.gchq.gaffer.accumulostore.utils.AccumuloStoreConstants;
+import uk.gov.gchq.gaffer.benchmark.data.RoadTrafficDataGenerator;
+import uk.gov.gchq.gaffer.commonutil.CommonConstants;
+import uk.gov.gchq.gaffer.commonutil.pair.Pair;
+import uk.gov.gchq.gaffer.data.element.Element;
+import uk.gov.gchq.gaffer.data.elementdefinition.view.View;
+import uk.gov.gchq.gaffer.store.schema.Schema;
+import java.io.IOException;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the throughput of the {@link CoreKeyGroupByAggregatorIterator},
+ * which is the {@link CoreKeyGroupByCombiner} used to aggregate elements at
+ * query time. Each invocation scans a sorted map of the key-values for the
+ * elements generated from {@link #numLines} road traffic lines.
+ * <p>
+ * The number of distinct roads controls how many key-values are aggregated
+ * together: with fewer roads more of the generated counts share a key.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class CoreKeyGroupByAggregatorIteratorBenchmark {
+    @Param({
+            "uk.gov.gchq.gaffer.accumulostore.key.core.impl.byteEntity.ByteEntityAccumuloElementConverter",
+            "uk.gov.gchq.gaffer.accumulostore.key.core.impl.classic.ClassicAccumuloElementConverter"
+    })
+    public String converterClass;
+
+    @Param("1000")
+    public int numLines;
+
+    @Param({"5", "50"})
+    public int numRoads;
+
+    private final SortedMap<Key, Value> keyValues = new TreeMap<>();
+    private final Map<String, String> options = new HashMap<>();
+
+    @Setup
+    public void setup() throws ReflectiveOperationException, IOException {
+        final Schema schema = RoadTrafficDataGenerator.createSchema();
+        final AccumuloElementConverter converter = AccumuloElementConverterBenchmark.createConverter(converterClass, schema);
+        final View view = new View.Builder()
+                .entities(schema.getEntityGroups())
+                .edges(schema.getEdgeGroups())
+                .build();
+
+        options.put(AccumuloStoreConstants.SCHEMA, new String(schema.toCompactJson(), CommonConstants.UTF_8));
+        options.put(AccumuloStoreConstants.VIEW, new String(view.toCompactJson(), CommonConstants.UTF_8));
+        options.put(AccumuloStoreConstants.ACCUMULO_ELEMENT_CONVERTER_CLASS, converterClass);
+
+        // The converter uses the current time as the timestamp, so each key
+        // is given its own timestamp to keep the data reproducible and stop
+        // equal keys replacing each other in the sorted map.
+        long timestamp = 0;
+        final RoadTrafficDataGenerator generator = new RoadTrafficDataGenerator(
+                RoadTrafficDataGenerator.DEFAULT_SEED, numRoads,
+                RoadTrafficDataGenerator.DEFAULT_NUM_JUNCTIONS_PER_ROAD,
+                RoadTrafficDataGenerator.DEFAULT_NUM_DAYS);
+        for (final Element element : generator.generateElements(numLines)) {
+            final Pair<Key, Key> keys = converter.getKeysFromElement(element);
+            final Value value = converter.getValueFromElement(element);
+            keyValues.put(withTimestamp(keys.getFirst(), timestamp++), value);
+            if (null != keys.getSecond()) {
+                keyValues.put(withTimestamp(keys.getSecond(), timestamp++), value);
+            }
+        }
+    }
+
+    @Benchmark
+    public void scan(final Blackhole blackhole) throws IOException {
+        final CoreKeyGroupByAggregatorIterator iterator = new CoreKeyGroupByAggregatorIterator();
+        iterator.init(new SortedMapIterator(keyValues), options, null);
+        iterator.seek(new Range(), Collections.<ByteSequence>emptyList(), false);
+        while (iterator.hasTop()) {
+            blackhole.consume(iterator.getTopKey());
+            blackhole.consume(iterator.getTopValue());
+            iterator.next();
+        }
+    }
+
+    private static Key withTimestamp(final Key key, final long timestamp) {
+        return new Key(key.getRowData().toArray(),
+                key.getColumnFamilyData().toArray(),
+                key.getColumnQualifierData().toArray(),
+                key.getColumnVisibilityData().toArray(),
+                timestamp);
+    }
+}
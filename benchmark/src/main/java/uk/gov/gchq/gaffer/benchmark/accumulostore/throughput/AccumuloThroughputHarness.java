@@ -0,0 +1,347 @@
+/*
+ * Copyright 2017 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.gov.gchq.gaffer.benchmark.accumulostore.throughput;
+
+import org.apache.accumulo.minicluster.MiniAccumuloCluster;
+import org.apache.accumulo.minicluster.MiniAccumuloConfig;
+import uk.gov.gchq.gaffer.accumulostore.AccumuloProperties;
+import uk.gov.gchq.gaffer.accumulostore.AccumuloStore;
+import uk.gov.gchq.gaffer.accumulostore.operation.impl.GetElementsWithinSet;
+import uk.gov.gchq.gaffer.accumulostore.operation.impl.SummariseGroupOverRanges;
+import uk.gov.gchq.gaffer.benchmark.data.RoadTrafficDataGenerator;
+import uk.gov.gchq.gaffer.benchmark.data.RoadTrafficTextMapperGenerator;
+import uk.gov.gchq.gaffer.commonutil.CloseableUtil;
+import uk.gov.gchq.gaffer.commonutil.pair.Pair;
+import uk.gov.gchq.gaffer.data.element.Element;
+import uk.gov.gchq.gaffer.data.elementdefinition.view.View;
+import uk.gov.gchq.gaffer.data.elementdefinition.view.ViewElementDefinition;
+import uk.gov.gchq.gaffer.graph.Graph;
+import uk.gov.gchq.gaffer.hdfs.operation.AddElementsFromHdfs;
+import uk.gov.gchq.gaffer.hdfs.operation.handler.job.initialiser.TextJobInitialiser;
+import uk.gov.gchq.gaffer.operation.OperationException;
+import uk.gov.gchq.gaffer.operation.data.EntitySeed;
+import uk.gov.gchq.gaffer.operation.impl.add.AddElements;
+import uk.gov.gchq.gaffer.operation.impl.get.GetAdjacentIds;
+import uk.gov.gchq.gaffer.operation.impl.get.GetElements;
+import uk.gov.gchq.gaffer.operation.io.Output;
+import uk.gov.gchq.gaffer.store.StoreProperties;
+import uk.gov.gchq.gaffer.store.schema.Schema;
+import uk.gov.gchq.gaffer.traffic.ElementGroup;
+import uk.gov.gchq.gaffer.traffic.generator.RoadTrafficElementGenerator;
+import uk.gov.gchq.gaffer.user.User;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Properties;
+import java.util.Random;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * A self contained harness that measures end to end ingest and query
+ * throughput of an {@link AccumuloStore}. It starts a local
+ * {@link MiniAccumuloCluster}, loads synthetic road traffic data with
+ * {@link AddElements} and {@link AddElementsFromHdfs}, then runs
+ * {@link GetElements}, {@link GetAdjacentIds}, {@link GetElementsWithinSet}
+ * and {@link SummariseGroupOverRanges} queries. For each operation it reports
+ * the elements per second and latency percentiles.
+ * <p>
+ * The harness is configured with an optional properties file. Properties
+ * starting with {@value #PROPERTY_PREFIX} configure the harness, and all
+ * other properties are added to the {@link AccumuloProperties}, so the
+ * effect of store tuning properties such as
+ * {@value AccumuloProperties#THREADS_FOR_BATCH_SCANNER} or
+ * {@value AccumuloProperties#MAX_BUFFER_SIZE_FOR_BATCH_WRITER} on a real
+ * Accumulo instance can be measured.
+ */
+public class AccumuloThroughputHarness {
+    public static final String PROPERTY_PREFIX = "gaffer.benchmark.throughput.";
+    public static final String SEED = PROPERTY_PREFIX + "seed";
+    public static final String NUM_ROADS = PROPERTY_PREFIX + "roads";
+    public static final String NUM_LINES = PROPERTY_PREFIX + "lines";
+    public static final String NUM_LINES_PER_BATCH = PROPERTY_PREFIX + "lines.per.batch";
+    public static final String NUM_HDFS_LINES = PROPERTY_PREFIX + "hdfs.lines";
+    public static final String NUM_QUERIES = PROPERTY_PREFIX + "queries";
+    public static final String NUM_SEEDS_PER_QUERY = PROPERTY_PREFIX + "seeds.per.query";
+    public static final String NUM_TABLET_SERVERS = PROPERTY_PREFIX + "tablet.servers";
+
+    public static final int DEFAULT_NUM_ROADS = 500;
+    public static final int DEFAULT_NUM_LINES = 100000;
+    public static final int DEFAULT_NUM_LINES_PER_BATCH = 10000;
+    public static final int DEFAULT_NUM_QUERIES = 200;
+    public static final int DEFAULT_NUM_SEEDS_PER_QUERY = 10;
+    public static final int DEFAULT_NUM_TABLET_SERVERS = 2;
+
+    private static final String ROOT_PASSWORD = "password";
+    private static final String ADD_ELEMENTS_GRAPH_ID = "throughputAddElements";
+    private static final String ADD_ELEMENTS_FROM_HDFS_GRAPH_ID = "throughputAddElementsFromHdfs";
+
+    private final Properties properties;
+    private final PrintStream out;
+    private final User user = new User();
+    private final int numLines;
+    private final int numLinesPerBatch;
+    private final int numHdfsLines;
+    private final int numQueries;
+    private final int numSeedsPerQuery;
+    private final int numTabletServers;
+    private final RoadTrafficDataGenerator dataGenerator;
+    private final Random queryRandom;
+
+    public AccumuloThroughputHarness(final Properties properties, final PrintStream out) {
+        this.properties = properties;
+        this.out = out;
+        final long seed = Long.parseLong(properties.getProperty(SEED, Long.toString(RoadTrafficDataGenerator.DEFAULT_SEED)));
+        numLines = getInt(NUM_LINES, DEFAULT_NUM_LINES);
+        numLinesPerBatch = getInt(NUM_LINES_PER_BATCH, DEFAULT_NUM_LINES_PER_BATCH);
+        numHdfsLines = getInt(NUM_HDFS_LINES, numLines);
+        numQueries = getInt(NUM_QUERIES, DEFAULT_NUM_QUERIES);
+        numSeedsPerQuery = getInt(NUM_SEEDS_PER_QUERY, DEFAULT_NUM_SEEDS_PER_QUERY);
+        numTabletServers = getInt(NUM_TABLET_SERVERS, DEFAULT_NUM_TABLET_SERVERS);
+        dataGenerator = new RoadTrafficDataGenerator(seed, getInt(NUM_ROADS, DEFAULT_NUM_ROADS),
+                RoadTrafficDataGenerator.DEFAULT_NUM_JUNCTIONS_PER_ROAD, RoadTrafficDataGenerator.DEFAULT_NUM_DAYS);
+        queryRandom = new Random(seed);
+    }
+
+    /**
+     * Runs the harness and prints the results to standard out.
+     *
+     * @param args an optional path to a properties file
+     * @throws Exception if the harness fails
+     */
+    public static void main(final String[] args) throws Exception {
+        if (args.length > 1) {
+            System.err.println("Usage: java -cp benchmarks.jar " + AccumuloThroughputHarness.class.getName() + " [propertiesPath]");
+            System.exit(1);
+        }
+
+        final Properties properties = new Properties();
+        if (1 == args.length) {
+            try (final InputStream stream = Files.newInputStream(Paths.get(args[0]))) {
+                properties.load(stream);
+            }
+        }
+
+        new AccumuloThroughputHarness(properties, System.out).run();
+    }
+
+    public List<LatencyRecorder> run() throws Exception {
+        final Path tempDir = Files.createTempDirectory("gaffer-throughput");
+        final MiniAccumuloCluster cluster = new MiniAccumuloCluster(
+                new MiniAccumuloConfig(tempDir.resolve("accumulo").toFile(), ROOT_PASSWORD)
+                        .setNumTservers(numTabletServers));
+        cluster.start();
+        try {
+            final AccumuloProperties storeProperties = createStoreProperties(cluster);
+            final Schema schema = RoadTrafficDataGenerator.createSchema();
+            final List<LatencyRecorder> results = new ArrayList<>();
+
+            final Graph graph = createGraph(ADD_ELEMENTS_GRAPH_ID, schema, storeProperties);
+            results.add(addElements(graph));
+            if (numHdfsLines > 0) {
+                final Graph hdfsGraph = createGraph(ADD_ELEMENTS_FROM_HDFS_GRAPH_ID, schema, storeProperties);
+                results.add(addElementsFromHdfs(hdfsGraph, tempDir.resolve("hdfs")));
+            }
+
+            results.add(getElements(graph));
+            results.add(getAdjacentIds(graph));
+            results.add(getElementsWithinSet(graph));
+            results.add(summariseGroupOverRanges(graph));
+
+            out.println("Accumulo property overrides: " + getStorePropertyOverrides());
+            for (final LatencyRecorder result : results) {
+                out.println(result.getSummary());
+            }
+            return results;
+        } finally {
+            cluster.stop();
+            deleteRecursively(tempDir);
+        }
+    }
+
+    private AccumuloProperties createStoreProperties(final MiniAccumuloCluster cluster) {
+        final AccumuloProperties storeProperties = new AccumuloProperties();
+        storeProperties.set(StoreProperties.STORE_CLASS, AccumuloStore.class.getName());
+        storeProperties.set(StoreProperties.STORE_PROPERTIES_CLASS, AccumuloProperties.class.getName());
+        storeProperties.setInstance(cluster.getInstanceName());
+        storeProperties.setZookeepers(cluster.getZooKeepers());
+        storeProperties.setUser("root");
+        storeProperties.setPassword(ROOT_PASSWORD);
+        for (final String key : getStorePropertyOverrides()) {
+            storeProperties.set(key, properties.getProperty(key));
+        }
+        return storeProperties;
+    }
+
+    private List<String> getStorePropertyOverrides() {
+        return properties.stringPropertyNames().stream()
+                .filter(key -> !key.startsWith(PROPERTY_PREFIX))
+                .sorted()
+                .collect(Collectors.toList());
+    }
+
+    private Graph createGraph(final String graphId, final Schema schema, final AccumuloProperties storeProperties) {
+        return new Graph.Builder()
+                .graphId(graphId)
+                .addSchema(schema)
+                .storeProperties(storeProperties)
+                .build();
+    }
+
+    private LatencyRecorder addElements(final Graph graph) throws OperationException {
+        final LatencyRecorder recorder = new LatencyRecorder(AddElements.class.getSimpleName());
+        for (int linesAdded = 0; linesAdded < numLines; linesAdded += numLinesPerBatch) {
+            final List<Element> elements = dataGenerator.generateElements(Math.min(numLinesPerBatch, numLines - linesAdded));
+            final long startTime = System.nanoTime();
+            graph.execute(new AddElements.Builder()
+                    .input(elements)
+                    .build(), user);
+            recorder.record(System.nanoTime() - startTime, elements.size());
+        }
+        return recorder;
+    }
+
+    private LatencyRecorder addElementsFromHdfs(final Graph graph, final Path hdfsDir) throws IOException, OperationException {
+        final Path inputDir = Files.createDirectories(hdfsDir.resolve("input"));
+        final List<String> lines = dataGenerator.generateLines(numHdfsLines);
+        Files.write(inputDir.resolve("data.csv"), lines, StandardCharsets.UTF_8);
+        final RoadTrafficElementGenerator elementGenerator = new RoadTrafficElementGenerator();
+        long numElements = 0;
+        for (final String line : lines) {
+            for (final Element ignored : elementGenerator._apply(line)) {
+                numElements++;
+            }
+        }
+
+        final LatencyRecorder recorder = new LatencyRecorder(AddElementsFromHdfs.class.getSimpleName());
+        final long startTime = System.nanoTime();
+        graph.execute(new AddElementsFromHdfs.Builder()
+                .addInputPath(inputDir.toUri().toString())
+                .outputPath(hdfsDir.resolve("output").toUri().toString())
+                .failurePath(hdfsDir.resolve("failure").toUri().toString())
+                .splitsFilePath(hdfsDir.resolve("splits").toUri().toString())
+                .workingPath(hdfsDir.resolve("working").toUri().toString())
+                .useProvidedSplits(false)
+                .mapperGenerator(RoadTrafficTextMapperGenerator.class)
+                .jobInitialiser(new TextJobInitialiser())
+                .build(), user);
+        recorder.record(System.nanoTime() - startTime, numElements);
+        return recorder;
+    }
+
+    private LatencyRecorder getElements(final Graph graph) throws OperationException {
+        final LatencyRecorder recorder = new LatencyRecorder(GetElements.class.getSimpleName());
+        for (int i = 0; i < numQueries; i++) {
+            execute(graph, new GetElements.Builder()
+                    .input(createJunctionSeeds())
+                    .build(), recorder);
+        }
+        return recorder;
+    }
+
+    private LatencyRecorder getAdjacentIds(final Graph graph) throws OperationException {
+        final LatencyRecorder recorder = new LatencyRecorder(GetAdjacentIds.class.getSimpleName());
+        for (int i = 0; i < numQueries; i++) {
+            execute(graph, new GetAdjacentIds.Builder()
+                    .input(createJunctionSeeds())
+                    .view(new View.Builder()
+                            .edge(ElementGroup.ROAD_USE)
+                            .build())
+                    .build(), recorder);
+        }
+        return recorder;
+    }
+
+    private LatencyRecorder getElementsWithinSet(final Graph graph) throws OperationException {
+        final LatencyRecorder recorder = new LatencyRecorder(GetElementsWithinSet.class.getSimpleName());
+        for (int i = 0; i < numQueries; i++) {
+            execute(graph, new GetElementsWithinSet.Builder()
+                    .input(createJunctionSeeds())
+                    .view(new View.Builder()
+                            .edge(ElementGroup.ROAD_USE)
+                            .build())
+                    .build(), recorder);
+        }
+        return recorder;
+    }
+
+    private LatencyRecorder summariseGroupOverRanges(final Graph graph) throws OperationException {
+        final LatencyRecorder recorder = new LatencyRecorder(SummariseGroupOverRanges.class.getSimpleName());
+        for (int i = 0; i < numQueries; i++) {
+            // Summarises the use of all the junctions on a road. The junction
+            // vertices are prefixed with the road and ':', so the range ends
+            // at the next character, ';'.
+            final String road = dataGenerator.getRoad(queryRandom.nextInt(dataGenerator.getNumRoads()));
+            final Pair<EntitySeed, EntitySeed> range = new Pair<>(new EntitySeed(road + ":"), new EntitySeed(road + ";"));
+            execute(graph, new SummariseGroupOverRanges.Builder()
+                    .input(Collections.singletonList(range))
+                    .view(new View.Builder()
+                            .entity(ElementGroup.JUNCTION_USE, new ViewElementDefinition.Builder()
+                                    .groupBy()
+                                    .build())
+                            .build())
+                    .build(), recorder);
+        }
+        return recorder;
+    }
+
+    private <O extends Iterable<?>> void execute(final Graph graph, final Output<O> operation, final LatencyRecorder recorder)
+            throws OperationException {
+        final long startTime = System.nanoTime();
+        final O result = graph.execute(operation, user);
+        long numElements = 0;
+        try {
+            for (final Object ignored : result) {
+                numElements++;
+            }
+        } finally {
+            CloseableUtil.close(result);
+        }
+        recorder.record(System.nanoTime() - startTime, numElements);
+    }
+
+    private List<EntitySeed> createJunctionSeeds() {
+        final List<EntitySeed> seeds = new ArrayList<>(numSeedsPerQuery);
+        for (int i = 0; i < numSeedsPerQuery; i++) {
+            seeds.add(new EntitySeed(dataGenerator.getJunction(
+                    queryRandom.nextInt(dataGenerator.getNumRoads()),
+                    queryRandom.nextInt(dataGenerator.getNumJunctionsPerRoad()))));
+        }
+        return seeds;
+    }
+
+    private int getInt(final String key, final int defaultValue) {
+        return Integer.parseInt(properties.getProperty(key, Integer.toString(defaultValue)));
+    }
+
+    private static void deleteRecursively(final Path dir) throws IOException {
+        final List<Path> paths;
+        try (final Stream<Path> walk = Files.walk(dir)) {
+            paths = walk.sorted(Comparator.reverseOrder()).collect(Collectors.toList());
+        }
+        for (final Path path : paths) {
+            Files.deleteIfExists(path);
+        }
+    }
+}
@@ -0,0 +1,110 @@
+/*
+ * Copyright 2017 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.gov.gchq.gaffer.benchmark.accumulostore.throughput;
+
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Records the latency and number of elements of each execution of an
+ * operation, and summarises them as a throughput and latency percentiles.
+ * Executions are expected to be run one after another, so the total latency
+ * is the elapsed time used to calculate the throughput.
+ */
+public class LatencyRecorder {
+    private static final double[] PERCENTILES = {50, 90, 95, 99};
+
+    private final String name;
+    private long[] latencies = new long[64];
+    private int count;
+    private long totalElements;
+    private long totalNanos;
+
+    public LatencyRecorder(final String name) {
+        this.name = name;
+    }
+
+    public void record(final long latencyNanos, final long numElements) {
+        if (count == latencies.length) {
+            latencies = Arrays.copyOf(latencies, count * 2);
+        }
+        latencies[count++] = latencyNanos;
+        totalElements += numElements;
+        totalNanos += latencyNanos;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getCount() {
+        return count;
+    }
+
+    public long getTotalElements() {
+        return totalElements;
+    }
+
+    public double getElementsPerSecond() {
+        if (0 == totalNanos) {
+            return 0;
+        }
+        return totalElements / (totalNanos / (double) TimeUnit.SECONDS.toNanos(1));
+    }
+
+    public double getOperationsPerSecond() {
+        if (0 == totalNanos) {
+            return 0;
+        }
+        return count / (totalNanos / (double) TimeUnit.SECONDS.toNanos(1));
+    }
+
+    /**
+     * Gets a latency percentile using the nearest rank method.
+     *
+     * @param percentile the percentile, between 0 and 100
+     * @return the latency in milliseconds, or 0 if nothing has been recorded
+     */
+    public double getPercentileMillis(final double percentile) {
+        if (0 == count) {
+            return 0;
+        }
+        final long[] sorted = Arrays.copyOf(latencies, count);
+        Arrays.sort(sorted);
+        final int rank = (int) Math.ceil(percentile / 100 * count);
+        return toMillis(sorted[Math.max(0, Math.min(count, rank) - 1)]);
+    }
+
+    public double getMaxMillis() {
+        return getPercentileMillis(100);
+    }
+
+    public String getSummary() {
+        final StringBuilder summary = new StringBuilder(String.format(Locale.ROOT,
+                "%-40s executions=%d elements=%d elements/s=%.1f ops/s=%.2f",
+                name, count, totalElements, getElementsPerSecond(), getOperationsPerSecond()));
+        for (final double percentile : PERCENTILES) {
+            summary.append(String.format(Locale.ROOT, " p%.0f=%.2fms", percentile, getPercentileMillis(percentile)));
+        }
+        summary.append(String.format(Locale.ROOT, " max=%.2fms", getMaxMillis()));
+        return summary.toString();
+    }
+
+    private static double toMillis(final long nanos) {
+        return nanos / (double) TimeUnit.MILLISECONDS.toNanos(1);
+    }
+}
@@ -0,0 +1,104 @@
+/*
+ * Copyright 2017 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.gov.gchq.gaffer.benchmark.bitmap;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.roaringbitmap.RoaringBitmap;
+import uk.gov.gchq.gaffer.benchmark.data.RoadTrafficDataGenerator;
+import uk.gov.gchq.gaffer.bitmap.function.aggregate.RoaringBitmapAggregator;
+import uk.gov.gchq.gaffer.bitmap.serialisation.RoaringBitmapSerialiser;
+import uk.gov.gchq.gaffer.exception.SerialisationException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the throughput of the {@link RoaringBitmapSerialiser} and the
+ * {@link RoaringBitmapAggregator} on {@link #numBitmaps} bitmaps, each
+ * holding {@link #cardinality} seeded random values spread over
+ * {@link #range} possible values. A small range gives dense bitmaps and a
+ * large range gives sparse ones.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class RoaringBitmapBenchmark {
+    @Param("100")
+    public int numBitmaps;
+
+    @Param({"1000", "100000"})
+    public int cardinality;
+
+    @Param({"200000", "100000000"})
+    public int range;
+
+    private final RoaringBitmapSerialiser serialiser = new RoaringBitmapSerialiser();
+    private final RoaringBitmapAggregator aggregator = new RoaringBitmapAggregator();
+    private final List<RoaringBitmap> bitmaps = new ArrayList<>();
+    private final List<byte[]> serialisedBitmaps = new ArrayList<>();
+
+    @Setup
+    public void setup() throws SerialisationException {
+        final Random random = new Random(RoadTrafficDataGenerator.DEFAULT_SEED);
+        for (int i = 0; i < numBitmaps; i++) {
+            final RoaringBitmap bitmap = new RoaringBitmap();
+            while (bitmap.getCardinality() < Math.min(cardinality, range)) {
+                bitmap.add(random.nextInt(range));
+            }
+            bitmap.runOptimize();
+            bitmaps.add(bitmap);
+            serialisedBitmaps.add(serialiser.serialise(bitmap));
+        }
+    }
+
+    @Benchmark
+    public void serialise(final Blackhole blackhole) throws SerialisationException {
+        for (final RoaringBitmap bitmap : bitmaps) {
+            blackhole.consume(serialiser.serialise(bitmap));
+        }
+    }
+
+    @Benchmark
+    public void deserialise(final Blackhole blackhole) throws SerialisationException {
+        for (final byte[] bytes : serialisedBitmaps) {
+            blackhole.consume(serialiser.deserialise(bytes));
+        }
+    }
+
+    @Benchmark
+    public RoaringBitmap aggregate() {
+        RoaringBitmap state = new RoaringBitmap();
+        for (final RoaringBitmap bitmap : bitmaps) {
+            state = aggregator.apply(state, bitmap);
+        }
+        return state;
+    }
+}
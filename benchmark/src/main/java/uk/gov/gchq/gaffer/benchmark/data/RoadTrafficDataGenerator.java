@@ -0,0 +1,170 @@
+/*
+ * Copyright 2017 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.gov.gchq.gaffer.benchmark.data;
+
+import uk.gov.gchq.gaffer.commonutil.StreamUtil;
+import uk.gov.gchq.gaffer.data.element.Element;
+import uk.gov.gchq.gaffer.store.schema.Schema;
+import uk.gov.gchq.gaffer.traffic.ElementGroup;
+import uk.gov.gchq.gaffer.traffic.generator.RoadTrafficDataField;
+import uk.gov.gchq.gaffer.traffic.generator.RoadTrafficElementGenerator;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Generates synthetic road traffic count lines, in the same csv format as the
+ * road traffic example data, and converts them into elements using the
+ * {@link RoadTrafficElementGenerator}.
+ * <p>
+ * The data is generated from a seeded {@link Random}, so the same seed and
+ * sizes always produce the same lines. This allows benchmark results from
+ * different versions of Gaffer to be compared.
+ */
+public class RoadTrafficDataGenerator {
+    public static final long DEFAULT_SEED = 20170101L;
+    public static final int DEFAULT_NUM_ROADS = 50;
+    public static final int DEFAULT_NUM_JUNCTIONS_PER_ROAD = 20;
+    public static final int DEFAULT_NUM_DAYS = 7;
+
+    private static final String[] REGIONS = {
+            "North East", "North West", "Yorkshire and the Humber", "East Midlands", "West Midlands",
+            "East of England", "London", "South East", "South West", "Wales", "Scotland"
+    };
+    private static final int NUM_LOCATIONS_PER_REGION = 5;
+    private static final int FIRST_HOUR = 7;
+    private static final int NUM_HOURS = 12;
+    private static final int MAX_VEHICLE_COUNT = 500;
+
+    private final Random random;
+    private final int numRoads;
+    private final int numJunctionsPerRoad;
+    private final int numDays;
+    private final RoadTrafficElementGenerator elementGenerator = new RoadTrafficElementGenerator();
+
+    public RoadTrafficDataGenerator() {
+        this(DEFAULT_SEED, DEFAULT_NUM_ROADS, DEFAULT_NUM_JUNCTIONS_PER_ROAD, DEFAULT_NUM_DAYS);
+    }
+
+    /**
+     * @param seed                the seed for the random data
+     * @param numRoads            the number of distinct roads
+     * @param numJunctionsPerRoad the number of distinct junctions on each road
+     * @param numDays             the number of distinct days the counts are spread over.
+     *                            Fewer roads, junctions and days result in more
+     *                            elements that will be aggregated together.
+     */
+    public RoadTrafficDataGenerator(final long seed, final int numRoads, final int numJunctionsPerRoad, final int numDays) {
+        if (numRoads < 1 || numJunctionsPerRoad < 2 || numDays < 1) {
+            throw new IllegalArgumentException("There must be at least 1 road with 2 junctions and 1 day of counts");
+        }
+        this.random = new Random(seed);
+        this.numRoads = numRoads;
+        this.numJunctionsPerRoad = numJunctionsPerRoad;
+        this.numDays = numDays;
+    }
+
+    /**
+     * @return the road traffic schema
+     */
+    public static Schema createSchema() {
+        return Schema.fromJson(StreamUtil.openStreams(ElementGroup.class, "schema"));
+    }
+
+    public List<String> generateLines(final int numLines) {
+        final List<String> lines = new ArrayList<>(numLines);
+        for (int i = 0; i < numLines; i++) {
+            lines.add(generateLine());
+        }
+        return lines;
+    }
+
+    public List<Element> generateElements(final int numLines) {
+        final List<Element> elements = new ArrayList<>();
+        for (final String line : generateLines(numLines)) {
+            for (final Element element : elementGenerator._apply(line)) {
+                elements.add(element);
+            }
+        }
+        return elements;
+    }
+
+    public String generateLine() {
+        final int road = random.nextInt(numRoads);
+        final int junction = random.nextInt(numJunctionsPerRoad - 1);
+        final int location = road % (REGIONS.length * NUM_LOCATIONS_PER_REGION);
+        final int day = 1 + random.nextInt(numDays);
+        final int hour = FIRST_HOUR + random.nextInt(NUM_HOURS);
+
+        final String[] fields = new String[RoadTrafficDataField.values().length];
+        fields[RoadTrafficDataField.Region_Name.index()] = REGIONS[location % REGIONS.length];
+        fields[RoadTrafficDataField.ONS_LACode.index()] = String.format("E%08d", location);
+        fields[RoadTrafficDataField.ONS_LA_Name.index()] = "Location " + location;
+        fields[RoadTrafficDataField.CP.index()] = Integer.toString(road * numJunctionsPerRoad + junction);
+        fields[RoadTrafficDataField.S_Ref_E.index()] = getEasting(road, junction);
+        fields[RoadTrafficDataField.S_Ref_N.index()] = getNorthing(road, junction);
+        fields[RoadTrafficDataField.Road.index()] = getRoad(road);
+        fields[RoadTrafficDataField.A_Junction.index()] = "J" + junction;
+        fields[RoadTrafficDataField.A_Ref_E.index()] = getEasting(road, junction);
+        fields[RoadTrafficDataField.A_Ref_N.index()] = getNorthing(road, junction);
+        fields[RoadTrafficDataField.B_Junction.index()] = "J" + (junction + 1);
+        fields[RoadTrafficDataField.B_Ref_E.index()] = getEasting(road, junction + 1);
+        fields[RoadTrafficDataField.B_Ref_N.index()] = getNorthing(road, junction + 1);
+        fields[RoadTrafficDataField.RCate.index()] = "TM";
+        fields[RoadTrafficDataField.iDir.index()] = random.nextBoolean() ? "N" : "S";
+        fields[RoadTrafficDataField.Year.index()] = "2000";
+        fields[RoadTrafficDataField.dCount.index()] = String.format("%02d/01/2000 00:00", day);
+        fields[RoadTrafficDataField.Hour.index()] = Integer.toString(hour);
+        for (final RoadTrafficDataField field : RoadTrafficDataField.VEHICLE_COUNTS) {
+            fields[field.index()] = Integer.toString(random.nextInt(MAX_VEHICLE_COUNT));
+        }
+
+        return "\"" + String.join("\",\"", fields) + "\"";
+    }
+
+    /**
+     * @param road the road number, between 0 and the number of roads
+     * @return the name of the road, as used for the road vertices
+     */
+    public String getRoad(final int road) {
+        return "M" + road;
+    }
+
+    /**
+     * @param road     the road number, between 0 and the number of roads
+     * @param junction the junction number, between 0 and the number of junctions per road
+     * @return the junction vertex, in the format created by the {@link RoadTrafficElementGenerator}
+     */
+    public String getJunction(final int road, final int junction) {
+        return getRoad(road) + ":J" + junction;
+    }
+
+    public int getNumRoads() {
+        return numRoads;
+    }
+
+    public int getNumJunctionsPerRoad() {
+        return numJunctionsPerRoad;
+    }
+
+    private static String getEasting(final int road, final int junction) {
+        return Integer.toString(400000 + road * 1000 + junction * 10);
+    }
+
+    private static String getNorthing(final int road, final int junction) {
+        return Integer.toString(300000 + road * 500 + junction * 20);
+    }
+}
@@ -0,0 +1,99 @@
+/*
+ * Copyright 2017 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.gov.gchq.gaffer.benchmark.function;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import uk.gov.gchq.gaffer.benchmark.data.RoadTrafficDataGenerator;
+import uk.gov.gchq.gaffer.data.element.Element;
+import uk.gov.gchq.gaffer.data.element.function.ElementAggregator;
+import uk.gov.gchq.gaffer.store.schema.Schema;
+import uk.gov.gchq.gaffer.traffic.generator.RoadTrafficElementGenerator;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the throughput of the road traffic schema's ingest
+ * {@link ElementAggregator}s, aggregating all the elements of a single group
+ * generated from {@link #numLines} road traffic lines.
+ * <p>
+ * The aggregators modify the elements they aggregate, and their properties,
+ * so the elements are generated again from the same lines before each
+ * invocation. This is done in an invocation level setup, so it is not
+ * included in the measured time.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class ElementAggregatorBenchmark {
+    @Param({"RoadUse", "JunctionUse", "Cardinality"})
+    public String group;
+
+    @Param({"100", "10000"})
+    public int numLines;
+
+    private final RoadTrafficElementGenerator elementGenerator = new RoadTrafficElementGenerator();
+    private ElementAggregator aggregator;
+    private List<String> lines;
+    private List<Element> elements;
+
+    @Setup
+    public void setup() {
+        final Schema schema = RoadTrafficDataGenerator.createSchema();
+        aggregator = schema.getElement(group).getIngestAggregator();
+        lines = new RoadTrafficDataGenerator().generateLines(numLines);
+    }
+
+    @Setup(Level.Invocation)
+    public void generateElements() {
+        elements = new ArrayList<>();
+        for (final String line : lines) {
+            for (final Element element : elementGenerator._apply(line)) {
+                if (group.equals(element.getGroup())) {
+                    elements.add(element);
+                }
+            }
+        }
+    }
+
+    @Benchmark
+    public Element applyPairwise() {
+        Element state = null;
+        for (final Element element : elements) {
+            state = aggregator.apply(state, element);
+        }
+        return state;
+    }
+
+    @Benchmark
+    public Element aggregateList() {
+        return aggregator.aggregate(elements);
+    }
+}
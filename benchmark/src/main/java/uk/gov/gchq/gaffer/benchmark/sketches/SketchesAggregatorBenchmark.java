@@ -0,0 +1,171 @@
+/*
+ * Copyright 2017 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.gov.gchq.gaffer.benchmark.sketches;
+
+import com.clearspring.analytics.stream.cardinality.HyperLogLogPlus;
+import com.yahoo.sketches.frequencies.ItemsSketch;
+import com.yahoo.sketches.frequencies.LongsSketch;
+import com.yahoo.sketches.hll.HllSketch;
+import com.yahoo.sketches.hll.Union;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import uk.gov.gchq.gaffer.benchmark.data.RoadTrafficDataGenerator;
+import uk.gov.gchq.gaffer.sketches.binaryoperator.HyperLogLogPlusAggregator;
+import uk.gov.gchq.gaffer.sketches.datasketches.cardinality.binaryoperator.HllSketchAggregator;
+import uk.gov.gchq.gaffer.sketches.datasketches.cardinality.binaryoperator.HllUnionAggregator;
+import uk.gov.gchq.gaffer.sketches.datasketches.frequencies.binaryoperator.LongsSketchAggregator;
+import uk.gov.gchq.gaffer.sketches.datasketches.frequencies.binaryoperator.StringsSketchAggregator;
+import uk.gov.gchq.gaffer.traffic.generator.RoadTrafficDataField;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the throughput of the sketches library aggregators. One sketch of
+ * each type is built for every road in the synthetic road traffic data:
+ * <ul>
+ * <li>the cardinality sketches hold the distinct junction counts on the road</li>
+ * <li>the longs frequency sketch holds the total vehicle counts on the road</li>
+ * <li>the strings frequency sketch holds the junctions on the road</li>
+ * </ul>
+ * Each invocation aggregates all the sketches of one type into a new empty
+ * sketch, so the generated sketches are not modified.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class SketchesAggregatorBenchmark {
+    private static final int HLLP_PRECISION = 10;
+    private static final int HLLP_SPARSE_PRECISION = 15;
+    private static final int HLL_LG_K = 12;
+    private static final int FREQUENCY_MAP_SIZE = 64;
+
+    @Param("10000")
+    public int numLines;
+
+    @Param({"10", "100"})
+    public int numRoads;
+
+    private final HyperLogLogPlusAggregator hyperLogLogPlusAggregator = new HyperLogLogPlusAggregator();
+    private final HllSketchAggregator hllSketchAggregator = new HllSketchAggregator();
+    private final HllUnionAggregator hllUnionAggregator = new HllUnionAggregator();
+    private final LongsSketchAggregator longsSketchAggregator = new LongsSketchAggregator();
+    private final StringsSketchAggregator stringsSketchAggregator = new StringsSketchAggregator();
+
+    private final List<HyperLogLogPlus> hyperLogLogPluses = new ArrayList<>();
+    private final List<HllSketch> hllSketches = new ArrayList<>();
+    private final List<Union> hllUnions = new ArrayList<>();
+    private final List<LongsSketch> longsSketches = new ArrayList<>();
+    private final List<ItemsSketch<String>> stringsSketches = new ArrayList<>();
+
+    @Setup
+    public void setup() {
+        final Map<String, HyperLogLogPlus> hyperLogLogPlusByRoad = new HashMap<>();
+        final Map<String, HllSketch> hllSketchByRoad = new HashMap<>();
+        final Map<String, LongsSketch> longsSketchByRoad = new HashMap<>();
+        final Map<String, ItemsSketch<String>> stringsSketchByRoad = new HashMap<>();
+
+        final RoadTrafficDataGenerator generator = new RoadTrafficDataGenerator(
+                RoadTrafficDataGenerator.DEFAULT_SEED, numRoads,
+                RoadTrafficDataGenerator.DEFAULT_NUM_JUNCTIONS_PER_ROAD,
+                RoadTrafficDataGenerator.DEFAULT_NUM_DAYS);
+        for (final String line : generator.generateLines(numLines)) {
+            final String[] fields = RoadTrafficDataField.extractFields(line);
+            final String road = fields[RoadTrafficDataField.Road.index()];
+            final String junction = road + ":" + fields[RoadTrafficDataField.A_Junction.index()];
+            final String junctionCount = junction + "," + fields[RoadTrafficDataField.dCount.index()]
+                    + "," + fields[RoadTrafficDataField.Hour.index()];
+
+            hyperLogLogPlusByRoad.computeIfAbsent(road, r -> new HyperLogLogPlus(HLLP_PRECISION, HLLP_SPARSE_PRECISION))
+                    .offer(junctionCount);
+            hllSketchByRoad.computeIfAbsent(road, r -> new HllSketch(HLL_LG_K))
+                    .update(junctionCount);
+            longsSketchByRoad.computeIfAbsent(road, r -> new LongsSketch(FREQUENCY_MAP_SIZE))
+                    .update(Long.parseLong(fields[RoadTrafficDataField.AMV.index()]));
+            stringsSketchByRoad.computeIfAbsent(road, r -> new ItemsSketch<>(FREQUENCY_MAP_SIZE))
+                    .update(junction);
+        }
+
+        hyperLogLogPluses.addAll(hyperLogLogPlusByRoad.values());
+        hllSketches.addAll(hllSketchByRoad.values());
+        for (final HllSketch sketch : hllSketches) {
+            final Union union = new Union(HLL_LG_K);
+            union.update(sketch);
+            hllUnions.add(union);
+        }
+        longsSketches.addAll(longsSketchByRoad.values());
+        stringsSketches.addAll(stringsSketchByRoad.values());
+    }
+
+    @Benchmark
+    public HyperLogLogPlus hyperLogLogPlus() {
+        HyperLogLogPlus state = new HyperLogLogPlus(HLLP_PRECISION, HLLP_SPARSE_PRECISION);
+        for (final HyperLogLogPlus sketch : hyperLogLogPluses) {
+            state = hyperLogLogPlusAggregator.apply(state, sketch);
+        }
+        return state;
+    }
+
+    @Benchmark
+    public HllSketch hllSketch() {
+        HllSketch state = new HllSketch(HLL_LG_K);
+        for (final HllSketch sketch : hllSketches) {
+            state = hllSketchAggregator.apply(state, sketch);
+        }
+        return state;
+    }
+
+    @Benchmark
+    public Union hllUnion() {
+        Union state = new Union(HLL_LG_K);
+        for (final Union union : hllUnions) {
+            state = hllUnionAggregator.apply(state, union);
+        }
+        return state;
+    }
+
+    @Benchmark
+    public LongsSketch longsSketch() {
+        LongsSketch state = new LongsSketch(FREQUENCY_MAP_SIZE);
+        for (final LongsSketch sketch : longsSketches) {
+            state = longsSketchAggregator.apply(state, sketch);
+        }
+        return state;
+    }
+
+    @Benchmark
+    public ItemsSketch<String> stringsSketch() {
+        ItemsSketch<String> state = new ItemsSketch<>(FREQUENCY_MAP_SIZE);
+        for (final ItemsSketch<String> sketch : stringsSketches) {
+            state = stringsSketchAggregator.apply(state, sketch);
+        }
+        return state;
+    }
+}
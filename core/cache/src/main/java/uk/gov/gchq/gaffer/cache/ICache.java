@@ -19,11 +19,19 @@ package uk.gov.gchq.gaffer.cache;
 
 import uk.gov.gchq.gaffer.cache.exception.CacheOperationException;
 import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiFunction;
 
 /**
  * Interface that All cache objects must abide by so components may instantiate any implementation of a cache - no
  * matter what cache it is.
+ * <p>
+ * The default implementations of {@link #putIfAbsent(Object, Object)}, {@link #compute(Object, BiFunction)},
+ * {@link #getAll(Collection)} and {@link #putAll(Map)} are built from the single entry methods, so they are not
+ * atomic. Implementations that can do better should override them.
  *
  * @param <K> The object type that acts as the key for the cache
  * @param <V> The value that is stored in the cache
@@ -46,4 +54,82 @@ public interface ICache <K, V> {
 
     void clear() throws CacheOperationException;
 
+    /**
+     * Adds an entry that expires after the given time to live. This should only be called if
+     * {@link #supportsTimeToLive()} returns true.
+     *
+     * @param key        the key
+     * @param value      the value
+     * @param timeToLive the time to live, after which the entry is removed
+     * @param timeUnit   the unit of the time to live
+     * @throws CacheOperationException       if the entry could not be added
+     * @throws UnsupportedOperationException if the cache does not support a time to live
+     */
+    default void put(final K key, final V value, final long timeToLive, final TimeUnit timeUnit) throws CacheOperationException {
+        throw new UnsupportedOperationException(getClass().getSimpleName() + " does not support a time to live");
+    }
+
+    /**
+     * @return true if entries can be added with a time to live, using
+     * {@link #put(Object, Object, long, TimeUnit)}
+     */
+    default boolean supportsTimeToLive() {
+        return false;
+    }
+
+    /**
+     * Adds an entry if there is not already an entry for the key.
+     *
+     * @param key   the key
+     * @param value the value
+     * @return the existing value, or null if the value was added
+     * @throws CacheOperationException if the entry could not be added
+     */
+    default V putIfAbsent(final K key, final V value) throws CacheOperationException {
+        final V existing = get(key);
+        if (null == existing) {
+            put(key, value);
+        }
+        return existing;
+    }
+
+    /**
+     * Replaces the value for a key with the result of the remapping function. If the function returns null the
+     * entry is removed.
+     *
+     * @param key               the key
+     * @param remappingFunction the function from the key and the current value, or null, to the new value
+     * @return the new value
+     * @throws CacheOperationException if the entry could not be updated
+     */
+    default V compute(final K key, final BiFunction<? super K, ? super V, ? extends V> remappingFunction) throws CacheOperationException {
+        final V value = remappingFunction.apply(key, get(key));
+        if (null == value) {
+            remove(key);
+        } else {
+            put(key, value);
+        }
+        return value;
+    }
+
+    /**
+     * @param keys the keys to look up
+     * @return the values for the keys that are in the cache
+     */
+    default Map<K, V> getAll(final Collection<? extends K> keys) {
+        final Map<K, V> values = new HashMap<>(keys.size());
+        for (final K key : keys) {
+            final V value = get(key);
+            if (null != value) {
+                values.put(key, value);
+            }
+        }
+        return values;
+    }
+
+    default void putAll(final Map<? extends K, ? extends V> entries) throws CacheOperationException {
+        for (final Map.Entry<? extends K, ? extends V> entry : entries.entrySet()) {
+            put(entry.getKey(), entry.getValue());
+        }
+    }
 }
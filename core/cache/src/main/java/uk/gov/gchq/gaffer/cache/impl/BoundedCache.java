@@ -0,0 +1,285 @@
+/*
+ * Copyright 2017 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.gov.gchq.gaffer.cache.impl;
+
+import uk.gov.gchq.gaffer.cache.ICache;
+import uk.gov.gchq.gaffer.cache.exception.CacheOperationException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BiFunction;
+import java.util.function.LongSupplier;
+
+/**
+ * A BoundedCache is an in memory {@link ICache} with a maximum size and an optional time to live for each entry.
+ * <p>
+ * Entries are held in a {@link ConcurrentHashMap}, so reads and writes do not block each other and
+ * {@link #putSafe(Object, Object)}, {@link #putIfAbsent(Object, Object)} and {@link #compute(Object, BiFunction)}
+ * are atomic. Each entry records when it was last read or written. When the cache grows beyond its maximum size,
+ * one writing thread removes the expired entries and then the least recently used entries until the cache is
+ * {@link #EVICTION_FRACTION} below its maximum size. Other threads carry on while this happens, so the cache may
+ * briefly exceed its maximum size.
+ * <p>
+ * Expired entries are never returned. They are removed when they are read or when entries are evicted.
+ *
+ * @param <K> The object type that acts as the key for the cache
+ * @param <V> The value that is stored in the cache
+ */
+public class BoundedCache<K, V> implements ICache<K, V> {
+    /**
+     * The fraction of the maximum size that is evicted at once, so that eviction is not needed on every put.
+     */
+    public static final double EVICTION_FRACTION = 0.1;
+    public static final long NO_TIME_TO_LIVE = -1;
+
+    private final ConcurrentHashMap<K, Entry<V>> cache = new ConcurrentHashMap<>();
+    private final ReentrantLock evictionLock = new ReentrantLock();
+    private final long maxSize;
+    private final long defaultTimeToLiveNanos;
+    private final LongSupplier ticker;
+
+    /**
+     * @param maxSize                  the maximum number of entries
+     * @param defaultTimeToLiveMillis the time to live for entries added without one, in milliseconds, or
+     *                                 {@link #NO_TIME_TO_LIVE}
+     */
+    public BoundedCache(final long maxSize, final long defaultTimeToLiveMillis) {
+        this(maxSize, defaultTimeToLiveMillis, System::nanoTime);
+    }
+
+    BoundedCache(final long maxSize, final long defaultTimeToLiveMillis, final LongSupplier ticker) {
+        if (maxSize < 1) {
+            throw new IllegalArgumentException("The maximum size must be at least 1, but was " + maxSize);
+        }
+        this.maxSize = maxSize;
+        this.defaultTimeToLiveNanos = defaultTimeToLiveMillis < 0 ? NO_TIME_TO_LIVE : TimeUnit.MILLISECONDS.toNanos(defaultTimeToLiveMillis);
+        this.ticker = ticker;
+    }
+
+    @Override
+    public V get(final K key) {
+        if (null == key) {
+            return null;
+        }
+        final Entry<V> entry = cache.get(key);
+        if (null == entry) {
+            return null;
+        }
+        final long now = ticker.getAsLong();
+        if (entry.isExpired(now)) {
+            cache.remove(key, entry);
+            return null;
+        }
+        entry.lastAccessed = now;
+        return entry.value;
+    }
+
+    @Override
+    public void put(final K key, final V value) throws CacheOperationException {
+        put(key, value, defaultTimeToLiveNanos);
+    }
+
+    @Override
+    public void put(final K key, final V value, final long timeToLive, final TimeUnit timeUnit) throws CacheOperationException {
+        put(key, value, timeUnit.toNanos(timeToLive));
+    }
+
+    @Override
+    public boolean supportsTimeToLive() {
+        return true;
+    }
+
+    @Override
+    public void putSafe(final K key, final V value) throws CacheOperationException {
+        if (null != putIfAbsent(key, value)) {
+            throw new CacheOperationException("Entry for key " + key + " already exists");
+        }
+    }
+
+    @Override
+    public V putIfAbsent(final K key, final V value) throws CacheOperationException {
+        validate(key, value);
+        final Entry<V> newEntry = createEntry(value, defaultTimeToLiveNanos);
+        while (true) {
+            final Entry<V> existing = cache.putIfAbsent(key, newEntry);
+            if (null == existing) {
+                evictIfRequired();
+                return null;
+            }
+            if (!existing.isExpired(newEntry.lastAccessed)) {
+                existing.lastAccessed = newEntry.lastAccessed;
+                return existing.value;
+            }
+            if (cache.replace(key, existing, newEntry)) {
+                evictIfRequired();
+                return null;
+            }
+        }
+    }
+
+    @Override
+    public V compute(final K key, final BiFunction<? super K, ? super V, ? extends V> remappingFunction) throws CacheOperationException {
+        if (null == key) {
+            throw new CacheOperationException("Key must not be null");
+        }
+        final Entry<V> entry = cache.compute(key, (k, existing) -> {
+            final long now = ticker.getAsLong();
+            final V existingValue = null == existing || existing.isExpired(now) ? null : existing.value;
+            final V value = remappingFunction.apply(k, existingValue);
+            return null == value ? null : createEntry(value, defaultTimeToLiveNanos);
+        });
+        if (null == entry) {
+            return null;
+        }
+        evictIfRequired();
+        return entry.value;
+    }
+
+    @Override
+    public void remove(final K key) {
+        if (null != key) {
+            cache.remove(key);
+        }
+    }
+
+    @Override
+    public void putAll(final Map<? extends K, ? extends V> entries) throws CacheOperationException {
+        for (final Map.Entry<? extends K, ? extends V> entry : entries.entrySet()) {
+            validate(entry.getKey(), entry.getValue());
+            cache.put(entry.getKey(), createEntry(entry.getValue(), defaultTimeToLiveNanos));
+        }
+        evictIfRequired();
+    }
+
+    @Override
+    public Collection<V> getAllValues() {
+        final long now = ticker.getAsLong();
+        final List<V> values = new ArrayList<>(cache.size());
+        for (final Entry<V> entry : cache.values()) {
+            if (!entry.isExpired(now)) {
+                values.add(entry.value);
+            }
+        }
+        return values;
+    }
+
+    @Override
+    public Set<K> getAllKeys() {
+        final long now = ticker.getAsLong();
+        final Set<K> keys = new HashSet<>(cache.size());
+        for (final Map.Entry<K, Entry<V>> entry : cache.entrySet()) {
+            if (!entry.getValue().isExpired(now)) {
+                keys.add(entry.getKey());
+            }
+        }
+        return keys;
+    }
+
+    @Override
+    public int size() {
+        removeExpired(ticker.getAsLong());
+        return cache.size();
+    }
+
+    @Override
+    public void clear() {
+        cache.clear();
+    }
+
+    public long getMaxSize() {
+        return maxSize;
+    }
+
+    private void put(final K key, final V value, final long timeToLiveNanos) throws CacheOperationException {
+        validate(key, value);
+        cache.put(key, createEntry(value, timeToLiveNanos));
+        evictIfRequired();
+    }
+
+    private void validate(final K key, final V value) throws CacheOperationException {
+        if (null == key) {
+            throw new CacheOperationException("Key must not be null");
+        }
+        if (null == value) {
+            throw new CacheOperationException("Value must not be null");
+        }
+    }
+
+    private Entry<V> createEntry(final V value, final long timeToLiveNanos) {
+        final long now = ticker.getAsLong();
+        return new Entry<>(value, now, timeToLiveNanos < 0 ? Long.MAX_VALUE : now + timeToLiveNanos);
+    }
+
+    private void evictIfRequired() {
+        if (cache.size() > maxSize && evictionLock.tryLock()) {
+            try {
+                final long now = ticker.getAsLong();
+                removeExpired(now);
+                final long targetSize = maxSize - (long) (maxSize * EVICTION_FRACTION);
+                final int numToEvict = (int) Math.min(Integer.MAX_VALUE, cache.size() - targetSize);
+                if (numToEvict > 0) {
+                    // The access times are copied, as they can change while the entries are sorted
+                    final List<EvictionCandidate<K, V>> candidates = new ArrayList<>(cache.size());
+                    cache.forEach((key, entry) -> candidates.add(new EvictionCandidate<>(key, entry)));
+                    candidates.sort((c1, c2) -> Long.compare(c1.lastAccessed, c2.lastAccessed));
+                    for (int i = 0; i < numToEvict && i < candidates.size(); i++) {
+                        cache.remove(candidates.get(i).key, candidates.get(i).entry);
+                    }
+                }
+            } finally {
+                evictionLock.unlock();
+            }
+        }
+    }
+
+    private void removeExpired(final long now) {
+        cache.entrySet().removeIf(entry -> entry.getValue().isExpired(now));
+    }
+
+    private static final class Entry<V> {
+        private final V value;
+        private final long expiryTime;
+        private volatile long lastAccessed;
+
+        private Entry(final V value, final long created, final long expiryTime) {
+            this.value = value;
+            this.lastAccessed = created;
+            this.expiryTime = expiryTime;
+        }
+
+        private boolean isExpired(final long now) {
+            return now - expiryTime >= 0 && Long.MAX_VALUE != expiryTime;
+        }
+    }
+
+    private static final class EvictionCandidate<K, V> {
+        private final K key;
+        private final Entry<V> entry;
+        private final long lastAccessed;
+
+        private EvictionCandidate(final K key, final Entry<V> entry) {
+            this.key = key;
+            this.entry = entry;
+            this.lastAccessed = entry.lastAccessed;
+        }
+    }
+}
@@ -0,0 +1,59 @@
+/*
+ * Copyright 2017 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.gov.gchq.gaffer.cache.impl;
+
+import uk.gov.gchq.gaffer.cache.ICache;
+import uk.gov.gchq.gaffer.cache.ICacheService;
+import uk.gov.gchq.gaffer.cache.util.CacheProperties;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A cache service that provides in memory {@link BoundedCache}s. The maximum size of each cache and the default time
+ * to live of the entries are set with the {@link CacheProperties#CACHE_MAX_SIZE} and
+ * {@link CacheProperties#CACHE_TIME_TO_LIVE} properties.
+ */
+public class BoundedCacheService implements ICacheService {
+    public static final long MAX_SIZE_DEFAULT = 10000;
+
+    private final ConcurrentHashMap<String, BoundedCache> caches = new ConcurrentHashMap<>();
+    private long maxSize = MAX_SIZE_DEFAULT;
+    private long timeToLive = BoundedCache.NO_TIME_TO_LIVE;
+
+    @Override
+    public void initialise(final Properties properties) {
+        if (null != properties) {
+            final String maxSizeProperty = properties.getProperty(CacheProperties.CACHE_MAX_SIZE);
+            if (null != maxSizeProperty) {
+                maxSize = Long.parseLong(maxSizeProperty);
+            }
+            final String timeToLiveProperty = properties.getProperty(CacheProperties.CACHE_TIME_TO_LIVE);
+            if (null != timeToLiveProperty) {
+                timeToLive = Long.parseLong(timeToLiveProperty);
+            }
+        }
+    }
+
+    @Override
+    public void shutdown() {
+        caches.clear();
+    }
+
+    @Override
+    public <K, V> ICache<K, V> getCache(final String cacheName) {
+        return caches.computeIfAbsent(cacheName, name -> new BoundedCache<>(maxSize, timeToLive));
+    }
+}
@@ -19,33 +19,125 @@ package uk.gov.gchq.gaffer.cache.impl;
 
 import uk.gov.gchq.gaffer.cache.ICache;
 import uk.gov.gchq.gaffer.cache.exception.CacheOperationException;
+import java.util.ArrayList;
 import java.util.Collection;
-import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiFunction;
+import java.util.function.LongSupplier;
 
+/**
+ * An unbounded, in memory {@link ICache} backed by a {@link ConcurrentHashMap}, so it is safe to use from multiple
+ * threads and {@link #putSafe(Object, Object)}, {@link #putIfAbsent(Object, Object)} and
+ * {@link #compute(Object, BiFunction)} are atomic. Putting a null value removes the entry.
+ * <p>
+ * Entries added with a time to live are never returned once they have expired. They are removed when they are
+ * read, or when the size, keys or values of the cache are requested. Expired entries are also swept from the cache
+ * as entries with a time to live are added, once the number of these puts since the last sweep reaches the size of
+ * the cache after that sweep, so a cache that is only written to holds at most about twice as many entries as are still live.
+ */
 public class HashMapCache <K, V> implements ICache<K, V> {
+    private static final long NO_EXPIRY = Long.MAX_VALUE;
+    private static final int MIN_PUTS_BETWEEN_SWEEPS = 16;
+
+    private final ConcurrentHashMap<K, Entry<V>> cache = new ConcurrentHashMap<>();
+    private final LongSupplier ticker;
+    private final AtomicInteger putsSinceSweep = new AtomicInteger();
+    private volatile int putsBetweenSweeps = MIN_PUTS_BETWEEN_SWEEPS;
 
-    private HashMap<K, V> cache = new HashMap<>();
+    public HashMapCache() {
+        this(System::nanoTime);
+    }
+
+    HashMapCache(final LongSupplier ticker) {
+        this.ticker = ticker;
+    }
 
     @Override
     public V get(final K key) {
-        return cache.get(key);
+        final Entry<V> entry = cache.get(key);
+        if (null == entry) {
+            return null;
+        }
+        if (entry.isExpired(ticker.getAsLong())) {
+            cache.remove(key, entry);
+            return null;
+        }
+        return entry.value;
     }
 
     @Override
     public void put(final K key, final V value) {
-        cache.put(key, value);
+        if (null == value) {
+            cache.remove(key);
+        } else {
+            cache.put(key, new Entry<>(value, NO_EXPIRY));
+        }
     }
 
     @Override
-    public void putSafe(final K key, final V value) throws CacheOperationException {
-        if (get(key) == null) {
-            put(key, value);
+    public void put(final K key, final V value, final long timeToLive, final TimeUnit timeUnit) {
+        if (null == value) {
+            cache.remove(key);
         } else {
+            cache.put(key, new Entry<>(value, ticker.getAsLong() + timeUnit.toNanos(timeToLive)));
+            if (putsSinceSweep.incrementAndGet() >= putsBetweenSweeps) {
+                putsSinceSweep.set(0);
+                removeExpired();
+                putsBetweenSweeps = Math.max(MIN_PUTS_BETWEEN_SWEEPS, cache.size());
+            }
+        }
+    }
+
+    @Override
+    public boolean supportsTimeToLive() {
+        return true;
+    }
+
+    @Override
+    public void putSafe(final K key, final V value) throws CacheOperationException {
+        if (null != putIfAbsent(key, value)) {
             throw new CacheOperationException("Cache entry already exists for key: " + key);
         }
     }
 
+    @Override
+    public V putIfAbsent(final K key, final V value) {
+        final Entry<V> newEntry = new Entry<>(value, NO_EXPIRY);
+        while (true) {
+            final Entry<V> existing = cache.putIfAbsent(key, newEntry);
+            if (null == existing) {
+                return null;
+            }
+            if (!existing.isExpired(ticker.getAsLong())) {
+                return existing.value;
+            }
+            if (cache.replace(key, existing, newEntry)) {
+                return null;
+            }
+        }
+    }
+
+    @Override
+    public V compute(final K key, final BiFunction<? super K, ? super V, ? extends V> remappingFunction) {
+        final Entry<V> entry = cache.compute(key, (k, existing) -> {
+            final V existingValue = null == existing || existing.isExpired(ticker.getAsLong()) ? null : existing.value;
+            final V value = remappingFunction.apply(k, existingValue);
+            return null == value ? null : new Entry<>(value, NO_EXPIRY);
+        });
+        return null == entry ? null : entry.value;
+    }
+
+    @Override
+    public void putAll(final Map<? extends K, ? extends V> entries) {
+        entries.forEach(this::put);
+    }
+
     @Override
     public void remove(final K key) {
         cache.remove(key);
@@ -53,16 +145,23 @@ public class HashMapCache <K, V> implements ICache<K, V> {
 
     @Override
     public Collection<V> getAllValues() {
-        return cache.values();
+        removeExpired();
+        final List<V> values = new ArrayList<>(cache.size());
+        for (final Entry<V> entry : cache.values()) {
+            values.add(entry.value);
+        }
+        return values;
     }
 
     @Override
     public Set<K> getAllKeys() {
-        return cache.keySet();
+        removeExpired();
+        return new HashSet<>(cache.keySet());
     }
 
     @Override
     public int size() {
+        removeExpired();
         return cache.size();
     }
 
@@ -70,4 +169,30 @@ public class HashMapCache <K, V> implements ICache<K, V> {
     public void clear() {
         cache.clear();
     }
+
+    /**
+     * @return the number of entries held in the cache, including any that have expired but not yet been removed
+     */
+    int getNumberOfStoredEntries() {
+        return cache.size();
+    }
+
+    private void removeExpired() {
+        final long now = ticker.getAsLong();
+        cache.values().removeIf(entry -> entry.isExpired(now));
+    }
+
+    private static final class Entry<V> {
+        private final V value;
+        private final long expiryTime;
+
+        private Entry(final V value, final long expiryTime) {
+            this.value = value;
+            this.expiryTime = expiryTime;
+        }
+
+        private boolean isExpired(final long now) {
+            return NO_EXPIRY != expiryTime && now - expiryTime >= 0;
+        }
+    }
 }
@@ -19,12 +19,12 @@ package uk.gov.gchq.gaffer.cache.impl;
 
 import uk.gov.gchq.gaffer.cache.ICache;
 import uk.gov.gchq.gaffer.cache.ICacheService;
-import java.util.HashMap;
 import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
 
 public class HashMapCacheService implements ICacheService {
 
-    private HashMap<String, HashMapCache> caches = new HashMap<>();
+    private final ConcurrentHashMap<String, HashMapCache> caches = new ConcurrentHashMap<>();
 
     @Override
     public void initialise(final Properties properties) {
@@ -38,13 +38,6 @@ public class HashMapCacheService implements ICacheService {
 
     @Override
     public <K, V> ICache<K, V> getCache(final String cacheName) {
-        HashMapCache<K, V> cache = caches.get(cacheName);
-
-        if (cache == null) {
-            cache = new HashMapCache<>();
-            caches.put(cacheName, cache);
-        }
-
-        return cache;
+        return caches.computeIfAbsent(cacheName, name -> new HashMapCache<>());
     }
 }
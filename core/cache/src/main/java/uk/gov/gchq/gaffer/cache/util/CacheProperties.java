@@ -27,4 +27,14 @@ public final class CacheProperties {
 
     public static final String CACHE_CONFIG_FILE = "gaffer.cache.config.file";
 
+    /**
+     * The maximum number of entries in each cache, for cache services that support it.
+     */
+    public static final String CACHE_MAX_SIZE = "gaffer.cache.max.size";
+
+    /**
+     * The time to live of cache entries in milliseconds, for cache services that support it.
+     */
+    public static final String CACHE_TIME_TO_LIVE = "gaffer.cache.time.to.live";
+
 }
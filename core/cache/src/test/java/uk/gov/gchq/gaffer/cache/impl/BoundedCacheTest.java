@@ -0,0 +1,169 @@
+/*
+ * Copyright 2017 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.gov.gchq.gaffer.cache.impl;
+
+import org.junit.Test;
+import uk.gov.gchq.gaffer.cache.exception.CacheOperationException;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class BoundedCacheTest {
+    private final AtomicLong time = new AtomicLong();
+
+    @Test
+    public void shouldAddAndReadEntries() throws CacheOperationException {
+        // Given
+        final BoundedCache<String, Integer> cache = new BoundedCache<>(10, BoundedCache.NO_TIME_TO_LIVE, time::get);
+
+        // When
+        cache.put("key1", 1);
+        cache.put("key2", 2);
+
+        // Then
+        assertEquals(2, cache.size());
+        assertEquals(new Integer(1), cache.get("key1"));
+        assertEquals(new Integer(2), cache.get("key2"));
+    }
+
+    @Test
+    public void shouldEvictLeastRecentlyUsedEntriesWhenFull() throws CacheOperationException {
+        // Given
+        final BoundedCache<String, Integer> cache = new BoundedCache<>(10, BoundedCache.NO_TIME_TO_LIVE, time::incrementAndGet);
+        for (int i = 0; i < 10; i++) {
+            cache.put("key" + i, i);
+        }
+        cache.get("key0");
+
+        // When
+        cache.put("key10", 10);
+
+        // Then
+        assertEquals(9, cache.size());
+        assertEquals(new Integer(0), cache.get("key0"));
+        assertNull(cache.get("key1"));
+        assertNull(cache.get("key2"));
+        assertEquals(new Integer(10), cache.get("key10"));
+    }
+
+    @Test
+    public void shouldExpireEntriesAfterTheTimeToLive() throws CacheOperationException {
+        // Given
+        final BoundedCache<String, Integer> cache = new BoundedCache<>(10, 100, time::get);
+        cache.put("key1", 1);
+        cache.put("key2", 2, 1, TimeUnit.SECONDS);
+
+        // When
+        time.set(TimeUnit.MILLISECONDS.toNanos(100));
+
+        // Then
+        assertNull(cache.get("key1"));
+        assertEquals(new Integer(2), cache.get("key2"));
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    public void shouldReplaceExpiredEntryWithPutSafe() throws CacheOperationException {
+        // Given
+        final BoundedCache<String, Integer> cache = new BoundedCache<>(10, 100, time::get);
+        cache.putSafe("key", 1);
+        time.set(TimeUnit.MILLISECONDS.toNanos(100));
+
+        // When
+        cache.putSafe("key", 2);
+
+        // Then
+        assertEquals(new Integer(2), cache.get("key"));
+    }
+
+    @Test
+    public void shouldThrowExceptionIfEntryAlreadyExistsWhenUsingPutSafe() throws CacheOperationException {
+        // Given
+        final BoundedCache<String, Integer> cache = new BoundedCache<>(10, BoundedCache.NO_TIME_TO_LIVE);
+        cache.put("key", 1);
+
+        // When / Then
+        try {
+            cache.putSafe("key", 2);
+            fail("Exception expected");
+        } catch (final CacheOperationException e) {
+            assertEquals("Entry for key key already exists", e.getMessage());
+        }
+        assertEquals(new Integer(1), cache.get("key"));
+    }
+
+    @Test
+    public void shouldGetAndPutAll() throws CacheOperationException {
+        // Given
+        final BoundedCache<String, Integer> cache = new BoundedCache<>(10, BoundedCache.NO_TIME_TO_LIVE);
+        final Map<String, Integer> entries = new HashMap<>();
+        entries.put("key1", 1);
+        entries.put("key2", 2);
+
+        // When
+        cache.putAll(entries);
+
+        // Then
+        assertEquals(entries, cache.getAll(Arrays.asList("key1", "key2", "key3")));
+    }
+
+    @Test
+    public void shouldComputeAtomicallyFromMultipleThreads() throws Exception {
+        // Given
+        final BoundedCache<String, Integer> cache = new BoundedCache<>(10, BoundedCache.NO_TIME_TO_LIVE);
+        final int numThreads = 8;
+        final int numIncrements = 1000;
+        final ExecutorService executor = Executors.newFixedThreadPool(numThreads);
+
+        // When
+        for (int i = 0; i < numThreads; i++) {
+            executor.submit(() -> {
+                for (int j = 0; j < numIncrements; j++) {
+                    cache.compute("counter", (key, value) -> null == value ? 1 : value + 1);
+                }
+                return null;
+            });
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(1, TimeUnit.MINUTES));
+
+        // Then
+        assertEquals(new Integer(numThreads * numIncrements), cache.get("counter"));
+    }
+
+    @Test
+    public void shouldRemoveEntryIfComputeReturnsNull() throws CacheOperationException {
+        // Given
+        final BoundedCache<String, Integer> cache = new BoundedCache<>(10, BoundedCache.NO_TIME_TO_LIVE);
+        cache.put("key", 1);
+
+        // When
+        cache.compute("key", (key, value) -> null);
+
+        // Then
+        assertNull(cache.get("key"));
+        assertEquals(0, cache.size());
+    }
+}
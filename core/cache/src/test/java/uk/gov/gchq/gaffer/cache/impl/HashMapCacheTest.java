@@ -21,8 +21,12 @@ import org.hamcrest.core.IsCollectionContaining;
 import org.junit.After;
 import org.junit.Assert;
 import org.junit.Test;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
 
 public class HashMapCacheTest {
 
@@ -117,4 +121,94 @@ public class HashMapCacheTest {
 
         Assert.assertThat(cache.getAllValues(), IsCollectionContaining.hasItems(1, 2, 3));
     }
+
+    @Test
+    public void shouldOnlyPutIfAbsent() {
+        // given
+        cache.put("key", 1);
+
+        // when
+        final Integer existing = cache.putIfAbsent("key", 2);
+        final Integer absent = cache.putIfAbsent("key2", 3);
+
+        // then
+        assertEquals(new Integer(1), existing);
+        assertNull(absent);
+        assertEquals(new Integer(1), cache.get("key"));
+        assertEquals(new Integer(3), cache.get("key2"));
+    }
+
+    @Test
+    public void shouldComputeNewValue() {
+        // given
+        cache.put("key", 1);
+
+        // when
+        cache.compute("key", (key, value) -> value + 1);
+
+        // then
+        assertEquals(new Integer(2), cache.get("key"));
+    }
+
+    @Test
+    public void shouldExpireEntriesAfterTheTimeToLive() {
+        // given
+        final AtomicLong time = new AtomicLong();
+        final HashMapCache<String, Integer> ttlCache = new HashMapCache<>(time::get);
+        ttlCache.put("key1", 1, 100, TimeUnit.MILLISECONDS);
+        ttlCache.put("key2", 2, 1, TimeUnit.SECONDS);
+        ttlCache.put("key3", 3);
+
+        // when
+        time.set(TimeUnit.MILLISECONDS.toNanos(100));
+
+        // then
+        assertTrue(ttlCache.supportsTimeToLive());
+        assertNull(ttlCache.get("key1"));
+        assertEquals(new Integer(2), ttlCache.get("key2"));
+        assertEquals(new Integer(3), ttlCache.get("key3"));
+        assertEquals(2, ttlCache.size());
+        Assert.assertThat(ttlCache.getAllKeys(), IsCollectionContaining.hasItems("key2", "key3"));
+        assertEquals(2, ttlCache.getAllValues().size());
+    }
+
+    @Test
+    public void shouldReplaceExpiredEntryWithPutIfAbsentAndCompute() {
+        // given
+        final AtomicLong time = new AtomicLong();
+        final HashMapCache<String, Integer> ttlCache = new HashMapCache<>(time::get);
+        ttlCache.put("key1", 1, 100, TimeUnit.MILLISECONDS);
+        ttlCache.put("key2", 2, 100, TimeUnit.MILLISECONDS);
+        time.set(TimeUnit.MILLISECONDS.toNanos(100));
+
+        // when
+        final Integer existing = ttlCache.putIfAbsent("key1", 10);
+        ttlCache.compute("key2", (key, value) -> null == value ? 20 : value + 1);
+
+        // then
+        assertNull(existing);
+        assertEquals(new Integer(10), ttlCache.get("key1"));
+        assertEquals(new Integer(20), ttlCache.get("key2"));
+    }
+
+    @Test
+    public void shouldRemoveExpiredEntriesWhenAddingEntriesWithTimeToLive() {
+        // given
+        final AtomicLong time = new AtomicLong();
+        final HashMapCache<String, Integer> ttlCache = new HashMapCache<>(time::get);
+        final int liveEntries = 100;
+        int maxStoredEntries = 0;
+
+        // when
+        for (int i = 0; i < 100000; i++) {
+            ttlCache.put("key" + i, i, liveEntries, TimeUnit.MILLISECONDS);
+            time.addAndGet(TimeUnit.MILLISECONDS.toNanos(1));
+            maxStoredEntries = Math.max(maxStoredEntries, ttlCache.getNumberOfStoredEntries());
+        }
+
+        // then
+        assertTrue("Stored entries: " + maxStoredEntries, maxStoredEntries <= 2 * liveEntries + 1);
+        assertEquals(new Integer(99999), ttlCache.get("key99999"));
+        assertNull(ttlCache.get("key0"));
+    }
 }
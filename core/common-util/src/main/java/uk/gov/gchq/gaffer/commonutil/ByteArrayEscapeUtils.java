@@ -17,7 +17,6 @@
 package uk.gov.gchq.gaffer.commonutil;
 
 import java.security.InvalidParameterException;
-import java.util.Arrays;
 
 /**
  * Removes the 0 byte from a byte array. Preserves ordering.
@@ -44,32 +43,78 @@ public final class ByteArrayEscapeUtils {
      * @return the escaped byte array
      */
     public static byte[] escape(final byte[] bytes, final byte... appendAfterEscaping) {
-        final byte[] temp = new byte[(2 * bytes.length) + ((appendAfterEscaping == null) ? 0 : appendAfterEscaping.length)];
-        int currentPosition = escape(bytes, temp, 0);
-        if (appendAfterEscaping != null) {
-            for (final byte b : appendAfterEscaping) {
-                temp[currentPosition++] = b;
-            }
+        final int appendLength = (appendAfterEscaping == null) ? 0 : appendAfterEscaping.length;
+        final byte[] escaped = new byte[getEscapedLength(bytes, 0, bytes.length) + appendLength];
+        final int currentPosition = escape(bytes, 0, bytes.length, escaped, 0);
+        if (appendLength > 0) {
+            System.arraycopy(appendAfterEscaping, 0, escaped, currentPosition, appendLength);
         }
-        return Arrays.copyOfRange(temp, 0, currentPosition);
+        return escaped;
+    }
+
+    /**
+     * Escapes the provided byte[] directly into the destination array, so
+     * that several escaped values can be written into a single array without
+     * intermediate copies. The destination array must have at least
+     * {@link #getEscapedLength(byte[], int, int)} bytes available after the
+     * destination offset.
+     *
+     * @param bytes             the byte array to escape
+     * @param destination       the byte array to write the escaped bytes to
+     * @param destinationOffset the position in the destination to start writing
+     * @return the position in the destination after the last escaped byte
+     */
+    public static int escape(final byte[] bytes, final byte[] destination, final int destinationOffset) {
+        return escape(bytes, 0, bytes.length, destination, destinationOffset);
     }
 
-    private static int escape(final byte[] bytes, final byte[] temp, final int position) {
-        int currentPosition = position;
-        for (final byte b : bytes) {
+    /**
+     * Escapes a range of the provided byte[] directly into the destination
+     * array.
+     *
+     * @param bytes             the byte array containing the range to escape
+     * @param offset            the position to start the escape, inclusive
+     * @param length            the number of bytes to escape
+     * @param destination       the byte array to write the escaped bytes to
+     * @param destinationOffset the position in the destination to start writing
+     * @return the position in the destination after the last escaped byte
+     */
+    public static int escape(final byte[] bytes, final int offset, final int length,
+                             final byte[] destination, final int destinationOffset) {
+        int currentPosition = destinationOffset;
+        for (int i = offset; i < offset + length; i++) {
+            final byte b = bytes[i];
             if (b == ESCAPE_CHAR) {
-                temp[currentPosition++] = ESCAPE_CHAR;
-                temp[currentPosition++] = REPLACEMENT_CHAR;
+                destination[currentPosition++] = ESCAPE_CHAR;
+                destination[currentPosition++] = REPLACEMENT_CHAR;
             } else if (b == DELIMITER) {
-                temp[currentPosition++] = ESCAPE_CHAR;
-                temp[currentPosition++] = ESCAPE_CHAR;
+                destination[currentPosition++] = ESCAPE_CHAR;
+                destination[currentPosition++] = ESCAPE_CHAR;
             } else {
-                temp[currentPosition++] = b;
+                destination[currentPosition++] = b;
             }
         }
         return currentPosition;
     }
 
+    /**
+     * Calculates the length of a range of a byte[] once it has been escaped.
+     *
+     * @param bytes  the byte array containing the range to escape
+     * @param offset the position to start the escape, inclusive
+     * @param length the number of bytes to escape
+     * @return the number of bytes the range will take up once escaped
+     */
+    public static int getEscapedLength(final byte[] bytes, final int offset, final int length) {
+        int escapedLength = length;
+        for (int i = offset; i < offset + length; i++) {
+            if (bytes[i] == ESCAPE_CHAR || bytes[i] == DELIMITER) {
+                escapedLength++;
+            }
+        }
+        return escapedLength;
+    }
+
     /**
      * Unescapes the provided byte array - this should only be called on byte
      * arrays that have been through the <code>escape</code> method.
@@ -118,34 +163,126 @@ public final class ByteArrayEscapeUtils {
      * @return the unescaped byte array
      */
     public static byte[] unEscapeByLength(final byte[] allBytes, final int offset, final int length) {
-        if (allBytes.length < offset + length) {
-            throw new InvalidParameterException(String.format("unEscape parameters larger than allByte.length:%d, offset:%d, length:%d", allBytes.length, offset, length));
-        }
-        final byte[] temp = new byte[length];
-        int currentPosition = 0;
+        checkRange(allBytes, offset, length);
+        final byte[] unEscaped = new byte[getUnEscapedLength(allBytes, offset, length)];
+        unEscape(allBytes, offset, length, unEscaped, 0);
+        return unEscaped;
+    }
+
+    /**
+     * Unescapes a range of the provided byte array directly into the
+     * destination array - this should only be called on byte arrays that
+     * have been through the <code>escape</code> method. The destination
+     * array must have at least {@link #getUnEscapedLength(byte[], int, int)}
+     * bytes available after the destination offset.
+     *
+     * @param allBytes          The backing byte array which contains the subset to unEscape.
+     * @param offset            The position to start the unEscape, inclusive
+     * @param length            The length of bytes to unEscape
+     * @param destination       the byte array to write the unescaped bytes to
+     * @param destinationOffset the position in the destination to start writing
+     * @return the position in the destination after the last unescaped byte
+     */
+    public static int unEscape(final byte[] allBytes, final int offset, final int length,
+                               final byte[] destination, final int destinationOffset) {
+        checkRange(allBytes, offset, length);
+        int currentPosition = destinationOffset;
         boolean isEscaped = false;
 
-        for (int i = offset; i < allBytes.length && i < offset + length; i++) {
+        for (int i = offset; i < offset + length; i++) {
             byte b = allBytes[i];
             if (isEscaped) {
                 if (b == REPLACEMENT_CHAR) {
-                    temp[currentPosition++] = ESCAPE_CHAR;
+                    destination[currentPosition++] = ESCAPE_CHAR;
                 } else if (b == ESCAPE_CHAR) {
-                    temp[currentPosition++] = DELIMITER;
+                    destination[currentPosition++] = DELIMITER;
                 } else {
-                    temp[currentPosition++] = b;
+                    destination[currentPosition++] = b;
                 }
                 isEscaped = false;
             } else {
                 if (b == ESCAPE_CHAR) {
                     isEscaped = true;
                 } else {
-                    temp[currentPosition++] = b;
+                    destination[currentPosition++] = b;
                 }
             }
         }
-        final byte[] unEscaped = new byte[currentPosition];
-        System.arraycopy(temp, 0, unEscaped, 0, currentPosition);
-        return unEscaped;
+        return currentPosition;
+    }
+
+    /**
+     * Calculates the length of a range of an escaped byte[] once it has been
+     * unescaped.
+     *
+     * @param allBytes The backing byte array which contains the subset to unEscape.
+     * @param offset   The position to start the unEscape, inclusive
+     * @param length   The length of bytes to unEscape
+     * @return the number of bytes the range will take up once unescaped
+     */
+    public static int getUnEscapedLength(final byte[] allBytes, final int offset, final int length) {
+        int unEscapedLength = length;
+        boolean isEscaped = false;
+        for (int i = offset; i < offset + length; i++) {
+            if (isEscaped) {
+                isEscaped = false;
+            } else if (allBytes[i] == ESCAPE_CHAR) {
+                isEscaped = true;
+                unEscapedLength--;
+            }
+        }
+        return unEscapedLength;
+    }
+
+    /**
+     * Checks whether a range of a byte[] contains any escaped bytes. If it
+     * does not then the range is the same whether it is escaped or not, so
+     * it can be used without unescaping it.
+     *
+     * @param allBytes The backing byte array which contains the subset to check.
+     * @param offset   The position to start the check, inclusive
+     * @param length   The length of bytes to check
+     * @return true if the range contains an escaped byte
+     */
+    public static boolean containsEscapedBytes(final byte[] allBytes, final int offset, final int length) {
+        for (int i = offset; i < offset + length; i++) {
+            if (allBytes[i] == ESCAPE_CHAR) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Compares two ranges of escaped bytes. Escaping preserves the unsigned
+     * lexicographic ordering of byte arrays, so this gives the same result as
+     * comparing the unescaped bytes, without unescaping them.
+     *
+     * @param bytes1  the first backing byte array
+     * @param offset1 the position of the first range, inclusive
+     * @param length1 the length of the first range
+     * @param bytes2  the second backing byte array
+     * @param offset2 the position of the second range, inclusive
+     * @param length2 the length of the second range
+     * @return a negative integer, zero, or a positive integer as the first
+     * range is less than, equal to, or greater than the second
+     */
+    public static int compareEscaped(final byte[] bytes1, final int offset1, final int length1,
+                                     final byte[] bytes2, final int offset2, final int length2) {
+        final int minLength = Math.min(length1, length2);
+        for (int i = 0; i < minLength; i++) {
+            final int b1 = bytes1[offset1 + i] & 0xff;
+            final int b2 = bytes2[offset2 + i] & 0xff;
+            if (b1 != b2) {
+                return b1 - b2;
+            }
+        }
+        return length1 - length2;
+    }
+
+    private static void checkRange(final byte[] allBytes, final int offset, final int length) {
+        if (allBytes.length < offset + length) {
+            throw new InvalidParameterException(String.format("unEscape parameters larger than allByte.length:%d, offset:%d, length:%d", allBytes.length, offset, length));
+        }
     }
 }
@@ -39,6 +39,10 @@ import java.util.TreeMap;
  * items will contain items with a comparator score of 0, but potentially not equal
  * using the equals method.
  * </p>
+ * <p>
+ * All of the items are held in memory. For large results, or a limit that
+ * only requires the top few items, use {@link SpillingSortedIterable}.
+ * </p>
  *
  * @param <E> the type of object to store in the {@link LimitedInMemorySortedIterable}.
  */
@@ -129,12 +133,8 @@ public class LimitedInMemorySortedIterable<E> implements Iterable<E> {
             return Iterators.emptyIterator();
         }
 
-        final Iterable[] values = Iterables.toArray(backingMap.values(), Iterable.class);
-        if (0 == values.length) {
-            return Iterators.emptyIterator();
-        }
-
-        return new ChainedIterable<E>(values).iterator();
+        // Iterates over the backing map directly rather than copying it.
+        return Iterables.concat(backingMap.values()).iterator();
     }
 
     @Override
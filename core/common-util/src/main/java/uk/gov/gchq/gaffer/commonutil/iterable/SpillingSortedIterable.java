@@ -0,0 +1,560 @@
+/*
+ * Copyright 2017 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.gov.gchq.gaffer.commonutil.iterable;
+
+import uk.gov.gchq.gaffer.commonutil.CloseableUtil;
+import uk.gov.gchq.gaffer.commonutil.ToStringBuilder;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileAttribute;
+import java.nio.file.attribute.PosixFilePermission;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.PriorityQueue;
+import java.util.Set;
+
+/**
+ * <p>
+ * An {@link Iterable} which can sort, limit and deduplicate its elements
+ * without holding them all in memory. Sorting is achieved with a provided
+ * {@link Comparator}.
+ * </p>
+ * <p>
+ * If a limit is provided that is no more than the maximum number of items to
+ * hold in memory, only the top items are kept, in a bounded heap. Otherwise
+ * items are buffered in memory and, each time the buffer is full, it is
+ * sorted and spilled to a temporary file as a sorted run. Iterating merges the
+ * sorted runs with the remaining buffered items. The runs are written using
+ * the {@link ItemSerialiser} provided by the caller, which is only required if
+ * the items may be spilled. The run files are only readable by the owner of
+ * the process.
+ * </p>
+ * <p>
+ * As with {@link LimitedInMemorySortedIterable}, duplicates are identified
+ * using the equals method on items with a comparator score of 0. This iterable
+ * must be closed to delete its temporary files.
+ * </p>
+ *
+ * @param <E> the type of object to store in the {@link SpillingSortedIterable}.
+ */
+public class SpillingSortedIterable<E> implements CloseableIterable<E> {
+    public static final int DEFAULT_MAX_ITEMS_IN_MEMORY = 100000;
+
+    /**
+     * When this many runs have been spilled they are merged into a single
+     * run, so that iterating does not open too many files at once.
+     */
+    private static final int MAX_RUNS_TO_MERGE = 64;
+    private static final int END_OF_RUN = -1;
+    private static final String RUN_FILE_PREFIX = "gaffer-sort-";
+    private static final String RUN_FILE_SUFFIX = ".run";
+    private static final Set<PosixFilePermission> RUN_FILE_PERMISSIONS = PosixFilePermissions.fromString("rw-------");
+
+    private final Comparator<E> comparator;
+    private final ItemSerialiser<E> serialiser;
+    private final Integer limit;
+    private final boolean deduplicate;
+    private final int maxItemsInMemory;
+    private final File spillDirectory;
+
+    private final PriorityQueue<E> topItems;
+    private final Set<E> topItemsSet;
+    private final List<E> buffer;
+    private final List<File> runs = new ArrayList<>();
+    private long size;
+
+    public SpillingSortedIterable(final Comparator<E> comparator, final ItemSerialiser<E> serialiser) {
+        this(comparator, serialiser, null);
+    }
+
+    public SpillingSortedIterable(final Comparator<E> comparator, final ItemSerialiser<E> serialiser, final Integer limit) {
+        this(comparator, serialiser, limit, false);
+    }
+
+    public SpillingSortedIterable(final Comparator<E> comparator, final ItemSerialiser<E> serialiser, final Integer limit,
+                                  final boolean deduplicate) {
+        this(comparator, serialiser, limit, deduplicate, DEFAULT_MAX_ITEMS_IN_MEMORY);
+    }
+
+    public SpillingSortedIterable(final Comparator<E> comparator, final ItemSerialiser<E> serialiser, final Integer limit,
+                                  final boolean deduplicate, final int maxItemsInMemory) {
+        this(comparator, serialiser, limit, deduplicate, maxItemsInMemory, null);
+    }
+
+    /**
+     * @param comparator       the comparator used to sort the items
+     * @param serialiser       the serialiser used to write spilled items to
+     *                         disk. This can only be null if the limit is no
+     *                         more than the maximum number of items to hold
+     *                         in memory, as the items are then never spilled.
+     * @param limit            the maximum number of items to return, or null
+     * @param deduplicate      true if duplicate items should be removed
+     * @param maxItemsInMemory the maximum number of items to hold in memory
+     *                         before spilling them to disk
+     * @param spillDirectory   the directory to write the sorted runs to, or
+     *                         null to use the default temporary directory
+     */
+    public SpillingSortedIterable(final Comparator<E> comparator, final ItemSerialiser<E> serialiser, final Integer limit,
+                                  final boolean deduplicate, final int maxItemsInMemory, final File spillDirectory) {
+        if (null == comparator) {
+            throw new IllegalArgumentException("Comparator is required");
+        }
+        if (null != limit && limit < 1) {
+            throw new IllegalArgumentException("Limit cannot be less than or equal to 0");
+        }
+        if (maxItemsInMemory < 1) {
+            throw new IllegalArgumentException("Max items in memory cannot be less than or equal to 0");
+        }
+        if (null == serialiser && (null == limit || limit > maxItemsInMemory)) {
+            throw new IllegalArgumentException("A serialiser is required if the items may be spilled to disk");
+        }
+
+        this.comparator = comparator;
+        this.serialiser = serialiser;
+        this.limit = limit;
+        this.deduplicate = deduplicate;
+        this.maxItemsInMemory = maxItemsInMemory;
+        this.spillDirectory = spillDirectory;
+
+        if (null != limit && limit <= maxItemsInMemory) {
+            // The head of the heap is the largest of the top items, so it is
+            // the one to drop when a smaller item is added.
+            topItems = new PriorityQueue<>(limit, Collections.reverseOrder(comparator));
+            topItemsSet = deduplicate ? new HashSet<>() : null;
+            buffer = null;
+        } else {
+            topItems = null;
+            topItemsSet = null;
+            buffer = new ArrayList<>();
+        }
+    }
+
+    /**
+     * Adds an item. Null items are ignored. When the items are spilled to
+     * disk, duplicates are only removed when the items are iterated.
+     *
+     * @param e the item to add
+     * @return true if the item was added
+     */
+    public boolean add(final E e) {
+        if (null == e) {
+            return false;
+        }
+        if (null != topItems) {
+            return addToTopItems(e);
+        }
+
+        buffer.add(e);
+        size++;
+        if (buffer.size() >= maxItemsInMemory) {
+            spill();
+        }
+        return true;
+    }
+
+    public boolean addAll(final Iterable<E> items) {
+        boolean result = false;
+        for (final E item : items) {
+            if (add(item)) {
+                result = true;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * @return the number of items added, up to the limit if all of the items
+     * are held in memory. This may include duplicates and items beyond the
+     * limit that have been spilled to disk.
+     */
+    public long size() {
+        return null != topItems ? topItems.size() : size;
+    }
+
+    /**
+     * @return the number of sorted runs that have been spilled to disk
+     */
+    public int getNumRuns() {
+        return runs.size();
+    }
+
+    @Override
+    public CloseableIterator<E> iterator() {
+        if (null != topItems) {
+            final List<E> sorted = new ArrayList<>(topItems);
+            sorted.sort(comparator);
+            return new WrappedCloseableIterator<>(sorted.iterator());
+        }
+
+        buffer.sort(comparator);
+        if (runs.isEmpty()) {
+            return new DeduplicateAndLimitIterator(new WrappedCloseableIterator<>(buffer.iterator()));
+        }
+
+        final List<CloseableIterator<E>> sources = openRuns(runs);
+        sources.add(new WrappedCloseableIterator<>(buffer.iterator()));
+        return new DeduplicateAndLimitIterator(new MergeIterator(sources));
+    }
+
+    /**
+     * Deletes the sorted runs that have been spilled to disk.
+     */
+    @Override
+    public void close() {
+        for (final File run : runs) {
+            delete(run);
+        }
+        runs.clear();
+        if (null != buffer) {
+            buffer.clear();
+        }
+        if (null != topItems) {
+            topItems.clear();
+        }
+        size = 0;
+    }
+
+    @Override
+    public String toString() {
+        return new ToStringBuilder(this)
+                .append("size", size())
+                .append("limit", limit)
+                .append("deduplicate", deduplicate)
+                .append("maxItemsInMemory", maxItemsInMemory)
+                .append("runs", runs.size())
+                .toString();
+    }
+
+    private boolean addToTopItems(final E e) {
+        if (null != topItemsSet && topItemsSet.contains(e)) {
+            return false;
+        }
+
+        if (topItems.size() >= limit) {
+            if (comparator.compare(topItems.peek(), e) <= 0) {
+                return false;
+            }
+            final E removed = topItems.poll();
+            if (null != topItemsSet) {
+                topItemsSet.remove(removed);
+            }
+        }
+
+        topItems.add(e);
+        if (null != topItemsSet) {
+            topItemsSet.add(e);
+        }
+        return true;
+    }
+
+    private void spill() {
+        buffer.sort(comparator);
+        runs.add(writeRun(new DeduplicateAndLimitIterator(new WrappedCloseableIterator<>(buffer.iterator()))));
+        buffer.clear();
+
+        if (runs.size() >= MAX_RUNS_TO_MERGE) {
+            final List<File> runsToMerge = new ArrayList<>(runs);
+            final File merged = writeRun(new DeduplicateAndLimitIterator(new MergeIterator(openRuns(runsToMerge))));
+            for (final File run : runsToMerge) {
+                delete(run);
+            }
+            runs.clear();
+            runs.add(merged);
+        }
+    }
+
+    private List<CloseableIterator<E>> openRuns(final List<File> runsToOpen) {
+        final List<CloseableIterator<E>> sources = new ArrayList<>(runsToOpen.size() + 1);
+        try {
+            for (final File run : runsToOpen) {
+                sources.add(new RunIterator(run));
+            }
+        } catch (final RuntimeException e) {
+            for (final CloseableIterator<E> source : sources) {
+                CloseableUtil.close(source);
+            }
+            throw e;
+        }
+        return sources;
+    }
+
+    private File writeRun(final CloseableIterator<E> items) {
+        final File run;
+        try {
+            run = createRunFile();
+        } catch (final IOException e) {
+            CloseableUtil.close(items);
+            throw new UncheckedIOException("Unable to create a file to spill sorted items to", e);
+        }
+
+        try (final DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(run)))) {
+            while (items.hasNext()) {
+                // Each item is preceded by its length, so the number of items
+                // does not need to be known before they are written.
+                final byte[] bytes = serialiser.serialise(items.next());
+                out.writeInt(bytes.length);
+                out.write(bytes);
+            }
+            out.writeInt(END_OF_RUN);
+        } catch (final IOException e) {
+            delete(run);
+            throw new UncheckedIOException("Unable to spill sorted items to " + run, e);
+        } catch (final RuntimeException e) {
+            delete(run);
+            throw e;
+        } finally {
+            CloseableUtil.close(items);
+        }
+        return run;
+    }
+
+    private File createRunFile() throws IOException {
+        final Path directory = null != spillDirectory ? spillDirectory.toPath() : null;
+        FileAttribute<Set<PosixFilePermission>> permissions = null;
+        if (null != directory ? Files.getFileStore(directory).supportsFileAttributeView("posix")
+                : File.separatorChar == '/') {
+            permissions = PosixFilePermissions.asFileAttribute(RUN_FILE_PERMISSIONS);
+        }
+
+        final Path run;
+        if (null != permissions) {
+            run = null != directory
+                    ? Files.createTempFile(directory, RUN_FILE_PREFIX, RUN_FILE_SUFFIX, permissions)
+                    : Files.createTempFile(RUN_FILE_PREFIX, RUN_FILE_SUFFIX, permissions);
+        } else {
+            run = null != directory
+                    ? Files.createTempFile(directory, RUN_FILE_PREFIX, RUN_FILE_SUFFIX)
+                    : Files.createTempFile(RUN_FILE_PREFIX, RUN_FILE_SUFFIX);
+            final File file = run.toFile();
+            if (!(file.setReadable(false, false) && file.setReadable(true, true)
+                    && file.setWritable(false, false) && file.setWritable(true, true))) {
+                delete(file);
+                throw new IOException("Unable to restrict the permissions of " + file);
+            }
+        }
+        return run.toFile();
+    }
+
+    private static void delete(final File run) {
+        if (!run.delete() && run.exists()) {
+            run.deleteOnExit();
+        }
+    }
+
+    /**
+     * Reads the items in a sorted run back from disk.
+     */
+    private final class RunIterator implements CloseableIterator<E> {
+        private final File run;
+        private DataInputStream in;
+        private int nextLength;
+
+        private RunIterator(final File run) {
+            this.run = run;
+            try {
+                in = new DataInputStream(new BufferedInputStream(new FileInputStream(run)));
+                nextLength = in.readInt();
+            } catch (final IOException e) {
+                close();
+                throw new UncheckedIOException("Unable to read sorted items from " + run, e);
+            }
+            if (!hasNext()) {
+                close();
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return END_OF_RUN != nextLength;
+        }
+
+        @Override
+        public E next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            try {
+                final byte[] bytes = new byte[nextLength];
+                in.readFully(bytes);
+                final E item = serialiser.deserialise(bytes);
+                nextLength = in.readInt();
+                if (!hasNext()) {
+                    close();
+                }
+                return item;
+            } catch (final IOException e) {
+                close();
+                throw new UncheckedIOException("Unable to read sorted items from " + run, e);
+            }
+        }
+
+        @Override
+        public void close() {
+            nextLength = END_OF_RUN;
+            CloseableUtil.close(in);
+            in = null;
+        }
+    }
+
+    /**
+     * Merges sorted iterators into a single sorted iterator. Items that
+     * compare equal are returned in the order of their sources.
+     */
+    private final class MergeIterator implements CloseableIterator<E> {
+        private final List<CloseableIterator<E>> sources;
+        private final PriorityQueue<Head> heads;
+
+        private MergeIterator(final List<CloseableIterator<E>> sources) {
+            this.sources = sources;
+            this.heads = new PriorityQueue<>(Math.max(1, sources.size()), (head1, head2) -> {
+                final int result = comparator.compare(head1.item, head2.item);
+                return 0 != result ? result : Integer.compare(head1.sourceIndex, head2.sourceIndex);
+            });
+            for (int i = 0; i < sources.size(); i++) {
+                if (sources.get(i).hasNext()) {
+                    heads.add(new Head(sources.get(i).next(), i));
+                }
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return !heads.isEmpty();
+        }
+
+        @Override
+        public E next() {
+            final Head head = heads.poll();
+            if (null == head) {
+                throw new NoSuchElementException();
+            }
+            final E item = head.item;
+            final Iterator<E> source = sources.get(head.sourceIndex);
+            if (source.hasNext()) {
+                head.item = source.next();
+                heads.add(head);
+            }
+            return item;
+        }
+
+        @Override
+        public void close() {
+            heads.clear();
+            for (final CloseableIterator<E> source : sources) {
+                CloseableUtil.close(source);
+            }
+        }
+
+        private final class Head {
+            private E item;
+            private final int sourceIndex;
+
+            private Head(final E item, final int sourceIndex) {
+                this.item = item;
+                this.sourceIndex = sourceIndex;
+            }
+        }
+    }
+
+    /**
+     * Removes duplicates from, and applies the limit to, a sorted iterator.
+     * Duplicates compare equal, so only the items that compare equal to the
+     * previous item need to be remembered.
+     */
+    private final class DeduplicateAndLimitIterator implements CloseableIterator<E> {
+        private final CloseableIterator<E> sorted;
+        private final Set<E> equalItems = new HashSet<>();
+        private E nextItem;
+        private E previousItem;
+        private long count;
+
+        private DeduplicateAndLimitIterator(final CloseableIterator<E> sorted) {
+            this.sorted = sorted;
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (null != nextItem) {
+                return true;
+            }
+            if (null != limit && count >= limit) {
+                close();
+                return false;
+            }
+            while (sorted.hasNext()) {
+                final E item = sorted.next();
+                if (deduplicate) {
+                    if (null == previousItem || 0 != comparator.compare(previousItem, item)) {
+                        equalItems.clear();
+                    }
+                    previousItem = item;
+                    if (!equalItems.add(item)) {
+                        continue;
+                    }
+                }
+                nextItem = item;
+                return true;
+            }
+            close();
+            return false;
+        }
+
+        @Override
+        public E next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            final E item = nextItem;
+            nextItem = null;
+            count++;
+            return item;
+        }
+
+        @Override
+        public void close() {
+            equalItems.clear();
+            CloseableUtil.close(sorted);
+        }
+    }
+
+    /**
+     * Converts the items in a {@link SpillingSortedIterable} to and from bytes
+     * when they are spilled to disk, e.g. using the serialiser for the item
+     * type in a schema.
+     *
+     * @param <E> the type of item to serialise
+     */
+    public interface ItemSerialiser<E> {
+        byte[] serialise(final E item) throws IOException;
+
+        E deserialise(final byte[] bytes) throws IOException;
+    }
+}
@@ -16,8 +16,10 @@
 package uk.gov.gchq.gaffer.commonutil.stream;
 
 import uk.gov.gchq.gaffer.commonutil.iterable.LimitedInMemorySortedIterable;
+import uk.gov.gchq.gaffer.commonutil.iterable.SpillingSortedIterable;
+import java.util.Collections;
 import java.util.Comparator;
-import java.util.HashSet;
+import java.util.EnumSet;
 import java.util.LinkedHashSet;
 import java.util.Set;
 import java.util.function.BiConsumer;
@@ -38,6 +40,13 @@ import java.util.stream.Collector;
  * </p>
  */
 public final class GafferCollectors {
+    /**
+     * The sorted collectors are not unordered: which of the items that
+     * compare equal are kept, and in which order, depends on the order they
+     * are accumulated in.
+     */
+    private static final Set<Collector.Characteristics> SORTED_CHARACTERISTICS =
+            Collections.unmodifiableSet(EnumSet.of(Collector.Characteristics.IDENTITY_FINISH));
 
     private GafferCollectors() {
         // Empty
@@ -59,7 +68,8 @@ public final class GafferCollectors {
                     left.addAll(right);
                     return left;
                 },
-                set -> set
+                set -> set,
+                EnumSet.of(Collector.Characteristics.IDENTITY_FINISH)
         );
     }
 
@@ -89,7 +99,45 @@ public final class GafferCollectors {
                 (left, right) -> {
                     left.addAll(right);
                     return left;
-                }
+                },
+                SORTED_CHARACTERISTICS
+        );
+    }
+
+    /**
+     * <p>
+     * Returns a {@link java.util.stream.Collector} that accumulates the input
+     * items into a {@link SpillingSortedIterable}.
+     * </p>
+     * <p>
+     * If the limit is no more than the maximum number of items to hold in
+     * memory, only the top items are held in a bounded heap. Otherwise sorted
+     * runs of items are spilled to disk, so the returned iterable must be
+     * closed.
+     * </p>
+     *
+     * @param comparator       the {@link java.util.Comparator} to use when
+     *                         comparing items
+     * @param serialiser       the serialiser used to spill items to disk,
+     *                         which can be null if the limit is no more than
+     *                         the maximum number of items to hold in memory
+     * @param limit            the maximum number of items to collect, or null
+     * @param deduplicate      true if the results should be deduplicated based the items hashcode/equals methods
+     * @param maxItemsInMemory the maximum number of items to hold in memory
+     * @param <T>              the type of input items
+     * @return a {@link java.util.stream.Collector} which collects all the input
+     * elements into a {@link SpillingSortedIterable}
+     */
+    public static <T> Collector<T, SpillingSortedIterable<T>, SpillingSortedIterable<T>> toSpillingSortedIterable(final Comparator<T> comparator, final SpillingSortedIterable.ItemSerialiser<T> serialiser, final Integer limit, final boolean deduplicate, final int maxItemsInMemory) {
+        return new GafferCollectorImpl<>(
+                () -> new SpillingSortedIterable<>(comparator, serialiser, limit, deduplicate, maxItemsInMemory),
+                SpillingSortedIterable::add,
+                (left, right) -> {
+                    left.addAll(right);
+                    right.close();
+                    return left;
+                },
+                SORTED_CHARACTERISTICS
         );
     }
 
@@ -104,21 +152,31 @@ public final class GafferCollectors {
         private final BiConsumer<A, T> accumulator;
         private final BinaryOperator<A> combiner;
         private final Function<A, R> finisher;
+        private final Set<Characteristics> characteristics;
 
         GafferCollectorImpl(final Supplier<A> supplier,
                             final BiConsumer<A, T> accumulator,
                             final BinaryOperator<A> combiner,
-                            final Function<A, R> finisher) {
+                            final Function<A, R> finisher,
+                            final Set<Characteristics> characteristics) {
             this.supplier = supplier;
             this.accumulator = accumulator;
             this.combiner = combiner;
             this.finisher = finisher;
+            this.characteristics = characteristics;
+        }
+
+        GafferCollectorImpl(final Supplier<A> supplier,
+                            final BiConsumer<A, T> accumulator,
+                            final BinaryOperator<A> combiner,
+                            final Set<Characteristics> characteristics) {
+            this(supplier, accumulator, combiner, i -> (R) i, characteristics);
         }
 
         GafferCollectorImpl(final Supplier<A> supplier,
                             final BiConsumer<A, T> accumulator,
                             final BinaryOperator<A> combiner) {
-            this(supplier, accumulator, combiner, i -> (R) i);
+            this(supplier, accumulator, combiner, Collections.emptySet());
         }
 
         @Override
@@ -143,7 +201,7 @@ public final class GafferCollectors {
 
         @Override
         public Set<Characteristics> characteristics() {
-            return new HashSet<>();
+            return characteristics;
         }
     }
 }
@@ -0,0 +1,127 @@
+/*
+ * Copyright 2017 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package uk.gov.gchq.gaffer.commonutil;
+
+import org.junit.Test;
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class ByteArrayEscapeUtilsTest {
+    @Test
+    public void shouldEscapeAndAppendBytes() {
+        // Given
+        final byte[] bytes = {0, 1, 2};
+
+        // When
+        final byte[] escaped = ByteArrayEscapeUtils.escape(bytes, ByteArrayEscapeUtils.DELIMITER, (byte) 5);
+
+        // Then
+        assertArrayEquals(new byte[]{1, 1, 1, 2, 2, 0, 5}, escaped);
+    }
+
+    @Test
+    public void shouldEscapeIntoDestinationArray() {
+        // Given
+        final byte[] first = {3, 0};
+        final byte[] second = {1, 4};
+        final int firstLength = ByteArrayEscapeUtils.getEscapedLength(first, 0, first.length);
+        final int secondLength = ByteArrayEscapeUtils.getEscapedLength(second, 0, second.length);
+        final byte[] destination = new byte[firstLength + secondLength + 1];
+
+        // When
+        int position = ByteArrayEscapeUtils.escape(first, destination, 0);
+        destination[position++] = ByteArrayEscapeUtils.DELIMITER;
+        position = ByteArrayEscapeUtils.escape(second, destination, position);
+
+        // Then
+        assertEquals(destination.length, position);
+        assertArrayEquals(new byte[]{3, 1, 1, 0, 1, 2, 4}, destination);
+        assertArrayEquals(first, ByteArrayEscapeUtils.unEscape(destination, 0, 3));
+        assertArrayEquals(second, ByteArrayEscapeUtils.unEscape(destination, 4, destination.length));
+    }
+
+    @Test
+    public void shouldUnEscapeIntoDestinationArray() {
+        // Given
+        final byte[] escaped = {9, 1, 1, 1, 2, 7, 9};
+        final byte[] destination = new byte[ByteArrayEscapeUtils.getUnEscapedLength(escaped, 1, 5) + 1];
+
+        // When
+        final int position = ByteArrayEscapeUtils.unEscape(escaped, 1, 5, destination, 1);
+
+        // Then
+        assertEquals(destination.length, position);
+        assertArrayEquals(new byte[]{0, 0, 1, 7}, destination);
+    }
+
+    @Test
+    public void shouldOnlyFindEscapedBytesInRangesThatContainThem() {
+        // Given
+        final byte[] escaped = ByteArrayEscapeUtils.escape(new byte[]{5, 6, 0, 7});
+
+        // When / Then
+        assertFalse(ByteArrayEscapeUtils.containsEscapedBytes(escaped, 0, 2));
+        assertTrue(ByteArrayEscapeUtils.containsEscapedBytes(escaped, 0, escaped.length));
+    }
+
+    @Test
+    public void shouldRoundTripAndPreserveOrderingOfRandomBytes() {
+        final Random random = new Random(1);
+        for (int i = 0; i < 10000; i++) {
+            // Given
+            final byte[] bytes1 = randomBytes(random);
+            final byte[] bytes2 = randomBytes(random);
+
+            // When
+            final byte[] escaped1 = ByteArrayEscapeUtils.escape(bytes1);
+            final byte[] escaped2 = ByteArrayEscapeUtils.escape(bytes2);
+
+            // Then
+            assertArrayEquals(bytes1, ByteArrayEscapeUtils.unEscape(escaped1));
+            assertEquals(bytes1.length, ByteArrayEscapeUtils.getUnEscapedLength(escaped1, 0, escaped1.length));
+            assertEquals(escaped1.length, ByteArrayEscapeUtils.getEscapedLength(bytes1, 0, bytes1.length));
+            assertEquals(Arrays.toString(bytes1) + " " + Arrays.toString(bytes2),
+                    Integer.signum(compareUnsigned(bytes1, bytes2)),
+                    Integer.signum(ByteArrayEscapeUtils.compareEscaped(escaped1, 0, escaped1.length, escaped2, 0, escaped2.length)));
+        }
+    }
+
+    private static byte[] randomBytes(final Random random) {
+        final byte[] bytes = new byte[random.nextInt(6)];
+        for (int i = 0; i < bytes.length; i++) {
+            // Mostly bytes that need escaping, plus a negative byte
+            bytes[i] = (byte) (random.nextInt(5) - 1);
+        }
+        return bytes;
+    }
+
+    private static int compareUnsigned(final byte[] bytes1, final byte[] bytes2) {
+        final int minLength = Math.min(bytes1.length, bytes2.length);
+        for (int i = 0; i < minLength; i++) {
+            final int diff = (bytes1[i] & 0xff) - (bytes2[i] & 0xff);
+            if (0 != diff) {
+                return diff;
+            }
+        }
+        return bytes1.length - bytes2.length;
+    }
+}
@@ -0,0 +1,251 @@
+/*
+ * Copyright 2017 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.gov.gchq.gaffer.commonutil.iterable;
+
+import com.google.common.collect.Lists;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.attribute.PosixFilePermission;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Random;
+import java.util.TreeSet;
+import java.util.stream.IntStream;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.junit.Assume.assumeTrue;
+
+public class SpillingSortedIterableTest {
+    private static final SpillingSortedIterable.ItemSerialiser<Integer> INTEGER_SERIALISER = new SpillingSortedIterable.ItemSerialiser<Integer>() {
+        @Override
+        public byte[] serialise(final Integer item) {
+            return ByteBuffer.allocate(4).putInt(item).array();
+        }
+
+        @Override
+        public Integer deserialise(final byte[] bytes) {
+            return ByteBuffer.wrap(bytes).getInt();
+        }
+    };
+
+    @Rule
+    public final TemporaryFolder tempFolder = new TemporaryFolder();
+
+    @Test
+    public void shouldKeepTopItemsInMemoryWhenLimitFitsInMemory() throws Exception {
+        // Given
+        final SpillingSortedIterable<Integer> iterable = new SpillingSortedIterable<>(Comparator.<Integer>naturalOrder(), null, 100, false, 100, tempFolder.getRoot());
+        final List<Integer> expectedItems = new ArrayList<>();
+        IntStream.rangeClosed(1, 100).forEach(expectedItems::add);
+
+        // When
+        for (int i = 200; i > 0; i--) {
+            iterable.add(i);
+        }
+
+        // Then
+        assertEquals(expectedItems, Lists.newArrayList(iterable));
+        assertEquals(0, iterable.getNumRuns());
+        assertEquals(100, iterable.size());
+    }
+
+    @Test
+    public void shouldLimitAndDeduplicateTopItems() {
+        // Given
+        final SpillingSortedIterable<Integer> iterable = new SpillingSortedIterable<>(Comparator.<Integer>naturalOrder(), null, 2, true);
+
+        // When
+        iterable.add(1);
+        iterable.add(1);
+        iterable.add(2);
+        iterable.add(1);
+        iterable.add(2);
+        iterable.add(10);
+
+        // Then
+        assertEquals(Arrays.asList(1, 2), Lists.newArrayList(iterable));
+    }
+
+    @Test
+    public void shouldSpillSortedRunsToDiskAndMergeThem() {
+        // Given
+        final SpillingSortedIterable<Integer> iterable = new SpillingSortedIterable<>(Comparator.<Integer>naturalOrder(), INTEGER_SERIALISER, null, false, 10, tempFolder.getRoot());
+        final List<Integer> items = new ArrayList<>();
+        IntStream.range(0, 1000).forEach(items::add);
+        Collections.shuffle(items, new Random(1));
+
+        // When
+        iterable.addAll(items);
+
+        // Then
+        assertTrue(iterable.getNumRuns() > 0);
+        Collections.sort(items);
+        assertEquals(items, Lists.newArrayList(iterable));
+    }
+
+    @Test
+    public void shouldLimitAndDeduplicateSpilledItems() {
+        // Given
+        final SpillingSortedIterable<Integer> iterable = new SpillingSortedIterable<>(Comparator.<Integer>naturalOrder(), INTEGER_SERIALISER, 50, true, 7, tempFolder.getRoot());
+        final Random random = new Random(1);
+        final List<Integer> items = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            items.add(random.nextInt(200));
+        }
+
+        // When
+        iterable.addAll(items);
+
+        // Then
+        final List<Integer> expectedItems = new ArrayList<>(new TreeSet<>(items)).subList(0, 50);
+        assertEquals(expectedItems, Lists.newArrayList(iterable));
+    }
+
+    @Test
+    public void shouldDeleteSpilledRunsWhenClosed() {
+        // Given
+        final SpillingSortedIterable<Integer> iterable = new SpillingSortedIterable<>(Comparator.<Integer>naturalOrder(), INTEGER_SERIALISER, null, false, 10, tempFolder.getRoot());
+        IntStream.range(0, 100).forEach(iterable::add);
+
+        // When
+        iterable.close();
+
+        // Then
+        assertEquals(0, iterable.getNumRuns());
+        assertEquals(0, tempFolder.getRoot().list().length);
+    }
+
+    @Test
+    public void shouldSpillItemsThatAreNotSerializableUsingTheSerialiser() {
+        // Given
+        final SpillingSortedIterable<Item> iterable = new SpillingSortedIterable<>(
+                Comparator.comparingInt(Item::getValue),
+                new SpillingSortedIterable.ItemSerialiser<Item>() {
+                    @Override
+                    public byte[] serialise(final Item item) throws IOException {
+                        return INTEGER_SERIALISER.serialise(item.getValue());
+                    }
+
+                    @Override
+                    public Item deserialise(final byte[] bytes) throws IOException {
+                        return new Item(INTEGER_SERIALISER.deserialise(bytes));
+                    }
+                }, null, false, 10, tempFolder.getRoot());
+        final List<Item> expectedItems = new ArrayList<>();
+
+        // When
+        for (int i = 99; i >= 0; i--) {
+            iterable.add(new Item(i));
+            expectedItems.add(0, new Item(i));
+        }
+
+        // Then
+        assertTrue(iterable.getNumRuns() > 0);
+        assertEquals(expectedItems, Lists.newArrayList(iterable));
+        iterable.close();
+    }
+
+    @Test
+    public void shouldOnlyAllowTheOwnerToReadSpilledRuns() throws IOException {
+        assumeTrue(Files.getFileStore(tempFolder.getRoot().toPath()).supportsFileAttributeView("posix"));
+
+        // Given
+        final SpillingSortedIterable<Integer> iterable = new SpillingSortedIterable<>(Comparator.<Integer>naturalOrder(), INTEGER_SERIALISER, null, false, 10, tempFolder.getRoot());
+
+        // When
+        IntStream.range(0, 100).forEach(iterable::add);
+
+        // Then
+        final File[] runs = tempFolder.getRoot().listFiles();
+        assertTrue(runs.length > 0);
+        for (final File run : runs) {
+            assertEquals(EnumSet.of(PosixFilePermission.OWNER_READ, PosixFilePermission.OWNER_WRITE),
+                    Files.getPosixFilePermissions(run.toPath()));
+        }
+        iterable.close();
+    }
+
+    @Test
+    public void shouldDeleteRunWhenSpillingFails() {
+        // Given
+        final SpillingSortedIterable<Integer> iterable = new SpillingSortedIterable<>(
+                Comparator.<Integer>naturalOrder(),
+                new SpillingSortedIterable.ItemSerialiser<Integer>() {
+                    @Override
+                    public byte[] serialise(final Integer item) throws IOException {
+                        throw new IOException("Unable to serialise " + item);
+                    }
+
+                    @Override
+                    public Integer deserialise(final byte[] bytes) throws IOException {
+                        return INTEGER_SERIALISER.deserialise(bytes);
+                    }
+                }, null, false, 10, tempFolder.getRoot());
+
+        // When
+        try {
+            IntStream.range(0, 10).forEach(iterable::add);
+            fail("Exception expected");
+        } catch (final RuntimeException e) {
+            // Then
+            assertEquals(0, tempFolder.getRoot().list().length);
+        }
+    }
+
+    @Test
+    public void shouldRequireSerialiserWhenItemsMaySpill() {
+        try {
+            new SpillingSortedIterable<>(Comparator.<Integer>naturalOrder(), null, null, false, 10, tempFolder.getRoot());
+            fail("Exception expected");
+        } catch (final IllegalArgumentException e) {
+            assertTrue(e.getMessage().contains("serialiser"));
+        }
+    }
+
+    private static final class Item {
+        private final int value;
+
+        private Item(final int value) {
+            this.value = value;
+        }
+
+        private int getValue() {
+            return value;
+        }
+
+        @Override
+        public boolean equals(final Object obj) {
+            return obj instanceof Item && value == ((Item) obj).value;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(value);
+        }
+    }
+}
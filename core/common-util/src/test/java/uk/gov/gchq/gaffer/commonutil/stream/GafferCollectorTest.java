@@ -16,17 +16,24 @@
 package uk.gov.gchq.gaffer.commonutil.stream;
 
 import com.google.common.collect.Iterables;
+import com.google.common.collect.Lists;
 import org.junit.Test;
 import uk.gov.gchq.gaffer.commonutil.iterable.LimitedInMemorySortedIterable;
+import uk.gov.gchq.gaffer.commonutil.iterable.SpillingSortedIterable;
+import java.util.Arrays;
 import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.stream.Collector;
 import java.util.stream.IntStream;
 
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.core.IsEqual.equalTo;
 import static org.hamcrest.core.IsInstanceOf.instanceOf;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static uk.gov.gchq.gaffer.commonutil.stream.GafferCollectors.toLimitedInMemorySortedIterable;
 import static uk.gov.gchq.gaffer.commonutil.stream.GafferCollectors.toLinkedHashSet;
+import static uk.gov.gchq.gaffer.commonutil.stream.GafferCollectors.toSpillingSortedIterable;
 
 public class GafferCollectorTest {
 
@@ -58,4 +65,33 @@ public class GafferCollectorTest {
         // Then
         assertEquals(50, result.size());
     }
+
+    @Test
+    public void shouldNotReportSortedCollectorsAsUnordered() {
+        // When
+        final Set<Collector.Characteristics> limitedCharacteristics =
+                toLimitedInMemorySortedIterable(Integer::compareTo, 5, false).characteristics();
+        final Set<Collector.Characteristics> spillingCharacteristics =
+                toSpillingSortedIterable(Integer::compareTo, null, 5, false, 100).characteristics();
+
+        // Then
+        assertFalse(limitedCharacteristics.contains(Collector.Characteristics.UNORDERED));
+        assertFalse(spillingCharacteristics.contains(Collector.Characteristics.UNORDERED));
+    }
+
+    @Test
+    public void shouldCollectToSpillingSortedIterableInParallel() {
+        // Given
+        final IntStream stream = IntStream.range(0, 1000).map(i -> 999 - i);
+        final int limit = 5;
+
+        // When
+        try (final SpillingSortedIterable<Integer> result = stream.parallel()
+                .mapToObj(i -> i)
+                .collect(toSpillingSortedIterable(Integer::compareTo, null, limit, false, 100))) {
+
+            // Then
+            assertEquals(Arrays.asList(0, 1, 2, 3, 4), Lists.newArrayList(result));
+        }
+    }
 }
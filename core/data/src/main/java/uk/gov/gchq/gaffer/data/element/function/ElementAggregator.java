@@ -22,13 +22,36 @@ import uk.gov.gchq.gaffer.data.element.Element;
 import uk.gov.gchq.gaffer.data.element.Properties;
 import uk.gov.gchq.koryphe.tuple.binaryoperator.TupleAdaptedBinaryOperator;
 import uk.gov.gchq.koryphe.tuple.binaryoperator.TupleAdaptedBinaryOperatorComposite;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 import java.util.function.BinaryOperator;
 
+/**
+ * An <code>ElementAggregator</code> aggregates the properties of
+ * {@link Element}s using a list of binary operators applied to selected
+ * properties. The aggregator holds no per-call state of its own, so a single
+ * instance can be used concurrently from several threads as long as its
+ * binary operators are thread safe.
+ * <p>
+ * Lists of elements or properties can be aggregated in order using
+ * {@link #aggregate(List)} and {@link #aggregateProperties(List)}. Callers that
+ * know the binary operators are thread safe and associative can choose to
+ * aggregate large lists on an executor of their own using
+ * {@link #aggregate(List, ExecutorService)} and
+ * {@link #aggregateProperties(List, ExecutorService)}.
+ */
 public class ElementAggregator extends TupleAdaptedBinaryOperatorComposite<String> {
-    private final PropertiesTuple stateTuple = new PropertiesTuple();
-    private final PropertiesTuple propertiesTuple = new PropertiesTuple();
+    /**
+     * Lists smaller than this are aggregated on the calling thread, even when
+     * an executor is provided, as splitting them between threads costs more
+     * than it saves.
+     */
+    public static final int MIN_ITEMS_FOR_PARALLEL_AGGREGATION = 1000;
+
     private boolean readOnly;
 
     /**
@@ -53,9 +76,110 @@ public class ElementAggregator extends TupleAdaptedBinaryOperatorComposite<Strin
             return properties;
         }
 
-        propertiesTuple.setProperties(properties);
-        stateTuple.setProperties(state);
-        apply(stateTuple, propertiesTuple);
+        apply(new PropertiesTuple(state), new PropertiesTuple(properties));
+        return state;
+    }
+
+    /**
+     * Aggregates a list of elements into a single element, in order, on the
+     * calling thread. As with {@link #apply(Element, Element)}, the elements
+     * are modified and the first element holds the result.
+     *
+     * @param elements the elements to aggregate. These must all have the same
+     *                 identifiers and group.
+     * @return the aggregated element, or null if there are no elements
+     */
+    public Element aggregate(final List<? extends Element> elements) {
+        return ElementAggregator.<Element>reduce(elements, this::apply);
+    }
+
+    /**
+     * Aggregates a list of elements into a single element, splitting large
+     * lists into partitions that are aggregated on the given executor. The
+     * partial aggregates are then combined in order on the calling thread.
+     * <p>
+     * The binary operators are shared by all the partitions, so this must
+     * only be used when every binary operator is thread safe and associative.
+     * Otherwise use {@link #aggregate(List)}.
+     *
+     * @param elements the elements to aggregate. These must all have the same
+     *                 identifiers and group.
+     * @param executor the executor to aggregate the partitions on
+     * @return the aggregated element, or null if there are no elements
+     */
+    public Element aggregate(final List<? extends Element> elements, final ExecutorService executor) {
+        return ElementAggregator.<Element>reduce(elements, executor, this::apply);
+    }
+
+    /**
+     * Aggregates a list of properties into a single properties, in order, on
+     * the calling thread. As with {@link #apply(Properties, Properties)}, the
+     * properties are modified and the first properties holds the result.
+     *
+     * @param properties the properties to aggregate
+     * @return the aggregated properties, or null if there are no properties
+     */
+    public Properties aggregateProperties(final List<Properties> properties) {
+        return ElementAggregator.<Properties>reduce(properties, this::apply);
+    }
+
+    /**
+     * Aggregates a list of properties into a single properties, splitting
+     * large lists into partitions that are aggregated on the given executor.
+     * The partial aggregates are then combined in order on the calling thread.
+     * <p>
+     * The binary operators are shared by all the partitions, so this must
+     * only be used when every binary operator is thread safe and associative.
+     * Otherwise use {@link #aggregateProperties(List)}.
+     *
+     * @param properties the properties to aggregate
+     * @param executor   the executor to aggregate the partitions on
+     * @return the aggregated properties, or null if there are no properties
+     */
+    public Properties aggregateProperties(final List<Properties> properties, final ExecutorService executor) {
+        return ElementAggregator.<Properties>reduce(properties, executor, this::apply);
+    }
+
+    private static <T> T reduce(final List<? extends T> items, final BinaryOperator<T> operator) {
+        T state = null;
+        for (final T item : items) {
+            state = null == state ? item : operator.apply(state, item);
+        }
+        return state;
+    }
+
+    private static <T> T reduce(final List<? extends T> items, final ExecutorService executor,
+                                final BinaryOperator<T> operator) {
+        if (items.size() < MIN_ITEMS_FOR_PARALLEL_AGGREGATION) {
+            return reduce(items, operator);
+        }
+
+        final int partitionSize = Math.max(MIN_ITEMS_FOR_PARALLEL_AGGREGATION,
+                (items.size() + Runtime.getRuntime().availableProcessors() - 1) / Runtime.getRuntime().availableProcessors());
+        final List<Future<T>> partials = new ArrayList<>();
+        for (int start = 0; start < items.size(); start += partitionSize) {
+            final List<? extends T> partition = items.subList(start, Math.min(start + partitionSize, items.size()));
+            partials.add(executor.submit(() -> reduce(partition, operator)));
+        }
+
+        T state = null;
+        try {
+            for (final Future<T> partial : partials) {
+                state = null == state ? partial.get() : operator.apply(state, partial.get());
+            }
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted whilst aggregating", e);
+        } catch (final ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new RuntimeException("Failed to aggregate", e.getCause());
+        } finally {
+            for (final Future<T> partial : partials) {
+                partial.cancel(true);
+            }
+        }
         return state;
     }
 
@@ -82,12 +206,8 @@ public class ElementAggregator extends TupleAdaptedBinaryOperatorComposite<Strin
             return false;
         }
 
-        final ElementAggregator that = (ElementAggregator) obj;
-
         return new EqualsBuilder()
                 .appendSuper(super.equals(obj))
-                .append(stateTuple, that.stateTuple)
-                .append(propertiesTuple, that.propertiesTuple)
                 .isEquals();
     }
 
@@ -95,8 +215,6 @@ public class ElementAggregator extends TupleAdaptedBinaryOperatorComposite<Strin
     public int hashCode() {
         return new HashCodeBuilder(17, 37)
                 .appendSuper(super.hashCode())
-                .append(stateTuple)
-                .append(propertiesTuple)
                 .toHashCode();
     }
 
@@ -24,11 +24,16 @@ import uk.gov.gchq.gaffer.function.ExampleTuple2BinaryOperator;
 import uk.gov.gchq.koryphe.binaryoperator.KorypheBinaryOperator;
 import uk.gov.gchq.koryphe.tuple.binaryoperator.TupleAdaptedBinaryOperator;
 import uk.gov.gchq.koryphe.tuple.n.Tuple3;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.function.BinaryOperator;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
@@ -312,6 +317,99 @@ public class ElementAggregatorTest {
         assertEquals(props2, state);
     }
 
+    @Test
+    public void shouldAggregateListOfPropertiesOnExecutorInOrder() {
+        // Given
+        final ElementAggregator aggregator = new ElementAggregator.Builder()
+                .select("count")
+                .execute((BinaryOperator<Integer>) Integer::sum)
+                .select("names")
+                .execute((BinaryOperator<String>) (a, b) -> a + "," + b)
+                .build();
+
+        final int numProperties = ElementAggregator.MIN_ITEMS_FOR_PARALLEL_AGGREGATION * 10;
+        final List<Properties> propertiesList = new ArrayList<>();
+        final List<String> names = new ArrayList<>();
+        for (int i = 0; i < numProperties; i++) {
+            final Properties properties = new Properties();
+            properties.put("count", 1);
+            properties.put("names", String.valueOf(i));
+            propertiesList.add(properties);
+            names.add(String.valueOf(i));
+        }
+        final ExecutorService executor = Executors.newFixedThreadPool(4);
+
+        // When
+        final Properties result;
+        try {
+            result = aggregator.aggregateProperties(propertiesList, executor);
+        } finally {
+            executor.shutdownNow();
+        }
+
+        // Then
+        assertEquals(numProperties, result.get("count"));
+        assertEquals(String.join(",", names), result.get("names"));
+    }
+
+    @Test
+    public void shouldAggregateLargeListInOrderWithStatefulNonAssociativeFunction() {
+        // Given
+        final ElementAggregator aggregator = new ElementAggregator.Builder()
+                .select("count")
+                .execute(new StatefulSubtraction())
+                .build();
+
+        final int numProperties = ElementAggregator.MIN_ITEMS_FOR_PARALLEL_AGGREGATION * 10;
+        final List<Properties> propertiesList = new ArrayList<>();
+        int expected = 0;
+        for (int i = 1; i <= numProperties; i++) {
+            final Properties properties = new Properties();
+            properties.put("count", i);
+            propertiesList.add(properties);
+            expected = 1 == i ? i : expected - i;
+        }
+
+        // When
+        final Properties result = aggregator.aggregateProperties(propertiesList);
+
+        // Then
+        assertEquals(expected, result.get("count"));
+    }
+
+    @Test
+    public void shouldAggregateListOfElements() {
+        // Given
+        final ElementAggregator aggregator = new ElementAggregator.Builder()
+                .select("count")
+                .execute((BinaryOperator<Integer>) Integer::sum)
+                .build();
+
+        final List<Edge> edges = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            edges.add(new Edge.Builder()
+                    .property("count", i)
+                    .build());
+        }
+
+        // When
+        final Element result = aggregator.aggregate(edges);
+
+        // Then
+        assertSame(edges.get(0), result);
+        assertEquals(3, result.getProperty("count"));
+    }
+
+    @Test
+    public void shouldReturnNullWhenAggregatingEmptyList() {
+        // Given
+        final ElementAggregator aggregator = new ElementAggregator();
+
+        // When / Then
+        assertNull(aggregator.aggregate(Collections.<Element>emptyList()));
+        assertNull(aggregator.aggregateProperties(Collections.<Properties>emptyList()));
+    }
+
     @Test
     public void shouldReturnUnmodifiableComponentsWhenLocked() {
         // Given
@@ -341,4 +439,20 @@ public class ElementAggregatorTest {
         // Then - no exceptions
         components.add(null);
     }
+
+    /**
+     * Subtraction is not associative, and this operator also keeps state
+     * between calls, so it only gives the right result if it is applied to
+     * the items one at a time, in order.
+     */
+    private static final class StatefulSubtraction implements BinaryOperator<Integer> {
+        private Integer state;
+
+        @Override
+        public Integer apply(final Integer a, final Integer b) {
+            state = a;
+            state = state - b;
+            return state;
+        }
+    }
 }
@@ -28,7 +28,11 @@ import uk.gov.gchq.koryphe.impl.predicate.Not;
 import uk.gov.gchq.koryphe.impl.predicate.Or;
 import uk.gov.gchq.koryphe.tuple.predicate.KoryphePredicate2;
 import uk.gov.gchq.koryphe.tuple.predicate.TupleAdaptedPredicate;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.function.Predicate;
 
 import static junit.framework.TestCase.assertSame;
@@ -96,6 +100,36 @@ public class ElementFilterTest {
         assertFalse(result2);
     }
 
+    @Test
+    public void shouldTestElementsConcurrently() throws Exception {
+        // Given
+        final ElementFilter filter = new ElementFilter.Builder()
+                .select("prop1")
+                .execute("value"::equals)
+                .build();
+
+        final ExecutorService executor = Executors.newFixedThreadPool(4);
+        final List<Future<Boolean>> results = new ArrayList<>();
+
+        // When
+        try {
+            for (int i = 0; i < 1000; i++) {
+                final boolean expected = i % 2 == 0;
+                final Entity element = new Entity.Builder()
+                        .property("prop1", expected ? "value" : "unknown")
+                        .build();
+                results.add(executor.submit(() -> expected == filter.test(element)));
+            }
+
+            // Then
+            for (final Future<Boolean> result : results) {
+                assertTrue(result.get());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
     @Test
     public void shouldTestElementOnInlinePredicate() {
         // Given
@@ -45,6 +45,7 @@ import java.net.URI;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Set;
 
@@ -90,6 +91,17 @@ public final class Graph {
 
     private Schema schema;
 
+    /**
+     * An optional cache of the results of read-only operation chains.
+     */
+    private final OperationChainResultCache resultCache;
+
+    /**
+     * Whether the {@link GraphHook}s were notified that this graph was
+     * created, so they should be notified when it is shut down.
+     */
+    private final boolean notifyHooksOfLifecycle;
+
     /**
      * Constructs a <code>Graph</code> with the given {@link uk.gov.gchq.gaffer.store.Store} and
      * {@link uk.gov.gchq.gaffer.data.elementdefinition.view.View}.
@@ -98,12 +110,18 @@ public final class Graph {
      * @param schema     a {@link Schema} that defines the graph. Should be the copy of the schema that the store is initialised with.
      * @param view       a {@link View} defining the view of the data for the graph.
      * @param graphHooks a list of {@link GraphHook}s
+     * @param resultCache an {@link OperationChainResultCache}, or null
+     * @param notifyHooksOfLifecycle true if the graphHooks should be notified
+     *                               when the graph is created and shut down
      */
-    private Graph(final Schema schema, final Store store, final View view, final List<GraphHook> graphHooks) {
+    private Graph(final Schema schema, final Store store, final View view, final List<GraphHook> graphHooks,
+                  final OperationChainResultCache resultCache, final boolean notifyHooksOfLifecycle) {
         this.store = store;
         this.view = view;
         this.graphHooks = graphHooks;
         this.schema = schema;
+        this.resultCache = resultCache;
+        this.notifyHooksOfLifecycle = notifyHooksOfLifecycle;
     }
 
     /**
@@ -150,10 +168,13 @@ public final class Graph {
                 graphHook.preExecute(operationChain, user);
             }
 
+            final long startTime = System.nanoTime();
             updateOperationChainView(operationChain);
+            final long storeStartTime = System.nanoTime();
 
             JobDetail result = store.executeJob(operationChain, user);
 
+            postStoreExecute(operationChain, user, startTime, storeStartTime);
             for (final GraphHook graphHook : graphHooks) {
                 result = graphHook.postExecute(result, operationChain, user);
             }
@@ -161,6 +182,7 @@ public final class Graph {
             return result;
 
         } catch (final Exception e) {
+            onFailure(operationChain, user, e);
             CloseableUtil.close(operationChain);
             throw e;
         }
@@ -184,14 +206,18 @@ public final class Graph {
                 graphHook.preExecute(operationChain, user);
             }
 
+            final long startTime = System.nanoTime();
             updateOperationChainView(operationChain);
+            final long storeStartTime = System.nanoTime();
 
-            result = store.execute(operationChain, user);
+            result = executeOnStore(operationChain, user);
 
+            postStoreExecute(operationChain, user, startTime, storeStartTime);
             for (final GraphHook graphHook : graphHooks) {
                 result = graphHook.postExecute(result, operationChain, user);
             }
         } catch (final Exception e) {
+            onFailure(operationChain, user, e);
             CloseableUtil.close(operationChain);
             CloseableUtil.close(result);
 
@@ -201,6 +227,40 @@ public final class Graph {
         return result;
     }
 
+    private <O> O executeOnStore(final OperationChain<O> operationChain, final User user) throws OperationException {
+        if (null == resultCache) {
+            return store.execute(operationChain, user);
+        }
+
+        final String cacheKey = resultCache.getKey(getGraphId(), operationChain, user);
+        if (null == cacheKey) {
+            return store.execute(operationChain, user);
+        }
+
+        final O cachedResult = resultCache.get(cacheKey);
+        if (null != cachedResult) {
+            return cachedResult;
+        }
+        return resultCache.put(cacheKey, store.execute(operationChain, user));
+    }
+
+    private void postStoreExecute(final OperationChain<?> operationChain, final User user, final long startTime, final long storeStartTime) {
+        final long storeExecuteNanos = System.nanoTime() - storeStartTime;
+        for (final GraphHook graphHook : graphHooks) {
+            graphHook.postStoreExecute(operationChain, user, storeStartTime - startTime, storeExecuteNanos);
+        }
+    }
+
+    private void onFailure(final OperationChain<?> operationChain, final User user, final Exception e) {
+        for (final GraphHook graphHook : graphHooks) {
+            try {
+                graphHook.onFailure(operationChain, user, e);
+            } catch (final RuntimeException hookException) {
+                e.addSuppressed(hookException);
+            }
+        }
+    }
+
     private <O> void updateOperationChainView(final OperationChain<O> operationChain) {
         for (final Operation operation : operationChain.getOperations()) {
 
@@ -257,6 +317,22 @@ public final class Graph {
         return view;
     }
 
+    /**
+     * @return an unmodifiable list of the {@link GraphHook}s registered with
+     * the graph.
+     */
+    public List<GraphHook> getGraphHooks() {
+        return Collections.unmodifiableList(graphHooks);
+    }
+
+    /**
+     * @return the {@link OperationChainResultCache}, or null if results are
+     * not cached.
+     */
+    public OperationChainResultCache getResultCache() {
+        return resultCache;
+    }
+
     /**
      * @return the schema.
      */
@@ -295,6 +371,22 @@ public final class Graph {
         return store.getProperties();
     }
 
+    /**
+     * Notifies the {@link GraphHook}s that the graph is no longer in use, so
+     * they can release any resources registered for it, such as MBeans. This
+     * does nothing if the graph was built without notifying the hooks of its
+     * lifecycle.
+     *
+     * @see Builder#notifyHooksOfLifecycle(boolean)
+     */
+    public void shutdown() {
+        if (notifyHooksOfLifecycle) {
+            for (final GraphHook graphHook : graphHooks) {
+                graphHook.onGraphShutdown(getGraphId());
+            }
+        }
+    }
+
     /**
      * Builder for {@link Graph}.
      */
@@ -308,6 +400,8 @@ public final class Graph {
         private Schema schema;
         private View view;
         private List<GraphHook> graphHooks = new ArrayList<>();
+        private OperationChainResultCache resultCache;
+        private boolean notifyHooksOfLifecycle = true;
         private String[] parentSchemaIds;
         private String parentStorePropertiesId;
 
@@ -504,6 +598,36 @@ public final class Graph {
             return this;
         }
 
+        /**
+         * Sets the cache for the results of read-only operation chains. If
+         * this is not set, a result cache is created if the store properties
+         * contain {@link OperationChainResultCache#TIME_TO_LIVE}.
+         *
+         * @param resultCache the result cache
+         * @return this Builder
+         */
+        public Builder resultCache(final OperationChainResultCache resultCache) {
+            this.resultCache = resultCache;
+            return this;
+        }
+
+        /**
+         * Sets whether the {@link GraphHook}s are notified when the graph is
+         * built and when it is shut down, e.g. so an
+         * {@link uk.gov.gchq.gaffer.graph.hook.OperationMetricsHook} can
+         * register and unregister its MBean. This is true by default. Set it
+         * to false for short lived graphs that will not be shut down, such as
+         * a graph built for a single request, so they do not register
+         * anything that would never be released.
+         *
+         * @param notifyHooksOfLifecycle true if the hooks should be notified
+         * @return this Builder
+         */
+        public Builder notifyHooksOfLifecycle(final boolean notifyHooksOfLifecycle) {
+            this.notifyHooksOfLifecycle = notifyHooksOfLifecycle;
+            return this;
+        }
+
         public Graph build() {
             if (null == library) {
                 library = new NoGraphLibrary();
@@ -543,8 +667,18 @@ public final class Graph {
                 throw new IllegalArgumentException("graphId is required");
             }
 
+            if (null == resultCache) {
+                resultCache = OperationChainResultCache.fromStoreProperties(store.getProperties());
+            }
+
             library.add(graphId, schema, store.getProperties());
-            return new Graph(schema, store, view, graphHooks);
+            final Graph graph = new Graph(schema, store, view, graphHooks, resultCache, notifyHooksOfLifecycle);
+            if (notifyHooksOfLifecycle) {
+                for (final GraphHook graphHook : graphHooks) {
+                    graphHook.onGraphCreated(graphId);
+                }
+            }
+            return graph;
         }
 
         private void updateSchema() {
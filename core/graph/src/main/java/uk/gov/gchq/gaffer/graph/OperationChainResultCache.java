@@ -0,0 +1,444 @@
+/*
+ * Copyright 2017 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.gov.gchq.gaffer.graph;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.MapperFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import uk.gov.gchq.gaffer.cache.CacheServiceLoader;
+import uk.gov.gchq.gaffer.cache.ICache;
+import uk.gov.gchq.gaffer.cache.ICacheService;
+import uk.gov.gchq.gaffer.cache.exception.CacheOperationException;
+import uk.gov.gchq.gaffer.commonutil.iterable.CloseableIterable;
+import uk.gov.gchq.gaffer.commonutil.iterable.CloseableIterator;
+import uk.gov.gchq.gaffer.commonutil.iterable.WrappedCloseableIterable;
+import uk.gov.gchq.gaffer.data.element.Element;
+import uk.gov.gchq.gaffer.jsonserialisation.JSONSerialiser;
+import uk.gov.gchq.gaffer.operation.Operation;
+import uk.gov.gchq.gaffer.operation.OperationChain;
+import uk.gov.gchq.gaffer.operation.impl.Count;
+import uk.gov.gchq.gaffer.operation.impl.CountGroups;
+import uk.gov.gchq.gaffer.operation.impl.Limit;
+import uk.gov.gchq.gaffer.operation.impl.Validate;
+import uk.gov.gchq.gaffer.operation.impl.compare.Max;
+import uk.gov.gchq.gaffer.operation.impl.compare.Min;
+import uk.gov.gchq.gaffer.operation.impl.compare.Sort;
+import uk.gov.gchq.gaffer.operation.impl.generate.GenerateElements;
+import uk.gov.gchq.gaffer.operation.impl.generate.GenerateObjects;
+import uk.gov.gchq.gaffer.operation.impl.get.GetAdjacentIds;
+import uk.gov.gchq.gaffer.operation.impl.get.GetAllElements;
+import uk.gov.gchq.gaffer.operation.impl.get.GetElements;
+import uk.gov.gchq.gaffer.operation.impl.output.ToArray;
+import uk.gov.gchq.gaffer.operation.impl.output.ToCsv;
+import uk.gov.gchq.gaffer.operation.impl.output.ToEntitySeeds;
+import uk.gov.gchq.gaffer.operation.impl.output.ToList;
+import uk.gov.gchq.gaffer.operation.impl.output.ToMap;
+import uk.gov.gchq.gaffer.operation.impl.output.ToSet;
+import uk.gov.gchq.gaffer.operation.impl.output.ToVertices;
+import uk.gov.gchq.gaffer.store.StoreProperties;
+import uk.gov.gchq.gaffer.user.User;
+import java.io.Serializable;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * An <code>OperationChainResultCache</code> caches the results of read-only
+ * operation chains executed on a {@link Graph}, so that repeated identical
+ * queries do not reach the store until the cached result expires.
+ * <p>
+ * Results are cached in the {@link ICache} named {@link #CACHE_NAME} from the
+ * cache service loaded by the {@link CacheServiceLoader}, with a time to live,
+ * so the cache service must support per-entry time to live, e.g. the
+ * {@link uk.gov.gchq.gaffer.cache.impl.BoundedCacheService}. If there is no
+ * cache service, or its caches do not support a time to live, nothing is
+ * cached. Time to live support is checked when the result cache is created,
+ * and a warning is logged once if it is not supported.
+ * <p>
+ * The cache key is a hash of the graph id, the operation chain serialised to
+ * JSON with its properties and map entries sorted, and the user's sorted data
+ * auths. Only chains made up entirely of read-only operations are cached; by
+ * default these are {@link #DEFAULT_READ_ONLY_OPERATIONS}.
+ * <p>
+ * {@link CloseableIterable} results are not read eagerly. The items are
+ * recorded as the result is read, and are cached when the result is first
+ * read to the end, provided there are no more than the maximum result size.
+ * {@link List}, {@link Set}, {@link Number}, {@link String} and
+ * {@link Boolean} results are cached directly, and lists and sets are
+ * returned as unmodifiable copies. Other results are not cached.
+ * <p>
+ * {@link Element}s are mutable, so each element is copied, along with its
+ * properties map, when it is cached and again each time it is returned from
+ * the cache. This stops a caller changing the cached result, or the result
+ * returned to another caller. Property values themselves are not copied, so
+ * they should not be modified in place.
+ * <p>
+ * The cache can be configured with the store properties
+ * {@link #TIME_TO_LIVE}, which enables it, {@link #MAX_RESULT_SIZE} and
+ * {@link #READ_ONLY_OPERATIONS}, a comma separated list of additional
+ * read-only operation classes.
+ */
+public class OperationChainResultCache {
+    public static final String CACHE_NAME = "operationChainResultCache";
+    public static final String TIME_TO_LIVE = "gaffer.graph.result.cache.time.to.live";
+    public static final String MAX_RESULT_SIZE = "gaffer.graph.result.cache.max.result.size";
+    public static final String READ_ONLY_OPERATIONS = "gaffer.graph.result.cache.read.only.operations";
+    public static final int DEFAULT_MAX_RESULT_SIZE = 10000;
+    public static final Set<Class<? extends Operation>> DEFAULT_READ_ONLY_OPERATIONS = Collections.unmodifiableSet(new HashSet<>(Arrays.<Class<? extends Operation>>asList(
+            GetElements.class, GetAllElements.class, GetAdjacentIds.class,
+            Limit.class, Count.class, CountGroups.class, Validate.class,
+            Max.class, Min.class, Sort.class,
+            GenerateElements.class, GenerateObjects.class,
+            ToArray.class, ToCsv.class, ToEntitySeeds.class, ToList.class,
+            ToMap.class, ToSet.class, ToVertices.class)));
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(OperationChainResultCache.class);
+    private static final ObjectMapper MAPPER = JSONSerialiser.createDefaultMapper()
+            .configure(MapperFeature.SORT_PROPERTIES_ALPHABETICALLY, true)
+            .configure(SerializationFeature.ORDER_MAP_ENTRIES_BY_KEYS, true);
+
+    private final long timeToLiveMillis;
+    private final int maxResultSize;
+    private final Set<Class<? extends Operation>> readOnlyOperations;
+    private final AtomicBoolean loggedTimeToLiveUnsupported = new AtomicBoolean(false);
+
+    /**
+     * @param timeToLiveMillis the time to live of each cached result, in
+     *                         milliseconds
+     */
+    public OperationChainResultCache(final long timeToLiveMillis) {
+        this(timeToLiveMillis, DEFAULT_MAX_RESULT_SIZE, DEFAULT_READ_ONLY_OPERATIONS);
+    }
+
+    /**
+     * @param timeToLiveMillis   the time to live of each cached result, in
+     *                           milliseconds
+     * @param maxResultSize      the maximum number of items in an iterable
+     *                           result that can be cached
+     * @param readOnlyOperations the operation classes that do not modify
+     *                           anything, so chains made up of them can be
+     *                           cached
+     */
+    public OperationChainResultCache(final long timeToLiveMillis, final int maxResultSize,
+                                     final Set<Class<? extends Operation>> readOnlyOperations) {
+        if (timeToLiveMillis <= 0) {
+            throw new IllegalArgumentException("The result cache time to live must be positive, but was " + timeToLiveMillis);
+        }
+        this.timeToLiveMillis = timeToLiveMillis;
+        this.maxResultSize = maxResultSize;
+        this.readOnlyOperations = Collections.unmodifiableSet(new HashSet<>(readOnlyOperations));
+
+        // Check the cache service supports a time to live now, so the warning is logged up front
+        getCache();
+    }
+
+    /**
+     * Creates an {@link OperationChainResultCache} from the store properties.
+     *
+     * @param properties the store properties
+     * @return the result cache, or null if {@link #TIME_TO_LIVE} is not set
+     */
+    public static OperationChainResultCache fromStoreProperties(final StoreProperties properties) {
+        if (null == properties) {
+            return null;
+        }
+
+        final String timeToLive = properties.get(TIME_TO_LIVE);
+        if (null == timeToLive) {
+            return null;
+        }
+
+        final String maxResultSize = properties.get(MAX_RESULT_SIZE);
+        final Set<Class<? extends Operation>> readOnlyOperations = new HashSet<>(DEFAULT_READ_ONLY_OPERATIONS);
+        final String readOnlyOperationsProperty = properties.get(READ_ONLY_OPERATIONS);
+        if (null != readOnlyOperationsProperty) {
+            for (final String className : readOnlyOperationsProperty.split(",")) {
+                if (!className.trim().isEmpty()) {
+                    try {
+                        readOnlyOperations.add(Class.forName(className.trim()).asSubclass(Operation.class));
+                    } catch (final ClassNotFoundException e) {
+                        throw new IllegalArgumentException("Read only operation class not found: " + className, e);
+                    }
+                }
+            }
+        }
+
+        return new OperationChainResultCache(
+                Long.parseLong(timeToLive),
+                null != maxResultSize ? Integer.parseInt(maxResultSize) : DEFAULT_MAX_RESULT_SIZE,
+                readOnlyOperations);
+    }
+
+    /**
+     * Creates the cache key for an operation chain. This should be called after
+     * the graph view has been merged into the operation views.
+     *
+     * @param graphId the graph id
+     * @param opChain the operation chain
+     * @param user    the user executing the operation chain
+     * @return the cache key, or null if the operation chain cannot be cached
+     */
+    public String getKey(final String graphId, final OperationChain<?> opChain, final User user) {
+        if (null == getCache() || opChain.getOperations().isEmpty()) {
+            return null;
+        }
+        for (final Operation operation : opChain.getOperations()) {
+            if (!readOnlyOperations.contains(operation.getClass())) {
+                return null;
+            }
+        }
+
+        final byte[] json;
+        try {
+            json = MAPPER.writeValueAsBytes(opChain);
+        } catch (final JsonProcessingException e) {
+            LOGGER.debug("Unable to serialise operation chain, so it will not be cached", e);
+            return null;
+        }
+
+        final Set<String> dataAuths = null != user && null != user.getDataAuths() ? new TreeSet<>(user.getDataAuths()) : Collections.emptySet();
+        final MessageDigest digest = createDigest();
+        digest.update(graphId.getBytes(StandardCharsets.UTF_8));
+        digest.update((byte) 0);
+        digest.update(json);
+        for (final String dataAuth : dataAuths) {
+            digest.update((byte) 0);
+            digest.update(dataAuth.getBytes(StandardCharsets.UTF_8));
+        }
+
+        final StringBuilder key = new StringBuilder(graphId).append(':');
+        for (final byte b : digest.digest()) {
+            key.append(String.format("%02x", b));
+        }
+        return key.toString();
+    }
+
+    /**
+     * @param key the cache key
+     * @param <O> the result type
+     * @return the cached result, or null if there is none
+     */
+    public <O> O get(final String key) {
+        final ICache<String, CachedResult> cache = getCache();
+        if (null == cache) {
+            return null;
+        }
+        final CachedResult cachedResult = cache.get(key);
+        return null != cachedResult ? (O) cachedResult.getResult() : null;
+    }
+
+    /**
+     * Caches a result, if it is of a type that can be cached.
+     *
+     * @param key    the cache key
+     * @param result the result of executing the operation chain
+     * @param <O>    the result type
+     * @return the result to return to the user. This may wrap the given
+     * result so that it is cached when it is read.
+     */
+    public <O> O put(final String key, final O result) {
+        if (result instanceof CloseableIterable) {
+            return (O) new CachingCloseableIterable<>(key, (CloseableIterable<?>) result);
+        }
+        if (result instanceof Collection && ((Collection<?>) result).size() > maxResultSize) {
+            return result;
+        }
+
+        final CachedResult cachedResult;
+        if (result instanceof List) {
+            cachedResult = new CachedResult(copyAll((List<?>) result), ResultType.LIST);
+        } else if (result instanceof Set) {
+            cachedResult = new CachedResult(new LinkedHashSet<>(copyAll((Set<?>) result)), ResultType.SET);
+        } else if (result instanceof Number || result instanceof String || result instanceof Boolean) {
+            cachedResult = new CachedResult(result, ResultType.VALUE);
+        } else {
+            return result;
+        }
+
+        putInCache(key, cachedResult);
+        return result;
+    }
+
+    public long getTimeToLiveMillis() {
+        return timeToLiveMillis;
+    }
+
+    public int getMaxResultSize() {
+        return maxResultSize;
+    }
+
+    public Set<Class<? extends Operation>> getReadOnlyOperations() {
+        return readOnlyOperations;
+    }
+
+    private void putInCache(final String key, final CachedResult cachedResult) {
+        final ICache<String, CachedResult> cache = getCache();
+        if (null == cache) {
+            return;
+        }
+        try {
+            cache.put(key, cachedResult, timeToLiveMillis, TimeUnit.MILLISECONDS);
+        } catch (final CacheOperationException | RuntimeException e) {
+            LOGGER.warn("Unable to cache operation chain result", e);
+        }
+    }
+
+    private ICache<String, CachedResult> getCache() {
+        final ICacheService service = CacheServiceLoader.getService();
+        if (null == service) {
+            return null;
+        }
+        final ICache<String, CachedResult> cache = service.getCache(CACHE_NAME);
+        if (null == cache) {
+            return null;
+        }
+        if (!cache.supportsTimeToLive()) {
+            if (loggedTimeToLiveUnsupported.compareAndSet(false, true)) {
+                LOGGER.warn("The cache service {} does not support a time to live, so operation chain results will not be cached",
+                        service.getClass().getName());
+            }
+            return null;
+        }
+        return cache;
+    }
+
+    private static Object copy(final Object item) {
+        if (item instanceof Element) {
+            final Element element = (Element) item;
+            final Element copy = element.emptyClone();
+            copy.copyProperties(element.getProperties());
+            return copy;
+        }
+        return item;
+    }
+
+    private static List<Object> copyAll(final Collection<?> items) {
+        final List<Object> copies = new ArrayList<>(items.size());
+        for (final Object item : items) {
+            copies.add(copy(item));
+        }
+        return copies;
+    }
+
+    private static MessageDigest createDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (final NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    private enum ResultType {
+        ITERABLE, LIST, SET, VALUE
+    }
+
+    private static final class CachedResult implements Serializable {
+        private static final long serialVersionUID = -2416377164829305237L;
+        private final Object value;
+        private final ResultType type;
+
+        private CachedResult(final Object value, final ResultType type) {
+            this.value = value;
+            this.type = type;
+        }
+
+        private Object getResult() {
+            switch (type) {
+                case ITERABLE:
+                    return new WrappedCloseableIterable<>(copyAll((List<?>) value));
+                case LIST:
+                    return Collections.unmodifiableList(copyAll((List<?>) value));
+                case SET:
+                    return Collections.unmodifiableSet(new LinkedHashSet<>(copyAll((Set<?>) value)));
+                default:
+                    return value;
+            }
+        }
+    }
+
+    private final class CachingCloseableIterable<T> implements CloseableIterable<T> {
+        private final String key;
+        private final CloseableIterable<T> iterable;
+        private final AtomicBoolean cached = new AtomicBoolean(false);
+
+        private CachingCloseableIterable(final String key, final CloseableIterable<T> iterable) {
+            this.key = key;
+            this.iterable = iterable;
+        }
+
+        @Override
+        public void close() {
+            iterable.close();
+        }
+
+        @Override
+        public CloseableIterator<T> iterator() {
+            final CloseableIterator<T> iterator = iterable.iterator();
+            return new CloseableIterator<T>() {
+                private List<Object> items = cached.get() ? null : new ArrayList<>();
+
+                @Override
+                public boolean hasNext() {
+                    final boolean hasNext = iterator.hasNext();
+                    if (!hasNext && null != items) {
+                        if (cached.compareAndSet(false, true)) {
+                            putInCache(key, new CachedResult(items, ResultType.ITERABLE));
+                        }
+                        items = null;
+                    }
+                    return hasNext;
+                }
+
+                @Override
+                public T next() {
+                    final T next = iterator.next();
+                    if (null != items) {
+                        if (items.size() < maxResultSize) {
+                            items.add(copy(next));
+                        } else {
+                            items = null;
+                        }
+                    }
+                    return next;
+                }
+
+                @Override
+                public void remove() {
+                    iterator.remove();
+                }
+
+                @Override
+                public void close() {
+                    iterator.close();
+                }
+            };
+        }
+    }
+}
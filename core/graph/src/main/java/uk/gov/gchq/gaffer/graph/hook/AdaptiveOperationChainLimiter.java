@@ -0,0 +1,540 @@
+/*
+ * Copyright 2017 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.gov.gchq.gaffer.graph.hook;
+
+import uk.gov.gchq.gaffer.commonutil.exception.UnauthorisedException;
+import uk.gov.gchq.gaffer.commonutil.iterable.CloseableIterable;
+import uk.gov.gchq.gaffer.commonutil.iterable.CloseableIterator;
+import uk.gov.gchq.gaffer.core.exception.GafferRuntimeException;
+import uk.gov.gchq.gaffer.core.exception.Status;
+import uk.gov.gchq.gaffer.data.elementdefinition.view.View;
+import uk.gov.gchq.gaffer.jobtracker.JobDetail;
+import uk.gov.gchq.gaffer.operation.Operation;
+import uk.gov.gchq.gaffer.operation.OperationChain;
+import uk.gov.gchq.gaffer.operation.graph.OperationView;
+import uk.gov.gchq.gaffer.operation.io.Input;
+import uk.gov.gchq.gaffer.store.operation.handler.ScoreOperationChainHandler;
+import uk.gov.gchq.gaffer.user.User;
+import java.io.InputStream;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * An <code>AdaptiveOperationChainLimiter</code> is a {@link GraphHook} that,
+ * like the {@link OperationChainLimiter}, checks a user is allowed to execute
+ * an operation chain by comparing the cost of the chain with the user's
+ * maximum score, and that limits the total cost of the chains executing on
+ * the graph at once.
+ * <p>
+ * The operation and authorisation scores are configured in the same way as
+ * for the {@link OperationChainLimiter}. The cost of each operation is its
+ * score multiplied by:
+ * <ul>
+ * <li>a seed factor, <code>1 + seeds / seedsPerScoreUnit</code>, where seeds
+ * is the size of the operation's input, if it is a collection,</li>
+ * <li>a group factor, <code>1 + groupWeight * (groups - 1)</code>, where
+ * groups is the number of groups in the operation's view, or
+ * unrestrictedViewGroups if the view does not list any groups,</li>
+ * <li>a latency factor, the mean observed latency of the operation divided by
+ * the reference latency, between 1 and maxLatencyFactor.</li>
+ * </ul>
+ * The latency of each executed chain is shared between its operations in
+ * proportion to their cost, ignoring latency, and each operation class keeps
+ * an exponentially weighted mean of its share.
+ * <p>
+ * If maxConcurrentCost is set, a chain is only executed if the total cost of
+ * the chains already executing plus its own cost is within the limit, or if
+ * no other chains are executing. Otherwise it waits for up to the queue
+ * timeout and is then rejected with a {@link GafferRuntimeException} with
+ * status {@link Status#SERVICE_UNAVAILABLE}.
+ * <p>
+ * A {@link CloseableIterable} result is read lazily, so the chain is still
+ * executing after it is returned. The result is wrapped, and the chain's cost
+ * is released and its latency recorded when the result is closed or first
+ * read to the end, so callers must close results they do not read fully.
+ * As a safety net, a result that is dropped without being closed is closed
+ * and its cost released, without recording its latency, once it has been
+ * garbage collected. This only happens when the graph next checks its
+ * capacity, so until then the dropped result still counts towards
+ * maxConcurrentCost.
+ */
+public class AdaptiveOperationChainLimiter implements GraphHook {
+    public static final int DEFAULT_SEEDS_PER_SCORE_UNIT = 1000;
+    public static final int DEFAULT_UNRESTRICTED_VIEW_GROUPS = 10;
+    public static final double DEFAULT_GROUP_WEIGHT = 0.1;
+    public static final long DEFAULT_REFERENCE_LATENCY_MILLIS = 100;
+    public static final double DEFAULT_MAX_LATENCY_FACTOR = 10;
+    public static final double NO_CONCURRENT_COST_LIMIT = -1;
+
+    /**
+     * The weight of each new latency observation in the mean latencies.
+     */
+    static final double LATENCY_SMOOTHING = 0.2;
+
+    private final ScoreOperationChainHandler scorer;
+    private final Map<Class<? extends Operation>, Double> meanLatencies = new ConcurrentHashMap<>();
+    private final Map<OperationChain<?>, Execution> executions = Collections.synchronizedMap(new IdentityHashMap<>());
+    private final Map<Execution, ResultReference> unclosedResults = new ConcurrentHashMap<>();
+    private final ReferenceQueue<CloseableIterable<?>> droppedResults = new ReferenceQueue<>();
+    private final Object loadLock = new Object();
+    private double currentCost;
+    private int numExecuting;
+
+    private int seedsPerScoreUnit = DEFAULT_SEEDS_PER_SCORE_UNIT;
+    private int unrestrictedViewGroups = DEFAULT_UNRESTRICTED_VIEW_GROUPS;
+    private double groupWeight = DEFAULT_GROUP_WEIGHT;
+    private long referenceLatencyMillis = DEFAULT_REFERENCE_LATENCY_MILLIS;
+    private double maxLatencyFactor = DEFAULT_MAX_LATENCY_FACTOR;
+    private double maxConcurrentCost = NO_CONCURRENT_COST_LIMIT;
+    private long queueTimeoutMillis;
+
+    /**
+     * Constructs an {@link AdaptiveOperationChainLimiter} with the scores
+     * defined in the property files from the {@link Path}s provided.
+     *
+     * @param operationScorePropertiesFileLocation         path to operation scores property file
+     * @param operationAuthorisationScoreLimitFileLocation path to authorisation scores property file
+     */
+    public AdaptiveOperationChainLimiter(final Path operationScorePropertiesFileLocation, final Path operationAuthorisationScoreLimitFileLocation) {
+        this(new ScoreOperationChainHandler(operationScorePropertiesFileLocation, operationAuthorisationScoreLimitFileLocation));
+    }
+
+    /**
+     * Constructs an {@link AdaptiveOperationChainLimiter} with the scores
+     * defined in the property files from the {@link InputStream}s provided.
+     *
+     * @param operationScorePropertiesStream         input stream of operation scores property file
+     * @param operationAuthorisationScoreLimitStream input stream of authorisation scores property file
+     */
+    public AdaptiveOperationChainLimiter(final InputStream operationScorePropertiesStream, final InputStream operationAuthorisationScoreLimitStream) {
+        this(new ScoreOperationChainHandler(operationScorePropertiesStream, operationAuthorisationScoreLimitStream));
+    }
+
+    /**
+     * Constructs an {@link AdaptiveOperationChainLimiter} with the scores
+     * provided.
+     *
+     * @param operationScoreEntries                   operation scores entries
+     * @param operationAuthorisationScoreLimitEntries authorisation scores entries
+     */
+    public AdaptiveOperationChainLimiter(final LinkedHashMap<String, String> operationScoreEntries,
+                                         final LinkedHashMap<String, String> operationAuthorisationScoreLimitEntries) {
+        this(new ScoreOperationChainHandler(operationScoreEntries, operationAuthorisationScoreLimitEntries));
+    }
+
+    private AdaptiveOperationChainLimiter(final ScoreOperationChainHandler scorer) {
+        this.scorer = scorer;
+    }
+
+    /**
+     * Checks the cost of the {@link OperationChain} is within the user's
+     * maximum score, then waits until the graph has capacity to execute it.
+     *
+     * @param opChain the operation chain.
+     * @param user    the user executing the operation chain.
+     * @throws UnauthorisedException  if the cost of the chain is greater
+     *                                than the user's maximum score
+     * @throws GafferRuntimeException if the graph does not have capacity to
+     *                                execute the chain within the queue
+     *                                timeout
+     */
+    @Override
+    public void preExecute(final OperationChain<?> opChain, final User user) {
+        if (null == opChain) {
+            return;
+        }
+
+        final List<Operation> operations = opChain.getOperations();
+        final double[] baseCosts = new double[operations.size()];
+        double chainCost = 0;
+        for (int i = 0; i < baseCosts.length; i++) {
+            final Operation operation = operations.get(i);
+            baseCosts[i] = getBaseCost(operation, user);
+            chainCost += baseCosts[i] * getLatencyFactor(operation.getClass());
+        }
+
+        final Integer maxAuthScore = scorer.getMaxUserAuthScore(user.getOpAuths());
+        if (chainCost > maxAuthScore) {
+            throw new UnauthorisedException("The maximum score limit for this user is " + maxAuthScore + ".\n" +
+                    "The requested operation chain has a cost of " + (long) Math.ceil(chainCost) + ", which exceeds this score limit.");
+        }
+
+        releaseDroppedResults();
+        acquire(chainCost);
+        executions.put(opChain, new Execution(chainCost, baseCosts, System.nanoTime()));
+    }
+
+    @Override
+    public <T> T postExecute(final T result, final OperationChain<?> opChain, final User user) {
+        final Execution execution = executions.remove(opChain);
+        if (null == execution) {
+            return result;
+        }
+
+        final List<Operation> operations = opChain.getOperations();
+        if (result instanceof CloseableIterable) {
+            final CloseableIterable<?> iterable = (CloseableIterable<?>) result;
+            final AtomicBoolean completed = new AtomicBoolean(false);
+            final CompletingCloseableIterable<?> wrappedResult = new CompletingCloseableIterable<>(iterable, completed, () -> complete(operations, execution));
+            unclosedResults.put(execution, new ResultReference(wrappedResult, droppedResults, iterable, completed, execution));
+            return (T) wrappedResult;
+        }
+
+        release(execution.cost);
+        // The latency of a job is only the time taken to submit it
+        if (!(result instanceof JobDetail)) {
+            recordLatency(operations, execution);
+        }
+        return result;
+    }
+
+    @Override
+    public void onFailure(final OperationChain<?> opChain, final User user, final Exception e) {
+        final Execution execution = executions.remove(opChain);
+        if (null != execution) {
+            release(execution.cost);
+        }
+    }
+
+    /**
+     * @param opChain the operation chain
+     * @param user    the user executing the operation chain
+     * @return the current cost of the operation chain
+     */
+    public double getChainCost(final OperationChain<?> opChain, final User user) {
+        double chainCost = 0;
+        for (final Operation operation : opChain.getOperations()) {
+            chainCost += getBaseCost(operation, user) * getLatencyFactor(operation.getClass());
+        }
+        return chainCost;
+    }
+
+    /**
+     * @return the total cost of the operation chains currently executing
+     */
+    public double getCurrentCost() {
+        releaseDroppedResults();
+        synchronized (loadLock) {
+            return currentCost;
+        }
+    }
+
+    /**
+     * @param operationClass the operation class
+     * @return the mean observed latency of the operation class in
+     * milliseconds, or null if it has not been executed
+     */
+    public Double getMeanLatencyMillis(final Class<? extends Operation> operationClass) {
+        return meanLatencies.get(operationClass);
+    }
+
+    public int getSeedsPerScoreUnit() {
+        return seedsPerScoreUnit;
+    }
+
+    public void setSeedsPerScoreUnit(final int seedsPerScoreUnit) {
+        if (seedsPerScoreUnit < 1) {
+            throw new IllegalArgumentException("seedsPerScoreUnit must be at least 1, but was " + seedsPerScoreUnit);
+        }
+        this.seedsPerScoreUnit = seedsPerScoreUnit;
+    }
+
+    public int getUnrestrictedViewGroups() {
+        return unrestrictedViewGroups;
+    }
+
+    public void setUnrestrictedViewGroups(final int unrestrictedViewGroups) {
+        this.unrestrictedViewGroups = unrestrictedViewGroups;
+    }
+
+    public double getGroupWeight() {
+        return groupWeight;
+    }
+
+    public void setGroupWeight(final double groupWeight) {
+        this.groupWeight = groupWeight;
+    }
+
+    public long getReferenceLatencyMillis() {
+        return referenceLatencyMillis;
+    }
+
+    public void setReferenceLatencyMillis(final long referenceLatencyMillis) {
+        if (referenceLatencyMillis < 1) {
+            throw new IllegalArgumentException("referenceLatencyMillis must be at least 1, but was " + referenceLatencyMillis);
+        }
+        this.referenceLatencyMillis = referenceLatencyMillis;
+    }
+
+    public double getMaxLatencyFactor() {
+        return maxLatencyFactor;
+    }
+
+    public void setMaxLatencyFactor(final double maxLatencyFactor) {
+        this.maxLatencyFactor = maxLatencyFactor;
+    }
+
+    public double getMaxConcurrentCost() {
+        return maxConcurrentCost;
+    }
+
+    /**
+     * @param maxConcurrentCost the maximum total cost of the operation chains
+     *                          executing at once, or
+     *                          {@link #NO_CONCURRENT_COST_LIMIT}
+     */
+    public void setMaxConcurrentCost(final double maxConcurrentCost) {
+        this.maxConcurrentCost = maxConcurrentCost;
+    }
+
+    public long getQueueTimeoutMillis() {
+        return queueTimeoutMillis;
+    }
+
+    /**
+     * @param queueTimeoutMillis the time an operation chain waits for the
+     *                           graph to have capacity before it is rejected
+     */
+    public void setQueueTimeoutMillis(final long queueTimeoutMillis) {
+        this.queueTimeoutMillis = queueTimeoutMillis;
+    }
+
+    private double getBaseCost(final Operation operation, final User user) {
+        final double score = scorer.getChainScore(new OperationChain<>(operation), user);
+        return score * getSeedFactor(operation) * getGroupFactor(operation);
+    }
+
+    private double getSeedFactor(final Operation operation) {
+        if (operation instanceof Input) {
+            final Object input = ((Input) operation).getInput();
+            if (input instanceof Collection) {
+                return 1 + (double) ((Collection) input).size() / seedsPerScoreUnit;
+            }
+        }
+        return 1;
+    }
+
+    private double getGroupFactor(final Operation operation) {
+        if (!(operation instanceof OperationView)) {
+            return 1;
+        }
+
+        final View view = ((OperationView) operation).getView();
+        final int groups;
+        if (null == view || !view.hasGroups()) {
+            groups = unrestrictedViewGroups;
+        } else {
+            groups = view.getEntityGroups().size() + view.getEdgeGroups().size();
+        }
+        return 1 + groupWeight * Math.max(0, groups - 1);
+    }
+
+    private double getLatencyFactor(final Class<? extends Operation> operationClass) {
+        final Double meanLatency = meanLatencies.get(operationClass);
+        if (null == meanLatency) {
+            return 1;
+        }
+        return Math.min(maxLatencyFactor, Math.max(1, meanLatency / referenceLatencyMillis));
+    }
+
+    private void recordLatency(final List<Operation> operations, final Execution execution) {
+        final double latencyMillis = (System.nanoTime() - execution.startTime) / 1e6;
+        double totalBaseCost = 0;
+        for (final double baseCost : execution.baseCosts) {
+            totalBaseCost += baseCost;
+        }
+
+        for (int i = 0; i < operations.size() && i < execution.baseCosts.length; i++) {
+            final double share = totalBaseCost > 0 ? execution.baseCosts[i] / totalBaseCost : 1.0 / operations.size();
+            final double operationLatency = latencyMillis * share;
+            meanLatencies.merge(operations.get(i).getClass(), operationLatency,
+                    (mean, latency) -> mean + LATENCY_SMOOTHING * (latency - mean));
+        }
+    }
+
+    private void complete(final List<Operation> operations, final Execution execution) {
+        unclosedResults.remove(execution);
+        release(execution.cost);
+        recordLatency(operations, execution);
+    }
+
+    /**
+     * Closes the results that have been garbage collected without being
+     * closed or read to the end, and releases their cost.
+     */
+    private void releaseDroppedResults() {
+        ResultReference reference;
+        while (null != (reference = (ResultReference) droppedResults.poll())) {
+            unclosedResults.remove(reference.execution);
+            if (reference.completed.compareAndSet(false, true)) {
+                try {
+                    reference.iterable.close();
+                } finally {
+                    release(reference.execution.cost);
+                }
+            }
+        }
+    }
+
+    private void acquire(final double cost) {
+        synchronized (loadLock) {
+            final long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(queueTimeoutMillis);
+            while (maxConcurrentCost >= 0 && numExecuting > 0 && currentCost + cost > maxConcurrentCost) {
+                final long remaining = deadline - System.nanoTime();
+                if (remaining <= 0) {
+                    throw new GafferRuntimeException("The graph is too busy to execute the operation chain. Please try again later.",
+                            Status.SERVICE_UNAVAILABLE);
+                }
+                try {
+                    TimeUnit.NANOSECONDS.timedWait(loadLock, remaining);
+                } catch (final InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new GafferRuntimeException("Interrupted while waiting to execute the operation chain", e,
+                            Status.SERVICE_UNAVAILABLE);
+                }
+            }
+            currentCost += cost;
+            numExecuting++;
+        }
+    }
+
+    private void release(final double cost) {
+        synchronized (loadLock) {
+            numExecuting--;
+            // Resetting the cost when nothing is executing stops rounding errors accumulating
+            currentCost = 0 == numExecuting ? 0 : currentCost - cost;
+            loadLock.notifyAll();
+        }
+    }
+
+    /**
+     * Runs a completion action once, when the wrapped iterable is closed or
+     * one of its iterators is read to the end or closed.
+     */
+    private static final class CompletingCloseableIterable<T> implements CloseableIterable<T> {
+        private final CloseableIterable<T> iterable;
+        private final AtomicBoolean completed;
+        private final Runnable onComplete;
+
+        private CompletingCloseableIterable(final CloseableIterable<T> iterable, final AtomicBoolean completed, final Runnable onComplete) {
+            this.iterable = iterable;
+            this.completed = completed;
+            this.onComplete = onComplete;
+        }
+
+        @Override
+        public void close() {
+            try {
+                iterable.close();
+            } finally {
+                complete();
+            }
+        }
+
+        @Override
+        public CloseableIterator<T> iterator() {
+            final CloseableIterator<T> iterator;
+            try {
+                iterator = iterable.iterator();
+            } catch (final RuntimeException e) {
+                complete();
+                throw e;
+            }
+            return new CloseableIterator<T>() {
+                @Override
+                public boolean hasNext() {
+                    final boolean hasNext;
+                    try {
+                        hasNext = iterator.hasNext();
+                    } catch (final RuntimeException e) {
+                        complete();
+                        throw e;
+                    }
+                    if (!hasNext) {
+                        complete();
+                    }
+                    return hasNext;
+                }
+
+                @Override
+                public T next() {
+                    return iterator.next();
+                }
+
+                @Override
+                public void remove() {
+                    iterator.remove();
+                }
+
+                @Override
+                public void close() {
+                    try {
+                        iterator.close();
+                    } finally {
+                        complete();
+                    }
+                }
+            };
+        }
+
+        private void complete() {
+            if (completed.compareAndSet(false, true)) {
+                onComplete.run();
+            }
+        }
+    }
+
+    /**
+     * Tracks a wrapped result until it is completed or garbage collected. It
+     * holds the underlying result and completion flag rather than the
+     * wrapper, so that the wrapper can be collected when it is dropped.
+     */
+    private static final class ResultReference extends WeakReference<CloseableIterable<?>> {
+        private final CloseableIterable<?> iterable;
+        private final AtomicBoolean completed;
+        private final Execution execution;
+
+        private ResultReference(final CloseableIterable<?> wrappedResult, final ReferenceQueue<CloseableIterable<?>> queue,
+                                final CloseableIterable<?> iterable, final AtomicBoolean completed, final Execution execution) {
+            super(wrappedResult, queue);
+            this.iterable = iterable;
+            this.completed = completed;
+            this.execution = execution;
+        }
+    }
+
+    private static final class Execution {
+        private final double cost;
+        private final double[] baseCosts;
+        private final long startTime;
+
+        private Execution(final double cost, final double[] baseCosts, final long startTime) {
+            this.cost = cost;
+            this.baseCosts = baseCosts;
+            this.startTime = startTime;
+        }
+    }
+}
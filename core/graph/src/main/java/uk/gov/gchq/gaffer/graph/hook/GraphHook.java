@@ -45,4 +45,55 @@ public interface GraphHook {
     <T> T postExecute(final T result,
                       final OperationChain<?> opChain,
                       final User user);
+
+    /**
+     * Called from {@link uk.gov.gchq.gaffer.graph.Graph} after the store has
+     * executed an {@link OperationChain}, before any postExecute methods are
+     * called. By default this does nothing.
+     *
+     * @param opChain           the {@link OperationChain} that was executed.
+     * @param user              the {@link User} who executed the operation chain
+     * @param updateViewNanos   the time spent merging the graph view into the
+     *                          operation views, in nanoseconds
+     * @param storeExecuteNanos the time spent executing the operation chain on
+     *                          the store, in nanoseconds
+     */
+    default void postStoreExecute(final OperationChain<?> opChain,
+                                  final User user,
+                                  final long updateViewNanos,
+                                  final long storeExecuteNanos) {
+    }
+
+    /**
+     * Called from {@link uk.gov.gchq.gaffer.graph.Graph} if an exception is
+     * thrown while an {@link OperationChain} is executed, including by another
+     * hook. By default this does nothing.
+     *
+     * @param opChain the {@link OperationChain} that failed.
+     * @param user    the {@link User} who executed the operation chain
+     * @param e       the exception that was thrown
+     */
+    default void onFailure(final OperationChain<?> opChain,
+                           final User user,
+                           final Exception e) {
+    }
+
+    /**
+     * Called when a {@link uk.gov.gchq.gaffer.graph.Graph} is built with this
+     * hook registered. By default this does nothing.
+     *
+     * @param graphId the id of the graph
+     */
+    default void onGraphCreated(final String graphId) {
+    }
+
+    /**
+     * Called from {@link uk.gov.gchq.gaffer.graph.Graph#shutdown()} when a
+     * graph this hook is registered with is shut down. By default this does
+     * nothing.
+     *
+     * @param graphId the id of the graph
+     */
+    default void onGraphShutdown(final String graphId) {
+    }
 }
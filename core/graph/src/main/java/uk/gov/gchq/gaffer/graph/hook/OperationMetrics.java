@@ -0,0 +1,149 @@
+/*
+ * Copyright 2017 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.gov.gchq.gaffer.graph.hook;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * An <code>OperationMetrics</code> holds the execution metrics recorded by an
+ * {@link OperationMetricsHook} for one operation class. The latencies
+ * are counted in a fixed set of buckets, each labelled with its upper bound in
+ * milliseconds, so recording an execution never allocates or locks.
+ */
+public class OperationMetrics {
+    static final long[] LATENCY_BUCKETS_MILLIS = {1, 5, 10, 50, 100, 500, 1000, 5000, 10000, 60000};
+    static final String OVERFLOW_BUCKET = "+Inf";
+
+    private final LongAdder count = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+    private final LongAdder totalLatencyNanos = new LongAdder();
+    private final LongAccumulator maxLatencyNanos = new LongAccumulator(Math::max, 0);
+    private final LongAdder updateViewNanos = new LongAdder();
+    private final LongAdder storeExecuteNanos = new LongAdder();
+    private final LongAdder elementsIn = new LongAdder();
+    private final LongAdder elementsOut = new LongAdder();
+    private final AtomicLongArray latencyBuckets = new AtomicLongArray(LATENCY_BUCKETS_MILLIS.length + 1);
+
+    void recordExecution(final long latencyNanos) {
+        count.increment();
+        totalLatencyNanos.add(latencyNanos);
+        maxLatencyNanos.accumulate(latencyNanos);
+        latencyBuckets.incrementAndGet(getBucket(TimeUnit.NANOSECONDS.toMillis(latencyNanos)));
+    }
+
+    void recordStoreExecution(final long updateViewTime, final long storeExecuteTime) {
+        updateViewNanos.add(updateViewTime);
+        storeExecuteNanos.add(storeExecuteTime);
+    }
+
+    void recordFailure() {
+        failures.increment();
+    }
+
+    void recordElementsIn(final long numElements) {
+        elementsIn.add(numElements);
+    }
+
+    void recordElementsOut(final long numElements) {
+        elementsOut.add(numElements);
+    }
+
+    /**
+     * @return the number of successful executions
+     */
+    public long getCount() {
+        return count.sum();
+    }
+
+    /**
+     * @return the number of executions that threw an exception
+     */
+    public long getFailures() {
+        return failures.sum();
+    }
+
+    public double getMeanLatencyMillis() {
+        final long numExecutions = count.sum();
+        return 0 == numExecutions ? 0 : totalLatencyNanos.sum() / (numExecutions * 1e6);
+    }
+
+    public long getMaxLatencyMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(maxLatencyNanos.get());
+    }
+
+    public long getTotalLatencyMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(totalLatencyNanos.sum());
+    }
+
+    /**
+     * @return the total time spent merging the graph view into the operation
+     * views, in milliseconds
+     */
+    public long getTotalUpdateViewMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(updateViewNanos.sum());
+    }
+
+    /**
+     * @return the total time spent executing on the store, in milliseconds
+     */
+    public long getTotalStoreExecuteMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(storeExecuteNanos.sum());
+    }
+
+    /**
+     * @return the number of input items given to the first operation, where
+     * the input is a collection that can be counted without being consumed
+     */
+    public long getElementsIn() {
+        return elementsIn.sum();
+    }
+
+    /**
+     * @return the number of items returned, where the result is a collection
+     * or a {@link uk.gov.gchq.gaffer.commonutil.iterable.CloseableIterable}
+     * that has been fully read
+     */
+    public long getElementsOut() {
+        return elementsOut.sum();
+    }
+
+    /**
+     * @return the number of executions in each latency bucket, keyed by the
+     * upper bound of the bucket in milliseconds
+     */
+    public Map<String, Long> getLatencyHistogram() {
+        final Map<String, Long> histogram = new LinkedHashMap<>();
+        for (int i = 0; i < LATENCY_BUCKETS_MILLIS.length; i++) {
+            histogram.put(Long.toString(LATENCY_BUCKETS_MILLIS[i]), latencyBuckets.get(i));
+        }
+        histogram.put(OVERFLOW_BUCKET, latencyBuckets.get(LATENCY_BUCKETS_MILLIS.length));
+        return histogram;
+    }
+
+    private static int getBucket(final long latencyMillis) {
+        for (int i = 0; i < LATENCY_BUCKETS_MILLIS.length; i++) {
+            if (latencyMillis <= LATENCY_BUCKETS_MILLIS[i]) {
+                return i;
+            }
+        }
+        return LATENCY_BUCKETS_MILLIS.length;
+    }
+}
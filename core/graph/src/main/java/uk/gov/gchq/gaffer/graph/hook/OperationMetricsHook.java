@@ -0,0 +1,271 @@
+/*
+ * Copyright 2017 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.gov.gchq.gaffer.graph.hook;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import uk.gov.gchq.gaffer.commonutil.iterable.CloseableIterable;
+import uk.gov.gchq.gaffer.commonutil.iterable.CloseableIterator;
+import uk.gov.gchq.gaffer.operation.Operation;
+import uk.gov.gchq.gaffer.operation.OperationChain;
+import uk.gov.gchq.gaffer.operation.io.Input;
+import uk.gov.gchq.gaffer.user.User;
+import javax.management.InstanceAlreadyExistsException;
+import javax.management.InstanceNotFoundException;
+import javax.management.JMException;
+import javax.management.MalformedObjectNameException;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * An <code>OperationMetricsHook</code> is a {@link GraphHook} that records
+ * execution metrics for the operation chains executed on a graph. Metrics are
+ * recorded for each operation class, and include a latency histogram, the
+ * number of items in and out, and the time spent merging views and executing
+ * on the store. The metrics for an operation class cover every chain that
+ * contains that operation, so the number of metrics is bounded by the number
+ * of operation classes. Items in are recorded for the first operation in a
+ * chain and items out for the last.
+ * <p>
+ * When a graph is created with the hook, the metrics are registered with the
+ * platform MBean server under the name
+ * <code>uk.gov.gchq.gaffer.graph.hook:type=OperationMetricsHook,graphId=&lt;graphId&gt;,name=&lt;name&gt;</code>,
+ * and they are unregistered when the graph is shut down. If an MBean is
+ * already registered under that name it is left in place.
+ * <p>
+ * Items out are only counted for results that are collections or
+ * {@link CloseableIterable}s. A {@link CloseableIterable} result is wrapped so
+ * that the items are counted the first time it is read to the end, rather
+ * than being read by the hook.
+ */
+public class OperationMetricsHook implements GraphHook, OperationMetricsHookMXBean {
+    public static final String DEFAULT_NAME = "default";
+    public static final String OBJECT_NAME_DOMAIN = "uk.gov.gchq.gaffer.graph.hook";
+    private static final Logger LOGGER = LoggerFactory.getLogger(OperationMetricsHook.class);
+
+    private final String name;
+    private final Map<String, OperationMetrics> metrics = new ConcurrentHashMap<>();
+    private final Map<OperationChain<?>, Long> startTimes = Collections.synchronizedMap(new IdentityHashMap<>());
+    private final Map<String, ObjectName> registeredObjectNames = new ConcurrentHashMap<>();
+
+    public OperationMetricsHook() {
+        this(DEFAULT_NAME);
+    }
+
+    /**
+     * @param name the name of the MBean, used to distinguish the hooks
+     *             registered with the same graph
+     */
+    public OperationMetricsHook(final String name) {
+        this.name = name;
+    }
+
+    /**
+     * @param graphId the id of the graph
+     * @param name    the name of the hook
+     * @return the name of the MBean of the hook with the given name on the
+     * given graph
+     * @throws MalformedObjectNameException if the name is not valid
+     */
+    public static ObjectName createObjectName(final String graphId, final String name) throws MalformedObjectNameException {
+        return new ObjectName(OBJECT_NAME_DOMAIN + ":type=OperationMetricsHook,graphId="
+                + ObjectName.quote(String.valueOf(graphId)) + ",name=" + ObjectName.quote(name));
+    }
+
+    @Override
+    public void onGraphCreated(final String graphId) {
+        try {
+            final ObjectName objectName = createObjectName(graphId, name);
+            ManagementFactory.getPlatformMBeanServer().registerMBean(this, objectName);
+            registeredObjectNames.put(String.valueOf(graphId), objectName);
+        } catch (final InstanceAlreadyExistsException e) {
+            LOGGER.warn("An MBean is already registered for operation metrics {} on graph {}, so these metrics will not be available over JMX",
+                    name, graphId);
+        } catch (final JMException e) {
+            LOGGER.warn("Unable to register operation metrics MBean {} for graph {}", name, graphId, e);
+        }
+    }
+
+    @Override
+    public void onGraphShutdown(final String graphId) {
+        unregisterMBean(registeredObjectNames.remove(String.valueOf(graphId)));
+    }
+
+    @Override
+    public void preExecute(final OperationChain<?> opChain, final User user) {
+        startTimes.put(opChain, System.nanoTime());
+        if (!opChain.getOperations().isEmpty()) {
+            final Operation first = opChain.getOperations().get(0);
+            if (first instanceof Input) {
+                final Object input = ((Input) first).getInput();
+                if (input instanceof Collection) {
+                    getMetrics(first).recordElementsIn(((Collection) input).size());
+                }
+            }
+        }
+    }
+
+    @Override
+    public void postStoreExecute(final OperationChain<?> opChain, final User user, final long updateViewNanos, final long storeExecuteNanos) {
+        for (final OperationMetrics operationMetrics : getMetrics(opChain)) {
+            operationMetrics.recordStoreExecution(updateViewNanos, storeExecuteNanos);
+        }
+    }
+
+    @Override
+    public <T> T postExecute(final T result, final OperationChain<?> opChain, final User user) {
+        final Long startTime = startTimes.remove(opChain);
+        if (null != startTime) {
+            final long latencyNanos = System.nanoTime() - startTime;
+            for (final OperationMetrics operationMetrics : getMetrics(opChain)) {
+                operationMetrics.recordExecution(latencyNanos);
+            }
+        }
+
+        final List<Operation> operations = opChain.getOperations();
+        if (operations.isEmpty()) {
+            return result;
+        }
+        final OperationMetrics lastMetrics = getMetrics(operations.get(operations.size() - 1));
+        if (result instanceof Collection) {
+            lastMetrics.recordElementsOut(((Collection) result).size());
+        } else if (result instanceof CloseableIterable) {
+            return (T) new CountingCloseableIterable<>((CloseableIterable<?>) result, lastMetrics);
+        }
+        return result;
+    }
+
+    @Override
+    public void onFailure(final OperationChain<?> opChain, final User user, final Exception e) {
+        startTimes.remove(opChain);
+        for (final OperationMetrics operationMetrics : getMetrics(opChain)) {
+            operationMetrics.recordFailure();
+        }
+    }
+
+    @Override
+    public Map<String, OperationMetrics> getOperationMetrics() {
+        return Collections.unmodifiableMap(new TreeMap<>(metrics));
+    }
+
+    @Override
+    public void reset() {
+        metrics.clear();
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Removes the MBeans registered by this hook, for all graphs, from the
+     * platform MBean server.
+     */
+    public void unregisterMBean() {
+        for (final String graphId : new ArrayList<>(registeredObjectNames.keySet())) {
+            onGraphShutdown(graphId);
+        }
+    }
+
+    private void unregisterMBean(final ObjectName objectName) {
+        if (null == objectName) {
+            return;
+        }
+        try {
+            ManagementFactory.getPlatformMBeanServer().unregisterMBean(objectName);
+        } catch (final InstanceNotFoundException e) {
+            LOGGER.debug("Operation metrics MBean {} was already unregistered", objectName);
+        } catch (final JMException e) {
+            LOGGER.warn("Unable to unregister operation metrics MBean {}", objectName, e);
+        }
+    }
+
+    private OperationMetrics getMetrics(final Operation operation) {
+        return metrics.computeIfAbsent(operation.getClass().getName(), k -> new OperationMetrics());
+    }
+
+    private List<OperationMetrics> getMetrics(final OperationChain<?> opChain) {
+        final Set<Class<?>> operationClasses = new LinkedHashSet<>();
+        final List<OperationMetrics> chainMetrics = new ArrayList<>();
+        for (final Operation operation : opChain.getOperations()) {
+            if (operationClasses.add(operation.getClass())) {
+                chainMetrics.add(getMetrics(operation));
+            }
+        }
+        return chainMetrics;
+    }
+
+    private static final class CountingCloseableIterable<T> implements CloseableIterable<T> {
+        private final CloseableIterable<T> iterable;
+        private final OperationMetrics metrics;
+        private final AtomicBoolean counted = new AtomicBoolean(false);
+
+        private CountingCloseableIterable(final CloseableIterable<T> iterable, final OperationMetrics metrics) {
+            this.iterable = iterable;
+            this.metrics = metrics;
+        }
+
+        @Override
+        public void close() {
+            iterable.close();
+        }
+
+        @Override
+        public CloseableIterator<T> iterator() {
+            final CloseableIterator<T> iterator = iterable.iterator();
+            return new CloseableIterator<T>() {
+                private long numItems;
+
+                @Override
+                public boolean hasNext() {
+                    final boolean hasNext = iterator.hasNext();
+                    if (!hasNext && counted.compareAndSet(false, true)) {
+                        metrics.recordElementsOut(numItems);
+                    }
+                    return hasNext;
+                }
+
+                @Override
+                public T next() {
+                    final T next = iterator.next();
+                    numItems++;
+                    return next;
+                }
+
+                @Override
+                public void remove() {
+                    iterator.remove();
+                }
+
+                @Override
+                public void close() {
+                    iterator.close();
+                }
+            };
+        }
+    }
+}
@@ -26,6 +26,9 @@ import org.junit.rules.TemporaryFolder;
 import org.mockito.ArgumentCaptor;
 import org.mockito.InOrder;
 import org.mockito.Mockito;
+import uk.gov.gchq.gaffer.cache.CacheServiceLoader;
+import uk.gov.gchq.gaffer.cache.impl.BoundedCacheService;
+import uk.gov.gchq.gaffer.cache.util.CacheProperties;
 import uk.gov.gchq.gaffer.commonutil.CommonTestConstants;
 import uk.gov.gchq.gaffer.commonutil.JsonAssert;
 import uk.gov.gchq.gaffer.commonutil.StreamUtil;
@@ -75,6 +78,7 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Properties;
 import java.util.Set;
 import java.util.regex.Pattern;
 
@@ -90,6 +94,7 @@ import static org.junit.Assert.fail;
 import static org.mockito.BDDMockito.given;
 import static org.mockito.Mockito.inOrder;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 
 public class GraphTest {
@@ -314,6 +319,46 @@ public class GraphTest {
         assertSame(operation, ops.get(0));
     }
 
+    @Test
+    public void shouldNotifyGraphHooksWhenGraphIsBuiltAndShutDown() {
+        // Given
+        final GraphHook hook = mock(GraphHook.class);
+        final Graph graph = new Graph.Builder()
+                .graphId(GRAPH_ID)
+                .storeProperties(StreamUtil.storeProps(getClass()))
+                .addSchema(new Schema.Builder().build())
+                .addHook(hook)
+                .build();
+
+        // When
+        graph.shutdown();
+
+        // Then
+        final InOrder inOrder = inOrder(hook);
+        inOrder.verify(hook).onGraphCreated(GRAPH_ID);
+        inOrder.verify(hook).onGraphShutdown(GRAPH_ID);
+    }
+
+    @Test
+    public void shouldNotNotifyGraphHooksOfLifecycleWhenDisabled() {
+        // Given
+        final GraphHook hook = mock(GraphHook.class);
+        final Graph graph = new Graph.Builder()
+                .graphId(GRAPH_ID)
+                .storeProperties(StreamUtil.storeProps(getClass()))
+                .addSchema(new Schema.Builder().build())
+                .addHook(hook)
+                .notifyHooksOfLifecycle(false)
+                .build();
+
+        // When
+        graph.shutdown();
+
+        // Then
+        verify(hook, never()).onGraphCreated(Mockito.anyString());
+        verify(hook, never()).onGraphShutdown(Mockito.anyString());
+    }
+
     @Test
     public void shouldCallAllGraphHooksBeforeJobExecuted() throws OperationException {
         // Given
@@ -432,6 +477,116 @@ public class GraphTest {
         assertSame(actualResult, result3);
     }
 
+    @Test
+    public void shouldCallPostStoreExecuteOnAllGraphHooksBeforePostExecute() throws OperationException {
+        // Given
+        final User user = mock(User.class);
+        final GraphHook hook1 = mock(GraphHook.class);
+        final GraphHook hook2 = mock(GraphHook.class);
+        final Store store = mock(Store.class);
+        final Schema schema = new Schema();
+        final Object result = mock(Object.class);
+        final OperationChain opChain = mock(OperationChain.class);
+
+        given(store.getSchema()).willReturn(schema);
+        given(opChain.getOperations()).willReturn(Collections.singletonList(mock(Operation.class)));
+        given(store.execute(opChain, user)).willReturn(result);
+
+        final Graph graph = new Graph.Builder()
+                .graphId(GRAPH_ID)
+                .storeProperties(StreamUtil.storeProps(getClass()))
+                .store(store)
+                .addSchema(schema)
+                .addHook(hook1)
+                .addHook(hook2)
+                .build();
+
+        // When
+        graph.execute(opChain, user);
+
+        // Then
+        final InOrder inOrder = inOrder(store, hook1, hook2);
+        inOrder.verify(store).execute(opChain, user);
+        inOrder.verify(hook1).postStoreExecute(Mockito.eq(opChain), Mockito.eq(user), Mockito.anyLong(), Mockito.anyLong());
+        inOrder.verify(hook2).postStoreExecute(Mockito.eq(opChain), Mockito.eq(user), Mockito.anyLong(), Mockito.anyLong());
+        inOrder.verify(hook1).postExecute(result, opChain, user);
+        inOrder.verify(hook2).postExecute(null, opChain, user);
+    }
+
+    @Test
+    public void shouldCallOnFailureOnAllGraphHooksWhenStoreThrowsException() throws OperationException {
+        // Given
+        final User user = mock(User.class);
+        final GraphHook hook1 = mock(GraphHook.class);
+        final GraphHook hook2 = mock(GraphHook.class);
+        final Store store = mock(Store.class);
+        final Schema schema = new Schema();
+        final OperationChain opChain = mock(OperationChain.class);
+        final OperationException exception = new OperationException("Store failed");
+
+        given(store.getSchema()).willReturn(schema);
+        given(opChain.getOperations()).willReturn(Collections.singletonList(mock(Operation.class)));
+        given(store.execute(opChain, user)).willThrow(exception);
+
+        final Graph graph = new Graph.Builder()
+                .graphId(GRAPH_ID)
+                .storeProperties(StreamUtil.storeProps(getClass()))
+                .store(store)
+                .addSchema(schema)
+                .addHook(hook1)
+                .addHook(hook2)
+                .build();
+
+        // When
+        try {
+            graph.execute(opChain, user);
+            fail("Exception expected");
+        } catch (final OperationException e) {
+            assertSame(exception, e);
+        }
+
+        // Then
+        verify(hook1).onFailure(opChain, user, exception);
+        verify(hook2).onFailure(opChain, user, exception);
+        verify(hook1, Mockito.never()).postExecute(Mockito.any(), Mockito.eq(opChain), Mockito.eq(user));
+    }
+
+    @Test
+    public void shouldReturnCachedResultForRepeatedReadOnlyOperationChain() throws OperationException {
+        // Given
+        final Properties cacheProperties = new Properties();
+        cacheProperties.setProperty(CacheProperties.CACHE_SERVICE_CLASS, BoundedCacheService.class.getName());
+        CacheServiceLoader.initialise(cacheProperties);
+
+        final User user = new User();
+        final Store store = mock(Store.class);
+        final Schema schema = new Schema();
+        given(store.getSchema()).willReturn(schema);
+        given(store.getGraphId()).willReturn(GRAPH_ID);
+        given(store.execute(Mockito.any(OperationChain.class), Mockito.eq(user))).willReturn(Arrays.asList(1, 2, 3));
+
+        final Graph graph = new Graph.Builder()
+                .graphId(GRAPH_ID)
+                .storeProperties(StreamUtil.storeProps(getClass()))
+                .store(store)
+                .addSchema(schema)
+                .resultCache(new OperationChainResultCache(60000))
+                .build();
+
+        try {
+            // When
+            final Object result1 = graph.execute(new OperationChain<>(new GetAllElements()), user);
+            final Object result2 = graph.execute(new OperationChain<>(new GetAllElements()), user);
+
+            // Then
+            assertEquals(Arrays.asList(1, 2, 3), result1);
+            assertEquals(Arrays.asList(1, 2, 3), result2);
+            verify(store, Mockito.times(1)).execute(Mockito.any(OperationChain.class), Mockito.eq(user));
+        } finally {
+            CacheServiceLoader.shutdown();
+        }
+    }
+
     @Test
     public void shouldCallAllGraphHooksAfterJobExecuted() throws OperationException {
         // Given
@@ -0,0 +1,312 @@
+/*
+ * Copyright 2017 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.gov.gchq.gaffer.graph;
+
+import com.google.common.collect.Lists;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import uk.gov.gchq.gaffer.cache.CacheServiceLoader;
+import uk.gov.gchq.gaffer.cache.ICache;
+import uk.gov.gchq.gaffer.cache.impl.BoundedCacheService;
+import uk.gov.gchq.gaffer.cache.impl.HashMapCache;
+import uk.gov.gchq.gaffer.cache.impl.HashMapCacheService;
+import uk.gov.gchq.gaffer.cache.util.CacheProperties;
+import uk.gov.gchq.gaffer.commonutil.iterable.CloseableIterable;
+import uk.gov.gchq.gaffer.commonutil.iterable.WrappedCloseableIterable;
+import uk.gov.gchq.gaffer.data.element.Element;
+import uk.gov.gchq.gaffer.data.element.Entity;
+import uk.gov.gchq.gaffer.operation.OperationChain;
+import uk.gov.gchq.gaffer.operation.data.EntitySeed;
+import uk.gov.gchq.gaffer.operation.impl.Limit;
+import uk.gov.gchq.gaffer.operation.impl.add.AddElements;
+import uk.gov.gchq.gaffer.operation.impl.get.GetAllElements;
+import uk.gov.gchq.gaffer.operation.impl.get.GetElements;
+import uk.gov.gchq.gaffer.store.StoreProperties;
+import uk.gov.gchq.gaffer.user.User;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Properties;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class OperationChainResultCacheTest {
+    private static final String GRAPH_ID = "graphId";
+    private static final User USER = new User.Builder()
+            .userId("user")
+            .dataAuth("auth1")
+            .dataAuth("auth2")
+            .build();
+
+    @Before
+    public void before() {
+        final Properties properties = new Properties();
+        properties.setProperty(CacheProperties.CACHE_SERVICE_CLASS, BoundedCacheService.class.getName());
+        CacheServiceLoader.initialise(properties);
+    }
+
+    @After
+    public void after() {
+        CacheServiceLoader.shutdown();
+    }
+
+    @Test
+    public void shouldCreateTheSameKeyForEqualChainsAndDataAuths() {
+        // Given
+        final OperationChainResultCache resultCache = new OperationChainResultCache(1000);
+        final User sameAuthsInDifferentOrder = new User.Builder()
+                .userId("otherUser")
+                .dataAuth("auth2")
+                .dataAuth("auth1")
+                .build();
+
+        // When
+        final String key1 = resultCache.getKey(GRAPH_ID, createGetElementsChain("1"), USER);
+        final String key2 = resultCache.getKey(GRAPH_ID, createGetElementsChain("1"), sameAuthsInDifferentOrder);
+
+        // Then
+        assertNotNull(key1);
+        assertEquals(key1, key2);
+    }
+
+    @Test
+    public void shouldCreateDifferentKeysForDifferentChainsDataAuthsOrGraphs() {
+        // Given
+        final OperationChainResultCache resultCache = new OperationChainResultCache(1000);
+        final User otherAuths = new User.Builder()
+                .userId("user")
+                .dataAuth("auth1")
+                .build();
+        final String key = resultCache.getKey(GRAPH_ID, createGetElementsChain("1"), USER);
+
+        // When / Then
+        assertNotEquals(key, resultCache.getKey(GRAPH_ID, createGetElementsChain("2"), USER));
+        assertNotEquals(key, resultCache.getKey(GRAPH_ID, createGetElementsChain("1"), otherAuths));
+        assertNotEquals(key, resultCache.getKey("otherGraphId", createGetElementsChain("1"), USER));
+    }
+
+    @Test
+    public void shouldNotCreateKeyForChainContainingWrites() {
+        // Given
+        final OperationChainResultCache resultCache = new OperationChainResultCache(1000);
+        final OperationChain<?> opChain = new OperationChain.Builder()
+                .first(new GetAllElements())
+                .then(new AddElements())
+                .build();
+
+        // When
+        final String key = resultCache.getKey(GRAPH_ID, opChain, USER);
+
+        // Then
+        assertNull(key);
+    }
+
+    @Test
+    public void shouldNotCreateKeyWithoutCacheService() {
+        // Given
+        CacheServiceLoader.shutdown();
+        final OperationChainResultCache resultCache = new OperationChainResultCache(1000);
+
+        // When
+        final String key = resultCache.getKey(GRAPH_ID, createGetElementsChain("1"), USER);
+
+        // Then
+        assertNull(key);
+    }
+
+    @Test
+    public void shouldNotCreateKeyIfCacheDoesNotSupportTimeToLive() {
+        // Given
+        CacheServiceLoader.shutdown();
+        final Properties properties = new Properties();
+        properties.setProperty(CacheProperties.CACHE_SERVICE_CLASS, NoTimeToLiveCacheService.class.getName());
+        CacheServiceLoader.initialise(properties);
+        final OperationChainResultCache resultCache = new OperationChainResultCache(1000);
+
+        // When
+        final String key = resultCache.getKey(GRAPH_ID, createGetElementsChain("1"), USER);
+
+        // Then
+        assertNull(key);
+    }
+
+    @Test
+    public void shouldCacheIterableResultOnceItHasBeenRead() {
+        // Given
+        final OperationChainResultCache resultCache = new OperationChainResultCache(10000);
+        final String key = resultCache.getKey(GRAPH_ID, createGetElementsChain("1"), USER);
+        final CloseableIterable<Integer> result = new WrappedCloseableIterable<>(Arrays.asList(1, 2, 3));
+
+        // When
+        final CloseableIterable<Integer> returnedResult = resultCache.put(key, result);
+
+        // Then
+        assertNull(resultCache.get(key));
+        assertEquals(Arrays.asList(1, 2, 3), Lists.newArrayList(returnedResult));
+        final CloseableIterable<Integer> cachedResult = resultCache.get(key);
+        assertEquals(Arrays.asList(1, 2, 3), Lists.newArrayList(cachedResult));
+    }
+
+    @Test
+    public void shouldNotCacheIterableResultLargerThanMaxResultSize() {
+        // Given
+        final OperationChainResultCache resultCache = new OperationChainResultCache(10000, 2,
+                OperationChainResultCache.DEFAULT_READ_ONLY_OPERATIONS);
+        final String key = resultCache.getKey(GRAPH_ID, createGetElementsChain("1"), USER);
+        final CloseableIterable<Integer> result = new WrappedCloseableIterable<>(Arrays.asList(1, 2, 3));
+
+        // When
+        final CloseableIterable<Integer> returnedResult = resultCache.put(key, result);
+
+        // Then
+        assertEquals(Arrays.asList(1, 2, 3), Lists.newArrayList(returnedResult));
+        assertNull(resultCache.get(key));
+    }
+
+    @Test
+    public void shouldCacheListResultAsUnmodifiableCopy() {
+        // Given
+        final OperationChainResultCache resultCache = new OperationChainResultCache(10000);
+        final String key = resultCache.getKey(GRAPH_ID, createGetElementsChain("1"), USER);
+        final List<Integer> result = Arrays.asList(1, 2, 3);
+
+        // When
+        final List<Integer> returnedResult = resultCache.put(key, result);
+
+        // Then
+        assertSame(result, returnedResult);
+        final List<Integer> cachedResult = resultCache.get(key);
+        assertEquals(result, cachedResult);
+        try {
+            cachedResult.add(4);
+            fail("Exception expected");
+        } catch (final UnsupportedOperationException e) {
+            // Expected
+        }
+    }
+
+    @Test
+    public void shouldNotShareCachedElementsWithCallers() {
+        // Given
+        final OperationChainResultCache resultCache = new OperationChainResultCache(10000);
+        final String key = resultCache.getKey(GRAPH_ID, createGetElementsChain("1"), USER);
+        final Entity entity = new Entity.Builder()
+                .group("group")
+                .vertex("vertex")
+                .property("count", 1)
+                .build();
+        final List<Element> returnedResult = Lists.newArrayList(
+                (CloseableIterable<Element>) resultCache.put(key, new WrappedCloseableIterable<>(Arrays.<Element>asList(entity))));
+
+        // When
+        returnedResult.get(0).putProperty("count", 2);
+        final Element firstHit = ((CloseableIterable<Element>) resultCache.get(key)).iterator().next();
+        firstHit.putProperty("count", 3);
+        final Element secondHit = ((CloseableIterable<Element>) resultCache.get(key)).iterator().next();
+
+        // Then
+        assertNotSame(firstHit, secondHit);
+        assertEquals(entity, secondHit);
+        assertEquals(1, secondHit.getProperty("count"));
+    }
+
+    @Test
+    public void shouldNotCacheOtherResultTypes() {
+        // Given
+        final OperationChainResultCache resultCache = new OperationChainResultCache(10000);
+        final String key = resultCache.getKey(GRAPH_ID, createGetElementsChain("1"), USER);
+        final Object result = new Object();
+
+        // When
+        final Object returnedResult = resultCache.put(key, result);
+
+        // Then
+        assertSame(result, returnedResult);
+        assertNull(resultCache.get(key));
+    }
+
+    @Test
+    public void shouldExpireCachedResults() throws InterruptedException {
+        // Given
+        final OperationChainResultCache resultCache = new OperationChainResultCache(10);
+        final String key = resultCache.getKey(GRAPH_ID, createGetElementsChain("1"), USER);
+        resultCache.put(key, 5L);
+        assertEquals(5L, (long) resultCache.get(key));
+
+        // When
+        Thread.sleep(50);
+
+        // Then
+        assertNull(resultCache.get(key));
+    }
+
+    @Test
+    public void shouldCreateResultCacheFromStoreProperties() {
+        // Given
+        final StoreProperties properties = new StoreProperties();
+        properties.set(OperationChainResultCache.TIME_TO_LIVE, "5000");
+        properties.set(OperationChainResultCache.MAX_RESULT_SIZE, "20");
+        properties.set(OperationChainResultCache.READ_ONLY_OPERATIONS, AddElements.class.getName());
+
+        // When
+        final OperationChainResultCache resultCache = OperationChainResultCache.fromStoreProperties(properties);
+
+        // Then
+        assertEquals(5000, resultCache.getTimeToLiveMillis());
+        assertEquals(20, resultCache.getMaxResultSize());
+        assertTrue(resultCache.getReadOnlyOperations().contains(AddElements.class));
+        assertTrue(resultCache.getReadOnlyOperations().containsAll(OperationChainResultCache.DEFAULT_READ_ONLY_OPERATIONS));
+    }
+
+    @Test
+    public void shouldNotCreateResultCacheIfTimeToLiveIsNotSet() {
+        // When
+        final OperationChainResultCache resultCache = OperationChainResultCache.fromStoreProperties(new StoreProperties());
+
+        // Then
+        assertNull(resultCache);
+    }
+
+    private OperationChain<?> createGetElementsChain(final String seed) {
+        return new OperationChain.Builder()
+                .first(new GetElements.Builder()
+                        .input(new EntitySeed(seed))
+                        .build())
+                .then(new Limit<>(10))
+                .build();
+    }
+
+    public static class NoTimeToLiveCacheService extends HashMapCacheService {
+        private final HashMapCache<Object, Object> cache = new HashMapCache<Object, Object>() {
+            @Override
+            public boolean supportsTimeToLive() {
+                return false;
+            }
+        };
+
+        @Override
+        public <K, V> ICache<K, V> getCache(final String cacheName) {
+            return (ICache<K, V>) cache;
+        }
+    }
+}
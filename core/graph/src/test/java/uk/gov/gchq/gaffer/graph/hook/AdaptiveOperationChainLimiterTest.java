@@ -0,0 +1,283 @@
+/*
+ * Copyright 2017 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.gov.gchq.gaffer.graph.hook;
+
+import org.junit.Test;
+import uk.gov.gchq.gaffer.commonutil.StreamUtil;
+import uk.gov.gchq.gaffer.commonutil.TestGroups;
+import uk.gov.gchq.gaffer.commonutil.exception.UnauthorisedException;
+import uk.gov.gchq.gaffer.commonutil.iterable.CloseableIterable;
+import uk.gov.gchq.gaffer.commonutil.iterable.CloseableIterator;
+import uk.gov.gchq.gaffer.commonutil.iterable.WrappedCloseableIterable;
+import uk.gov.gchq.gaffer.core.exception.GafferRuntimeException;
+import uk.gov.gchq.gaffer.core.exception.Status;
+import uk.gov.gchq.gaffer.data.elementdefinition.view.View;
+import uk.gov.gchq.gaffer.operation.OperationChain;
+import uk.gov.gchq.gaffer.operation.data.EntitySeed;
+import uk.gov.gchq.gaffer.operation.impl.get.GetElements;
+import uk.gov.gchq.gaffer.user.User;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class AdaptiveOperationChainLimiterTest {
+    private static final User USER = new User.Builder()
+            .opAuths("User")
+            .build();
+
+    @Test
+    public void shouldAcceptOperationChainWithFewSeeds() {
+        // Given
+        final AdaptiveOperationChainLimiter limiter = createLimiter();
+        final OperationChain<?> opChain = createGetElementsChain(10, TestGroups.EDGE);
+
+        // When
+        limiter.preExecute(opChain, USER);
+
+        // Then
+        assertEquals(1.01, limiter.getCurrentCost(), 0.0001);
+    }
+
+    @Test
+    public void shouldRejectOperationChainWithManySeeds() {
+        // Given
+        final AdaptiveOperationChainLimiter limiter = createLimiter();
+        final OperationChain<?> opChain = createGetElementsChain(2000, TestGroups.EDGE);
+
+        // When / Then
+        try {
+            limiter.preExecute(opChain, USER);
+            fail("Exception expected");
+        } catch (final UnauthorisedException e) {
+            assertNotNull(e.getMessage());
+        }
+        assertEquals(0, limiter.getCurrentCost(), 0);
+    }
+
+    @Test
+    public void shouldCostUnrestrictedViewMoreThanViewWithOneGroup() {
+        // Given
+        final AdaptiveOperationChainLimiter limiter = createLimiter();
+
+        // When
+        final double restrictedCost = limiter.getChainCost(createGetElementsChain(0, TestGroups.EDGE), USER);
+        final double unrestrictedCost = limiter.getChainCost(createGetElementsChain(0, null), USER);
+
+        // Then
+        assertEquals(1, restrictedCost, 0.0001);
+        assertEquals(1 + AdaptiveOperationChainLimiter.DEFAULT_GROUP_WEIGHT * (AdaptiveOperationChainLimiter.DEFAULT_UNRESTRICTED_VIEW_GROUPS - 1),
+                unrestrictedCost, 0.0001);
+    }
+
+    @Test
+    public void shouldIncreaseCostOfSlowOperations() throws InterruptedException {
+        // Given
+        final AdaptiveOperationChainLimiter limiter = createLimiter();
+        limiter.setReferenceLatencyMillis(10);
+        final OperationChain<?> opChain = createGetElementsChain(0, TestGroups.EDGE);
+
+        // When
+        limiter.preExecute(opChain, USER);
+        Thread.sleep(50);
+        limiter.postExecute(null, opChain, USER);
+
+        // Then
+        assertTrue(limiter.getMeanLatencyMillis(GetElements.class) >= 50);
+        assertTrue(limiter.getChainCost(createGetElementsChain(0, TestGroups.EDGE), USER) >= 5);
+        assertEquals(0, limiter.getCurrentCost(), 0);
+    }
+
+    @Test
+    public void shouldReleaseCostOfIterableResultWhenItHasBeenRead() {
+        // Given
+        final AdaptiveOperationChainLimiter limiter = createLimiter();
+        final OperationChain<?> opChain = createGetElementsChain(0, TestGroups.EDGE);
+        limiter.preExecute(opChain, USER);
+        final CloseableIterable<Integer> storeResult = new WrappedCloseableIterable<>(Arrays.asList(1, 2));
+
+        // When
+        final CloseableIterable<Integer> result = limiter.postExecute(storeResult, opChain, USER);
+
+        // Then
+        assertEquals(1, limiter.getCurrentCost(), 0.0001);
+        assertNull(limiter.getMeanLatencyMillis(GetElements.class));
+        final CloseableIterator<Integer> iterator = result.iterator();
+        assertEquals(1, (int) iterator.next());
+        assertEquals(1, limiter.getCurrentCost(), 0.0001);
+        assertEquals(2, (int) iterator.next());
+        assertFalse(iterator.hasNext());
+        assertEquals(0, limiter.getCurrentCost(), 0);
+        assertNotNull(limiter.getMeanLatencyMillis(GetElements.class));
+    }
+
+    @Test
+    public void shouldReleaseCostOfIterableResultOnlyOnceWhenItIsClosed() {
+        // Given
+        final AdaptiveOperationChainLimiter limiter = createLimiter();
+        final OperationChain<?> opChain1 = createGetElementsChain(0, TestGroups.EDGE);
+        final OperationChain<?> opChain2 = createGetElementsChain(0, TestGroups.EDGE);
+        limiter.preExecute(opChain1, USER);
+        limiter.preExecute(opChain2, USER);
+        final CloseableIterable<Integer> storeResult = new WrappedCloseableIterable<>(Arrays.asList(1, 2));
+        final CloseableIterable<Integer> result = limiter.postExecute(storeResult, opChain1, USER);
+
+        // When
+        result.close();
+        result.close();
+
+        // Then
+        assertEquals(1, limiter.getCurrentCost(), 0.0001);
+    }
+
+    @Test
+    public void shouldCloseAndReleaseCostOfIterableResultWhenItIsDroppedWithoutBeingClosed() throws InterruptedException {
+        // Given
+        final AdaptiveOperationChainLimiter limiter = createLimiter();
+        final OperationChain<?> opChain = createGetElementsChain(0, TestGroups.EDGE);
+        final AtomicBoolean closed = new AtomicBoolean(false);
+        limiter.preExecute(opChain, USER);
+        limiter.postExecute(new WrappedCloseableIterable<Integer>(Arrays.asList(1, 2)) {
+            @Override
+            public void close() {
+                closed.set(true);
+                super.close();
+            }
+        }, opChain, USER);
+
+        // When
+        for (int i = 0; i < 50 && limiter.getCurrentCost() > 0; i++) {
+            System.gc();
+            Thread.sleep(20);
+        }
+
+        // Then
+        assertEquals(0, limiter.getCurrentCost(), 0);
+        assertTrue(closed.get());
+        assertNull(limiter.getMeanLatencyMillis(GetElements.class));
+    }
+
+    @Test
+    public void shouldRejectOperationChainWhenGraphIsBusy() {
+        // Given
+        final AdaptiveOperationChainLimiter limiter = createLimiter();
+        limiter.setMaxConcurrentCost(1.5);
+        final OperationChain<?> opChain1 = createGetElementsChain(0, TestGroups.EDGE);
+        final OperationChain<?> opChain2 = createGetElementsChain(0, TestGroups.EDGE);
+        limiter.preExecute(opChain1, USER);
+
+        // When / Then
+        try {
+            limiter.preExecute(opChain2, USER);
+            fail("Exception expected");
+        } catch (final GafferRuntimeException e) {
+            assertEquals(Status.SERVICE_UNAVAILABLE, e.getStatus());
+        }
+
+        // When
+        limiter.postExecute(null, opChain1, USER);
+        limiter.preExecute(opChain2, USER);
+
+        // Then
+        assertEquals(1, limiter.getCurrentCost(), 0.0001);
+    }
+
+    @Test
+    public void shouldAcceptOperationChainOverConcurrentCostWhenNothingElseIsExecuting() {
+        // Given
+        final AdaptiveOperationChainLimiter limiter = createLimiter();
+        limiter.setMaxConcurrentCost(0.5);
+
+        // When
+        limiter.preExecute(createGetElementsChain(0, TestGroups.EDGE), USER);
+
+        // Then
+        assertEquals(1, limiter.getCurrentCost(), 0.0001);
+    }
+
+    @Test
+    public void shouldReleaseCostOnFailure() {
+        // Given
+        final AdaptiveOperationChainLimiter limiter = createLimiter();
+        final OperationChain<?> opChain = createGetElementsChain(0, TestGroups.EDGE);
+        limiter.preExecute(opChain, USER);
+
+        // When
+        limiter.onFailure(opChain, USER, new RuntimeException("Failed"));
+
+        // Then
+        assertEquals(0, limiter.getCurrentCost(), 0);
+    }
+
+    @Test
+    public void shouldQueueOperationChainUntilGraphHasCapacity() throws Exception {
+        // Given
+        final AdaptiveOperationChainLimiter limiter = createLimiter();
+        limiter.setMaxConcurrentCost(1.5);
+        limiter.setQueueTimeoutMillis(10000);
+        final OperationChain<?> opChain1 = createGetElementsChain(0, TestGroups.EDGE);
+        final OperationChain<?> opChain2 = createGetElementsChain(0, TestGroups.EDGE);
+        limiter.preExecute(opChain1, USER);
+
+        final ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            // When
+            final Future<?> queued = executor.submit(() -> limiter.preExecute(opChain2, USER));
+            Thread.sleep(100);
+            assertFalse(queued.isDone());
+            limiter.postExecute(null, opChain1, USER);
+
+            // Then
+            queued.get(10, TimeUnit.SECONDS);
+            assertEquals(1, limiter.getCurrentCost(), 0.0001);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private AdaptiveOperationChainLimiter createLimiter() {
+        return new AdaptiveOperationChainLimiter(
+                StreamUtil.opScores(AdaptiveOperationChainLimiterTest.class),
+                StreamUtil.authScores(AdaptiveOperationChainLimiterTest.class));
+    }
+
+    private OperationChain<?> createGetElementsChain(final int numSeeds, final String group) {
+        final List<EntitySeed> seeds = new ArrayList<>(numSeeds);
+        for (int i = 0; i < numSeeds; i++) {
+            seeds.add(new EntitySeed("vertex" + i));
+        }
+
+        final GetElements getElements = new GetElements();
+        getElements.setInput(seeds);
+        if (null != group) {
+            getElements.setView(new View.Builder()
+                    .edge(group)
+                    .build());
+        }
+        return new OperationChain<>(getElements);
+    }
+}
@@ -0,0 +1,266 @@
+/*
+ * Copyright 2017 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.gov.gchq.gaffer.graph.hook;
+
+import com.google.common.collect.Lists;
+import org.junit.After;
+import org.junit.Test;
+import uk.gov.gchq.gaffer.commonutil.iterable.CloseableIterable;
+import uk.gov.gchq.gaffer.commonutil.iterable.WrappedCloseableIterable;
+import uk.gov.gchq.gaffer.operation.OperationChain;
+import uk.gov.gchq.gaffer.operation.OperationException;
+import uk.gov.gchq.gaffer.operation.data.EntitySeed;
+import uk.gov.gchq.gaffer.operation.impl.Limit;
+import uk.gov.gchq.gaffer.operation.impl.get.GetAllElements;
+import uk.gov.gchq.gaffer.operation.impl.get.GetElements;
+import uk.gov.gchq.gaffer.user.User;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import javax.management.openmbean.TabularData;
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class OperationMetricsHookTest {
+    private static final String GRAPH_ID = "graphId";
+
+    private final User user = new User();
+    private OperationMetricsHook hook;
+
+    @After
+    public void after() {
+        if (null != hook) {
+            hook.unregisterMBean();
+        }
+    }
+
+    @Test
+    public void shouldRecordExecutionForEachOperationClass() {
+        // Given
+        hook = new OperationMetricsHook();
+        final OperationChain<?> opChain1 = createGetElementsChain();
+        final OperationChain<?> opChain2 = createGetElementsChain();
+        final OperationChain<?> opChain3 = new OperationChain<>(new GetAllElements());
+
+        // When
+        execute(opChain1, null);
+        execute(opChain2, null);
+        execute(opChain3, null);
+
+        // Then
+        final Map<String, OperationMetrics> metrics = hook.getOperationMetrics();
+        assertEquals(3, metrics.size());
+        assertEquals(2, metrics.get(GetElements.class.getName()).getCount());
+        assertEquals(2, metrics.get(Limit.class.getName()).getCount());
+        assertEquals(1, metrics.get(GetAllElements.class.getName()).getCount());
+    }
+
+    @Test
+    public void shouldRecordUpdateViewAndStoreExecuteTimes() {
+        // Given
+        hook = new OperationMetricsHook();
+        final OperationChain<?> opChain = createGetElementsChain();
+
+        // When
+        hook.preExecute(opChain, user);
+        hook.postStoreExecute(opChain, user, TimeUnit.MILLISECONDS.toNanos(3), TimeUnit.MILLISECONDS.toNanos(40));
+        hook.postExecute(null, opChain, user);
+
+        // Then
+        final OperationMetrics metrics = hook.getOperationMetrics().get(GetElements.class.getName());
+        assertEquals(3, metrics.getTotalUpdateViewMillis());
+        assertEquals(40, metrics.getTotalStoreExecuteMillis());
+    }
+
+    @Test
+    public void shouldCountLatenciesInHistogramBuckets() {
+        // Given
+        final OperationMetrics metrics = new OperationMetrics();
+
+        // When
+        metrics.recordExecution(TimeUnit.MICROSECONDS.toNanos(500));
+        metrics.recordExecution(TimeUnit.MILLISECONDS.toNanos(1));
+        metrics.recordExecution(TimeUnit.MILLISECONDS.toNanos(70));
+        metrics.recordExecution(TimeUnit.MINUTES.toNanos(2));
+
+        // Then
+        final Map<String, Long> histogram = metrics.getLatencyHistogram();
+        assertEquals(OperationMetrics.LATENCY_BUCKETS_MILLIS.length + 1, histogram.size());
+        assertEquals(2L, (long) histogram.get("1"));
+        assertEquals(0L, (long) histogram.get("50"));
+        assertEquals(1L, (long) histogram.get("100"));
+        assertEquals(1L, (long) histogram.get(OperationMetrics.OVERFLOW_BUCKET));
+        assertEquals(4, metrics.getCount());
+        assertEquals(TimeUnit.MINUTES.toMillis(2), metrics.getMaxLatencyMillis());
+    }
+
+    @Test
+    public void shouldCountInputCollectionAndOutputCollection() {
+        // Given
+        hook = new OperationMetricsHook();
+        final OperationChain<?> opChain = createGetElementsChain();
+        final List<Integer> result = Arrays.asList(1, 2, 3);
+
+        // When
+        final Object returnedResult = execute(opChain, result);
+
+        // Then
+        assertSame(result, returnedResult);
+        final Map<String, OperationMetrics> metrics = hook.getOperationMetrics();
+        assertEquals(2, metrics.get(GetElements.class.getName()).getElementsIn());
+        assertEquals(0, metrics.get(GetElements.class.getName()).getElementsOut());
+        assertEquals(0, metrics.get(Limit.class.getName()).getElementsIn());
+        assertEquals(3, metrics.get(Limit.class.getName()).getElementsOut());
+    }
+
+    @Test
+    public void shouldCountCloseableIterableOutputOnceWhenFullyRead() {
+        // Given
+        hook = new OperationMetricsHook();
+        final OperationChain<?> opChain = new OperationChain<>(new GetAllElements());
+        final CloseableIterable<Integer> result = new WrappedCloseableIterable<>(Arrays.asList(1, 2, 3, 4));
+
+        // When
+        final CloseableIterable<Integer> returnedResult = execute(opChain, result);
+
+        // Then
+        assertNotSame(result, returnedResult);
+        final OperationMetrics metrics = hook.getOperationMetrics().get(GetAllElements.class.getName());
+        assertEquals(0, metrics.getElementsOut());
+
+        assertEquals(Arrays.asList(1, 2, 3, 4), Lists.newArrayList(returnedResult));
+        assertEquals(Arrays.asList(1, 2, 3, 4), Lists.newArrayList(returnedResult));
+        assertEquals(4, metrics.getElementsOut());
+    }
+
+    @Test
+    public void shouldRecordFailures() {
+        // Given
+        hook = new OperationMetricsHook();
+        final OperationChain<?> opChain = createGetElementsChain();
+
+        // When
+        hook.preExecute(opChain, user);
+        hook.onFailure(opChain, user, new OperationException("Failed"));
+
+        // Then
+        final OperationMetrics metrics = hook.getOperationMetrics().get(Limit.class.getName());
+        assertEquals(1, metrics.getFailures());
+        assertEquals(0, metrics.getCount());
+    }
+
+    @Test
+    public void shouldRemoveAllMetricsOnReset() {
+        // Given
+        hook = new OperationMetricsHook();
+        execute(createGetElementsChain(), null);
+
+        // When
+        hook.reset();
+
+        // Then
+        assertTrue(hook.getOperationMetrics().isEmpty());
+    }
+
+    @Test
+    public void shouldExposeMetricsOverJmx() throws Exception {
+        // Given
+        hook = new OperationMetricsHook("jmxTest");
+        hook.onGraphCreated(GRAPH_ID);
+        execute(new OperationChain<>(new GetAllElements()), null);
+        final MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        final ObjectName objectName = OperationMetricsHook.createObjectName(GRAPH_ID, "jmxTest");
+
+        // When
+        final TabularData metrics = (TabularData) server.getAttribute(objectName, "OperationMetrics");
+
+        // Then
+        assertEquals(1, metrics.size());
+
+        // When
+        hook.onGraphShutdown(GRAPH_ID);
+
+        // Then
+        assertFalse(server.isRegistered(objectName));
+    }
+
+    @Test
+    public void shouldRegisterAnMBeanForEachGraph() throws Exception {
+        // Given
+        final OperationMetricsHook otherHook = new OperationMetricsHook("graphTest");
+        otherHook.onGraphCreated("otherGraphId");
+        hook = new OperationMetricsHook("graphTest");
+
+        try {
+            // When
+            hook.onGraphCreated(GRAPH_ID);
+            execute(new OperationChain<>(new GetAllElements()), null);
+
+            // Then
+            final MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            assertEquals(1, ((TabularData) server.getAttribute(OperationMetricsHook.createObjectName(GRAPH_ID, "graphTest"), "OperationMetrics")).size());
+            assertEquals(0, ((TabularData) server.getAttribute(OperationMetricsHook.createObjectName("otherGraphId", "graphTest"), "OperationMetrics")).size());
+        } finally {
+            otherHook.unregisterMBean();
+        }
+    }
+
+    @Test
+    public void shouldNotReplaceMBeanRegisteredByAnotherHook() throws Exception {
+        // Given
+        final OperationMetricsHook otherHook = new OperationMetricsHook("replaceTest");
+        otherHook.onGraphCreated(GRAPH_ID);
+        hook = new OperationMetricsHook("replaceTest");
+
+        try {
+            // When
+            hook.onGraphCreated(GRAPH_ID);
+            execute(new OperationChain<>(new GetAllElements()), null);
+            hook.onGraphShutdown(GRAPH_ID);
+
+            // Then
+            final MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            final ObjectName objectName = OperationMetricsHook.createObjectName(GRAPH_ID, "replaceTest");
+            assertTrue(server.isRegistered(objectName));
+            assertEquals(0, ((TabularData) server.getAttribute(objectName, "OperationMetrics")).size());
+        } finally {
+            otherHook.unregisterMBean();
+        }
+    }
+
+    private <T> T execute(final OperationChain<?> opChain, final T result) {
+        hook.preExecute(opChain, user);
+        hook.postStoreExecute(opChain, user, 0, 0);
+        return hook.postExecute(result, opChain, user);
+    }
+
+    private OperationChain<?> createGetElementsChain() {
+        return new OperationChain.Builder()
+                .first(new GetElements.Builder()
+                        .input(new EntitySeed("1"), new EntitySeed("2"))
+                        .build())
+                .then(new Limit<>(10))
+                .build();
+    }
+}
@@ -20,7 +20,11 @@ import com.hazelcast.core.IMap;
 import uk.gov.gchq.gaffer.cache.ICache;
 import uk.gov.gchq.gaffer.cache.exception.CacheOperationException;
 import java.util.Collection;
+import java.util.HashSet;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiFunction;
 
 public class HazelcastCache <K, V> implements ICache<K, V> {
     private IMap<K, V> distributedMap;
@@ -43,15 +47,74 @@ public class HazelcastCache <K, V> implements ICache<K, V> {
         }
     }
 
+    @Override
+    public void put(final K key, final V value, final long timeToLive, final TimeUnit timeUnit) throws CacheOperationException {
+        try {
+            distributedMap.put(key, value, timeToLive, timeUnit);
+        } catch (Exception e) {
+            throw new CacheOperationException(e);
+        }
+    }
+
+    @Override
+    public boolean supportsTimeToLive() {
+        return true;
+    }
+
     @Override
     public void putSafe(final K key, final V value) throws CacheOperationException {
-        if (get(key) == null) {
-            put(key, value);
-        } else {
+        if (null != putIfAbsent(key, value)) {
             throw new CacheOperationException("Entry for key " + key + " already exists");
         }
     }
 
+    @Override
+    public V putIfAbsent(final K key, final V value) throws CacheOperationException {
+        try {
+            return distributedMap.putIfAbsent(key, value);
+        } catch (Exception e) {
+            throw new CacheOperationException(e);
+        }
+    }
+
+    /**
+     * Computes the new value whilst holding the cluster wide lock for the key, so the update is atomic across the
+     * cluster as long as other updates to the key also use this method.
+     */
+    @Override
+    public V compute(final K key, final BiFunction<? super K, ? super V, ? extends V> remappingFunction) throws CacheOperationException {
+        try {
+            distributedMap.lock(key);
+        } catch (Exception e) {
+            throw new CacheOperationException(e);
+        }
+        try {
+            final V value = remappingFunction.apply(key, distributedMap.get(key));
+            if (null == value) {
+                distributedMap.delete(key);
+            } else {
+                distributedMap.set(key, value);
+            }
+            return value;
+        } finally {
+            distributedMap.unlock(key);
+        }
+    }
+
+    @Override
+    public Map<K, V> getAll(final Collection<? extends K> keys) {
+        return distributedMap.getAll(new HashSet<>(keys));
+    }
+
+    @Override
+    public void putAll(final Map<? extends K, ? extends V> entries) throws CacheOperationException {
+        try {
+            distributedMap.putAll(entries);
+        } catch (Exception e) {
+            throw new CacheOperationException(e);
+        }
+    }
+
     @Override
     public void remove(final K key) {
         distributedMap.remove(key);
@@ -9,6 +9,8 @@ import org.junit.Before;
 import org.junit.BeforeClass;
 import org.junit.Test;
 import uk.gov.gchq.gaffer.cache.exception.CacheOperationException;
+import java.util.Arrays;
+import java.util.Map;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
@@ -153,4 +155,31 @@ public class HazelcastCacheTest {
         assertThat(cache.getAllValues(), IsCollectionContaining.hasItems(1, 2, 3));
     }
 
+    @Test
+    public void shouldOnlyPutIfAbsent() throws CacheOperationException {
+        // given
+        cache.put("key", 1);
+
+        // when
+        final Integer existing = cache.putIfAbsent("key", 2);
+
+        // then
+        assertEquals(new Integer(1), existing);
+        assertEquals(new Integer(1), cache.get("key"));
+    }
+
+    @Test
+    public void shouldGetAllEntriesForKeys() throws CacheOperationException {
+        // given
+        cache.put("test1", 1);
+        cache.put("test2", 2);
+
+        // when
+        final Map<String, Integer> entries = cache.getAll(Arrays.asList("test1", "test2", "test3"));
+
+        // then
+        assertEquals(2, entries.size());
+        assertEquals(new Integer(1), entries.get("test1"));
+        assertEquals(new Integer(2), entries.get("test2"));
+    }
 }
@@ -20,12 +20,14 @@ import org.apache.commons.jcs.JCS;
 import org.apache.commons.jcs.access.GroupCacheAccess;
 import org.apache.commons.jcs.access.exception.CacheException;
 import org.apache.commons.jcs.engine.behavior.ICompositeCacheAttributes;
+import org.apache.commons.jcs.engine.behavior.IElementAttributes;
 import org.apache.commons.jcs.engine.control.CompositeCache;
 import uk.gov.gchq.gaffer.cache.ICache;
 import uk.gov.gchq.gaffer.cache.exception.CacheOperationException;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Set;
+import java.util.concurrent.TimeUnit;
 
 public class JcsCache <K, V> implements ICache<K, V> {
 
@@ -58,6 +60,27 @@ public class JcsCache <K, V> implements ICache<K, V> {
         }
     }
 
+    @Override
+    public void put(final K key, final V value, final long timeToLive, final TimeUnit timeUnit) throws CacheOperationException {
+        if (key == null) {
+            throw new CacheOperationException("Key must not be null");
+        }
+        // JCS expires entries at a granularity of seconds
+        final IElementAttributes attributes = cache.getDefaultElementAttributes();
+        attributes.setIsEternal(false);
+        attributes.setMaxLife(Math.max(1, timeUnit.toSeconds(timeToLive)));
+        try {
+            cache.putInGroup(key, groupName, value, attributes);
+        } catch (CacheException e) {
+            throw new CacheOperationException("Failed to add item to cache", e);
+        }
+    }
+
+    @Override
+    public boolean supportsTimeToLive() {
+        return true;
+    }
+
     @Override
     public void putSafe(final K key, final V value) throws CacheOperationException {
         if (get(key) == null) {
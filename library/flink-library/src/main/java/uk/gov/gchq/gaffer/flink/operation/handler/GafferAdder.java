@@ -15,10 +15,12 @@
  */
 package uk.gov.gchq.gaffer.flink.operation.handler;
 
-import com.google.common.collect.Iterables;
 import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+import org.apache.flink.metrics.Gauge;
+import org.apache.flink.metrics.MetricGroup;
 import uk.gov.gchq.gaffer.data.element.Element;
 import uk.gov.gchq.gaffer.operation.OperationException;
+import uk.gov.gchq.gaffer.operation.Options;
 import uk.gov.gchq.gaffer.operation.Validatable;
 import uk.gov.gchq.gaffer.operation.impl.add.AddElements;
 import uk.gov.gchq.gaffer.store.Store;
@@ -26,27 +28,56 @@ import uk.gov.gchq.gaffer.store.StoreProperties;
 import uk.gov.gchq.gaffer.store.schema.Schema;
 import uk.gov.gchq.gaffer.user.User;
 import java.io.Serializable;
+import java.util.Map;
 import java.util.Properties;
-import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.LongSupplier;
 
+/**
+ * A GafferAdder adds elements to a Gaffer {@link Store}. The elements are
+ * buffered in a bounded queue, which is consumed by an {@link AddElements}
+ * operation running asynchronously on the store. When the queue is full,
+ * {@link #add(Iterable)} blocks, applying backpressure to the Flink job.
+ * <p>
+ * {@link #flush()} blocks until all of the queued elements have been added to
+ * the store. It is called on each Flink checkpoint, so every element received
+ * before a checkpoint is in the store when the checkpoint completes.
+ * <p>
+ * The maximum size of the queue can be set using the
+ * {@value #MAX_QUEUE_SIZE_OPTION} operation option.
+ */
 @SuppressFBWarnings(value = "SE_TRANSIENT_FIELD_NOT_RESTORED", justification = "There are null checks that will initialise the fields")
 public class GafferAdder implements Serializable {
+    public static final String MAX_QUEUE_SIZE_OPTION = "gaffer.flink.operation.handler.max-queue-size";
+    public static final int MAX_QUEUE_SIZE_DEFAULT = 1000000;
+
     private static final long serialVersionUID = -3418606107861031989L;
+    private static final long WAIT_TIME_IN_MILLISECONDS = 100;
 
     private final String graphId;
     private final byte[] schema;
     private final Properties properties;
     private final boolean validate;
     private final boolean skipInvalid;
+    private final int maxQueueSize;
 
     private transient Store store;
-    private transient ConcurrentLinkedQueue<Element> queue;
-    private transient boolean restart;
+    private transient BlockingQueue<Element> queue;
+    private transient AtomicBoolean restart;
+    private transient AtomicLong elementsAdded;
+    private transient AtomicReference<Exception> failure;
+    private transient Object lock;
 
     public GafferAdder(final Validatable validatable, final Store store) {
         this.store = store;
         this.validate = validatable.isValidate();
         this.skipInvalid = validatable.isSkipInvalidElements();
+        this.maxQueueSize = getMaxQueueSize(validatable);
         graphId = store.getGraphId();
         schema = store.getSchema().toCompactJson();
         properties = store.getProperties().getProperties();
@@ -58,18 +89,101 @@ public class GafferAdder implements Serializable {
         }
     }
 
+    /**
+     * Adds the elements to the queue, blocking while the queue is full.
+     *
+     * @param elements the elements to add
+     */
     public void add(final Iterable<? extends Element> elements) {
+        initialiseQueue();
+        checkForFailure();
+
+        if (null != elements) {
+            try {
+                for (final Element element : elements) {
+                    while (!queue.offer(element, WAIT_TIME_IN_MILLISECONDS, TimeUnit.MILLISECONDS)) {
+                        // The queue is full, so check it is still being consumed.
+                        checkForFailure();
+                        startAddingElementsIfRequired();
+                    }
+                    elementsAdded.incrementAndGet();
+                }
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new RuntimeException("Interrupted whilst waiting to add elements to the queue", e);
+            }
+        }
+
+        startAddingElementsIfRequired();
+    }
+
+    /**
+     * Blocks until all of the queued elements have been added to the store.
+     *
+     * @throws RuntimeException if the elements could not be added to the store
+     */
+    public void flush() {
         if (null == queue) {
-            queue = new ConcurrentLinkedQueue<>();
-            restart = true;
+            return;
         }
 
-        if (null != elements) {
-            Iterables.addAll(queue, elements);
+        synchronized (lock) {
+            while (!queue.isEmpty() || !restart.get()) {
+                checkForFailure();
+                startAddingElementsIfRequired();
+                try {
+                    lock.wait(WAIT_TIME_IN_MILLISECONDS);
+                } catch (final InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new RuntimeException("Interrupted whilst waiting for elements to be added to the store", e);
+                }
+            }
         }
+        checkForFailure();
+    }
+
+    /**
+     * Registers gauges for the queue depth, the number of elements added to
+     * the queue, the number of elements taken from the queue by the store and
+     * the rate at which they are taken.
+     *
+     * @param metricGroup the metric group to register the gauges with
+     */
+    public void registerMetrics(final MetricGroup metricGroup) {
+        metricGroup.gauge("gafferQueueDepth", (Gauge<Integer>) this::getQueueDepth);
+        metricGroup.gauge("gafferElementsAdded", (Gauge<Long>) this::getElementsAdded);
+        metricGroup.gauge("gafferElementsWritten", (Gauge<Long>) this::getElementsWritten);
+        metricGroup.gauge("gafferElementsWrittenPerSecond", new RateGauge(this::getElementsWritten));
+    }
+
+    public int getQueueDepth() {
+        return null != queue ? queue.size() : 0;
+    }
+
+    public long getElementsAdded() {
+        return null != elementsAdded ? elementsAdded.get() : 0;
+    }
 
-        if (restart && !queue.isEmpty()) {
-            restart = false;
+    /**
+     * @return the number of elements that have been taken from the queue by
+     * the store
+     */
+    public long getElementsWritten() {
+        return getElementsAdded() - getQueueDepth();
+    }
+
+    private void initialiseQueue() {
+        if (null == queue) {
+            queue = new LinkedBlockingQueue<>(maxQueueSize);
+            restart = new AtomicBoolean(true);
+            elementsAdded = new AtomicLong();
+            failure = new AtomicReference<>();
+            lock = new Object();
+        }
+    }
+
+    private void startAddingElementsIfRequired() {
+        if (!queue.isEmpty() && restart.compareAndSet(true, false)) {
             store.runAsync(() -> {
                 try {
                     store.execute(new AddElements.Builder()
@@ -78,11 +192,59 @@ public class GafferAdder implements Serializable {
                                     .skipInvalidElements(skipInvalid)
                                     .build(),
                             new User());
-                    restart = true;
-                } catch (final OperationException e) {
+                } catch (final OperationException | RuntimeException e) {
+                    failure.compareAndSet(null, e);
                     throw new RuntimeException(e);
+                } finally {
+                    restart.set(true);
+                    synchronized (lock) {
+                        lock.notifyAll();
+                    }
                 }
             });
         }
     }
+
+    private void checkForFailure() {
+        final Exception e = failure.get();
+        if (null != e) {
+            throw new RuntimeException("Failed to add elements to the store", e);
+        }
+    }
+
+    private static int getMaxQueueSize(final Validatable validatable) {
+        if (validatable instanceof Options) {
+            final Map<String, String> options = ((Options) validatable).getOptions();
+            if (null != options && null != options.get(MAX_QUEUE_SIZE_OPTION)) {
+                return Integer.parseInt(options.get(MAX_QUEUE_SIZE_OPTION));
+            }
+        }
+        return MAX_QUEUE_SIZE_DEFAULT;
+    }
+
+    /**
+     * Reports the rate at which a count has increased since the gauge was
+     * last read.
+     */
+    private static final class RateGauge implements Gauge<Double> {
+        private final LongSupplier count;
+        private long lastCount;
+        private long lastTime = System.nanoTime();
+
+        private RateGauge(final LongSupplier count) {
+            this.count = count;
+            this.lastCount = count.getAsLong();
+        }
+
+        @Override
+        public synchronized Double getValue() {
+            final long currentCount = count.getAsLong();
+            final long currentTime = System.nanoTime();
+            final double seconds = Math.max(1, currentTime - lastTime) / 1e9;
+            final double rate = (currentCount - lastCount) / seconds;
+            lastCount = currentCount;
+            lastTime = currentTime;
+            return rate;
+        }
+    }
 }
@@ -16,6 +16,7 @@
 package uk.gov.gchq.gaffer.flink.operation.handler;
 
 import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+import org.apache.flink.api.common.functions.RuntimeContext;
 import org.apache.flink.api.common.io.RichOutputFormat;
 import org.apache.flink.configuration.Configuration;
 import uk.gov.gchq.gaffer.data.element.Element;
@@ -51,8 +52,16 @@ public class GafferOutput extends RichOutputFormat<Iterable<? extends Element>>
         adder.initialise();
     }
 
+    @Override
+    public void setRuntimeContext(final RuntimeContext runtimeContext) {
+        super.setRuntimeContext(runtimeContext);
+        if (null != runtimeContext) {
+            adder.registerMetrics(runtimeContext.getMetricGroup());
+        }
+    }
+
     @Override
     public void close() throws IOException {
-        // no action required
+        adder.flush();
     }
 }
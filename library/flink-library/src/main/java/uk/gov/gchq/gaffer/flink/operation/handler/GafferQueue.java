@@ -20,13 +20,13 @@ import org.apache.commons.lang3.builder.HashCodeBuilder;
 import javax.annotation.Nonnull;
 import java.util.Iterator;
 import java.util.NoSuchElementException;
-import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.Queue;
 
 public class GafferQueue<T> implements Iterable<T> {
-    private final ConcurrentLinkedQueue<T> queue;
+    private final Queue<T> queue;
     private boolean iteratorAvailable = true;
 
-    public GafferQueue(final ConcurrentLinkedQueue<T> queue) {
+    public GafferQueue(final Queue<T> queue) {
         this.queue = queue;
     }
 
@@ -16,14 +16,24 @@
 package uk.gov.gchq.gaffer.flink.operation.handler;
 
 import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+import org.apache.flink.api.common.functions.RuntimeContext;
 import org.apache.flink.configuration.Configuration;
+import org.apache.flink.runtime.state.FunctionInitializationContext;
+import org.apache.flink.runtime.state.FunctionSnapshotContext;
+import org.apache.flink.streaming.api.checkpoint.CheckpointedFunction;
 import org.apache.flink.streaming.api.functions.sink.RichSinkFunction;
 import uk.gov.gchq.gaffer.data.element.Element;
 import uk.gov.gchq.gaffer.operation.Validatable;
 import uk.gov.gchq.gaffer.store.Store;
 
+/**
+ * A GafferSink adds elements from a Flink stream to a Gaffer store using a
+ * {@link GafferAdder}. On each checkpoint the sink waits until all of the
+ * elements it has received have been added to the store, so elements are
+ * added at least once.
+ */
 @SuppressFBWarnings(value = "SE_TRANSIENT_FIELD_NOT_RESTORED", justification = "There are null checks that will initialise the fields")
-public class GafferSink extends RichSinkFunction<Iterable<? extends Element>> {
+public class GafferSink extends RichSinkFunction<Iterable<? extends Element>> implements CheckpointedFunction {
     private static final long serialVersionUID = 1569145256866410621L;
     private final GafferAdder adder;
 
@@ -45,4 +55,28 @@ public class GafferSink extends RichSinkFunction<Iterable<? extends Element>> {
     public void invoke(final Iterable<? extends Element> elements) throws Exception {
         adder.add(elements);
     }
+
+    @Override
+    public void setRuntimeContext(final RuntimeContext runtimeContext) {
+        super.setRuntimeContext(runtimeContext);
+        if (null != runtimeContext) {
+            adder.registerMetrics(runtimeContext.getMetricGroup());
+        }
+    }
+
+    @Override
+    public void snapshotState(final FunctionSnapshotContext context) throws Exception {
+        adder.flush();
+    }
+
+    @Override
+    public void initializeState(final FunctionInitializationContext context) throws Exception {
+        // There is no state to restore - elements are flushed to the store on each checkpoint
+    }
+
+    @Override
+    public void close() throws Exception {
+        adder.flush();
+        super.close();
+    }
 }
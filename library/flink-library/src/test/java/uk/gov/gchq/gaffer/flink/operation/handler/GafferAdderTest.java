@@ -21,6 +21,7 @@ import org.mockito.ArgumentCaptor;
 import org.mockito.Mockito;
 import uk.gov.gchq.gaffer.data.element.Element;
 import uk.gov.gchq.gaffer.flink.operation.FlinkTest;
+import uk.gov.gchq.gaffer.operation.OperationException;
 import uk.gov.gchq.gaffer.operation.Validatable;
 import uk.gov.gchq.gaffer.operation.impl.add.AddElements;
 import uk.gov.gchq.gaffer.store.Store;
@@ -30,7 +31,10 @@ import uk.gov.gchq.gaffer.user.User;
 import java.util.concurrent.ConcurrentLinkedQueue;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
 import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.verify;
 
@@ -137,4 +141,53 @@ public class GafferAdderTest {
                 .skipInvalidElements(false)
                 .build(), new User());
     }
+
+    @Test
+    public void shouldReportQueueDepthAndElementsWritten() throws Exception {
+        // Given
+        final Validatable op = mock(Validatable.class);
+        final Store store = mock(Store.class);
+        given(store.getProperties()).willReturn(new StoreProperties());
+        given(store.getSchema()).willReturn(new Schema());
+
+        final GafferAdder adder = new GafferAdder(op, store);
+
+        // When
+        adder.add(FlinkTest.EXPECTED_ELEMENTS);
+
+        // Then
+        assertEquals(FlinkTest.EXPECTED_ELEMENTS.size(), adder.getQueueDepth());
+        assertEquals(FlinkTest.EXPECTED_ELEMENTS.size(), adder.getElementsAdded());
+        assertEquals(0, adder.getElementsWritten());
+    }
+
+    @Test
+    public void shouldThrowExceptionOnFlushIfAddElementsFails() throws Exception {
+        // Given
+        final Validatable op = mock(Validatable.class);
+        final Store store = mock(Store.class);
+        given(store.getProperties()).willReturn(new StoreProperties());
+        given(store.getSchema()).willReturn(new Schema());
+        final OperationException exception = new OperationException("Store failure");
+        doThrow(exception).when(store).execute(Mockito.any(AddElements.class), Mockito.any(User.class));
+
+        final GafferAdder adder = new GafferAdder(op, store);
+        adder.add(FlinkTest.EXPECTED_ELEMENTS);
+        final ArgumentCaptor<Runnable> runnableCaptor = ArgumentCaptor.forClass(Runnable.class);
+        verify(store).runAsync(runnableCaptor.capture());
+        try {
+            runnableCaptor.getValue().run();
+            fail("Exception expected");
+        } catch (final RuntimeException e) {
+            assertSame(exception, e.getCause());
+        }
+
+        // When / Then
+        try {
+            adder.flush();
+            fail("Exception expected");
+        } catch (final RuntimeException e) {
+            assertSame(exception, e.getCause());
+        }
+    }
 }
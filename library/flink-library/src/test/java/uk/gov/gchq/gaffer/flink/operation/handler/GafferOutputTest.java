@@ -48,4 +48,17 @@ public class GafferOutputTest {
         // Then
         verify(adder).add(FlinkTest.EXPECTED_ELEMENTS);
     }
+
+    @Test
+    public void shouldFlushGafferAdderOnClose() throws Exception {
+        // Given
+        final GafferAdder adder = mock(GafferAdder.class);
+        final GafferOutput output = new GafferOutput(adder);
+
+        // When
+        output.close();
+
+        // Then
+        verify(adder).flush();
+    }
 }
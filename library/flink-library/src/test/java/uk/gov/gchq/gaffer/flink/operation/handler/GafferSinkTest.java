@@ -48,4 +48,30 @@ public class GafferSinkTest {
         // Then
         verify(adder).add(FlinkTest.EXPECTED_ELEMENTS);
     }
+
+    @Test
+    public void shouldFlushGafferAdderOnSnapshotState() throws Exception {
+        // Given
+        final GafferAdder adder = mock(GafferAdder.class);
+        final GafferSink sink = new GafferSink(adder);
+
+        // When
+        sink.snapshotState(null);
+
+        // Then
+        verify(adder).flush();
+    }
+
+    @Test
+    public void shouldFlushGafferAdderOnClose() throws Exception {
+        // Given
+        final GafferAdder adder = mock(GafferAdder.class);
+        final GafferSink sink = new GafferSink(adder);
+
+        // When
+        sink.close();
+
+        // Then
+        verify(adder).flush();
+    }
 }
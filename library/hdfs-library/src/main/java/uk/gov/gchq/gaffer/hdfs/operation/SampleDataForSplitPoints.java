@@ -39,6 +39,12 @@ import java.util.Map;
  * It order to be generic and deal with any type of input file you also need to provide a
  * {@link MapperGenerator} class name and a
  * {@link uk.gov.gchq.gaffer.hdfs.operation.handler.job.initialiser.JobInitialiser}.
+ * <p>
+ * Each mapper samples the proportionToSample of its elements, keeping at most
+ * maxSamplesPerMapper of them using reservoir sampling, so the number of
+ * samples is bounded however large the input is. The samples are sorted by
+ * the reducers, which can be run in parallel, and the split points are then
+ * read from a merge of the sorted reducer outputs.
  * <b>NOTE</b> - currently this job has to be run as a hadoop job.
  *
  * @see SampleDataForSplitPoints.Builder
@@ -56,6 +62,7 @@ public class SampleDataForSplitPoints implements
 
     private boolean validate = true;
     private float proportionToSample = 0.01f;
+    private int maxSamplesPerMapper = 10000;
 
     /**
      * Used to generate elements from the Hdfs files.
@@ -74,6 +81,7 @@ public class SampleDataForSplitPoints implements
     private Integer numMapTasks;
     private Integer minMapTasks;
     private Integer maxMapTasks;
+    private Integer numReduceTasks;
 
     private Map<String, String> options;
     private Class<? extends CompressionCodec> compressionCodec = GzipCodec.class;
@@ -82,7 +90,8 @@ public class SampleDataForSplitPoints implements
     public ValidationResult validate() {
         final ValidationResult result = Operation.super.validate();
         result.add(FieldUtil.validateRequiredFields(
-                new Tuple3<>("proportionToSample must be greater than 0", proportionToSample, new IsMoreThan(0f))
+                new Tuple3<>("proportionToSample must be greater than 0", proportionToSample, new IsMoreThan(0f)),
+                new Tuple3<>("maxSamplesPerMapper must be greater than 0", maxSamplesPerMapper, new IsMoreThan(0))
         ));
 
         return result;
@@ -137,6 +146,14 @@ public class SampleDataForSplitPoints implements
         this.proportionToSample = proportionToSample;
     }
 
+    public int getMaxSamplesPerMapper() {
+        return maxSamplesPerMapper;
+    }
+
+    public void setMaxSamplesPerMapper(final int maxSamplesPerMapper) {
+        this.maxSamplesPerMapper = maxSamplesPerMapper;
+    }
+
     @Override
     public List<String> getInputPaths() {
         return inputPaths;
@@ -199,37 +216,38 @@ public class SampleDataForSplitPoints implements
 
     @Override
     public Integer getNumReduceTasks() {
-        return 1;
+        return numReduceTasks;
     }
 
     @Override
     public void setNumReduceTasks(final Integer numReduceTasks) {
-        if (null != numReduceTasks && 1 != numReduceTasks) {
-            throw new IllegalArgumentException(getClass().getSimpleName() + " requires the number of reducers to be 1");
+        if (null != numReduceTasks && numReduceTasks < 1) {
+            throw new IllegalArgumentException(getClass().getSimpleName() + " requires at least 1 reducer");
         }
+        this.numReduceTasks = numReduceTasks;
     }
 
     @Override
     public Integer getMinReduceTasks() {
-        return 1;
+        return null;
     }
 
     @Override
     public void setMinReduceTasks(final Integer minReduceTasks) {
         if (null != minReduceTasks && 1 != minReduceTasks) {
-            throw new IllegalArgumentException(getClass().getSimpleName() + " requires the number of reducers to be 1");
+            throw new IllegalArgumentException(getClass().getSimpleName() + " requires a fixed number of reducers, set using numReduceTasks");
         }
     }
 
     @Override
     public Integer getMaxReduceTasks() {
-        return 1;
+        return null;
     }
 
     @Override
     public void setMaxReduceTasks(final Integer maxReduceTasks) {
         if (null != maxReduceTasks && 1 != maxReduceTasks) {
-            throw new IllegalArgumentException(getClass().getSimpleName() + " requires the number of reducers to be 1");
+            throw new IllegalArgumentException(getClass().getSimpleName() + " requires a fixed number of reducers, set using numReduceTasks");
         }
     }
 
@@ -294,6 +312,11 @@ public class SampleDataForSplitPoints implements
             return _self();
         }
 
+        public Builder maxSamplesPerMapper(final int maxSamplesPerMapper) {
+            _getOp().setMaxSamplesPerMapper(maxSamplesPerMapper);
+            return _self();
+        }
+
         public Builder compressionCodec(final Class<? extends CompressionCodec> compressionCodec) {
             _getOp().setCompressionCodec(compressionCodec);
             return _self();
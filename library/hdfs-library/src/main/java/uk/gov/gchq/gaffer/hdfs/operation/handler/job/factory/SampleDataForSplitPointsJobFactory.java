@@ -21,6 +21,7 @@ import uk.gov.gchq.gaffer.store.Store;
 
 public interface SampleDataForSplitPointsJobFactory extends JobFactory<SampleDataForSplitPoints> {
     String PROPORTION_TO_SAMPLE = "proportion_to_sample";
+    String MAX_SAMPLES_PER_MAPPER = "max_samples_per_mapper";
 
     Writable createKey();
 
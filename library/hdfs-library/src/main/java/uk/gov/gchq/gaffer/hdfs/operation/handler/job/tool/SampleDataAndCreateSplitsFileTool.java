@@ -18,16 +18,19 @@ package uk.gov.gchq.gaffer.hdfs.operation.handler.job.tool;
 import org.apache.commons.codec.binary.Base64;
 import org.apache.hadoop.conf.Configuration;
 import org.apache.hadoop.conf.Configured;
+import org.apache.hadoop.fs.FileStatus;
 import org.apache.hadoop.fs.FileSystem;
 import org.apache.hadoop.fs.Path;
 import org.apache.hadoop.io.SequenceFile;
 import org.apache.hadoop.io.Writable;
+import org.apache.hadoop.io.WritableComparator;
 import org.apache.hadoop.mapred.Task;
 import org.apache.hadoop.mapreduce.Counter;
 import org.apache.hadoop.mapreduce.Job;
 import org.apache.hadoop.util.Tool;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import uk.gov.gchq.gaffer.commonutil.CloseableUtil;
 import uk.gov.gchq.gaffer.commonutil.CommonConstants;
 import uk.gov.gchq.gaffer.hdfs.operation.SampleDataForSplitPoints;
 import uk.gov.gchq.gaffer.hdfs.operation.handler.job.factory.SampleDataForSplitPointsJobFactory;
@@ -36,10 +39,15 @@ import uk.gov.gchq.gaffer.store.Store;
 import java.io.BufferedOutputStream;
 import java.io.IOException;
 import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.PriorityQueue;
 
 
 public class SampleDataAndCreateSplitsFileTool extends Configured implements Tool {
     public static final int SUCCESS_RESPONSE = 1;
+    private static final String RESULTS_FILE_PREFIX = "part-r-";
     private static final Logger LOGGER = LoggerFactory.getLogger(SampleDataAndCreateSplitsFileTool.class);
 
     private final SampleDataForSplitPoints operation;
@@ -99,69 +107,157 @@ public class SampleDataAndCreateSplitsFileTool extends Configured implements Too
             throw new OperationException("Failed to get counter: " + Task.Counter.REDUCE_OUTPUT_RECORDS, e);
         }
 
-        final long outputEveryNthRecord;
-        if (counter.getValue() < 2 || expectedNumberOfSplits < 1) {
-            outputEveryNthRecord = 1;
-        } else {
-            outputEveryNthRecord = counter.getValue() / expectedNumberOfSplits;
-        }
-
-        final Path resultsFile = new Path(operation.getOutputPath(), "part-r-00000");
-        LOGGER.info("Will output every {}-th record from {}", outputEveryNthRecord, resultsFile);
-
-        // Read through resulting file, pick out the split points and write to file.
+        // Read through resulting files, pick out the split points and write to file.
         final Configuration conf = getConf();
         final FileSystem fs;
+        final List<Path> resultsFiles;
         try {
             fs = FileSystem.get(conf);
+            resultsFiles = getResultsFiles(fs);
         } catch (final IOException e) {
             LOGGER.error("Exception getting filesystem: {}", e.getMessage());
             throw new OperationException("Failed to get filesystem from configuration: " + e.getMessage(), e);
         }
+        LOGGER.info("Will output {} splits from the {} records in {}", expectedNumberOfSplits, counter.getValue(), resultsFiles);
 
+        writeSplits(fs, resultsFiles, counter.getValue(), expectedNumberOfSplits);
 
-        writeSplits(fs, resultsFile, outputEveryNthRecord, expectedNumberOfSplits);
-
-        try {
-            fs.delete(resultsFile, true);
-            LOGGER.info("Deleted the results file {}", resultsFile);
-        } catch (final IOException e) {
-            LOGGER.error("Failed to delete the results file {}", resultsFile);
-            throw new OperationException("Failed to delete the results file: " + e.getMessage(), e);
+        for (final Path resultsFile : resultsFiles) {
+            try {
+                fs.delete(resultsFile, true);
+                LOGGER.info("Deleted the results file {}", resultsFile);
+            } catch (final IOException e) {
+                LOGGER.error("Failed to delete the results file {}", resultsFile);
+                throw new OperationException("Failed to delete the results file: " + e.getMessage(), e);
+            }
         }
 
         return SUCCESS_RESPONSE;
     }
 
-    private void writeSplits(final FileSystem fs, final Path resultsFile, final long outputEveryNthRecord, final int numberSplitsExpected) throws OperationException {
+    List<Path> getResultsFiles(final FileSystem fs) throws IOException {
+        final List<Path> resultsFiles = new ArrayList<>();
+        for (final FileStatus status : fs.listStatus(new Path(operation.getOutputPath()),
+                path -> path.getName().startsWith(RESULTS_FILE_PREFIX))) {
+            resultsFiles.add(status.getPath());
+        }
+        return resultsFiles;
+    }
+
+    /**
+     * Writes splits spaced evenly through the records in the results files.
+     * Each reducer sorts its own share of the samples, so the results files
+     * are merged to read the splits in order. Different keys can produce the
+     * same split and a split is never written twice, so when the split that is
+     * due has already been written the next different split is written
+     * instead. Every record is counted, including repeated splits, and the
+     * spacing is recalculated from the records and splits remaining after each
+     * split is written. A heavily repeated split is then written once and the
+     * remaining splits are spread over the records after it.
+     */
+    void writeSplits(final FileSystem fs, final List<Path> resultsFiles, final long numberOfRecords, final int numberSplitsExpected) throws OperationException {
         LOGGER.info("Writing splits to {}", operation.getSplitsFilePath());
-        final Writable key = jobFactory.createKey();
-        final Writable value = jobFactory.createValue();
+        final PriorityQueue<ResultsFileReader> readers = new PriorityQueue<>(Math.max(1, resultsFiles.size()));
         long count = 0;
+        long nextSplitRecord = getSplitSpacing(numberOfRecords, numberSplitsExpected);
         int numberSplitPointsOutput = 0;
-        try (final SequenceFile.Reader reader = new SequenceFile.Reader(fs, resultsFile, fs.getConf());
-             final PrintStream splitsWriter = new PrintStream(
-                     new BufferedOutputStream(fs.create(new Path(operation.getSplitsFilePath()), true)),
-                     false, CommonConstants.UTF_8)
+        byte[] previousSplit = null;
+        try (final PrintStream splitsWriter = new PrintStream(
+                new BufferedOutputStream(fs.create(new Path(operation.getSplitsFilePath()), true)),
+                false, CommonConstants.UTF_8)
         ) {
-            while (numberSplitPointsOutput < numberSplitsExpected) {
-                if (!reader.next(key, value)) {
-                    break;
+            for (final Path resultsFile : resultsFiles) {
+                final ResultsFileReader reader = new ResultsFileReader(new SequenceFile.Reader(fs, resultsFile, fs.getConf()));
+                if (reader.next()) {
+                    readers.add(reader);
+                } else {
+                    reader.close();
                 }
+            }
+
+            while (numberSplitPointsOutput < numberSplitsExpected && !readers.isEmpty()) {
+                final ResultsFileReader reader = readers.poll();
+                final byte[] split = reader.split;
                 count++;
-                if (count % outputEveryNthRecord == 0) {
-                    final byte[] split = jobFactory.createSplit(key, value);
+                if (count >= nextSplitRecord && !Arrays.equals(split, previousSplit)) {
                     LOGGER.debug("Outputting split point number {} ({})",
                             numberSplitPointsOutput,
                             Base64.encodeBase64(split));
                     numberSplitPointsOutput++;
                     splitsWriter.println(new String(Base64.encodeBase64(split), CommonConstants.UTF_8));
+                    previousSplit = split;
+                    nextSplitRecord = count + getSplitSpacing(numberOfRecords - count, numberSplitsExpected - numberSplitPointsOutput);
+                }
+
+                if (reader.next()) {
+                    readers.add(reader);
+                } else {
+                    reader.close();
                 }
             }
             LOGGER.info("Total number of records read was {}", count);
         } catch (final IOException e) {
             LOGGER.error("Exception reading results file and outputting split points: {}", e.getMessage());
             throw new OperationException(e.getMessage(), e);
+        } finally {
+            for (final ResultsFileReader reader : readers) {
+                CloseableUtil.close(reader);
+            }
+        }
+    }
+
+    /**
+     * The number of records between splits so that the given number of splits
+     * divides the given number of records into equally sized ranges.
+     */
+    private static long getSplitSpacing(final long numberOfRecords, final int numberOfSplits) {
+        if (numberOfSplits < 1) {
+            return Long.MAX_VALUE;
+        }
+        return Math.max(1, numberOfRecords / (numberOfSplits + 1));
+    }
+
+    /**
+     * Reads the splits from a sorted results file, ordering the files by their
+     * current split so the files can be merged.
+     */
+    private final class ResultsFileReader implements Comparable<ResultsFileReader>, AutoCloseable {
+        private final SequenceFile.Reader reader;
+        private final Writable key = jobFactory.createKey();
+        private final Writable value = jobFactory.createValue();
+        private byte[] split;
+
+        private ResultsFileReader(final SequenceFile.Reader reader) {
+            this.reader = reader;
+        }
+
+        private boolean next() throws IOException {
+            if (reader.next(key, value)) {
+                split = jobFactory.createSplit(key, value);
+                return true;
+            }
+            split = null;
+            return false;
+        }
+
+        @Override
+        public int compareTo(final ResultsFileReader other) {
+            return WritableComparator.compareBytes(split, 0, split.length, other.split, 0, other.split.length);
+        }
+
+        @Override
+        public boolean equals(final Object obj) {
+            return this == obj;
+        }
+
+        @Override
+        public int hashCode() {
+            return System.identityHashCode(this);
+        }
+
+        @Override
+        public void close() throws IOException {
+            reader.close();
         }
     }
 
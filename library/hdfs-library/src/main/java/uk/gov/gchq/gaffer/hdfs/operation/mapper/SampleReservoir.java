@@ -0,0 +1,104 @@
+/*
+ * Copyright 2017 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.gov.gchq.gaffer.hdfs.operation.mapper;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Supplier;
+
+/**
+ * A <code>SampleReservoir</code> holds a uniform random sample of at most
+ * maxSamples of the items offered to it, using reservoir sampling, so the
+ * memory used is bounded however many items are offered.
+ * <p>
+ * Items are offered as {@link Supplier}s, so an item is only created if it is
+ * kept in the sample.
+ *
+ * @param <T> the type of the sampled items
+ */
+public class SampleReservoir<T> {
+    private static final int INITIAL_CAPACITY = 1024;
+
+    private final int maxSamples;
+    private final Random random;
+    private final List<T> samples;
+    private long numOffered;
+
+    /**
+     * @param maxSamples the maximum number of items in the sample
+     * @param random     the source of randomness used to choose the sample
+     */
+    public SampleReservoir(final int maxSamples, final Random random) {
+        if (maxSamples < 1) {
+            throw new IllegalArgumentException("maxSamples must be greater than 0, but was " + maxSamples);
+        }
+        this.maxSamples = maxSamples;
+        this.random = random;
+        this.samples = new ArrayList<>(Math.min(maxSamples, INITIAL_CAPACITY));
+    }
+
+    /**
+     * Offers an item to the sample. Once the sample is full, the item replaces
+     * a random sampled item with probability maxSamples / numOffered, so every
+     * item offered has the same probability of being in the sample.
+     *
+     * @param item supplies the item, if it is kept
+     * @return true if the item was added to the sample
+     */
+    public boolean offer(final Supplier<? extends T> item) {
+        numOffered++;
+        if (samples.size() < maxSamples) {
+            samples.add(item.get());
+            return true;
+        }
+
+        final long index = (long) (random.nextDouble() * numOffered);
+        if (index < maxSamples) {
+            samples.set((int) index, item.get());
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * @return an unmodifiable view of the sampled items
+     */
+    public List<T> getSamples() {
+        return Collections.unmodifiableList(samples);
+    }
+
+    /**
+     * @return the number of items offered since the reservoir was created or
+     * cleared
+     */
+    public long getNumOffered() {
+        return numOffered;
+    }
+
+    public int getMaxSamples() {
+        return maxSamples;
+    }
+
+    /**
+     * Removes all the sampled items.
+     */
+    public void clear() {
+        samples.clear();
+        numOffered = 0;
+    }
+}
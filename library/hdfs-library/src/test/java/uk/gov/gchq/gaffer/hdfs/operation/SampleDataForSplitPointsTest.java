@@ -0,0 +1,217 @@
+/*
+ * Copyright 2017 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.gov.gchq.gaffer.hdfs.operation;
+
+import com.google.common.collect.Sets;
+import org.junit.Test;
+import uk.gov.gchq.gaffer.exception.SerialisationException;
+import uk.gov.gchq.gaffer.hdfs.operation.handler.job.initialiser.TextJobInitialiser;
+import uk.gov.gchq.gaffer.hdfs.operation.mapper.generator.MapperGenerator;
+import uk.gov.gchq.gaffer.jsonserialisation.JSONSerialiser;
+import uk.gov.gchq.gaffer.operation.Operation;
+import uk.gov.gchq.gaffer.operation.OperationTest;
+import uk.gov.gchq.koryphe.ValidationResult;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class SampleDataForSplitPointsTest extends OperationTest {
+    private static final JSONSerialiser SERIALISER = new JSONSerialiser();
+
+    @Override
+    public Class<? extends Operation> getOperationClass() {
+        return SampleDataForSplitPoints.class;
+    }
+
+    @Override
+    protected Set<String> getRequiredFields() {
+        return Sets.newHashSet(
+                "splitsFilePath",
+                "mapperGeneratorClassName",
+                "inputPaths",
+                "outputPath",
+                "jobInitialiser"
+        );
+    }
+
+    @Test
+    @Override
+    public void shouldSerialiseAndDeserialiseOperation() throws SerialisationException {
+        // Given
+        final SampleDataForSplitPoints op = new SampleDataForSplitPoints.Builder()
+                .addInputPath("inputPath")
+                .outputPath("outputPath")
+                .splitsFilePath("/path/to/splits/file")
+                .jobInitialiser(new TextJobInitialiser())
+                .mapperGenerator(MapperGenerator.class)
+                .reducers(4)
+                .proportionToSample(0.5f)
+                .maxSamplesPerMapper(100)
+                .numSplits(10)
+                .build();
+
+        // When
+        final byte[] json = SERIALISER.serialise(op, true);
+        final SampleDataForSplitPoints deserialisedOp = SERIALISER.deserialise(json, SampleDataForSplitPoints.class);
+
+        // Then
+        assertEquals("inputPath", deserialisedOp.getInputPaths().get(0));
+        assertEquals("outputPath", deserialisedOp.getOutputPath());
+        assertEquals("/path/to/splits/file", deserialisedOp.getSplitsFilePath());
+        assertTrue(deserialisedOp.getJobInitialiser() instanceof TextJobInitialiser);
+        assertEquals(MapperGenerator.class.getName(), deserialisedOp.getMapperGeneratorClassName());
+        assertEquals(new Integer(4), deserialisedOp.getNumReduceTasks());
+        assertEquals(0.5f, deserialisedOp.getProportionToSample(), 0);
+        assertEquals(100, deserialisedOp.getMaxSamplesPerMapper());
+        assertEquals(new Integer(10), deserialisedOp.getNumSplits());
+    }
+
+    @Test
+    @Override
+    public void builderShouldCreatePopulatedOperation() {
+        final SampleDataForSplitPoints op = new SampleDataForSplitPoints.Builder()
+                .addInputPath("input")
+                .outputPath("output")
+                .splitsFilePath("splits")
+                .mappers(10)
+                .reducers(20)
+                .proportionToSample(0.1f)
+                .maxSamplesPerMapper(1000)
+                .validate(true)
+                .option("testOption", "true")
+                .build();
+        assertEquals("true", op.getOption("testOption"));
+        assertTrue(op.isValidate());
+        assertEquals("splits", op.getSplitsFilePath());
+        assertEquals(new Integer(10), op.getNumMapTasks());
+        assertEquals(new Integer(20), op.getNumReduceTasks());
+        assertEquals(0.1f, op.getProportionToSample(), 0);
+        assertEquals(1000, op.getMaxSamplesPerMapper());
+        assertEquals("output", op.getOutputPath());
+        assertEquals("input", op.getInputPaths().get(0));
+    }
+
+    @Test
+    public void shouldLeaveNumReduceTasksUnsetByDefault() {
+        // When
+        final SampleDataForSplitPoints op = new SampleDataForSplitPoints();
+
+        // Then
+        assertNull(op.getNumReduceTasks());
+    }
+
+    @Test
+    public void shouldAcceptMultipleReduceTasks() {
+        // Given
+        final SampleDataForSplitPoints op = new SampleDataForSplitPoints();
+
+        // When
+        op.setNumReduceTasks(4);
+
+        // Then
+        assertEquals(new Integer(4), op.getNumReduceTasks());
+    }
+
+    @Test
+    public void shouldRejectLessThanOneReduceTask() {
+        // Given
+        final SampleDataForSplitPoints op = new SampleDataForSplitPoints();
+
+        // When / Then
+        try {
+            op.setNumReduceTasks(0);
+            fail("Exception expected");
+        } catch (final IllegalArgumentException e) {
+            assertTrue(e.getMessage().contains("at least 1 reducer"));
+        }
+    }
+
+    @Test
+    public void shouldRejectMinAndMaxReduceTasks() {
+        // Given
+        final SampleDataForSplitPoints op = new SampleDataForSplitPoints();
+
+        // When / Then
+        try {
+            op.setMinReduceTasks(2);
+            fail("Exception expected");
+        } catch (final IllegalArgumentException e) {
+            assertTrue(e.getMessage().contains("numReduceTasks"));
+        }
+
+        try {
+            op.setMaxReduceTasks(2);
+            fail("Exception expected");
+        } catch (final IllegalArgumentException e) {
+            assertTrue(e.getMessage().contains("numReduceTasks"));
+        }
+    }
+
+    @Test
+    public void shouldBeInvalidWhenMaxSamplesPerMapperIsLessThanOne() {
+        // Given
+        final SampleDataForSplitPoints op = createValidOperation()
+                .maxSamplesPerMapper(0)
+                .build();
+
+        // When
+        final ValidationResult result = op.validate();
+
+        // Then
+        assertFalse(result.isValid());
+        assertTrue(result.getErrors().toString().contains("maxSamplesPerMapper"));
+    }
+
+    @Test
+    public void shouldBeInvalidWhenProportionToSampleIsNotPositive() {
+        // Given
+        final SampleDataForSplitPoints op = createValidOperation()
+                .proportionToSample(0f)
+                .build();
+
+        // When
+        final ValidationResult result = op.validate();
+
+        // Then
+        assertFalse(result.isValid());
+        assertTrue(result.getErrors().toString().contains("proportionToSample"));
+    }
+
+    @Test
+    public void shouldBeValidWhenAllFieldsAreSet() {
+        // Given
+        final SampleDataForSplitPoints op = createValidOperation().build();
+
+        // When
+        final ValidationResult result = op.validate();
+
+        // Then
+        assertTrue(result.getErrors().toString(), result.isValid());
+    }
+
+    private SampleDataForSplitPoints.Builder createValidOperation() {
+        return new SampleDataForSplitPoints.Builder()
+                .addInputPath("input")
+                .outputPath("output")
+                .splitsFilePath("splits")
+                .jobInitialiser(new TextJobInitialiser())
+                .mapperGenerator(MapperGenerator.class);
+    }
+}
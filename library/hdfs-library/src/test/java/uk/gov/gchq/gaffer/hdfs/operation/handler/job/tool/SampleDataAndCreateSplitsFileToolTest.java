@@ -0,0 +1,236 @@
+/*
+ * Copyright 2017 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.gov.gchq.gaffer.hdfs.operation.handler.job.tool;
+
+import org.apache.commons.codec.binary.Base64;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.Path;
+import org.apache.hadoop.io.NullWritable;
+import org.apache.hadoop.io.SequenceFile;
+import org.apache.hadoop.io.Text;
+import org.apache.hadoop.io.Writable;
+import org.apache.hadoop.mapreduce.Job;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import uk.gov.gchq.gaffer.commonutil.CommonConstants;
+import uk.gov.gchq.gaffer.commonutil.CommonTestConstants;
+import uk.gov.gchq.gaffer.hdfs.operation.SampleDataForSplitPoints;
+import uk.gov.gchq.gaffer.hdfs.operation.handler.job.factory.SampleDataForSplitPointsJobFactory;
+import uk.gov.gchq.gaffer.store.Store;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class SampleDataAndCreateSplitsFileToolTest {
+    @Rule
+    public final TemporaryFolder testFolder = new TemporaryFolder(CommonTestConstants.TMP_DIRECTORY);
+
+    private FileSystem fs;
+    private String outputPath;
+    private String splitsFilePath;
+
+    @Before
+    public void setUp() throws IOException {
+        fs = FileSystem.getLocal(new Configuration());
+        outputPath = testFolder.newFolder("output").getAbsolutePath();
+        splitsFilePath = new File(testFolder.getRoot(), "splits").getAbsolutePath();
+    }
+
+    @Test
+    public void shouldMergeResultsFilesFromAllReducersIntoSortedSplits() throws Exception {
+        // Given
+        writeResultsFile("part-r-00000", "b", "d", "f", "h");
+        writeResultsFile("part-r-00001", "a", "c", "e", "g");
+        writeResultsFile("part-r-00002");
+        final SampleDataAndCreateSplitsFileTool tool = createTool(10);
+
+        // When
+        final List<Path> resultsFiles = tool.getResultsFiles(fs);
+        tool.writeSplits(fs, resultsFiles, 8, 10);
+
+        // Then
+        assertEquals(3, resultsFiles.size());
+        assertEquals(Arrays.asList("a", "b", "c", "d", "e", "f", "g", "h"), readSplits());
+    }
+
+    @Test
+    public void shouldNotWriteTheSameSplitTwice() throws Exception {
+        // Given
+        writeResultsFile("part-r-00000", "a", "b", "b", "d");
+        writeResultsFile("part-r-00001", "b", "c", "d");
+        final SampleDataAndCreateSplitsFileTool tool = createTool(10);
+
+        // When
+        tool.writeSplits(fs, tool.getResultsFiles(fs), 7, 10);
+
+        // Then
+        assertEquals(Arrays.asList("a", "b", "c", "d"), readSplits());
+    }
+
+    @Test
+    public void shouldSpaceSplitsEvenlyUpToTheExpectedNumberOfSplits() throws Exception {
+        // Given
+        writeResultsFile("part-r-00000", "a", "c", "c", "e", "g", "i");
+        writeResultsFile("part-r-00001", "b", "d", "f", "h", "j");
+        final SampleDataAndCreateSplitsFileTool tool = createTool(3);
+
+        // When
+        tool.writeSplits(fs, tool.getResultsFiles(fs), 11, 3);
+
+        // Then
+        assertEquals(Arrays.asList("b", "d", "g"), readSplits());
+    }
+
+    @Test
+    public void shouldWriteTheNextDifferentSplitWhenTheSplitDueHasAlreadyBeenWritten() throws Exception {
+        // Given
+        writeResultsFile("part-r-00000", "a", "b", "b", "b", "b", "c", "d", "e", "f");
+        final SampleDataAndCreateSplitsFileTool tool = createTool(3);
+
+        // When
+        tool.writeSplits(fs, tool.getResultsFiles(fs), 9, 3);
+
+        // Then
+        assertEquals(Arrays.asList("b", "c", "d"), readSplits());
+    }
+
+    @Test
+    public void shouldSpreadSplitsByNumberOfRecordsWhenSplitsAreHeavilyDuplicated() throws Exception {
+        // Given
+        final List<String> hotSplits = new ArrayList<>();
+        final List<String> coldSplits = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            coldSplits.add(String.format("k%03d", i));
+        }
+        for (int i = 0; i < 400; i++) {
+            hotSplits.add("k050");
+        }
+        writeResultsFile("part-r-00000", coldSplits.subList(0, 50).toArray(new String[50]));
+        writeResultsFile("part-r-00001", hotSplits.toArray(new String[400]));
+        writeResultsFile("part-r-00002", coldSplits.subList(50, 100).toArray(new String[50]));
+        final SampleDataAndCreateSplitsFileTool tool = createTool(9);
+
+        // When
+        tool.writeSplits(fs, tool.getResultsFiles(fs), hotSplits.size() + coldSplits.size(), 9);
+
+        // Then
+        final List<String> splits = readSplits();
+        assertEquals(Arrays.asList("k049", "k050", "k051", "k057", "k064", "k071", "k078", "k085", "k092"), splits);
+        for (int i = 1; i < splits.size(); i++) {
+            assertTrue(splits.get(i - 1).compareTo(splits.get(i)) < 0);
+        }
+    }
+
+    @Test
+    public void shouldSpreadSplitsEvenlyWhenThereAreNoDuplicates() throws Exception {
+        // Given
+        final List<String> splits = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            splits.add(String.format("k%03d", i));
+        }
+        writeResultsFile("part-r-00000", splits.toArray(new String[1000]));
+        final SampleDataAndCreateSplitsFileTool tool = createTool(9);
+
+        // When
+        tool.writeSplits(fs, tool.getResultsFiles(fs), 1000, 9);
+
+        // Then
+        assertEquals(Arrays.asList("k099", "k199", "k299", "k399", "k499", "k599", "k699", "k799", "k899"), readSplits());
+    }
+
+    @Test
+    public void shouldOnlyReadReducerResultsFiles() throws Exception {
+        // Given
+        writeResultsFile("part-r-00000", "a");
+        writeResultsFile("_SUCCESS");
+        writeResultsFile("other", "b");
+        final SampleDataAndCreateSplitsFileTool tool = createTool(10);
+
+        // When
+        final List<Path> resultsFiles = tool.getResultsFiles(fs);
+
+        // Then
+        assertEquals(1, resultsFiles.size());
+        assertEquals("part-r-00000", resultsFiles.get(0).getName());
+    }
+
+    private SampleDataAndCreateSplitsFileTool createTool(final int numSplits) {
+        final SampleDataForSplitPoints operation = new SampleDataForSplitPoints.Builder()
+                .outputPath(outputPath)
+                .splitsFilePath(splitsFilePath)
+                .numSplits(numSplits)
+                .build();
+        final SampleDataAndCreateSplitsFileTool tool = new SampleDataAndCreateSplitsFileTool(new TextJobFactory(), operation, null);
+        tool.setConf(fs.getConf());
+        return tool;
+    }
+
+    private void writeResultsFile(final String name, final String... splits) throws IOException {
+        try (final SequenceFile.Writer writer = SequenceFile.createWriter(fs.getConf(),
+                SequenceFile.Writer.file(new Path(outputPath, name)),
+                SequenceFile.Writer.keyClass(Text.class),
+                SequenceFile.Writer.valueClass(NullWritable.class))) {
+            for (final String split : splits) {
+                writer.append(new Text(split), NullWritable.get());
+            }
+        }
+    }
+
+    private List<String> readSplits() throws IOException {
+        final List<String> splits = new ArrayList<>();
+        for (final String line : Files.readAllLines(new File(splitsFilePath).toPath(), StandardCharsets.UTF_8)) {
+            splits.add(new String(Base64.decodeBase64(line), CommonConstants.UTF_8));
+        }
+        return splits;
+    }
+
+    private static final class TextJobFactory implements SampleDataForSplitPointsJobFactory {
+        @Override
+        public Writable createKey() {
+            return new Text();
+        }
+
+        @Override
+        public Writable createValue() {
+            return NullWritable.get();
+        }
+
+        @Override
+        public byte[] createSplit(final Writable key, final Writable value) {
+            return Arrays.copyOf(((Text) key).getBytes(), ((Text) key).getLength());
+        }
+
+        @Override
+        public int getExpectedNumberOfSplits(final Store store) {
+            throw new UnsupportedOperationException("The number of splits is set on the operation");
+        }
+
+        @Override
+        public Job createJob(final SampleDataForSplitPoints operation, final Store store) {
+            throw new UnsupportedOperationException("The job is not run in this test");
+        }
+    }
+}
@@ -0,0 +1,136 @@
+/*
+ * Copyright 2017 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.gov.gchq.gaffer.hdfs.operation.mapper;
+
+import org.junit.Test;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class SampleReservoirTest {
+
+    @Test
+    public void shouldKeepAllItemsUntilTheReservoirIsFull() {
+        // Given
+        final SampleReservoir<Integer> reservoir = new SampleReservoir<>(10, new Random(1));
+
+        // When
+        for (int i = 0; i < 5; i++) {
+            final int item = i;
+            assertTrue(reservoir.offer(() -> item));
+        }
+
+        // Then
+        assertEquals(Arrays.asList(0, 1, 2, 3, 4), reservoir.getSamples());
+        assertEquals(5, reservoir.getNumOffered());
+    }
+
+    @Test
+    public void shouldNeverHoldMoreThanMaxSamples() {
+        // Given
+        final SampleReservoir<Integer> reservoir = new SampleReservoir<>(100, new Random(1));
+
+        // When
+        for (int i = 0; i < 100000; i++) {
+            final int item = i;
+            reservoir.offer(() -> item);
+            assertTrue(reservoir.getSamples().size() <= 100);
+        }
+
+        // Then
+        assertEquals(100, reservoir.getSamples().size());
+        assertEquals(100, new HashSet<>(reservoir.getSamples()).size());
+        assertEquals(100000, reservoir.getNumOffered());
+    }
+
+    @Test
+    public void shouldOnlyCreateItemsThatAreKept() {
+        // Given
+        final SampleReservoir<Integer> reservoir = new SampleReservoir<>(10, new Random(1));
+        final AtomicInteger numCreated = new AtomicInteger();
+        int numKept = 0;
+
+        // When
+        for (int i = 0; i < 10000; i++) {
+            final int item = i;
+            if (reservoir.offer(() -> {
+                numCreated.incrementAndGet();
+                return item;
+            })) {
+                numKept++;
+            }
+        }
+
+        // Then
+        assertEquals(numKept, numCreated.get());
+        assertTrue(numCreated.get() < 10000);
+    }
+
+    @Test
+    public void shouldSampleLaterItemsAsOftenAsEarlierItems() {
+        // Given
+        final Random random = new Random(1);
+        final int numTrials = 2000;
+        int numFromFirstHalf = 0;
+
+        // When
+        for (int trial = 0; trial < numTrials; trial++) {
+            final SampleReservoir<Integer> reservoir = new SampleReservoir<>(10, random);
+            for (int i = 0; i < 1000; i++) {
+                final int item = i;
+                reservoir.offer(() -> item);
+            }
+            for (final int sample : reservoir.getSamples()) {
+                if (sample < 500) {
+                    numFromFirstHalf++;
+                }
+            }
+        }
+
+        // Then
+        final double proportionFromFirstHalf = (double) numFromFirstHalf / (numTrials * 10);
+        assertEquals(0.5, proportionFromFirstHalf, 0.02);
+    }
+
+    @Test
+    public void shouldRemoveAllSamplesOnClear() {
+        // Given
+        final SampleReservoir<Integer> reservoir = new SampleReservoir<>(10, new Random(1));
+        reservoir.offer(() -> 1);
+
+        // When
+        reservoir.clear();
+
+        // Then
+        assertTrue(reservoir.getSamples().isEmpty());
+        assertEquals(0, reservoir.getNumOffered());
+    }
+
+    @Test
+    public void shouldRejectMaxSamplesLessThanOne() {
+        try {
+            new SampleReservoir<>(0, new Random(1));
+            fail("Exception expected");
+        } catch (final IllegalArgumentException e) {
+            assertTrue(e.getMessage().contains("maxSamples"));
+        }
+    }
+}
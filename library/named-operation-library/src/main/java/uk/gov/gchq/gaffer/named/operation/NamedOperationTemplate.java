@@ -0,0 +1,179 @@
+/*
+ * Copyright 2017 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.gov.gchq.gaffer.named.operation;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import uk.gov.gchq.gaffer.jsonserialisation.JSONSerialiser;
+import uk.gov.gchq.gaffer.operation.OperationChain;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A NamedOperationTemplate is the compiled form of the operation chain JSON
+ * held in a {@link NamedOperationDetail}. The JSON is parsed once into a tree
+ * and the position of each <code>"${paramName}"</code> placeholder is recorded
+ * as a slot for that parameter. Binding parameters copies the tree, puts each
+ * parameter value, converted to the parameter's value class, into its slots
+ * and converts the tree into a new {@link OperationChain}, so the JSON text is
+ * never searched or parsed again.
+ */
+final class NamedOperationTemplate {
+    private static final ObjectMapper MAPPER = JSONSerialiser.createDefaultMapper();
+
+    private final JsonNode tree;
+    private final Map<String, ParameterDetail> parameters;
+    private final List<Slot> slots = new ArrayList<>();
+    private final Map<String, JsonNode> defaultValues = new HashMap<>();
+
+    NamedOperationTemplate(final String operations, final Map<String, ParameterDetail> parameters) {
+        try {
+            this.tree = MAPPER.readTree(operations);
+        } catch (final IOException e) {
+            throw new IllegalArgumentException(e.getMessage());
+        }
+        this.parameters = null != parameters ? parameters : Collections.emptyMap();
+
+        for (final Map.Entry<String, ParameterDetail> entry : this.parameters.entrySet()) {
+            if (!entry.getValue().isRequired()) {
+                defaultValues.put(entry.getKey(), toJsonNode(entry.getValue().getDefaultValue()));
+            }
+        }
+        findSlots(tree, new ArrayList<>());
+    }
+
+    /**
+     * Creates a new {@link OperationChain} from the template.
+     *
+     * @param executionParams the parameter values, or null to use the defaults
+     * @param useDefaults     if true any missing required parameters are set to
+     *                        null, rather than causing an exception
+     * @return a new {@link OperationChain}
+     * @throws IllegalArgumentException if a parameter name is not expected,
+     *                                  a required parameter is missing or a
+     *                                  parameter value cannot be converted
+     */
+    OperationChain getOperationChain(final Map<String, Object> executionParams, final boolean useDefaults) {
+        if (null != executionParams && !parameters.keySet().containsAll(executionParams.keySet())) {
+            throw new IllegalArgumentException("Unexpected parameter name in NamedOperation");
+        }
+
+        final Map<String, JsonNode> values = new HashMap<>(parameters.size());
+        for (final Map.Entry<String, ParameterDetail> entry : parameters.entrySet()) {
+            final String paramKey = entry.getKey();
+            if (null != executionParams && executionParams.containsKey(paramKey)) {
+                values.put(paramKey, toTypedJsonNode(executionParams.get(paramKey), entry.getValue().getValueClass()));
+            } else if (defaultValues.containsKey(paramKey)) {
+                values.put(paramKey, defaultValues.get(paramKey));
+            } else if (useDefaults) {
+                values.put(paramKey, MAPPER.getNodeFactory().nullNode());
+            } else {
+                throw new IllegalArgumentException("Missing parameter " + paramKey + " with no default");
+            }
+        }
+
+        final JsonNode boundTree = tree.deepCopy();
+        for (final Slot slot : slots) {
+            slot.bind(boundTree, values.get(slot.paramKey));
+        }
+
+        try {
+            return MAPPER.treeToValue(boundTree, OperationChain.class);
+        } catch (final IOException | RuntimeException e) {
+            throw new IllegalArgumentException(e.getMessage());
+        }
+    }
+
+    int getNumSlots() {
+        return slots.size();
+    }
+
+    private void findSlots(final JsonNode node, final List<Object> path) {
+        if (node.isObject()) {
+            final Iterator<Map.Entry<String, JsonNode>> fields = node.fields();
+            while (fields.hasNext()) {
+                final Map.Entry<String, JsonNode> field = fields.next();
+                path.add(field.getKey());
+                findSlots(field.getValue(), path);
+                path.remove(path.size() - 1);
+            }
+        } else if (node.isArray()) {
+            for (int i = 0; i < node.size(); i++) {
+                path.add(i);
+                findSlots(node.get(i), path);
+                path.remove(path.size() - 1);
+            }
+        } else if (node.isTextual() && !path.isEmpty()) {
+            final String text = node.textValue();
+            if (text.startsWith("${") && text.endsWith("}")) {
+                final String paramKey = text.substring(2, text.length() - 1);
+                if (parameters.containsKey(paramKey)) {
+                    slots.add(new Slot(paramKey, path));
+                }
+            }
+        }
+    }
+
+    private static JsonNode toJsonNode(final Object value) {
+        if (null == value) {
+            return MAPPER.getNodeFactory().nullNode();
+        }
+        return MAPPER.valueToTree(value);
+    }
+
+    private static JsonNode toTypedJsonNode(final Object value, final Class valueClass) {
+        if (null == value) {
+            return MAPPER.getNodeFactory().nullNode();
+        }
+        // Converting to the value class checks the type of the parameter
+        return toJsonNode(MAPPER.convertValue(value, valueClass));
+    }
+
+    /**
+     * The position of a parameter placeholder in the tree, as the field names
+     * and array indices leading to it.
+     */
+    private static final class Slot {
+        private final String paramKey;
+        private final Object[] path;
+
+        private Slot(final String paramKey, final List<Object> path) {
+            this.paramKey = paramKey;
+            this.path = path.toArray();
+        }
+
+        private void bind(final JsonNode root, final JsonNode value) {
+            JsonNode parent = root;
+            for (int i = 0; i < path.length - 1; i++) {
+                parent = path[i] instanceof Integer ? parent.get((Integer) path[i]) : parent.get((String) path[i]);
+            }
+
+            final Object last = path[path.length - 1];
+            if (last instanceof Integer) {
+                ((ArrayNode) parent).set((Integer) last, value);
+            } else {
+                ((ObjectNode) parent).set((String) last, value);
+            }
+        }
+    }
+}
@@ -17,22 +17,29 @@
 package uk.gov.gchq.gaffer.named.operation.cache;
 
 
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
 import uk.gov.gchq.gaffer.cache.CacheServiceLoader;
 import uk.gov.gchq.gaffer.cache.exception.CacheOperationException;
 import uk.gov.gchq.gaffer.commonutil.iterable.CloseableIterable;
 import uk.gov.gchq.gaffer.commonutil.iterable.WrappedCloseableIterable;
 import uk.gov.gchq.gaffer.named.operation.NamedOperationDetail;
 import uk.gov.gchq.gaffer.user.User;
+import java.util.Collection;
 import java.util.HashSet;
+import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 public class NamedOperationCache {
 
-    private static final Logger LOGGER = LoggerFactory.getLogger(NamedOperationCache.class);
     private static final String CACHE_NAME = "NamedOperation";
 
+    /**
+     * The NamedOperationDetails most recently read from the cache service. These hold the compiled
+     * operation chain templates, which would otherwise be lost if the cache service returns a new copy
+     * of the NamedOperationDetail each time.
+     */
+    private final ConcurrentHashMap<String, NamedOperationDetail> compiledNamedOperations = new ConcurrentHashMap<>();
+
     /**
      * If the user is just adding to the cache, ie the overwrite flag is set to false, then no security is added.
      * However if the user is overwriting the named operation stored in the cache, then their opAuths must be checked
@@ -117,19 +124,20 @@ public class NamedOperationCache {
         }
     }
 
+    /**
+     * Gets all of the NamedOperationDetails the user has read access to. The NamedOperationDetails are read from the
+     * cache service in one bulk read, rather than one read per key, and filtered by read access in the same pass.
+     *
+     * @param user The {@link User} object that is used for checking read permissions.
+     * @return the NamedOperationDetails the user can read
+     */
     public CloseableIterable<NamedOperationDetail> getAllNamedOperations(final User user) {
-        Set<String> keys = CacheServiceLoader.getService().getAllKeysFromCache(CACHE_NAME);
-        Set<NamedOperationDetail> executables = new HashSet<>();
-        for (final String key : keys) {
-            try {
-                NamedOperationDetail op = getFromCache(key);
-                if (op.hasReadAccess(user)) {
-                    executables.add(op);
-                }
-            } catch (CacheOperationFailedException e) {
-                LOGGER.error(e.getMessage(), e);
+        final Collection<NamedOperationDetail> allOperations = CacheServiceLoader.getService().getAllValuesFromCache(CACHE_NAME);
+        final Set<NamedOperationDetail> executables = new HashSet<>();
+        for (final NamedOperationDetail op : allOperations) {
+            if (null != op && op.hasReadAccess(user)) {
+                executables.add(getCompiledNamedOperation(op.getOperationName(), op));
             }
-
         }
         return new WrappedCloseableIterable<>(executables);
     }
@@ -137,6 +145,7 @@ public class NamedOperationCache {
     public void clear() throws CacheOperationFailedException {
         try {
             CacheServiceLoader.getService().clearCache(CACHE_NAME);
+            compiledNamedOperations.clear();
         } catch (CacheOperationException e) {
             throw new CacheOperationFailedException("Failed to clear cache", e);
         }
@@ -144,6 +153,7 @@ public class NamedOperationCache {
 
     public void deleteFromCache(final String name) throws CacheOperationFailedException {
         CacheServiceLoader.getService().removeFromCache(CACHE_NAME, name);
+        compiledNamedOperations.remove(name);
 
         if (CacheServiceLoader.getService().getFromCache(CACHE_NAME, name) != null) {
             throw new CacheOperationFailedException("Failed to remove " + name + " from cache");
@@ -160,6 +170,7 @@ public class NamedOperationCache {
         } catch (CacheOperationException e) {
             throw new CacheOperationFailedException(e);
         }
+        compiledNamedOperations.remove(name);
     }
 
     public NamedOperationDetail getFromCache(final String name) throws CacheOperationFailedException {
@@ -169,8 +180,25 @@ public class NamedOperationCache {
         NamedOperationDetail op = CacheServiceLoader.getService().getFromCache(CACHE_NAME, name);
 
         if (op != null) {
-            return op;
+            return getCompiledNamedOperation(name, op);
         }
         throw new CacheOperationFailedException("No named operation with the name " + name + " exists in the cache");
     }
+
+    /**
+     * Returns the previously read copy of a NamedOperationDetail, which holds its compiled operation chain,
+     * as long as it is still equal to the copy in the cache service.
+     *
+     * @param name the name of the NamedOperationDetail
+     * @param op   the NamedOperationDetail read from the cache service
+     * @return the NamedOperationDetail to use
+     */
+    private NamedOperationDetail getCompiledNamedOperation(final String name, final NamedOperationDetail op) {
+        final NamedOperationDetail compiled = compiledNamedOperations.get(name);
+        if (null != compiled && compiled.equals(op) && Objects.equals(compiled.getDescription(), op.getDescription())) {
+            return compiled;
+        }
+        compiledNamedOperations.put(name, op);
+        return op;
+    }
 }
@@ -0,0 +1,126 @@
+/*
+ * Copyright 2017 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.gov.gchq.gaffer.named.operation;
+
+import com.google.common.collect.Maps;
+import org.junit.Test;
+import uk.gov.gchq.gaffer.operation.OperationChain;
+import uk.gov.gchq.gaffer.operation.impl.Limit;
+import uk.gov.gchq.gaffer.operation.impl.get.GetAllElements;
+import java.util.Collections;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.fail;
+
+public class NamedOperationTemplateTest {
+    private static final String OPERATIONS = "{ \"operations\": [ " +
+            "{ \"class\":\"uk.gov.gchq.gaffer.operation.impl.get.GetAllElements\" }, " +
+            "{ \"class\":\"uk.gov.gchq.gaffer.operation.impl.Limit\", \"resultLimit\": \"${limit}\" }, " +
+            "{ \"class\":\"uk.gov.gchq.gaffer.operation.impl.Limit\", \"resultLimit\": \"${limit}\" } ] }";
+
+    @Test
+    public void shouldFindASlotForEachPlaceholder() {
+        // When
+        final NamedOperationTemplate template = new NamedOperationTemplate(OPERATIONS, getParameters(false, 1L));
+
+        // Then
+        assertEquals(2, template.getNumSlots());
+    }
+
+    @Test
+    public void shouldBindParametersIntoANewOperationChainEachTime() {
+        // Given
+        final NamedOperationTemplate template = new NamedOperationTemplate(OPERATIONS, getParameters(false, 1L));
+
+        // When
+        final OperationChain<?> chain1 = template.getOperationChain(Collections.<String, Object>singletonMap("limit", 5L), false);
+        final OperationChain<?> chain2 = template.getOperationChain(Collections.<String, Object>singletonMap("limit", 10), false);
+
+        // Then
+        assertNotSame(chain1.getOperations().get(0), chain2.getOperations().get(0));
+        assertEquals(GetAllElements.class, chain1.getOperations().get(0).getClass());
+        assertEquals(5, (int) ((Limit) chain1.getOperations().get(1)).getResultLimit());
+        assertEquals(5, (int) ((Limit) chain1.getOperations().get(2)).getResultLimit());
+        assertEquals(10, (int) ((Limit) chain2.getOperations().get(1)).getResultLimit());
+        assertEquals(10, (int) ((Limit) chain2.getOperations().get(2)).getResultLimit());
+    }
+
+    @Test
+    public void shouldBindDefaultValueIfParameterIsNotProvided() {
+        // Given
+        final NamedOperationTemplate template = new NamedOperationTemplate(OPERATIONS, getParameters(false, 3L));
+
+        // When
+        final OperationChain<?> chain = template.getOperationChain(null, false);
+
+        // Then
+        assertEquals(3, (int) ((Limit) chain.getOperations().get(1)).getResultLimit());
+    }
+
+    @Test
+    public void shouldBindNullForRequiredParameterWhenUsingDefaults() {
+        // Given
+        final NamedOperationTemplate template = new NamedOperationTemplate(OPERATIONS, getParameters(true, null));
+
+        // When
+        final OperationChain<?> chain = template.getOperationChain(null, true);
+
+        // Then
+        assertNull(((Limit) chain.getOperations().get(1)).getResultLimit());
+    }
+
+    @Test
+    public void shouldThrowExceptionIfRequiredParameterIsMissing() {
+        // Given
+        final NamedOperationTemplate template = new NamedOperationTemplate(OPERATIONS, getParameters(true, null));
+
+        // When / Then
+        try {
+            template.getOperationChain(Collections.emptyMap(), false);
+            fail("Exception expected");
+        } catch (final IllegalArgumentException e) {
+            assertEquals("Missing parameter limit with no default", e.getMessage());
+        }
+    }
+
+    @Test
+    public void shouldThrowExceptionIfParameterHasTheWrongType() {
+        // Given
+        final NamedOperationTemplate template = new NamedOperationTemplate(OPERATIONS, getParameters(false, 1L));
+
+        // When / Then
+        try {
+            template.getOperationChain(Collections.<String, Object>singletonMap("limit", Collections.emptyList()), false);
+            fail("Exception expected");
+        } catch (final IllegalArgumentException e) {
+            // Expected
+        }
+    }
+
+    private Map<String, ParameterDetail> getParameters(final boolean required, final Long defaultValue) {
+        final Map<String, ParameterDetail> parameters = Maps.newHashMap();
+        parameters.put("limit", new ParameterDetail.Builder()
+                .description("Limit param")
+                .valueClass(Long.class)
+                .required(required)
+                .defaultValue(defaultValue)
+                .build());
+        return parameters;
+    }
+}
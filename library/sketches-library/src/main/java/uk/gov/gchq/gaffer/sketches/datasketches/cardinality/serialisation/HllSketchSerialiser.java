@@ -15,13 +15,16 @@
  */
 package uk.gov.gchq.gaffer.sketches.datasketches.cardinality.serialisation;
 
+import com.yahoo.memory.Memory;
 import com.yahoo.sketches.hll.HllSketch;
 import uk.gov.gchq.gaffer.exception.SerialisationException;
 import uk.gov.gchq.gaffer.serialisation.ToBytesSerialiser;
 
 /**
  * A <code>HllSketchSerialiser</code> serialises a {@link com.yahoo.sketches.hll.HllSketch} using its
- * <code>toCompactByteArray()</code> method.
+ * <code>toCompactByteArray()</code> method. When deserialising from part of a
+ * larger byte array, the sketch is read from a {@link Memory} view of the
+ * bytes rather than from a copy of them.
  */
 public class HllSketchSerialiser implements ToBytesSerialiser<HllSketch> {
     private static final long serialVersionUID = 5903372368174309494L;
@@ -41,6 +44,11 @@ public class HllSketchSerialiser implements ToBytesSerialiser<HllSketch> {
         return HllSketch.heapify(bytes);
     }
 
+    @Override
+    public HllSketch deserialise(final byte[] allBytes, final int offset, final int length) throws SerialisationException {
+        return HllSketch.heapify(Memory.wrap(allBytes).region(offset, length));
+    }
+
     @Override
     public HllSketch deserialiseEmpty() throws SerialisationException {
         return null;
@@ -15,13 +15,16 @@
  */
 package uk.gov.gchq.gaffer.sketches.datasketches.cardinality.serialisation;
 
+import com.yahoo.memory.Memory;
 import com.yahoo.sketches.hll.Union;
 import uk.gov.gchq.gaffer.exception.SerialisationException;
 import uk.gov.gchq.gaffer.serialisation.ToBytesSerialiser;
 
 /**
  * A <code>HllUnionSerialiser</code> serialises a {@link com.yahoo.sketches.hll.Union} using its
- * <code>toCompactByteArray()</code> method.
+ * <code>toCompactByteArray()</code> method. When deserialising from part of a
+ * larger byte array, the sketch is read from a {@link Memory} view of the
+ * bytes rather than from a copy of them.
  */
 public class HllUnionSerialiser implements ToBytesSerialiser<Union> {
     private static final long serialVersionUID = 224563354444113561L;
@@ -41,6 +44,11 @@ public class HllUnionSerialiser implements ToBytesSerialiser<Union> {
         return Union.heapify(bytes);
     }
 
+    @Override
+    public Union deserialise(final byte[] allBytes, final int offset, final int length) throws SerialisationException {
+        return Union.heapify(Memory.wrap(allBytes).region(offset, length));
+    }
+
     @Override
     public Union deserialiseEmpty() throws SerialisationException {
         return null;
@@ -0,0 +1,161 @@
+/*
+ * Copyright 2017 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.gov.gchq.gaffer.sketches.datasketches.cardinality.binaryoperator;
+
+import com.yahoo.sketches.hll.HllSketch;
+import org.junit.Test;
+import uk.gov.gchq.koryphe.binaryoperator.BinaryOperatorTest;
+import java.io.IOException;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.BinaryOperator;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+public class HllSketchAggregatorTest extends BinaryOperatorTest {
+    private static final int LG_K = 12;
+    private static final double DELTA = 0.0001;
+
+    @Test
+    public void shouldAggregateSketches() {
+        // Given
+        final HllSketch sketch1 = createSketch(0, 10);
+        final HllSketch sketch2 = createSketch(5, 20);
+        final HllSketchAggregator aggregator = new HllSketchAggregator();
+
+        // When
+        final HllSketch result = aggregator.apply(sketch1, sketch2);
+
+        // Then
+        assertEquals(20, result.getEstimate(), DELTA);
+        assertEquals(10, sketch1.getEstimate(), DELTA);
+        assertEquals(15, sketch2.getEstimate(), DELTA);
+    }
+
+    @Test
+    public void shouldReturnOtherSketchWhenOneIsNull() {
+        // Given
+        final HllSketch sketch = createSketch(0, 10);
+        final HllSketchAggregator aggregator = new HllSketchAggregator();
+
+        // When / Then
+        assertSame(sketch, aggregator.apply(null, sketch));
+        assertSame(sketch, aggregator.apply(sketch, null));
+    }
+
+    @Test
+    public void shouldAggregateManySketchesOneAtATime() {
+        // Given
+        final HllSketchAggregator aggregator = new HllSketchAggregator();
+        HllSketch result = createSketch(0, 10);
+
+        // When
+        for (int i = 1; i < 10; i++) {
+            result = aggregator.apply(result, createSketch(10 * i, 10 * (i + 1)));
+        }
+
+        // Then
+        assertEquals(100, result.getEstimate(), DELTA);
+    }
+
+    @Test
+    public void shouldIncludeUpdatesToAPreviousResult() {
+        // Given
+        final HllSketchAggregator aggregator = new HllSketchAggregator();
+        final HllSketch result = aggregator.apply(createSketch(0, 10), createSketch(10, 20));
+
+        // When
+        for (int i = 20; i < 30; i++) {
+            result.update("value" + i);
+        }
+        final HllSketch updatedResult = aggregator.apply(result, createSketch(30, 40));
+
+        // Then
+        assertNotSame(result, updatedResult);
+        assertEquals(40, updatedResult.getEstimate(), DELTA);
+    }
+
+    @Test
+    public void shouldNotShareStateBetweenUnrelatedAggregations() {
+        // Given
+        final HllSketchAggregator aggregator = new HllSketchAggregator();
+        final HllSketch result1 = aggregator.apply(createSketch(0, 10), createSketch(10, 20));
+
+        // When
+        final HllSketch result2 = aggregator.apply(createSketch(100, 105), createSketch(105, 110));
+        final HllSketch result3 = aggregator.apply(result1, createSketch(20, 30));
+
+        // Then
+        assertEquals(20, result1.getEstimate(), DELTA);
+        assertEquals(10, result2.getEstimate(), DELTA);
+        assertEquals(30, result3.getEstimate(), DELTA);
+    }
+
+    @Test
+    public void shouldAggregateOnMultipleThreads() throws Exception {
+        // Given
+        final HllSketchAggregator aggregator = new HllSketchAggregator();
+        final ExecutorService executor = Executors.newFixedThreadPool(4);
+        final Callable<HllSketch> aggregation = () -> {
+            HllSketch result = createSketch(0, 10);
+            for (int i = 1; i < 50; i++) {
+                result = aggregator.apply(result, createSketch(10 * i, 10 * (i + 1)));
+            }
+            return result;
+        };
+
+        // When
+        final Future<HllSketch> result1;
+        final Future<HllSketch> result2;
+        try {
+            result1 = executor.submit(aggregation);
+            result2 = executor.submit(aggregation);
+        } finally {
+            executor.shutdown();
+        }
+
+        // Then
+        assertEquals(500, result1.get().getEstimate(), 500 * 0.05);
+        assertEquals(result1.get().getEstimate(), result2.get().getEstimate(), DELTA);
+    }
+
+    @Override
+    protected HllSketchAggregator getInstance() {
+        return new HllSketchAggregator();
+    }
+
+    @Override
+    protected Class<? extends BinaryOperator> getFunctionClass() {
+        return HllSketchAggregator.class;
+    }
+
+    @Override
+    public void shouldJsonSerialiseAndDeserialise() throws IOException {
+
+    }
+
+    private static HllSketch createSketch(final int start, final int end) {
+        final HllSketch sketch = new HllSketch(LG_K);
+        for (int i = start; i < end; i++) {
+            sketch.update("value" + i);
+        }
+        return sketch;
+    }
+}
@@ -0,0 +1,100 @@
+/*
+ * Copyright 2017 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.gov.gchq.gaffer.sketches.datasketches.cardinality.serialisation;
+
+import com.yahoo.sketches.hll.Union;
+import org.junit.Test;
+import uk.gov.gchq.gaffer.exception.SerialisationException;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class HllUnionSerialiserTest {
+    private static final HllUnionSerialiser SERIALISER = new HllUnionSerialiser();
+    private static final double DELTA = 0.0001;
+
+    @Test
+    public void shouldSerialiseAndDeserialise() throws SerialisationException {
+        // Given
+        final Union union = createUnion();
+
+        // When
+        final Union deserialised = SERIALISER.deserialise(SERIALISER.serialise(union));
+
+        // Then
+        assertEquals(union.getEstimate(), deserialised.getEstimate(), DELTA);
+        assertArrayEquals(union.toCompactByteArray(), deserialised.toCompactByteArray());
+    }
+
+    @Test
+    public void shouldDeserialiseFromPartOfAByteArray() throws SerialisationException {
+        // Given
+        final Union union = createUnion();
+        final byte[] bytes = SERIALISER.serialise(union);
+        final byte[] allBytes = new byte[bytes.length + 7];
+        allBytes[0] = 1;
+        allBytes[1] = 2;
+        allBytes[2] = 3;
+        System.arraycopy(bytes, 0, allBytes, 3, bytes.length);
+        allBytes[allBytes.length - 1] = 4;
+
+        // When
+        final Union deserialised = SERIALISER.deserialise(allBytes, 3, bytes.length);
+
+        // Then
+        assertEquals(union.getEstimate(), deserialised.getEstimate(), DELTA);
+        assertArrayEquals(bytes, deserialised.toCompactByteArray());
+    }
+
+    @Test
+    public void shouldDeserialiseAnUpdatableUnionFromPartOfAByteArray() throws SerialisationException {
+        // Given
+        final Union union = createUnion();
+        final byte[] bytes = SERIALISER.serialise(union);
+        final byte[] allBytes = new byte[bytes.length + 3];
+        System.arraycopy(bytes, 0, allBytes, 3, bytes.length);
+
+        // When
+        final Union deserialised = SERIALISER.deserialise(allBytes, 3, bytes.length);
+        deserialised.update("newValue");
+
+        // Then
+        assertEquals(union.getEstimate() + 1, deserialised.getEstimate(), DELTA);
+        assertArrayEquals(bytes, SERIALISER.deserialise(allBytes, 3, bytes.length).toCompactByteArray());
+    }
+
+    @Test
+    public void shouldDeserialiseEmptyAsNull() throws SerialisationException {
+        assertNull(SERIALISER.deserialiseEmpty());
+    }
+
+    @Test
+    public void shouldHandleUnion() {
+        assertTrue(SERIALISER.canHandle(Union.class));
+        assertFalse(SERIALISER.canHandle(String.class));
+    }
+
+    private static Union createUnion() {
+        final Union union = new Union(12);
+        for (int i = 0; i < 100; i++) {
+            union.update("value" + i);
+        }
+        return union;
+    }
+}
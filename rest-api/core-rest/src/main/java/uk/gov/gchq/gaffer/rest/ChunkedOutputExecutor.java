@@ -0,0 +1,79 @@
+/*
+ * Copyright 2017 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.gov.gchq.gaffer.rest;
+
+import uk.gov.gchq.gaffer.core.exception.GafferRuntimeException;
+import uk.gov.gchq.gaffer.core.exception.Status;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The bounded thread pool that chunked operation results are written from. The number of threads and the number of
+ * requests that can wait for a thread are set using the {@link SystemProperty#CHUNKED_OUTPUT_THREADS} and
+ * {@link SystemProperty#CHUNKED_OUTPUT_QUEUE_SIZE} system properties. Requests that arrive when the pool and queue are
+ * full are rejected with a 503 Service Unavailable status.
+ */
+public final class ChunkedOutputExecutor {
+    private static ThreadPoolExecutor executor;
+
+    private ChunkedOutputExecutor() {
+        // Private constructor to prevent instantiation.
+    }
+
+    /**
+     * Runs the task on the chunked output thread pool.
+     *
+     * @param task the task to run
+     * @throws GafferRuntimeException with a 503 status if the thread pool and its queue are full
+     */
+    public static void execute(final Runnable task) {
+        try {
+            getExecutor().execute(task);
+        } catch (final RejectedExecutionException e) {
+            throw new GafferRuntimeException("Too many chunked operations are running, please try again later", e, Status.SERVICE_UNAVAILABLE);
+        }
+    }
+
+    /**
+     * Stops the thread pool. Tasks that are already running are interrupted.
+     */
+    public static synchronized void shutdown() {
+        if (null != executor) {
+            executor.shutdownNow();
+            executor = null;
+        }
+    }
+
+    private static synchronized ThreadPoolExecutor getExecutor() {
+        if (null == executor) {
+            final int numThreads = Integer.parseInt(System.getProperty(SystemProperty.CHUNKED_OUTPUT_THREADS, SystemProperty.CHUNKED_OUTPUT_THREADS_DEFAULT));
+            final int queueSize = Integer.parseInt(System.getProperty(SystemProperty.CHUNKED_OUTPUT_QUEUE_SIZE, SystemProperty.CHUNKED_OUTPUT_QUEUE_SIZE_DEFAULT));
+            final AtomicInteger threadCount = new AtomicInteger();
+            executor = new ThreadPoolExecutor(numThreads, numThreads, 60, TimeUnit.SECONDS,
+                    new ArrayBlockingQueue<>(Math.max(1, queueSize)),
+                    runnable -> {
+                        final Thread thread = new Thread(runnable, "gaffer-chunked-output-" + threadCount.incrementAndGet());
+                        thread.setDaemon(true);
+                        return thread;
+                    });
+            executor.allowCoreThreadTimeOut(true);
+        }
+        return executor;
+    }
+}
@@ -19,6 +19,7 @@ package uk.gov.gchq.gaffer.rest;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import uk.gov.gchq.gaffer.cache.CacheServiceLoader;
+import uk.gov.gchq.gaffer.rest.factory.GraphFactory;
 
 import javax.servlet.ServletContextEvent;
 import javax.servlet.ServletContextListener;
@@ -52,8 +53,8 @@ public class ServletLifecycleListener implements ServletContextListener {
     }
 
     /**
-     * Code executed when the servlet is being shut down. The cache service loader is shut
-     * down here to avoid ClassNotFoundExceptions which result from a Servlet's ClassLoader
+     * Code executed when the servlet is being shut down. The graph, the cache service loader and the
+     * chunked output thread pool are shut down here to avoid ClassNotFoundExceptions which result from a Servlet's ClassLoader
      * being shut down before the ShutdownHooks run. All Gaffer services should use this class
      * rather than Shutdown hooks if they want to run Gaffer in a servlet such as JBOSS or Tomcat.
      * @param servletContextEvent the context event
@@ -61,6 +62,12 @@ public class ServletLifecycleListener implements ServletContextListener {
     @Override
     public void contextDestroyed(final ServletContextEvent servletContextEvent) {
         LOGGER.info("Server shutting down - releasing resources");
+        try {
+            GraphFactory.createGraphFactory().getGraph().shutdown();
+        } catch (final RuntimeException e) {
+            LOGGER.warn("Unable to shut down the graph", e);
+        }
         CacheServiceLoader.shutdown();
+        ChunkedOutputExecutor.shutdown();
     }
 }
@@ -43,6 +43,8 @@ public abstract class SystemProperty {
     public static final String AUTH_SCORES_FILE = OperationChainLimiter.AUTH_SCORES_FILE_KEY;
     public static final String ENABLE_CHAIN_LIMITER = "gaffer.chain.limiter.enable";
     public static final String REST_DEBUG = DebugUtil.DEBUG;
+    public static final String CHUNKED_OUTPUT_THREADS = "gaffer.rest-api.chunked.threads";
+    public static final String CHUNKED_OUTPUT_QUEUE_SIZE = "gaffer.rest-api.chunked.queue.size";
 
     // DEFAULTS
     /**
@@ -55,6 +57,8 @@ public abstract class SystemProperty {
     public static final String GRAPH_FACTORY_CLASS_DEFAULT = DefaultGraphFactory.class.getName();
     public static final String USER_FACTORY_CLASS_DEFAULT = UnknownUserFactory.class.getName();
     public static final String REST_DEBUG_DEFAULT = DebugUtil.DEBUG_DEFAULT;
+    public static final String CHUNKED_OUTPUT_THREADS_DEFAULT = "20";
+    public static final String CHUNKED_OUTPUT_QUEUE_SIZE_DEFAULT = "100";
 
     private SystemProperty() {
         // Private constructor to prevent instantiation.
@@ -203,6 +203,10 @@ public class DefaultGraphFactory implements GraphFactory {
 
     @Override
     public Graph createGraph() {
-        return createGraphBuilder().build();
+        // A graph is built for each request if it is not a singleton. These
+        // graphs are never shut down, so the hooks are not notified of them.
+        return createGraphBuilder()
+                .notifyHooksOfLifecycle(singletonGraph)
+                .build();
     }
 }
@@ -36,6 +36,7 @@ import javax.ws.rs.PUT;
 import javax.ws.rs.Path;
 import javax.ws.rs.Produces;
 import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.StreamingOutput;
 
 /**
  * An <code>IOperationService</code> has methods to execute {@link uk.gov.gchq.gaffer.operation.Operation}s on the
@@ -46,6 +47,15 @@ import javax.ws.rs.core.MediaType;
 @Consumes(MediaType.APPLICATION_JSON)
 @Produces(MediaType.APPLICATION_JSON)
 public interface IOperationService {
+    /**
+     * Newline delimited JSON - one JSON object per line.
+     */
+    String APPLICATION_NDJSON = "application/x-ndjson";
+
+    /**
+     * The binary JSON format written by the Jackson Smile data format.
+     */
+    String APPLICATION_SMILE = "application/x-jackson-smile";
 
     @POST
     @ApiOperation(value = "Performs the given operation chain on the graph", response = Object.class)
@@ -66,6 +76,18 @@ public interface IOperationService {
     @ApiOperation(value = "Performs the given operation chain on the graph, returned chunked output. NOTE - does not work in Swagger.", response = Object.class)
     ChunkedOutput<String> executeChunked(final OperationChain<CloseableIterable<Element>> opChain);
 
+    @POST
+    @Path("/stream")
+    @Produces(APPLICATION_NDJSON)
+    @ApiOperation(value = "Performs the given operation chain on the graph, streaming the results as newline delimited JSON. NOTE - does not work in Swagger.", response = Object.class)
+    StreamingOutput executeStreamedJson(final OperationChain opChain);
+
+    @POST
+    @Path("/stream")
+    @Produces(APPLICATION_SMILE)
+    @ApiOperation(value = "Performs the given operation chain on the graph, streaming the results in the Smile binary JSON format. NOTE - does not work in Swagger.", response = Object.class)
+    StreamingOutput executeStreamedSmile(final OperationChain opChain);
+
     @POST
     @Path("/generate/objects")
     @ApiOperation(value = "Generate objects from elements", response = Object.class, responseContainer = "List")
@@ -16,7 +16,11 @@
 
 package uk.gov.gchq.gaffer.rest.service;
 
+import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
 import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
 import org.glassfish.jersey.server.ChunkedOutput;
 import org.slf4j.Logger;
@@ -34,11 +38,14 @@ import uk.gov.gchq.gaffer.operation.impl.generate.GenerateObjects;
 import uk.gov.gchq.gaffer.operation.impl.get.GetAdjacentIds;
 import uk.gov.gchq.gaffer.operation.impl.get.GetAllElements;
 import uk.gov.gchq.gaffer.operation.impl.get.GetElements;
+import uk.gov.gchq.gaffer.rest.ChunkedOutputExecutor;
 import uk.gov.gchq.gaffer.rest.factory.GraphFactory;
 import uk.gov.gchq.gaffer.rest.factory.UserFactory;
 import uk.gov.gchq.gaffer.user.User;
 import javax.inject.Inject;
+import javax.ws.rs.core.StreamingOutput;
 import java.io.IOException;
+import java.io.StringWriter;
 
 import static uk.gov.gchq.gaffer.jsonserialisation.JSONSerialiser.createDefaultMapper;
 
@@ -56,6 +63,7 @@ import static uk.gov.gchq.gaffer.jsonserialisation.JSONSerialiser.createDefaultM
  */
 public class OperationService implements IOperationService {
     private static final Logger LOGGER = LoggerFactory.getLogger(OperationService.class);
+    private static final SmileFactory SMILE_FACTORY = new SmileFactory();
     public final ObjectMapper mapper = createDefaultMapper();
 
     @Inject
@@ -80,10 +88,9 @@ public class OperationService implements IOperationService {
         // Create chunked output instance
         final ChunkedOutput<String> output = new ChunkedOutput<>(String.class, "\r\n");
 
-        // write chunks to the chunked output object
-        new Thread() {
-            @Override
-            public void run() {
+        // write chunks to the chunked output object, using the bounded chunked output thread pool
+        try {
+            ChunkedOutputExecutor.execute(() -> {
                 try {
                     final Object result = _execute(opChain);
                     chunkResult(result, output);
@@ -91,8 +98,12 @@ public class OperationService implements IOperationService {
                     CloseableUtil.close(output);
                     CloseableUtil.close(opChain);
                 }
-            }
-        }.start();
+            });
+        } catch (final RuntimeException e) {
+            CloseableUtil.close(output);
+            CloseableUtil.close(opChain);
+            throw e;
+        }
 
         return output;
     }
@@ -103,6 +114,32 @@ public class OperationService implements IOperationService {
         return executeChunked(new OperationChain(operation));
     }
 
+    @Override
+    public StreamingOutput executeStreamedJson(final OperationChain opChain) {
+        final Object result = _execute(opChain);
+        return outputStream -> {
+            try {
+                final JsonGenerator generator = mapper.getFactory().createGenerator(outputStream);
+                generator.setRootValueSeparator(null);
+                streamResult(result, generator, true);
+            } finally {
+                CloseableUtil.close(opChain);
+            }
+        };
+    }
+
+    @Override
+    public StreamingOutput executeStreamedSmile(final OperationChain opChain) {
+        final Object result = _execute(opChain);
+        return outputStream -> {
+            try {
+                streamResult(result, SMILE_FACTORY.createGenerator(outputStream), false);
+            } finally {
+                CloseableUtil.close(opChain);
+            }
+        };
+    }
+
     @Override
     public CloseableIterable<Object> generateObjects(final GenerateObjects<Object> operation) {
         return _execute(operation);
@@ -168,24 +205,83 @@ public class OperationService implements IOperationService {
         return result;
     }
 
+    /**
+     * Writes the result to the chunked output, one chunk per item. The items are
+     * serialised by a single {@link JsonGenerator} into a reused buffer, rather than
+     * creating a new generator and writer for every item.
+     *
+     * @param result the result of the operation chain
+     * @param output the chunked output
+     */
     protected void chunkResult(final Object result, final ChunkedOutput<String> output) {
-        if (result instanceof Iterable) {
-            final Iterable itr = (Iterable) result;
-            try {
-                for (final Object item : itr) {
-                    output.write(mapper.writeValueAsString(item));
+        final ObjectWriter writer = getStreamWriter();
+        final StringWriter buffer = new StringWriter();
+        try (final JsonGenerator generator = mapper.getFactory().createGenerator(buffer)) {
+            generator.setRootValueSeparator(null);
+            if (result instanceof Iterable) {
+                final Iterable itr = (Iterable) result;
+                try {
+                    for (final Object item : itr) {
+                        output.write(toChunk(item, writer, generator, buffer));
+                    }
+                } finally {
+                    CloseableUtil.close(itr);
                 }
-            } catch (final IOException ioe) {
-                LOGGER.warn("IOException (chunks)", ioe);
-            } finally {
-                CloseableUtil.close(itr);
+            } else {
+                output.write(toChunk(result, writer, generator, buffer));
             }
-        } else {
-            try {
-                output.write(mapper.writeValueAsString(result));
-            } catch (final IOException ioe) {
-                LOGGER.warn("IOException (chunks)", ioe);
+        } catch (final IOException ioe) {
+            LOGGER.warn("IOException (chunks)", ioe);
+        }
+    }
+
+    /**
+     * Streams the result to the output stream through the generator. If the result is an
+     * {@link Iterable}, each item is written as a separate value.
+     *
+     * @param result           the result of the operation chain
+     * @param generator        the generator to write the result with
+     * @param newlineDelimited true if each value should be followed by a new line
+     * @throws IOException if the result could not be written
+     */
+    protected void streamResult(final Object result, final JsonGenerator generator, final boolean newlineDelimited) throws IOException {
+        final ObjectWriter writer = getStreamWriter();
+        try {
+            if (result instanceof Iterable) {
+                final Iterable itr = (Iterable) result;
+                try {
+                    for (final Object item : itr) {
+                        writeValue(item, writer, generator, newlineDelimited);
+                    }
+                } finally {
+                    CloseableUtil.close(itr);
+                }
+            } else {
+                writeValue(result, writer, generator, newlineDelimited);
             }
+        } finally {
+            generator.close();
+        }
+    }
+
+    /**
+     * @return a writer that leaves flushing to the generator, so values are written to the output stream in blocks
+     */
+    private ObjectWriter getStreamWriter() {
+        return mapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+    }
+
+    private String toChunk(final Object item, final ObjectWriter writer, final JsonGenerator generator, final StringWriter buffer) throws IOException {
+        buffer.getBuffer().setLength(0);
+        writer.writeValue(generator, item);
+        generator.flush();
+        return buffer.toString();
+    }
+
+    private void writeValue(final Object value, final ObjectWriter writer, final JsonGenerator generator, final boolean newlineDelimited) throws IOException {
+        writer.writeValue(generator, value);
+        if (newlineDelimited) {
+            generator.writeRaw('\n');
         }
     }
 }
@@ -22,6 +22,9 @@ import io.swagger.annotations.ApiResponse;
 import io.swagger.annotations.ApiResponses;
 import uk.gov.gchq.gaffer.core.exception.GafferRuntimeException;
 import uk.gov.gchq.gaffer.core.exception.Status;
+import uk.gov.gchq.gaffer.graph.hook.GraphHook;
+import uk.gov.gchq.gaffer.graph.hook.OperationMetrics;
+import uk.gov.gchq.gaffer.graph.hook.OperationMetricsHook;
 import uk.gov.gchq.gaffer.rest.SystemStatus;
 import uk.gov.gchq.gaffer.rest.factory.GraphFactory;
 import uk.gov.gchq.gaffer.rest.factory.UserFactory;
@@ -30,6 +33,8 @@ import javax.ws.rs.GET;
 import javax.ws.rs.Path;
 import javax.ws.rs.Produces;
 import javax.ws.rs.core.MediaType;
+import java.util.Map;
+import java.util.TreeMap;
 
 /**
  * An <code>StatusService</code> has methods to check the status of the system
@@ -60,4 +65,19 @@ public class StatusService {
 
         return new SystemStatus("Unable to create graph.");
     }
+
+    @GET
+    @Path("/metrics")
+    @ApiOperation(value = "Returns the operation execution metrics recorded by any OperationMetricsHooks on the graph", response = OperationMetrics.class, responseContainer = "Map")
+    @ApiResponses(value = {@ApiResponse(code = 200, message = "OK"),
+            @ApiResponse(code = 500, message = "Something wrong in Server")})
+    public Map<String, OperationMetrics> metrics() {
+        final Map<String, OperationMetrics> metrics = new TreeMap<>();
+        for (final GraphHook graphHook : graphFactory.getGraph().getGraphHooks()) {
+            if (graphHook instanceof OperationMetricsHook) {
+                metrics.putAll(((OperationMetricsHook) graphHook).getOperationMetrics());
+            }
+        }
+        return metrics;
+    }
 }
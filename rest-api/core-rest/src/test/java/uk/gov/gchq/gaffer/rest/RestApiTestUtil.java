@@ -128,6 +128,14 @@ public class RestApiTestUtil {
                 .post(Entity.entity(JSON_SERIALISER.serialise(opChain), MediaType.APPLICATION_JSON_TYPE));
     }
 
+    public static Response executeOperationChainStreamed(final OperationChain opChain, final String mediaType) throws IOException {
+        startServer();
+        return client.target(REST_URI)
+                .path("/graph/doOperation/stream")
+                .request(mediaType)
+                .post(Entity.entity(JSON_SERIALISER.serialise(opChain), MediaType.APPLICATION_JSON_TYPE));
+    }
+
     public static Response executeOperationChunked(final Operation operation) throws IOException {
         startServer();
         return client.target(REST_URI)
@@ -16,12 +16,17 @@
 
 package uk.gov.gchq.gaffer.rest.service;
 
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.google.common.collect.Lists;
 import org.glassfish.jersey.client.ChunkedInput;
 import org.junit.Test;
 import uk.gov.gchq.gaffer.commonutil.TestGroups;
 import uk.gov.gchq.gaffer.data.GroupCounts;
 import uk.gov.gchq.gaffer.data.element.Element;
 import uk.gov.gchq.gaffer.data.element.Entity;
+import uk.gov.gchq.gaffer.jsonserialisation.JSONSerialiser;
 import uk.gov.gchq.gaffer.operation.OperationChain;
 import uk.gov.gchq.gaffer.operation.impl.CountGroups;
 import uk.gov.gchq.gaffer.operation.impl.add.AddElements;
@@ -31,6 +36,8 @@ import uk.gov.gchq.gaffer.rest.RestApiTestUtil;
 import javax.ws.rs.core.GenericType;
 import javax.ws.rs.core.Response;
 import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -97,6 +104,40 @@ public class OperationServiceIT extends AbstractRestApiIT {
         verifyElements(DEFAULT_ELEMENTS, results);
     }
 
+    @Test
+    public void shouldReturnStreamedNewlineDelimitedJsonElements() throws IOException {
+        // Given
+        RestApiTestUtil.addElements(DEFAULT_ELEMENTS);
+
+        // When
+        final Response response = RestApiTestUtil.executeOperationChainStreamed(
+                new OperationChain<>(new GetAllElements()), IOperationService.APPLICATION_NDJSON);
+
+        // Then
+        final List<Element> results = new ArrayList<>();
+        for (final String line : response.readEntity(String.class).split("\n")) {
+            results.add(RestApiTestUtil.JSON_SERIALISER.deserialise(line.getBytes(StandardCharsets.UTF_8), Element.class));
+        }
+        verifyElements(DEFAULT_ELEMENTS, results);
+    }
+
+    @Test
+    public void shouldReturnStreamedSmileElements() throws IOException {
+        // Given
+        RestApiTestUtil.addElements(DEFAULT_ELEMENTS);
+
+        // When
+        final Response response = RestApiTestUtil.executeOperationChainStreamed(
+                new OperationChain<>(new GetAllElements()), IOperationService.APPLICATION_SMILE);
+
+        // Then
+        final ObjectMapper smileMapper = JSONSerialiser.createDefaultMapper();
+        final JsonParser parser = new SmileFactory().createParser(response.readEntity(InputStream.class));
+        parser.setCodec(smileMapper);
+        final List<Element> results = Lists.newArrayList(parser.readValuesAs(Element.class));
+        verifyElements(DEFAULT_ELEMENTS, results);
+    }
+
     @Test
     public void shouldReturnChunkedOperationChainGroupCounts() throws IOException {
         // Given
@@ -41,24 +41,36 @@ public class AccumuloProperties extends StoreProperties {
     public static final String PASSWORD = "accumulo.password";
     public static final String THREADS_FOR_BATCH_SCANNER = "accumulo.batchScannerThreads";
     public static final String MAX_ENTRIES_FOR_BATCH_SCANNER = "accumulo.entriesForBatchScanner";
+    public static final String MAX_BATCH_SCANNERS_IN_FLIGHT = "accumulo.maxBatchScannersInFlight";
+    public static final String MAX_PREFETCH_MEMORY_FOR_BATCH_SCANNERS = "accumulo.maxPrefetchMemoryForBatchScannersInBytes";
+    public static final String TABLET_PARTITIONING_CHUNKS = "accumulo.tabletPartitioningChunks";
     public static final String CLIENT_SIDE_BLOOM_FILTER_SIZE = "accumulo.clientSideBloomFilterSize";
     public static final String FALSE_POSITIVE_RATE = "accumulo.falsePositiveRate";
     public static final String MAX_BLOOM_FILTER_TO_PASS_TO_AN_ITERATOR = "accumulo.maxBloomFilterToPassToAnIterator";
     public static final String MAX_BUFFER_SIZE_FOR_BATCH_WRITER = "accumulo.maxBufferSizeForBatchWriterInBytes";
     public static final String MAX_TIME_OUT_FOR_BATCH_WRITER = "accumulo.maxTimeOutForBatchWriterInMilliseconds";
     public static final String NUM_THREADS_FOR_BATCH_WRITER = "accumulo.numThreadsForBatchWriter";
+    public static final String NUM_THREADS_FOR_INGEST = "accumulo.numThreadsForIngest";
+    public static final String MAX_ELEMENTS_PER_INGEST_BATCH = "accumulo.maxElementsPerIngestBatch";
+    public static final String MAX_INGEST_MEMORY_IN_FLIGHT = "accumulo.maxIngestMemoryInFlightInBytes";
     public static final String TABLE_REPLICATION_FACTOR = "accumulo.file.replication";
     public static final String ENABLE_VALIDATOR_ITERATOR = "gaffer.store.accumulo.enable.validator.iterator";
 
     // default values
     private static final String NUM_THREADS_FOR_BATCH_WRITER_DEFAULT = "10";
     private static final String MAX_ENTRIES_FOR_BATCH_SCANNER_DEFAULT = "50000";
+    private static final String MAX_BATCH_SCANNERS_IN_FLIGHT_DEFAULT = "2";
+    private static final String MAX_PREFETCH_MEMORY_FOR_BATCH_SCANNERS_DEFAULT = "50000000";
+    private static final String TABLET_PARTITIONING_CHUNKS_DEFAULT = "1";
     private static final String CLIENT_SIDE_BLOOM_FILTER_SIZE_DEFAULT = "838860800";
     private static final String FALSE_POSITIVE_RATE_DEFAULT = "0.0002";
     private static final String MAX_BLOOM_FILTER_TO_PASS_TO_AN_ITERATOR_DEFAULT = "8388608";
     private static final String MAX_BUFFER_SIZE_FOR_BATCH_WRITER_DEFAULT = "100000000";
     private static final String MAX_TIME_OUT_FOR_BATCH_WRITER_DEFAULT = "1000";
     private static final String THREADS_FOR_BATCH_SCANNER_DEFAULT = "10";
+    private static final String NUM_THREADS_FOR_INGEST_DEFAULT = "1";
+    private static final String MAX_ELEMENTS_PER_INGEST_BATCH_DEFAULT = "10000";
+    private static final String MAX_INGEST_MEMORY_IN_FLIGHT_DEFAULT = "100000000";
     public static final String ENABLE_VALIDATOR_ITERATOR_DEFAULT = "true";
 
     public AccumuloProperties() {
@@ -254,6 +266,144 @@ public class AccumuloProperties extends StoreProperties {
         set(MAX_ENTRIES_FOR_BATCH_SCANNER, maxEntriesForBatchScanner);
     }
 
+    /**
+     * Get the max number of batch scanners that a seeded retriever should have
+     * running at any one time. Each batch scanner is created for a chunk of at
+     * most {@link #getMaxEntriesForBatchScanner()} seeds. With a value greater
+     * than 1, the scanners for the next chunks of seeds are started whilst the
+     * results of the current scanner are still being consumed.
+     *
+     * @return An integer representing the max number of batch scanners that
+     * should be running at any one time
+     */
+    public int getMaxBatchScannersInFlight() {
+        return Integer.parseInt(get(MAX_BATCH_SCANNERS_IN_FLIGHT, MAX_BATCH_SCANNERS_IN_FLIGHT_DEFAULT));
+    }
+
+    /**
+     * Set the max number of batch scanners that a seeded retriever should have
+     * running at any one time
+     *
+     * @param maxBatchScannersInFlight the max number of batch scanners that should be running at any one time
+     */
+    public void setMaxBatchScannersInFlight(final String maxBatchScannersInFlight) {
+        set(MAX_BATCH_SCANNERS_IN_FLIGHT, maxBatchScannersInFlight);
+    }
+
+    /**
+     * Get the memory budget, in bytes, for batch scanners that have been
+     * started ahead of the scanner currently being consumed. The memory of
+     * each scanner is estimated as the size of its ranges plus the results it
+     * may buffer: two batches of up to the table's
+     * <code>table.scan.max.memory</code> for each of its
+     * {@link #getThreadsForBatchScanner()} threads. No further scanners are
+     * started once this budget has been used up.
+     *
+     * @return The memory budget in bytes for prefetched batch scanners
+     */
+    public long getMaxPrefetchMemoryForBatchScannersInBytes() {
+        return Long.parseLong(get(MAX_PREFETCH_MEMORY_FOR_BATCH_SCANNERS, MAX_PREFETCH_MEMORY_FOR_BATCH_SCANNERS_DEFAULT));
+    }
+
+    /**
+     * Set the memory budget, in bytes, for batch scanners that have been
+     * started ahead of the scanner currently being consumed.
+     *
+     * @param maxPrefetchMemoryForBatchScannersInBytes the memory budget in bytes for prefetched batch scanners
+     */
+    public void setMaxPrefetchMemoryForBatchScannersInBytes(final String maxPrefetchMemoryForBatchScannersInBytes) {
+        set(MAX_PREFETCH_MEMORY_FOR_BATCH_SCANNERS, maxPrefetchMemoryForBatchScannersInBytes);
+    }
+
+    /**
+     * Get the number of chunks of seeds, each of at most
+     * {@link #getMaxEntriesForBatchScanner()} seeds, that a seeded retriever
+     * reads together and partitions by tablet. The seeds of each tablet are
+     * spread evenly over the chunks, so each batch scanner queries all of the
+     * tablets rather than a few of them. This raises the throughput of large
+     * queries whose seeds are sorted, but delays the first results, as
+     * the seeds for all of the chunks are read and their ranges created
+     * before the first scanner is started. The default value of 1 disables
+     * the partitioning.
+     *
+     * @return the number of chunks of seeds to partition by tablet
+     */
+    public int getTabletPartitioningChunks() {
+        return Integer.parseInt(get(TABLET_PARTITIONING_CHUNKS, TABLET_PARTITIONING_CHUNKS_DEFAULT));
+    }
+
+    /**
+     * Set the number of chunks of seeds that a seeded retriever reads together
+     * and partitions by tablet.
+     *
+     * @param tabletPartitioningChunks the number of chunks of seeds to partition by tablet
+     */
+    public void setTabletPartitioningChunks(final String tabletPartitioningChunks) {
+        set(TABLET_PARTITIONING_CHUNKS, tabletPartitioningChunks);
+    }
+
+    /**
+     * Get the number of threads used to convert elements into mutations when
+     * elements are added to the store. With a value of 1 the elements are
+     * converted in the thread that is adding them.
+     *
+     * @return The number of threads used to convert elements into mutations
+     */
+    public int getNumThreadsForIngest() {
+        return Integer.parseInt(get(NUM_THREADS_FOR_INGEST, NUM_THREADS_FOR_INGEST_DEFAULT));
+    }
+
+    /**
+     * Set the number of threads used to convert elements into mutations when
+     * elements are added to the store.
+     *
+     * @param numThreadsForIngest the number of threads used to convert elements into mutations
+     */
+    public void setNumThreadsForIngest(final String numThreadsForIngest) {
+        set(NUM_THREADS_FOR_INGEST, numThreadsForIngest);
+    }
+
+    /**
+     * Get the max number of elements in each batch of elements that is
+     * converted into mutations by a single ingest thread.
+     *
+     * @return The max number of elements in an ingest batch
+     */
+    public int getMaxElementsPerIngestBatch() {
+        return Integer.parseInt(get(MAX_ELEMENTS_PER_INGEST_BATCH, MAX_ELEMENTS_PER_INGEST_BATCH_DEFAULT));
+    }
+
+    /**
+     * Set the max number of elements in each batch of elements that is
+     * converted into mutations by a single ingest thread.
+     *
+     * @param maxElementsPerIngestBatch the max number of elements in an ingest batch
+     */
+    public void setMaxElementsPerIngestBatch(final String maxElementsPerIngestBatch) {
+        set(MAX_ELEMENTS_PER_INGEST_BATCH, maxElementsPerIngestBatch);
+    }
+
+    /**
+     * Get the memory budget, in bytes, for mutations that have been converted
+     * by the ingest threads but not yet added to the batch writer. No further
+     * batches are converted once this budget has been used up.
+     *
+     * @return The memory budget in bytes for converted mutations
+     */
+    public long getMaxIngestMemoryInFlightInBytes() {
+        return Long.parseLong(get(MAX_INGEST_MEMORY_IN_FLIGHT, MAX_INGEST_MEMORY_IN_FLIGHT_DEFAULT));
+    }
+
+    /**
+     * Set the memory budget, in bytes, for mutations that have been converted
+     * by the ingest threads but not yet added to the batch writer.
+     *
+     * @param maxIngestMemoryInFlightInBytes the memory budget in bytes for converted mutations
+     */
+    public void setMaxIngestMemoryInFlightInBytes(final String maxIngestMemoryInFlightInBytes) {
+        set(MAX_INGEST_MEMORY_IN_FLIGHT, maxIngestMemoryInFlightInBytes);
+    }
+
     /**
      * Get the size that should be used for the creation of bloom filters on the
      * client side
@@ -57,6 +57,7 @@ import uk.gov.gchq.gaffer.accumulostore.operation.impl.GetElementsBetweenSets;
 import uk.gov.gchq.gaffer.accumulostore.operation.impl.GetElementsInRanges;
 import uk.gov.gchq.gaffer.accumulostore.operation.impl.GetElementsWithinSet;
 import uk.gov.gchq.gaffer.accumulostore.operation.impl.SummariseGroupOverRanges;
+import uk.gov.gchq.gaffer.accumulostore.utils.IngestStatistics;
 import uk.gov.gchq.gaffer.accumulostore.utils.TableUtils;
 import uk.gov.gchq.gaffer.commonutil.CommonConstants;
 import uk.gov.gchq.gaffer.commonutil.iterable.CloseableIterable;
@@ -85,9 +86,23 @@ import uk.gov.gchq.gaffer.store.schema.Schema;
 import uk.gov.gchq.gaffer.store.schema.SchemaOptimiser;
 import uk.gov.gchq.gaffer.user.User;
 import java.io.UnsupportedEncodingException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.Deque;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -127,6 +142,8 @@ public class AccumuloStore extends Store {
     private static final Logger LOGGER = LoggerFactory.getLogger(AccumuloStore.class);
     private AccumuloKeyPackage keyPackage;
     private Connector connection = null;
+    private ThreadPoolExecutor ingestExecutor;
+    private final IngestStatistics ingestStatistics = new IngestStatistics();
 
     @Override
     public void initialise(final String graphId, final Schema schema, final StoreProperties properties) throws StoreException {
@@ -143,6 +160,7 @@ public class AccumuloStore extends Store {
      * @throws StoreException the store could not be initialised.
      */
     public void preInitialise(final String graphId, final Schema schema, final StoreProperties properties) throws StoreException {
+        shutdownIngestExecutor();
         final String deprecatedTableName = ((AccumuloProperties) properties).getTable();
         if (null == graphId && null != deprecatedTableName) {
             // Deprecated
@@ -179,6 +197,35 @@ public class AccumuloStore extends Store {
         return connection;
     }
 
+    /**
+     * Shuts down the threads used to convert elements into mutations on
+     * ingest. Batches that have already been submitted are still converted,
+     * so elements that are currently being added are not lost. The threads
+     * are created again if more elements are added. They are daemon threads
+     * that time out when idle, so a store that is not shut down does not
+     * prevent the JVM from exiting.
+     */
+    public synchronized void shutdownIngestExecutor() {
+        if (null != ingestExecutor) {
+            ingestExecutor.shutdown();
+            ingestExecutor = null;
+        }
+    }
+
+    /**
+     * Returns the running totals of the {@link IngestStatistics} for all the
+     * elements added to this store since it was created. The statistics for
+     * each call to add elements are also logged when the elements have been
+     * added.
+     *
+     * @return a copy of the {@link IngestStatistics} for this store
+     */
+    public IngestStatistics getIngestStatistics() {
+        synchronized (ingestStatistics) {
+            return new IngestStatistics(ingestStatistics);
+        }
+    }
+
     public String getTableName() {
         return getGraphId();
     }
@@ -186,7 +233,9 @@ public class AccumuloStore extends Store {
     /**
      * Updates a Hadoop {@link Configuration} with information needed to connect to the Accumulo store. It adds
      * iterators to apply the provided {@link View}. This method will be used by operations that run MapReduce
-     * or Spark jobs against the Accumulo store.
+     * or Spark jobs against the Accumulo store. If the properties to return have been set using
+     * {@link ElementInputFormat#setProperties(Configuration, java.util.Collection)} then an iterator is added to
+     * remove the other properties before they are sent from the tablet servers.
      *
      * @param conf         A {@link Configuration} to be updated.
      * @param graphFilters The operation {@link GraphFilters} to be applied.
@@ -247,6 +296,15 @@ public class AccumuloStore extends Store {
                     InputConfigurator.addIterator(AccumuloInputFormat.class, conf, edgeEntityDirFilter);
                 }
             }
+
+            // Remove the properties that are not required, whether or not the view lists any groups
+            final IteratorSetting propertyProjection = getKeyPackage()
+                    .getIteratorFactory()
+                    .getElementPropertyProjectionIteratorSetting(
+                            ElementInputFormat.getRequiredProperties(view, ElementInputFormat.getProperties(conf)), this);
+            if (null != propertyProjection) {
+                InputConfigurator.addIterator(AccumuloInputFormat.class, conf, propertyProjection);
+            }
         } catch (final AccumuloSecurityException | IteratorSettingException | UnsupportedEncodingException e) {
             throw new StoreException(e);
         }
@@ -340,67 +398,91 @@ public class AccumuloStore extends Store {
         insertGraphElements(elements);
     }
 
+    /**
+     * Converts the elements into {@link Mutation}s and adds them to a
+     * {@link BatchWriter}. The elements are split into batches of at most
+     * {@link AccumuloProperties#getMaxElementsPerIngestBatch()} elements. If
+     * {@link AccumuloProperties#getNumThreadsForIngest()} is greater than 1
+     * then the batches are converted by a pool of threads, with at most 2
+     * batches per thread outstanding and at most
+     * {@link AccumuloProperties#getMaxIngestMemoryInFlightInBytes()} of
+     * converted mutations waiting to be added to the batch writer. The
+     * mutations are added to the batch writer from the calling thread, in
+     * batch order. The {@link IngestStatistics} for the elements are logged
+     * and added to the totals returned by {@link #getIngestStatistics()}.
+     *
+     * @param elements the elements to be added
+     * @throws StoreException failure to insert the elements into a table
+     */
     protected void insertGraphElements(final Iterable<? extends Element> elements) throws StoreException {
+        if (null == elements) {
+            throw new GafferRuntimeException("Could not find any elements to add to graph.", Status.BAD_REQUEST);
+        }
+
+        final int numThreads = Math.max(1, getProperties().getNumThreadsForIngest());
+        final int maxElementsPerBatch = Math.max(1, getProperties().getMaxElementsPerIngestBatch());
+        final long maxMemoryInFlight = getProperties().getMaxIngestMemoryInFlightInBytes();
+        final int maxBatchesInFlight = 2 * numThreads;
+
+        final IngestStatistics statistics = new IngestStatistics();
+        final AtomicLong memoryInFlight = new AtomicLong();
+        final Deque<Future<ConvertedBatch>> batchesInFlight = new ArrayDeque<>(maxBatchesInFlight);
+        final ExecutorService executor = numThreads > 1 ? getIngestExecutor(numThreads) : null;
+
         // Create BatchWriter
+        // The BatchWriter takes care of batching the mutations up, sending
+        // them without too high a latency, etc.
         final BatchWriter writer = TableUtils.createBatchWriter(this);
-        // Loop through elements, convert to mutations, and add to
-        // BatchWriter.as
-        // The BatchWriter takes care of batching them up, sending them without
-        // too high a latency, etc.
-        if (elements != null) {
-            for (final Element element : elements) {
-
-                final Pair<Key, Key> keys;
-                try {
-                    keys = keyPackage.getKeyConverter().getKeysFromElement(element);
-                } catch (final AccumuloElementConversionException e) {
-                    LOGGER.error(FAILED_TO_CREATE_AN_ACCUMULO_FROM_ELEMENT_OF_TYPE_WHEN_TRYING_TO_INSERT_ELEMENTS, "key", element.getGroup());
-                    continue;
-                }
-                final Value value;
-                try {
-                    value = keyPackage.getKeyConverter().getValueFromElement(element);
-                } catch (final AccumuloElementConversionException e) {
-                    LOGGER.error(FAILED_TO_CREATE_AN_ACCUMULO_FROM_ELEMENT_OF_TYPE_WHEN_TRYING_TO_INSERT_ELEMENTS, "value", element.getGroup());
-                    continue;
-                }
-                final Mutation m = new Mutation(keys.getFirst().getRow());
-                m.put(keys.getFirst().getColumnFamily(), keys.getFirst().getColumnQualifier(),
-                        new ColumnVisibility(keys.getFirst().getColumnVisibility()), keys.getFirst().getTimestamp(), value);
-                try {
-                    writer.addMutation(m);
-                } catch (final MutationsRejectedException e) {
-                    LOGGER.error("Failed to create an accumulo key mutation");
-                    continue;
-                }
-                // If the GraphElement is a Vertex then there will only be 1 key,
-                // and the second will be null.
-                // If the GraphElement is an Edge then there will be 2 keys.
-                if (keys.getSecond() != null) {
-                    final Mutation m2 = new Mutation(keys.getSecond().getRow());
-                    m2.put(keys.getSecond().getColumnFamily(), keys.getSecond().getColumnQualifier(),
-                            new ColumnVisibility(keys.getSecond().getColumnVisibility()), keys.getSecond().getTimestamp(),
-                            value);
-                    try {
-                        writer.addMutation(m2);
-                    } catch (final MutationsRejectedException e) {
-                        LOGGER.error("Failed to create an accumulo key mutation");
+        try {
+            long batchNumber = 0;
+            List<Element> batch = new ArrayList<>();
+            final Iterator<? extends Element> itr = elements.iterator();
+            while (itr.hasNext()) {
+                batch.add(itr.next());
+                if (batch.size() >= maxElementsPerBatch || !itr.hasNext()) {
+                    if (null == executor) {
+                        writeBatch(writer, convertBatch(batchNumber, batch, memoryInFlight), statistics, memoryInFlight);
+                    } else {
+                        while (!batchesInFlight.isEmpty()
+                                && (batchesInFlight.size() >= maxBatchesInFlight || memoryInFlight.get() >= maxMemoryInFlight)) {
+                            writeBatch(writer, getBatch(batchesInFlight.poll()), statistics, memoryInFlight);
+                        }
+                        final long currentBatchNumber = batchNumber;
+                        final List<Element> currentBatch = batch;
+                        batchesInFlight.add(submitBatch(executor, currentBatchNumber, currentBatch, memoryInFlight));
                     }
+                    batchNumber++;
+                    batch = new ArrayList<>();
                 }
             }
+            while (!batchesInFlight.isEmpty()) {
+                writeBatch(writer, getBatch(batchesInFlight.poll()), statistics, memoryInFlight);
+            }
+        } finally {
+            for (final Future<ConvertedBatch> batchInFlight : batchesInFlight) {
+                batchInFlight.cancel(true);
+            }
+            try {
+                writer.close();
+            } catch (final MutationsRejectedException e) {
+                LOGGER.warn("Accumulo batch writer failed to close", e);
+                statistics.setWriterFailed(true);
+            }
+        }
+
+        if (statistics.hasFailures()) {
+            LOGGER.warn("Failures occurred whilst adding elements: {}", statistics);
         } else {
-            throw new GafferRuntimeException("Could not find any elements to add to graph.", Status.BAD_REQUEST);
+            LOGGER.debug("Added elements: {}", statistics);
         }
-        try {
-            writer.close();
-        } catch (final MutationsRejectedException e) {
-            LOGGER.warn("Accumulo batch writer failed to close", e);
+        synchronized (ingestStatistics) {
+            ingestStatistics.add(statistics);
         }
     }
 
     /**
-     * Returns the {@link uk.gov.gchq.gaffer.accumulostore.key.AccumuloKeyPackage} in use by
-     * this AccumuloStore.
+     * Returns the {@link uk.gov.gchq.gaffer.accumulostore.key.AccumuloKeyPackage}
+     * in use by this AccumuloStore.
      *
      * @return {@link uk.gov.gchq.gaffer.accumulostore.key.AccumuloKeyPackage}
      */
@@ -411,4 +493,128 @@ public class AccumuloStore extends Store {
     public List<String> getTabletServers() throws StoreException {
         return getConnection().instanceOperations().getTabletServers();
     }
+
+    private synchronized ExecutorService getIngestExecutor(final int numThreads) {
+        if (null == ingestExecutor) {
+            final AtomicInteger threadCount = new AtomicInteger();
+            ingestExecutor = new ThreadPoolExecutor(numThreads, numThreads, 60, TimeUnit.SECONDS,
+                    new LinkedBlockingQueue<>(),
+                    runnable -> {
+                        final Thread thread = new Thread(runnable, "gaffer-accumulo-ingest-" + threadCount.incrementAndGet());
+                        thread.setDaemon(true);
+                        return thread;
+                    });
+            ingestExecutor.allowCoreThreadTimeOut(true);
+        }
+        return ingestExecutor;
+    }
+
+    private Future<ConvertedBatch> submitBatch(final ExecutorService executor, final long batchNumber,
+                                               final List<Element> elements, final AtomicLong memoryInFlight) {
+        try {
+            return executor.submit(() -> convertBatch(batchNumber, elements, memoryInFlight));
+        } catch (final RejectedExecutionException e) {
+            // The ingest threads have been shut down whilst these elements
+            // were being added, e.g. because the store was re-initialised,
+            // so convert the rest of the batches on the calling thread.
+            return CompletableFuture.completedFuture(convertBatch(batchNumber, elements, memoryInFlight));
+        }
+    }
+
+    private ConvertedBatch convertBatch(final long batchNumber, final List<Element> elements, final AtomicLong memoryInFlight) {
+        final long startTime = System.currentTimeMillis();
+        final ConvertedBatch batch = new ConvertedBatch(batchNumber, elements.size());
+        for (final Element element : elements) {
+            final Pair<Key, Key> keys;
+            try {
+                keys = keyPackage.getKeyConverter().getKeysFromElement(element);
+            } catch (final AccumuloElementConversionException e) {
+                LOGGER.error(FAILED_TO_CREATE_AN_ACCUMULO_FROM_ELEMENT_OF_TYPE_WHEN_TRYING_TO_INSERT_ELEMENTS, "key", element.getGroup());
+                batch.failedElements++;
+                continue;
+            }
+            final Value value;
+            try {
+                value = keyPackage.getKeyConverter().getValueFromElement(element);
+            } catch (final AccumuloElementConversionException e) {
+                LOGGER.error(FAILED_TO_CREATE_AN_ACCUMULO_FROM_ELEMENT_OF_TYPE_WHEN_TRYING_TO_INSERT_ELEMENTS, "value", element.getGroup());
+                batch.failedElements++;
+                continue;
+            }
+            batch.add(createMutation(keys.getFirst(), value));
+            // If the GraphElement is a Vertex then there will only be 1 key,
+            // and the second will be null.
+            // If the GraphElement is an Edge then there will be 2 keys.
+            if (null != keys.getSecond()) {
+                batch.add(createMutation(keys.getSecond(), value));
+            }
+        }
+        batch.conversionTime = System.currentTimeMillis() - startTime;
+        memoryInFlight.addAndGet(batch.mutationBytes);
+        return batch;
+    }
+
+    private Mutation createMutation(final Key key, final Value value) {
+        final Mutation m = new Mutation(key.getRow());
+        m.put(key.getColumnFamily(), key.getColumnQualifier(),
+                new ColumnVisibility(key.getColumnVisibility()), key.getTimestamp(), value);
+        return m;
+    }
+
+    private void writeBatch(final BatchWriter writer, final ConvertedBatch batch,
+                            final IngestStatistics statistics, final AtomicLong memoryInFlight) {
+        final long startTime = System.currentTimeMillis();
+        long rejectedMutations = 0;
+        for (final Mutation m : batch.mutations) {
+            try {
+                writer.addMutation(m);
+            } catch (final MutationsRejectedException e) {
+                LOGGER.error("Failed to create an accumulo key mutation");
+                rejectedMutations++;
+            }
+        }
+        memoryInFlight.addAndGet(-batch.mutationBytes);
+
+        final IngestStatistics.BatchStatistics batchStatistics = new IngestStatistics.BatchStatistics(
+                batch.batchNumber, batch.elements, batch.mutations.size(), batch.mutationBytes,
+                batch.failedElements, rejectedMutations, batch.conversionTime,
+                System.currentTimeMillis() - startTime);
+        LOGGER.debug("Added batch of elements: {}", batchStatistics);
+        statistics.addBatch(batchStatistics);
+    }
+
+    private ConvertedBatch getBatch(final Future<ConvertedBatch> future) throws StoreException {
+        try {
+            return future.get();
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new StoreException("Interrupted whilst adding elements", e);
+        } catch (final ExecutionException e) {
+            throw new StoreException("Failed to convert elements into mutations", e.getCause());
+        }
+    }
+
+    /**
+     * The mutations created from a single batch of elements, along with the
+     * counts needed to report on the batch once it has been written.
+     */
+    private static final class ConvertedBatch {
+        private final long batchNumber;
+        private final int elements;
+        private final List<Mutation> mutations;
+        private long mutationBytes;
+        private long failedElements;
+        private long conversionTime;
+
+        private ConvertedBatch(final long batchNumber, final int elements) {
+            this.batchNumber = batchNumber;
+            this.elements = elements;
+            this.mutations = new ArrayList<>(2 * elements);
+        }
+
+        private void add(final Mutation mutation) {
+            mutations.add(mutation);
+            mutationBytes += mutation.estimatedMemoryUsed();
+        }
+    }
 }
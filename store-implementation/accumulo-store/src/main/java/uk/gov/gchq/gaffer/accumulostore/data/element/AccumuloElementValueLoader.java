@@ -18,6 +18,7 @@ package uk.gov.gchq.gaffer.accumulostore.data.element;
 import org.apache.accumulo.core.data.Key;
 import org.apache.accumulo.core.data.Value;
 import uk.gov.gchq.gaffer.accumulostore.key.AccumuloElementConverter;
+import uk.gov.gchq.gaffer.accumulostore.utils.SerialisedProperties;
 import uk.gov.gchq.gaffer.data.element.ElementValueLoader;
 import uk.gov.gchq.gaffer.data.element.Properties;
 import uk.gov.gchq.gaffer.store.schema.Schema;
@@ -34,6 +35,8 @@ public abstract class AccumuloElementValueLoader implements ElementValueLoader {
     private final Value value;
 
     private SchemaElementDefinition eDef;
+    private SerialisedProperties columnQualifierProperties;
+    private SerialisedProperties valueProperties;
 
     protected AccumuloElementValueLoader(final String group,
                                          final Key key,
@@ -47,6 +50,16 @@ public abstract class AccumuloElementValueLoader implements ElementValueLoader {
         this.schema = schema;
     }
 
+    /**
+     * Gets a single property. The properties in the column qualifier and value
+     * are indexed the first time one of them is requested and then only the
+     * requested property is deserialised, so filters that only test a few
+     * properties of an element do not pay to deserialise all of them.
+     *
+     * @param name           the property name
+     * @param lazyProperties the lazy properties the property is being loaded into
+     * @return the property value
+     */
     @Override
     public Object getProperty(final String name, final Properties lazyProperties) {
         if (null == eDef) {
@@ -56,17 +69,22 @@ public abstract class AccumuloElementValueLoader implements ElementValueLoader {
             }
         }
 
-        final Properties props;
+        final Object property;
         if (eDef.getGroupBy().contains(name)) {
-            props = elementConverter.getPropertiesFromColumnQualifier(group, key.getColumnQualifierData().getBackingArray());
+            if (null == columnQualifierProperties) {
+                columnQualifierProperties = elementConverter.getSerialisedPropertiesFromColumnQualifier(group, key.getColumnQualifierData().getBackingArray());
+            }
+            property = columnQualifierProperties.get(name);
         } else if (name.equals(schema.getVisibilityProperty())) {
-            props = elementConverter.getPropertiesFromColumnVisibility(group, key.getColumnVisibilityData().getBackingArray());
+            property = elementConverter.getPropertiesFromColumnVisibility(group, key.getColumnVisibilityData().getBackingArray()).get(name);
         } else if (name.equals(schema.getTimestampProperty())) {
-            props = elementConverter.getPropertiesFromTimestamp(group, key.getTimestamp());
+            property = elementConverter.getPropertiesFromTimestamp(group, key.getTimestamp()).get(name);
         } else {
-            props = elementConverter.getPropertiesFromValue(group, value);
+            if (null == valueProperties) {
+                valueProperties = elementConverter.getSerialisedPropertiesFromValue(group, value);
+            }
+            property = valueProperties.get(name);
         }
-        lazyProperties.putAll(props);
-        return props.get(name);
+        return property;
     }
 }
@@ -29,8 +29,10 @@ import uk.gov.gchq.gaffer.accumulostore.key.AccumuloElementConverter;
 import uk.gov.gchq.gaffer.accumulostore.key.AccumuloKeyPackage;
 import uk.gov.gchq.gaffer.accumulostore.key.exception.AccumuloElementConversionException;
 import uk.gov.gchq.gaffer.accumulostore.utils.AccumuloStoreConstants;
+import uk.gov.gchq.gaffer.accumulostore.utils.SerialisedProperties;
 import uk.gov.gchq.gaffer.commonutil.CommonConstants;
 import uk.gov.gchq.gaffer.data.element.Element;
+import uk.gov.gchq.gaffer.data.element.function.ElementFilter;
 import uk.gov.gchq.gaffer.data.element.function.ElementTransformer;
 import uk.gov.gchq.gaffer.data.elementdefinition.exception.SchemaException;
 import uk.gov.gchq.gaffer.data.elementdefinition.view.View;
@@ -40,17 +42,88 @@ import uk.gov.gchq.gaffer.store.StoreException;
 import uk.gov.gchq.gaffer.store.schema.Schema;
 import java.io.IOException;
 import java.io.UnsupportedEncodingException;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.Map.Entry;
+import java.util.Set;
 
 /**
  * An {@link InputFormatBase} that allows the data in an Accumulo store to be read as {@link Element},
  * {@link NullWritable} pairs.
+ * <p>
+ * The groups and the pre and post aggregation filters in the {@link View} are applied by the
+ * iterators added in {@link uk.gov.gchq.gaffer.accumulostore.AccumuloStore#updateConfiguration}.
+ * The transformers and post transform filters are applied by the record reader, so elements that
+ * fail the post transform filters are never passed to the mappers.
+ * <p>
+ * If {@link #setProperties(Configuration, Collection)} is called then only the given properties
+ * are returned. The properties not needed by the transformers and post transform filters are
+ * removed by an iterator before they are sent from the tablet servers, and are not deserialised.
  */
 public class ElementInputFormat extends InputFormatBase<Element, NullWritable> {
 
     public static final String KEY_PACKAGE = "KEY_PACKAGE";
     public static final String SCHEMA = AccumuloStoreConstants.SCHEMA;
     public static final String VIEW = AccumuloStoreConstants.VIEW;
+    public static final String PROPERTIES = "PROPERTIES";
+
+    /**
+     * Sets the properties to be returned on each element. This must be called
+     * before {@link uk.gov.gchq.gaffer.accumulostore.AccumuloStore#updateConfiguration}
+     * for the properties to be removed on the tablet servers.
+     *
+     * @param conf       the {@link Configuration} to update
+     * @param properties the names of the properties to return
+     */
+    public static void setProperties(final Configuration conf, final Collection<String> properties) {
+        conf.setStrings(PROPERTIES, properties.toArray(new String[properties.size()]));
+    }
+
+    /**
+     * @param conf the {@link Configuration} to read
+     * @return the names of the properties to return, or null if all properties
+     * should be returned
+     */
+    public static Set<String> getProperties(final Configuration conf) {
+        if (null == conf.get(PROPERTIES)) {
+            return null;
+        }
+        return new HashSet<>(Arrays.asList(conf.getTrimmedStrings(PROPERTIES)));
+    }
+
+    /**
+     * Gets the properties that must be read to return the given properties,
+     * including the properties used by the transformers and post transform
+     * filters in the view.
+     *
+     * @param view       the {@link View} to be applied
+     * @param properties the names of the properties to return
+     * @return the names of the properties that must be read, or null if all
+     * properties should be read
+     */
+    public static Set<String> getRequiredProperties(final View view, final Set<String> properties) {
+        if (null == properties) {
+            return null;
+        }
+
+        final Set<String> requiredProperties = new HashSet<>(properties);
+        for (final String group : view.getGroups()) {
+            final ViewElementDefinition viewDef = view.getElement(group);
+            if (null != viewDef) {
+                final ElementTransformer transformer = viewDef.getTransformer();
+                if (null != transformer) {
+                    transformer.getComponents().forEach(f -> Collections.addAll(requiredProperties, f.getSelection()));
+                }
+                final ElementFilter postTransformFilter = viewDef.getPostTransformFilter();
+                if (null != postTransformFilter) {
+                    postTransformFilter.getComponents().forEach(p -> Collections.addAll(requiredProperties, p.getSelection()));
+                }
+            }
+        }
+        return requiredProperties;
+    }
 
     @Override
     public RecordReader<Element, NullWritable> createRecordReader(final InputSplit split, final TaskAttemptContext context)
@@ -60,8 +133,9 @@ public class ElementInputFormat extends InputFormatBase<Element, NullWritable> {
         final String keyPackageClass = conf.get(KEY_PACKAGE);
         final Schema schema = Schema.fromJson(conf.get(SCHEMA).getBytes(CommonConstants.UTF_8));
         final View view = View.fromJson(conf.get(VIEW).getBytes(CommonConstants.UTF_8));
+        final Set<String> properties = getProperties(conf);
         try {
-            return new ElementWithPropertiesRecordReader(keyPackageClass, schema, view);
+            return new ElementWithPropertiesRecordReader(keyPackageClass, schema, view, properties);
         } catch (final StoreException | SchemaException | SerialisationException e) {
             throw new IOException("Exception creating RecordReader", e);
         }
@@ -71,8 +145,10 @@ public class ElementInputFormat extends InputFormatBase<Element, NullWritable> {
 
         private AccumuloElementConverter converter;
         private View view;
+        private Set<String> properties;
+        private Set<String> requiredProperties;
 
-        ElementWithPropertiesRecordReader(final String keyPackageClass, final Schema schema, final View view)
+        ElementWithPropertiesRecordReader(final String keyPackageClass, final Schema schema, final View view, final Set<String> properties)
                 throws StoreException, SchemaException, SerialisationException, UnsupportedEncodingException {
             super();
             final AccumuloKeyPackage keyPackage;
@@ -84,33 +160,63 @@ public class ElementInputFormat extends InputFormatBase<Element, NullWritable> {
             keyPackage.setSchema(schema);
             this.converter = keyPackage.getKeyConverter();
             this.view = view;
+            this.properties = properties;
+            this.requiredProperties = getRequiredProperties(view, properties);
         }
 
         @Override
         public boolean nextKeyValue() throws IOException, InterruptedException {
-            if (scannerIterator.hasNext()) {
+            while (scannerIterator.hasNext()) {
                 ++numKeysRead;
                 final Entry<Key, Value> entry = scannerIterator.next();
+                if (log.isTraceEnabled()) {
+                    log.trace("Processing key/value pair: " + DefaultFormatter.formatEntry(entry, true));
+                }
+
+                final Element element;
                 try {
-                    currentK = converter.getFullElement(entry.getKey(), entry.getValue(), false);
-                    final ViewElementDefinition viewDef = view.getElement(currentK.getGroup());
-                    if (viewDef != null) {
-                        final ElementTransformer transformer = viewDef.getTransformer();
-                        if (transformer != null) {
-                            transformer.apply(currentK);
-                        }
-                    }
-                    currentV = NullWritable.get();
+                    element = getElement(entry.getKey(), entry.getValue());
                 } catch (final AccumuloElementConversionException e) {
                     throw new IOException("Exception converting the key-value to an Element:", e);
                 }
-                if (log.isTraceEnabled()) {
-                    log.trace("Processing key/value pair: " + DefaultFormatter.formatEntry(entry, true));
+
+                final ViewElementDefinition viewDef = view.getElement(element.getGroup());
+                if (null != viewDef) {
+                    final ElementTransformer transformer = viewDef.getTransformer();
+                    if (null != transformer) {
+                        transformer.apply(element);
+                    }
+                    final ElementFilter postTransformFilter = viewDef.getPostTransformFilter();
+                    if (null != postTransformFilter && !postTransformFilter.test(element)) {
+                        continue;
+                    }
+                }
+                if (null != properties) {
+                    element.getProperties().keySet().retainAll(properties);
                 }
+
+                currentK = element;
+                currentV = NullWritable.get();
                 return true;
             }
             return false;
         }
+
+        private Element getElement(final Key key, final Value value) {
+            if (null == requiredProperties) {
+                return converter.getFullElement(key, value, false);
+            }
+
+            // Only deserialise the properties that are needed
+            final Element element = converter.getElementFromKey(key, false);
+            final SerialisedProperties serialisedProperties = converter.getSerialisedPropertiesFromValue(element.getGroup(), value);
+            for (final String propertyName : requiredProperties) {
+                if (serialisedProperties.contains(propertyName)) {
+                    element.putProperty(propertyName, serialisedProperties.get(propertyName));
+                }
+            }
+            return element;
+        }
     }
 
 
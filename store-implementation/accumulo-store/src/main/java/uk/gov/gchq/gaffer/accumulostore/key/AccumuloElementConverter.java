@@ -19,6 +19,7 @@ package uk.gov.gchq.gaffer.accumulostore.key;
 import org.apache.accumulo.core.data.Key;
 import org.apache.accumulo.core.data.Value;
 import uk.gov.gchq.gaffer.accumulostore.utils.BytesAndRange;
+import uk.gov.gchq.gaffer.accumulostore.utils.SerialisedProperties;
 import uk.gov.gchq.gaffer.commonutil.pair.Pair;
 import uk.gov.gchq.gaffer.data.element.Edge;
 import uk.gov.gchq.gaffer.data.element.Element;
@@ -94,6 +95,24 @@ public interface AccumuloElementConverter {
      */
     Properties getPropertiesFromValue(final String group, final Value value);
 
+    /**
+     * Indexes the serialised properties in an Accumulo
+     * {@link org.apache.accumulo.core.data.Value} so that they can be
+     * deserialised individually.
+     * <p>
+     * The default implementation deserialises all the properties with
+     * {@link #getPropertiesFromValue(String, Value)}, so converters should
+     * override it to avoid deserialising properties that are not requested.
+     *
+     * @param group the element group
+     * @param value the Value containing the serialised properties
+     * @return A {@link SerialisedProperties} for the properties stored within the {@link Value}
+     */
+    default SerialisedProperties getSerialisedPropertiesFromValue(final String group, final Value value) {
+        return SerialisedProperties.fromProperties(getPropertiesFromValue(group, value),
+                properties -> getValueFromProperties(group, properties).get());
+    }
+
     /**
      * Gets a new {@link ElementId} from an Accumulo {@link Key}.
      *
@@ -157,6 +176,22 @@ public interface AccumuloElementConverter {
      */
     Properties getPropertiesFromColumnQualifier(final String group, final byte[] columnQualifier);
 
+    /**
+     * Indexes the serialised properties in a column qualifier so that they
+     * can be deserialised individually.
+     * <p>
+     * The default implementation deserialises all the properties with
+     * {@link #getPropertiesFromColumnQualifier(String, byte[])}.
+     *
+     * @param group           the element group
+     * @param columnQualifier the element column qualifier properties serialised into bytes
+     * @return A {@link SerialisedProperties} for the properties stored within the Column Qualifier
+     */
+    default SerialisedProperties getSerialisedPropertiesFromColumnQualifier(final String group, final byte[] columnQualifier) {
+        return SerialisedProperties.fromProperties(getPropertiesFromColumnQualifier(group, columnQualifier),
+                properties -> buildColumnQualifier(group, properties));
+    }
+
     /**
      * Truncates the provided columnQualifier, returning the byte representation of the serialised version of the specified
      * properties.
@@ -22,6 +22,7 @@ import uk.gov.gchq.gaffer.accumulostore.AccumuloStore;
 import uk.gov.gchq.gaffer.accumulostore.key.exception.IteratorSettingException;
 import uk.gov.gchq.gaffer.data.elementdefinition.view.View;
 import uk.gov.gchq.gaffer.operation.graph.GraphFilters;
+import java.util.Set;
 
 /**
  * The iterator settings factory is designed to enable the AccumuloStore to
@@ -140,6 +141,31 @@ public interface IteratorSettingFactory {
      */
     IteratorSetting getElementPropertyRangeQueryFilter(final GraphFilters operation);
 
+    /**
+     * Returns an Iterator to be applied when getting adjacent ids that will
+     * only return the first edge from each seed to each adjacent vertex, so
+     * that each adjacent vertex is only sent back to the client once. Edges
+     * in groups that have post transform filters in the view are not
+     * deduplicated, as all of them are needed to apply the filters.
+     *
+     * @param view the operation view
+     * @return A new {@link IteratorSetting} for an Iterator that will remove
+     * edges to adjacent vertices that have already been returned
+     */
+    IteratorSetting getDistinctAdjacentIdIteratorSetting(final View view);
+
+    /**
+     * Returns an Iterator to be applied when scanning for elements that will
+     * only return the given properties in the Accumulo values, so the other
+     * properties are not sent to or deserialised by the client.
+     *
+     * @param properties the names of the properties to return
+     * @param store      the accumulo store
+     * @return A new {@link IteratorSetting} for an Iterator that will remove
+     * the properties that are not required, or null if the properties are null
+     */
+    IteratorSetting getElementPropertyProjectionIteratorSetting(final Set<String> properties, final AccumuloStore store);
+
     /**
      * Returns the iterator settings for a given iterator name. Allowed iterator
      * names are: Aggregator, Validator and Bloom_Filter.
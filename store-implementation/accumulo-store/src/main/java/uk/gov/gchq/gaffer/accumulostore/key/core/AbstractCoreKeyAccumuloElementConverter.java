@@ -22,6 +22,7 @@ import uk.gov.gchq.gaffer.accumulostore.key.AccumuloElementConverter;
 import uk.gov.gchq.gaffer.accumulostore.key.exception.AccumuloElementConversionException;
 import uk.gov.gchq.gaffer.accumulostore.utils.AccumuloStoreConstants;
 import uk.gov.gchq.gaffer.accumulostore.utils.BytesAndRange;
+import uk.gov.gchq.gaffer.accumulostore.utils.SerialisedProperties;
 import uk.gov.gchq.gaffer.commonutil.ByteArrayEscapeUtils;
 import uk.gov.gchq.gaffer.commonutil.CommonConstants;
 import uk.gov.gchq.gaffer.commonutil.pair.Pair;
@@ -43,11 +44,35 @@ import uk.gov.gchq.gaffer.store.schema.TypeDefinition;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.UnsupportedEncodingException;
-import java.util.Iterator;
-
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The AbstractCoreKeyAccumuloElementConverter contains the key and value
+ * conversion logic that is shared by the core key packages.
+ * <p>
+ * To keep the number of objects created per converted element small, the
+ * serialisers for each group are looked up once and cached, properties are
+ * deserialised straight into the {@link Element} being built and the column
+ * qualifier and value bytes are written into a buffer that is reused by each
+ * thread.
+ */
 @SuppressWarnings("unchecked")
 public abstract class AbstractCoreKeyAccumuloElementConverter implements AccumuloElementConverter {
+    /**
+     * Buffers that grow larger than this are not kept for reuse, so a single
+     * very large element does not pin memory to the thread.
+     */
+    static final int MAX_REUSED_BUFFER_SIZE = 1024 * 1024;
+    static final ThreadLocal<ByteArrayOutputStream> BUFFER = new ThreadLocal<ByteArrayOutputStream>() {
+        @Override
+        protected ByteArrayOutputStream initialValue() {
+            return new ByteArrayOutputStream();
+        }
+    };
+
     protected final Schema schema;
+    private final Map<String, GroupLayout> layouts = new ConcurrentHashMap<>();
 
     public AbstractCoreKeyAccumuloElementConverter(final Schema schema) {
         this.schema = schema;
@@ -77,7 +102,7 @@ public abstract class AbstractCoreKeyAccumuloElementConverter implements Accumul
     public Pair<Key, Key> getKeysFromEdge(final Edge edge) {
         // Get pair of row keys
         final Pair<byte[], byte[]> rowKeys = getRowKeysFromEdge(edge);
-        final byte[] columnFamily = buildColumnFamily(edge.getGroup());
+        final byte[] columnFamily = getGroupLayout(edge.getGroup()).columnFamily;
         final byte[] columnQualifier = buildColumnQualifier(edge.getGroup(), edge.getProperties());
         final byte[] columnVisibility = buildColumnVisibility(edge.getGroup(), edge.getProperties());
         final long timeStamp = buildTimestamp(edge.getProperties());
@@ -95,7 +120,7 @@ public abstract class AbstractCoreKeyAccumuloElementConverter implements Accumul
     public Key getKeyFromEntity(final Entity entity) {
         // Row key is formed from vertex
         final byte[] rowKey = getRowKeyFromEntity(entity);
-        final byte[] columnFamily = buildColumnFamily(entity.getGroup());
+        final byte[] columnFamily = getGroupLayout(entity.getGroup()).columnFamily;
         final byte[] columnQualifier = buildColumnQualifier(entity.getGroup(), entity.getProperties());
 
         // Column visibility is formed from the visibility
@@ -110,16 +135,8 @@ public abstract class AbstractCoreKeyAccumuloElementConverter implements Accumul
     @SuppressWarnings("Convert2streamapi")
     @Override
     public Value getValueFromProperties(final String group, final Properties properties) {
-        final ByteArrayOutputStream stream = new ByteArrayOutputStream();
-        final SchemaElementDefinition elementDefinition = getSchemaElementDefinition(group);
-
-        for (final String propertyName : elementDefinition.getProperties()) {
-            if (isStoredInValue(propertyName, elementDefinition)) {
-                serialiseSizeAndPropertyValue(propertyName, elementDefinition, properties, stream);
-            }
-        }
-
-        return new Value(stream.toByteArray());
+        final GroupLayout layout = getGroupLayout(group);
+        return new Value(serialiseProperties(layout.valuePropertyNames, layout.valueSerialisers, properties), false);
     }
 
     @Override
@@ -130,24 +147,21 @@ public abstract class AbstractCoreKeyAccumuloElementConverter implements Accumul
     @Override
     public Properties getPropertiesFromValue(final String group, final Value value) {
         final Properties properties = new Properties();
+        addPropertiesFromValue(group, value, properties);
+        return properties;
+    }
+
+    protected void addPropertiesFromValue(final String group, final Value value, final Properties properties) {
         if (isNotEmpty(value)) {
-            final byte[] bytes = value.get();
-            int delimiterPosition = 0;
-            final int arrayLength = bytes.length;
-            final SchemaElementDefinition elementDefinition = getSchemaElementDefinition(group);
-            final Iterator<String> propertyNames = elementDefinition.getProperties().iterator();
-            while (propertyNames.hasNext() && delimiterPosition < arrayLength) {
-                final String propertyName = propertyNames.next();
-                try {
-                    if (isStoredInValue(propertyName, elementDefinition)) {
-                        delimiterPosition = addDeserialisedProperty(bytes, delimiterPosition, properties, elementDefinition, propertyName);
-                    }
-                } catch (final SerialisationException e) {
-                    throw new AccumuloElementConversionException("Failed to deserialise property " + propertyName, e);
-                }
-            }
+            final GroupLayout layout = getGroupLayout(group);
+            deserialiseProperties(value.get(), layout.valuePropertyNames, layout.valueSerialisers, properties);
         }
-        return properties;
+    }
+
+    @Override
+    public SerialisedProperties getSerialisedPropertiesFromValue(final String group, final Value value) {
+        final GroupLayout layout = getGroupLayout(group);
+        return new SerialisedProperties(isNotEmpty(value) ? value.get() : null, layout.valuePropertyNames, layout.valueSerialisers);
     }
 
     @Override
@@ -163,7 +177,7 @@ public abstract class AbstractCoreKeyAccumuloElementConverter implements Accumul
     @Override
     public Element getFullElement(final Key key, final Value value, final boolean includeMatchedVertex) {
         final Element element = getElementFromKey(key, includeMatchedVertex);
-        element.copyProperties(getPropertiesFromValue(element.getGroup(), value));
+        addPropertiesFromValue(element.getGroup(), value, element.getProperties());
         return element;
     }
 
@@ -188,21 +202,17 @@ public abstract class AbstractCoreKeyAccumuloElementConverter implements Accumul
     @Override
     public byte[] buildColumnVisibility(final String group, final Properties properties) {
         byte[] rtn = AccumuloStoreConstants.EMPTY_BYTES;
-        final SchemaElementDefinition elementDefinition = getSchemaElementDefinition(group);
-        if (null != schema.getVisibilityProperty()) {
-            final TypeDefinition propertyDef = elementDefinition.getPropertyTypeDef(schema.getVisibilityProperty());
-            if (propertyDef != null) {
-                final Object property = properties.get(schema.getVisibilityProperty());
-                final ToBytesSerialiser serialiser = (ToBytesSerialiser) propertyDef.getSerialiser();
-                if (property != null) {
-                    try {
-                        rtn = serialiser.serialise(property);
-                    } catch (final SerialisationException e) {
-                        throw new AccumuloElementConversionException(e.getMessage(), e);
-                    }
-                } else {
-                    rtn = serialiser.serialiseNull();
+        final ToBytesSerialiser serialiser = getGroupLayout(group).visibilitySerialiser;
+        if (null != serialiser) {
+            final Object property = properties.get(schema.getVisibilityProperty());
+            if (property != null) {
+                try {
+                    rtn = serialiser.serialise(property);
+                } catch (final SerialisationException e) {
+                    throw new AccumuloElementConversionException(e.getMessage(), e);
                 }
+            } else {
+                rtn = serialiser.serialiseNull();
             }
         }
         return rtn;
@@ -211,41 +221,41 @@ public abstract class AbstractCoreKeyAccumuloElementConverter implements Accumul
     @Override
     public Properties getPropertiesFromColumnVisibility(final String group, final byte[] columnVisibility) {
         final Properties properties = new Properties();
+        addPropertiesFromColumnVisibility(group, columnVisibility, properties);
+        return properties;
+    }
 
-        final SchemaElementDefinition elementDefinition = getSchemaElementDefinition(group);
-
-        if (null != schema.getVisibilityProperty()) {
-            final TypeDefinition propertyDef = elementDefinition.getPropertyTypeDef(schema.getVisibilityProperty());
-            if (null != propertyDef) {
-                final ToBytesSerialiser serialiser = (ToBytesSerialiser) propertyDef.getSerialiser();
-                try {
-                    if (columnVisibility == null || columnVisibility.length == 0) {
-                        final Object value = serialiser.deserialiseEmpty();
-                        if (value != null) {
-                            properties.put(schema.getVisibilityProperty(), value);
-                        }
-                    } else {
-                        properties.put(schema.getVisibilityProperty(), serialiser.deserialise(columnVisibility));
+    protected void addPropertiesFromColumnVisibility(final String group, final byte[] columnVisibility, final Properties properties) {
+        final ToBytesSerialiser serialiser = getGroupLayout(group).visibilitySerialiser;
+        if (null != serialiser) {
+            try {
+                if (columnVisibility == null || columnVisibility.length == 0) {
+                    final Object value = serialiser.deserialiseEmpty();
+                    if (value != null) {
+                        properties.put(schema.getVisibilityProperty(), value);
                     }
-                } catch (final SerialisationException e) {
-                    throw new AccumuloElementConversionException(e.getMessage(), e);
+                } else {
+                    properties.put(schema.getVisibilityProperty(), serialiser.deserialise(columnVisibility));
                 }
+            } catch (final SerialisationException e) {
+                throw new AccumuloElementConversionException(e.getMessage(), e);
             }
         }
-
-        return properties;
     }
 
     @Override
     public byte[] buildColumnQualifier(final String group, final Properties properties) {
-        final ByteArrayOutputStream stream = new ByteArrayOutputStream();
-        final SchemaElementDefinition elementDefinition = getSchemaElementDefinition(group);
+        final GroupLayout layout = getGroupLayout(group);
+        return serialiseProperties(layout.groupByPropertyNames, layout.groupBySerialisers, properties);
+    }
 
-        for (final String groupByPropertyName : elementDefinition.getGroupBy()) {
-            serialiseSizeAndPropertyValue(groupByPropertyName, elementDefinition, properties, stream);
+    private GroupLayout getGroupLayout(final String group) {
+        GroupLayout layout = layouts.get(group);
+        if (null == layout) {
+            layout = new GroupLayout(group, getSchemaElementDefinition(group));
+            layouts.put(group, layout);
         }
-
-        return stream.toByteArray();
+        return layout;
     }
 
     private SchemaElementDefinition getSchemaElementDefinition(final String group) {
@@ -256,15 +266,63 @@ public abstract class AbstractCoreKeyAccumuloElementConverter implements Accumul
         return elementDefinition;
     }
 
+    @Override
+    public Properties getPropertiesFromColumnQualifier(final String group, final byte[] bytes) {
+        final Properties properties = new Properties();
+        addPropertiesFromColumnQualifier(group, bytes, properties);
+        return properties;
+    }
+
+    protected void addPropertiesFromColumnQualifier(final String group, final byte[] bytes, final Properties properties) {
+        if (bytes != null && bytes.length != 0) {
+            final GroupLayout layout = getGroupLayout(group);
+            deserialiseProperties(bytes, layout.groupByPropertyNames, layout.groupBySerialisers, properties);
+        }
+    }
+
+    @Override
+    public SerialisedProperties getSerialisedPropertiesFromColumnQualifier(final String group, final byte[] bytes) {
+        final GroupLayout layout = getGroupLayout(group);
+        return new SerialisedProperties(bytes, layout.groupByPropertyNames, layout.groupBySerialisers);
+    }
+
+    private byte[] serialiseProperties(final String[] propertyNames, final ToBytesSerialiser[] serialisers, final Properties properties) {
+        final ByteArrayOutputStream stream = BUFFER.get();
+        stream.reset();
+        for (int i = 0; i < propertyNames.length; i++) {
+            serialiseSizeAndPropertyValue(propertyNames[i], serialisers[i], properties, stream);
+        }
+
+        final byte[] rtn = stream.toByteArray();
+        if (rtn.length > MAX_REUSED_BUFFER_SIZE) {
+            BUFFER.remove();
+        }
+        return rtn;
+    }
+
+    /**
+     * @param propertyName      the name of the property to serialise
+     * @param elementDefinition the element definition containing the property
+     * @param properties        the properties containing the property value
+     * @param stream            the stream to write the size and serialised value to
+     * @deprecated properties are now serialised using the serialisers cached for
+     * each group, use {@link #buildColumnQualifier(String, Properties)} or
+     * {@link #getValueFromProperties(String, Properties)} instead.
+     */
+    @Deprecated
     protected void serialiseSizeAndPropertyValue(final String propertyName, final SchemaElementDefinition elementDefinition, final Properties properties, final ByteArrayOutputStream stream) {
+        final TypeDefinition typeDefinition = elementDefinition.getPropertyTypeDef(propertyName);
+        final ToBytesSerialiser serialiser = (typeDefinition == null) ? null : (ToBytesSerialiser) typeDefinition.getSerialiser();
+        serialiseSizeAndPropertyValue(propertyName, serialiser, properties, stream);
+    }
+
+    private void serialiseSizeAndPropertyValue(final String propertyName, final ToBytesSerialiser serialiser, final Properties properties, final ByteArrayOutputStream stream) {
         try {
-            final TypeDefinition typeDefinition = elementDefinition.getPropertyTypeDef(propertyName);
-            final ToBytesSerialiser serialiser = (typeDefinition == null) ? null : (ToBytesSerialiser) typeDefinition.getSerialiser();
-            byte[] bytes;
+            final byte[] bytes;
             if (serialiser == null) {
                 bytes = AccumuloStoreConstants.EMPTY_BYTES;
             } else {
-                Object value = properties.get(propertyName);
+                final Object value = properties.get(propertyName);
                 //serialiseNull could be different to AccumuloStoreConstants.EMPTY_BYTES
                 bytes = (value == null) ? serialiser.serialiseNull() : serialiser.serialise(value);
             }
@@ -274,47 +332,30 @@ public abstract class AbstractCoreKeyAccumuloElementConverter implements Accumul
         }
     }
 
-    @Override
-    public Properties getPropertiesFromColumnQualifier(final String group, final byte[] bytes) {
-        final Properties properties = new Properties();
-        if (bytes != null && bytes.length != 0) {
-            int delimiterPosition = 0;
-            final int arrayLength = bytes.length;
-            final SchemaElementDefinition elementDefinition = getSchemaElementDefinition(group);
-            final Iterator<String> propertyNames = elementDefinition.getGroupBy().iterator();
-            while (propertyNames.hasNext() && delimiterPosition < arrayLength) {
-                final String propertyName = propertyNames.next();
+    private void deserialiseProperties(final byte[] bytes, final String[] propertyNames, final ToBytesSerialiser[] serialisers, final Properties properties) {
+        int delimiterPosition = 0;
+        final int arrayLength = bytes.length;
+        for (int i = 0; i < propertyNames.length && delimiterPosition < arrayLength; i++) {
+            final ToBytesSerialiser serialiser = serialisers[i];
+            if (serialiser != null) {
+                final int numBytesForLength = CompactRawSerialisationUtils.decodeVIntSize(bytes[delimiterPosition]);
+                final int currentPropLength = getCurrentPropLength(bytes, delimiterPosition);
+                final int from = delimiterPosition + numBytesForLength;
+                delimiterPosition = from + currentPropLength;
                 try {
-                    delimiterPosition = addDeserialisedProperty(bytes, delimiterPosition, properties, elementDefinition, propertyName);
+                    properties.put(propertyNames[i], getDeserialisedObject(serialiser, bytes, from, currentPropLength));
                 } catch (final SerialisationException e) {
-                    throw new AccumuloElementConversionException("Failed to deserialise property " + propertyName, e);
+                    throw new AccumuloElementConversionException("Failed to deserialise property " + propertyNames[i], e);
                 }
             }
         }
-        return properties;
-    }
-
-    private int addDeserialisedProperty(final byte[] bytes, final int carriage, final Properties properties, final SchemaElementDefinition elementDefinition, final String propertyName) throws SerialisationException {
-        int rtn = carriage;
-        final TypeDefinition typeDefinition = elementDefinition.getPropertyTypeDef(propertyName);
-        final ToBytesSerialiser serialiser = (typeDefinition != null) ? (ToBytesSerialiser) typeDefinition.getSerialiser() : null;
-        if (serialiser != null) {
-            final int numBytesForLength = CompactRawSerialisationUtils.decodeVIntSize(bytes[rtn]);
-            final int currentPropLength = getCurrentPropLength(bytes, rtn);
-            int from = rtn += numBytesForLength;
-            rtn += currentPropLength;
-            Object deserialisedObject = getDeserialisedObject(serialiser, bytes, from, currentPropLength);
-            properties.put(propertyName, deserialisedObject);
-        }
-        return rtn;
     }
 
     @Override
     public BytesAndRange getPropertiesAsBytesFromColumnQualifier(final String group, final byte[] bytes, final int numProps) {
         BytesAndRange rtn = new BytesAndRange(bytes, 0, 0);
         if (isColumnQualifierBytesValid(bytes, numProps)) {
-            final SchemaElementDefinition elementDefinition = getSchemaElementDefinition(group);
-            if (numProps == elementDefinition.getProperties().size()) {
+            if (numProps == getGroupLayout(group).numProperties) {
                 rtn = new BytesAndRange(bytes, 0, bytes.length);
             } else {
                 int delimiterPosition = 0;
@@ -361,14 +402,16 @@ public abstract class AbstractCoreKeyAccumuloElementConverter implements Accumul
      */
     @Override
     public Properties getPropertiesFromTimestamp(final String group, final long timestamp) {
-        final SchemaElementDefinition elementDefinition = getSchemaElementDefinition(group);
-
         final Properties properties = new Properties();
+        addPropertiesFromTimestamp(group, timestamp, properties);
+        return properties;
+    }
+
+    protected void addPropertiesFromTimestamp(final String group, final long timestamp, final Properties properties) {
         // If the element group requires a timestamp property then add it.
-        if (null != schema.getTimestampProperty() && elementDefinition.containsProperty(schema.getTimestampProperty())) {
+        if (getGroupLayout(group).hasTimestampProperty) {
             properties.put(schema.getTimestampProperty(), timestamp);
         }
-        return properties;
     }
 
     @Override
@@ -418,12 +461,10 @@ public abstract class AbstractCoreKeyAccumuloElementConverter implements Accumul
     }
 
     protected void addPropertiesToElement(final Element element, final Key key) {
-        element.copyProperties(
-                getPropertiesFromColumnQualifier(element.getGroup(), key.getColumnQualifierData().getBackingArray()));
-        element.copyProperties(
-                getPropertiesFromColumnVisibility(element.getGroup(), key.getColumnVisibilityData().getBackingArray()));
-        element.copyProperties(
-                getPropertiesFromTimestamp(element.getGroup(), key.getTimestamp()));
+        final Properties properties = element.getProperties();
+        addPropertiesFromColumnQualifier(element.getGroup(), key.getColumnQualifierData().getBackingArray(), properties);
+        addPropertiesFromColumnVisibility(element.getGroup(), key.getColumnVisibilityData().getBackingArray(), properties);
+        addPropertiesFromTimestamp(element.getGroup(), key.getTimestamp(), properties);
     }
 
     @SuppressWarnings("WeakerAccess")
@@ -471,6 +512,55 @@ public abstract class AbstractCoreKeyAccumuloElementConverter implements Accumul
         }
     }
 
+    /**
+     * Serialises the edge source without escaping it, so that it can be
+     * escaped straight into a row key.
+     *
+     * @param edge the edge
+     * @return the serialised source
+     */
+    protected byte[] getUnescapedSerialisedSource(final Edge edge) {
+        try {
+            return ((ToBytesSerialiser) schema.getVertexSerialiser()).serialise(edge.getSource());
+        } catch (final SerialisationException e) {
+            throw new AccumuloElementConversionException("Failed to serialise Edge Source", e);
+        }
+    }
+
+    /**
+     * Serialises the edge destination without escaping it, so that it can be
+     * escaped straight into a row key.
+     *
+     * @param edge the edge
+     * @return the serialised destination
+     */
+    protected byte[] getUnescapedSerialisedDestination(final Edge edge) {
+        try {
+            return ((ToBytesSerialiser) schema.getVertexSerialiser()).serialise(edge.getDestination());
+        } catch (final SerialisationException e) {
+            throw new AccumuloElementConversionException("Failed to serialise Edge Destination", e);
+        }
+    }
+
+    /**
+     * Deserialises an escaped vertex from a range of a row key. The range is
+     * only unescaped into a new array if it contains escaped bytes, otherwise
+     * the vertex is deserialised directly from the row key.
+     *
+     * @param row    the row key
+     * @param offset the position of the escaped vertex, inclusive
+     * @param length the length of the escaped vertex
+     * @return the deserialised vertex
+     * @throws SerialisationException if the vertex could not be deserialised
+     */
+    protected Object deserialiseVertex(final byte[] row, final int offset, final int length) throws SerialisationException {
+        final ToBytesSerialiser serialiser = (ToBytesSerialiser) schema.getVertexSerialiser();
+        if (ByteArrayEscapeUtils.containsEscapedBytes(row, offset, length)) {
+            return serialiser.deserialise(ByteArrayEscapeUtils.unEscapeByLength(row, offset, length));
+        }
+        return serialiser.deserialise(row, offset, length);
+    }
+
     protected String getGroupFromKey(final Key key) {
         try {
             return new String(key.getColumnFamilyData().getBackingArray(), CommonConstants.UTF_8);
@@ -515,4 +605,57 @@ public abstract class AbstractCoreKeyAccumuloElementConverter implements Accumul
         }
     }
 
+    /**
+     * The serialisers and property layout of a single group, so the schema
+     * does not need to be consulted for every element converted.
+     */
+    private final class GroupLayout {
+        private final byte[] columnFamily;
+        private final String[] groupByPropertyNames;
+        private final ToBytesSerialiser[] groupBySerialisers;
+        private final String[] valuePropertyNames;
+        private final ToBytesSerialiser[] valueSerialisers;
+        private final ToBytesSerialiser visibilitySerialiser;
+        private final boolean hasTimestampProperty;
+        private final int numProperties;
+
+        private GroupLayout(final String group, final SchemaElementDefinition elementDefinition) {
+            columnFamily = buildColumnFamily(group);
+
+            groupByPropertyNames = elementDefinition.getGroupBy().toArray(new String[elementDefinition.getGroupBy().size()]);
+            groupBySerialisers = getSerialisers(groupByPropertyNames, elementDefinition);
+
+            int numValueProperties = 0;
+            for (final String propertyName : elementDefinition.getProperties()) {
+                if (isStoredInValue(propertyName, elementDefinition)) {
+                    numValueProperties++;
+                }
+            }
+            valuePropertyNames = new String[numValueProperties];
+            int i = 0;
+            for (final String propertyName : elementDefinition.getProperties()) {
+                if (isStoredInValue(propertyName, elementDefinition)) {
+                    valuePropertyNames[i++] = propertyName;
+                }
+            }
+            valueSerialisers = getSerialisers(valuePropertyNames, elementDefinition);
+
+            final TypeDefinition visibilityTypeDef = null != schema.getVisibilityProperty()
+                    ? elementDefinition.getPropertyTypeDef(schema.getVisibilityProperty()) : null;
+            visibilitySerialiser = null != visibilityTypeDef ? (ToBytesSerialiser) visibilityTypeDef.getSerialiser() : null;
+
+            hasTimestampProperty = null != schema.getTimestampProperty()
+                    && elementDefinition.containsProperty(schema.getTimestampProperty());
+            numProperties = elementDefinition.getProperties().size();
+        }
+
+        private ToBytesSerialiser[] getSerialisers(final String[] propertyNames, final SchemaElementDefinition elementDefinition) {
+            final ToBytesSerialiser[] serialisers = new ToBytesSerialiser[propertyNames.length];
+            for (int i = 0; i < propertyNames.length; i++) {
+                final TypeDefinition typeDefinition = elementDefinition.getPropertyTypeDef(propertyNames[i]);
+                serialisers[i] = (typeDefinition == null) ? null : (ToBytesSerialiser) typeDefinition.getSerialiser();
+            }
+            return serialisers;
+        }
+    }
 }
@@ -21,20 +21,25 @@ import org.apache.hadoop.util.bloom.BloomFilter;
 import uk.gov.gchq.gaffer.accumulostore.AccumuloStore;
 import uk.gov.gchq.gaffer.accumulostore.key.IteratorSettingFactory;
 import uk.gov.gchq.gaffer.accumulostore.key.core.impl.CoreKeyBloomFilterIterator;
+import uk.gov.gchq.gaffer.accumulostore.key.core.impl.CoreKeyDistinctAdjacentIdIterator;
 import uk.gov.gchq.gaffer.accumulostore.key.core.impl.CoreKeyGroupByAggregatorIterator;
 import uk.gov.gchq.gaffer.accumulostore.key.exception.IteratorSettingException;
 import uk.gov.gchq.gaffer.accumulostore.key.impl.AggregatorIterator;
 import uk.gov.gchq.gaffer.accumulostore.key.impl.ElementPostAggregationFilter;
 import uk.gov.gchq.gaffer.accumulostore.key.impl.ElementPreAggregationFilter;
+import uk.gov.gchq.gaffer.accumulostore.key.impl.ElementPropertyProjectionIterator;
 import uk.gov.gchq.gaffer.accumulostore.key.impl.RowIDAggregator;
 import uk.gov.gchq.gaffer.accumulostore.key.impl.ValidatorFilter;
 import uk.gov.gchq.gaffer.accumulostore.utils.AccumuloStoreConstants;
+import uk.gov.gchq.gaffer.accumulostore.utils.IteratorDefinitionCache;
 import uk.gov.gchq.gaffer.accumulostore.utils.IteratorSettingBuilder;
 import uk.gov.gchq.gaffer.data.elementdefinition.view.View;
 import uk.gov.gchq.gaffer.data.elementdefinition.view.ViewElementDefinition;
 import uk.gov.gchq.gaffer.store.schema.Schema;
 import uk.gov.gchq.gaffer.store.schema.SchemaEdgeDefinition;
 import uk.gov.gchq.gaffer.store.schema.SchemaEntityDefinition;
+import java.util.Set;
+import java.util.TreeSet;
 
 public abstract class AbstractCoreKeyIteratorSettingsFactory implements IteratorSettingFactory {
 
@@ -51,12 +56,13 @@ public abstract class AbstractCoreKeyIteratorSettingsFactory implements Iterator
             return null;
         }
 
-        return new IteratorSettingBuilder(AccumuloStoreConstants.ELEMENT_PRE_AGGREGATION_FILTER_ITERATOR_PRIORITY,
+        final IteratorSetting setting = new IteratorSettingBuilder(AccumuloStoreConstants.ELEMENT_PRE_AGGREGATION_FILTER_ITERATOR_PRIORITY,
                 AccumuloStoreConstants.ELEMENT_PRE_AGGREGATION_FILTER_ITERATOR_NAME, ElementPreAggregationFilter.class)
                 .schema(store.getSchema())
                 .view(view)
                 .keyConverter(store.getKeyPackage().getKeyConverter())
                 .build();
+        return IteratorDefinitionCache.addHashOptions(setting);
     }
 
     @Override
@@ -66,22 +72,24 @@ public abstract class AbstractCoreKeyIteratorSettingsFactory implements Iterator
             return null;
         }
 
-        return new IteratorSettingBuilder(AccumuloStoreConstants.ELEMENT_POST_AGGREGATION_FILTER_ITERATOR_PRIORITY,
+        final IteratorSetting setting = new IteratorSettingBuilder(AccumuloStoreConstants.ELEMENT_POST_AGGREGATION_FILTER_ITERATOR_PRIORITY,
                 AccumuloStoreConstants.ELEMENT_POST_AGGREGATION_FILTER_ITERATOR_NAME, ElementPostAggregationFilter.class)
                 .schema(store.getSchema())
                 .view(view)
                 .keyConverter(store.getKeyPackage().getKeyConverter())
                 .build();
+        return IteratorDefinitionCache.addHashOptions(setting);
     }
 
     @Override
     public IteratorSetting getAggregatorIteratorSetting(final AccumuloStore store) throws IteratorSettingException {
-        return new IteratorSettingBuilder(AccumuloStoreConstants.AGGREGATOR_ITERATOR_PRIORITY,
+        final IteratorSetting setting = new IteratorSettingBuilder(AccumuloStoreConstants.AGGREGATOR_ITERATOR_PRIORITY,
                 AccumuloStoreConstants.AGGREGATOR_ITERATOR_NAME, AggregatorIterator.class)
                 .combinerColumnFamilies(store.getSchema().getAggregatedGroups())
                 .schema(store.getSchema())
                 .keyConverter(store.getKeyPackage().getKeyConverter())
                 .build();
+        return IteratorDefinitionCache.addHashOptions(setting);
     }
 
     @Override
@@ -90,13 +98,14 @@ public abstract class AbstractCoreKeyIteratorSettingsFactory implements Iterator
             return null;
         }
 
-        return new IteratorSettingBuilder(AccumuloStoreConstants.ROW_ID_AGGREGATOR_ITERATOR_PRIORITY,
+        final IteratorSetting setting = new IteratorSettingBuilder(AccumuloStoreConstants.ROW_ID_AGGREGATOR_ITERATOR_PRIORITY,
                 AccumuloStoreConstants.ROW_ID_AGGREGATOR_ITERATOR_NAME, RowIDAggregator.class)
                 .combinerColumnFamilies(store.getSchema().getAggregatedGroups())
                 .columnFamily(columnFamily)
                 .schema(store.getSchema())
                 .keyConverter(store.getKeyPackage().getKeyConverter())
                 .build();
+        return IteratorDefinitionCache.addHashOptions(setting);
     }
 
     @Override
@@ -105,11 +114,12 @@ public abstract class AbstractCoreKeyIteratorSettingsFactory implements Iterator
             return null;
         }
 
-        return new IteratorSettingBuilder(AccumuloStoreConstants.VALIDATOR_ITERATOR_PRIORITY,
+        final IteratorSetting setting = new IteratorSettingBuilder(AccumuloStoreConstants.VALIDATOR_ITERATOR_PRIORITY,
                 AccumuloStoreConstants.VALIDATOR_ITERATOR_NAME, ValidatorFilter.class)
                 .schema(store.getSchema())
                 .keyConverter(store.getKeyPackage().getKeyConverter())
                 .build();
+        return IteratorDefinitionCache.addHashOptions(setting);
     }
 
     @Override
@@ -118,15 +128,56 @@ public abstract class AbstractCoreKeyIteratorSettingsFactory implements Iterator
         if (!queryTimeAggregatorRequired(view, store)) {
             return null;
         }
-        return new IteratorSettingBuilder(AccumuloStoreConstants.COLUMN_QUALIFIER_AGGREGATOR_ITERATOR_PRIORITY,
+        final IteratorSetting setting = new IteratorSettingBuilder(AccumuloStoreConstants.COLUMN_QUALIFIER_AGGREGATOR_ITERATOR_PRIORITY,
                 AccumuloStoreConstants.COLUMN_QUALIFIER_AGGREGATOR_ITERATOR_NAME, CoreKeyGroupByAggregatorIterator.class)
                 .combinerColumnFamilies(store.getSchema().getAggregatedGroups())
                 .schema(store.getSchema())
                 .view(view)
                 .keyConverter(store.getKeyPackage().getKeyConverter())
                 .build();
+        return IteratorDefinitionCache.addHashOptions(setting);
     }
 
+    @Override
+    public IteratorSetting getDistinctAdjacentIdIteratorSetting(final View view) {
+        final IteratorSetting setting = new IteratorSettingBuilder(AccumuloStoreConstants.DISTINCT_ADJACENT_ID_ITERATOR_PRIORITY,
+                AccumuloStoreConstants.DISTINCT_ADJACENT_ID_ITERATOR_NAME, getDistinctAdjacentIdIteratorClass())
+                .build();
+
+        final Set<String> passThroughGroups = new TreeSet<>();
+        for (final String group : view.getEdgeGroups()) {
+            final ViewElementDefinition viewElementDefinition = view.getEdge(group);
+            if (null != viewElementDefinition && viewElementDefinition.hasPostTransformFilters()) {
+                passThroughGroups.add(group);
+            }
+        }
+        if (!passThroughGroups.isEmpty()) {
+            setting.addOption(AccumuloStoreConstants.PASS_THROUGH_GROUPS, String.join(",", passThroughGroups));
+        }
+        return setting;
+    }
+
+    @Override
+    public IteratorSetting getElementPropertyProjectionIteratorSetting(final Set<String> properties, final AccumuloStore store) {
+        if (null == properties) {
+            return null;
+        }
+
+        final IteratorSetting setting = new IteratorSettingBuilder(AccumuloStoreConstants.ELEMENT_PROPERTY_PROJECTION_ITERATOR_PRIORITY,
+                AccumuloStoreConstants.ELEMENT_PROPERTY_PROJECTION_ITERATOR_NAME, ElementPropertyProjectionIterator.class)
+                .schema(store.getSchema())
+                .keyConverter(store.getKeyPackage().getKeyConverter())
+                .build();
+        setting.addOption(AccumuloStoreConstants.PROPERTIES, String.join(",", new TreeSet<>(properties)));
+        return IteratorDefinitionCache.addHashOptions(setting);
+    }
+
+    /**
+     * @return the class of the {@link CoreKeyDistinctAdjacentIdIterator} that
+     * understands the row keys of this key package
+     */
+    protected abstract Class<? extends CoreKeyDistinctAdjacentIdIterator> getDistinctAdjacentIdIteratorClass();
+
     public boolean queryTimeAggregatorRequired(final View view, final AccumuloStore store) {
         Schema schema = store.getSchema();
         if (!schema.isAggregationEnabled()) {
@@ -37,11 +37,14 @@ public class CoreKeyBloomFunctor implements KeyFunctor {
         if (range.getStartKey() == null || range.getEndKey() == null) {
             return null;
         }
-        final byte[] startKeyFirstIdentifier = getVertexFromRangeKey(
-                range.getStartKey().getRowData().getBackingArray());
-        final byte[] endKeyFirstIdentifier = getVertexFromRangeKey(range.getEndKey().getRowData().getBackingArray());
-        if (Arrays.equals(startKeyFirstIdentifier, endKeyFirstIdentifier)) {
-            return new org.apache.hadoop.util.bloom.Key(startKeyFirstIdentifier);
+        // Compare the escaped vertices in place, so only the vertex that is
+        // used as the Bloom filter key is copied.
+        final byte[] startKey = range.getStartKey().getRowData().getBackingArray();
+        final byte[] endKey = range.getEndKey().getRowData().getBackingArray();
+        final int startKeyVertexLength = getVertexLength(startKey);
+        final int endKeyVertexLength = getVertexLength(endKey);
+        if (0 == ByteArrayEscapeUtils.compareEscaped(startKey, 0, startKeyVertexLength, endKey, 0, endKeyVertexLength)) {
+            return new org.apache.hadoop.util.bloom.Key(getVertex(startKey, startKeyVertexLength));
         }
         return null;
     }
@@ -60,26 +63,29 @@ public class CoreKeyBloomFunctor implements KeyFunctor {
     }
 
     public byte[] getVertexFromRangeKey(final byte[] key) {
-        int pos = -1;
+        return getVertex(key, getVertexLength(key));
+    }
+
+    private static byte[] getVertex(final byte[] key, final int vertexLength) {
+        if (vertexLength == key.length) {
+            return key;
+        }
+        return Arrays.copyOf(key, vertexLength);
+    }
+
+    private static int getVertexLength(final byte[] key) {
         for (int j = 0; j < key.length; ++j) {
             if (key[j] == ByteArrayEscapeUtils.DELIMITER) {
-                pos = j;
-                break;
+                return j;
             }
         }
-        if (pos != -1) {
-            return Arrays.copyOf(key, pos);
-        } else {
-            if (key[key.length - 1] != ByteArrayEscapeUtils.DELIMITER_PLUS_ONE) {
-                return key;
-            }
-            if (getNumTrailingDelimPlusOne(key) % 2 == 0) {
-                return key;
-            }
-            final byte[] bloomKey = new byte[key.length - 1];
-            System.arraycopy(key, 0, bloomKey, 0, key.length - 1);
-            return bloomKey;
+        if (key[key.length - 1] != ByteArrayEscapeUtils.DELIMITER_PLUS_ONE) {
+            return key.length;
+        }
+        if (getNumTrailingDelimPlusOne(key) % 2 == 0) {
+            return key.length;
         }
+        return key.length - 1;
     }
 
     private static int getNumTrailingDelimPlusOne(final byte[] charArray) {
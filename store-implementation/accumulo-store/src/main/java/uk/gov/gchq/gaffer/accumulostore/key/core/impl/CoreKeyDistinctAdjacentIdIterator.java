@@ -0,0 +1,145 @@
+/*
+ * Copyright 2017 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.gov.gchq.gaffer.accumulostore.key.core.impl;
+
+import org.apache.accumulo.core.data.ByteSequence;
+import org.apache.accumulo.core.data.Key;
+import org.apache.accumulo.core.data.Range;
+import org.apache.accumulo.core.data.Value;
+import org.apache.accumulo.core.iterators.Filter;
+import org.apache.accumulo.core.iterators.IteratorEnvironment;
+import org.apache.accumulo.core.iterators.SortedKeyValueIterator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import uk.gov.gchq.gaffer.accumulostore.key.exception.AccumuloElementConversionException;
+import uk.gov.gchq.gaffer.accumulostore.utils.AccumuloStoreConstants;
+import uk.gov.gchq.gaffer.accumulostore.utils.ByteUtils;
+import uk.gov.gchq.gaffer.accumulostore.utils.IteratorOptionsBuilder;
+import uk.gov.gchq.gaffer.commonutil.StringUtil;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * The CoreKeyDistinctAdjacentIdIterator is used by GetAdjacentIds so that
+ * each adjacent vertex is only sent back to the client once per seed, rather
+ * than once for every edge group, timestamp and direction linking the seed to
+ * it. The adjacent vertices are compared in their escaped form, straight from
+ * the row key.
+ * <p>
+ * The rows for a seed are contiguous, so only the adjacent vertices of the
+ * current seed are remembered. They are forgotten whenever the iterator is
+ * seeked, so duplicates may still be returned from different tablets or scan
+ * batches, and at most {@link #MAX_ADJACENT_IDS_PER_SEED} adjacent vertices
+ * are remembered for each seed.
+ * <p>
+ * Edges in the groups listed in the {@link AccumuloStoreConstants#PASS_THROUGH_GROUPS}
+ * option are always returned, as the client needs every one of them to
+ * apply transforms and post transform filters.
+ */
+public abstract class CoreKeyDistinctAdjacentIdIterator extends Filter {
+    public static final int MAX_ADJACENT_IDS_PER_SEED = 100000;
+    private static final Logger LOGGER = LoggerFactory.getLogger(CoreKeyDistinctAdjacentIdIterator.class);
+
+    private final Set<ByteBuffer> adjacentIds = new HashSet<>();
+    private final int[] vertexPositions = new int[3];
+    private Set<String> passThroughGroups = Collections.emptySet();
+    private byte[] seed;
+
+    @Override
+    public boolean accept(final Key key, final Value value) {
+        final byte[] row = key.getRowData().getBackingArray();
+        try {
+            if (!getVertexPositions(row, vertexPositions)) {
+                return true;
+            }
+        } catch (final AccumuloElementConversionException e) {
+            LOGGER.warn(e.getMessage(), e);
+            return true;
+        }
+
+        if (!passThroughGroups.isEmpty()
+                && passThroughGroups.contains(StringUtil.toString(key.getColumnFamilyData().getBackingArray()))) {
+            return true;
+        }
+
+        final int seedLength = vertexPositions[0];
+        if (null == seed || 0 != ByteUtils.compareBytes(seed, 0, seed.length, row, 0, seedLength)) {
+            seed = Arrays.copyOf(row, seedLength);
+            adjacentIds.clear();
+        }
+
+        final int adjacentIdOffset = vertexPositions[1];
+        final int adjacentIdLength = vertexPositions[2] - adjacentIdOffset;
+        if (adjacentIds.contains(ByteBuffer.wrap(row, adjacentIdOffset, adjacentIdLength))) {
+            return false;
+        }
+        if (adjacentIds.size() < MAX_ADJACENT_IDS_PER_SEED) {
+            adjacentIds.add(ByteBuffer.wrap(Arrays.copyOfRange(row, adjacentIdOffset, adjacentIdOffset + adjacentIdLength)));
+        }
+        return true;
+    }
+
+    /**
+     * Finds the positions of the seed and adjacent vertices in an edge row key.
+     *
+     * @param row       the row key
+     * @param positions populated with the end of the seed vertex (the seed
+     *                  vertex starts at 0), then the start and end of the
+     *                  adjacent vertex
+     * @return false if the row key does not represent an edge
+     */
+    protected abstract boolean getVertexPositions(final byte[] row, final int[] positions);
+
+    @Override
+    public void seek(final Range range, final Collection<ByteSequence> columnFamilies, final boolean inclusive) throws IOException {
+        seed = null;
+        adjacentIds.clear();
+        super.seek(range, columnFamilies, inclusive);
+    }
+
+    @Override
+    public void init(final SortedKeyValueIterator<Key, Value> source, final Map<String, String> options,
+                     final IteratorEnvironment env) throws IOException {
+        super.init(source, options, env);
+        final String groups = options.get(AccumuloStoreConstants.PASS_THROUGH_GROUPS);
+        if (null != groups && !groups.isEmpty()) {
+            passThroughGroups = new HashSet<>(Arrays.asList(groups.split(",")));
+        }
+    }
+
+    @Override
+    public SortedKeyValueIterator<Key, Value> deepCopy(final IteratorEnvironment env) {
+        final CoreKeyDistinctAdjacentIdIterator copy = (CoreKeyDistinctAdjacentIdIterator) super.deepCopy(env);
+        copy.passThroughGroups = passThroughGroups;
+        return copy;
+    }
+
+    @Override
+    public IteratorOptions describeOptions() {
+        return new IteratorOptionsBuilder(super.describeOptions())
+                .addNamedOption(AccumuloStoreConstants.PASS_THROUGH_GROUPS,
+                        "Optional: A comma separated list of the groups that should not be deduplicated")
+                .setIteratorName(AccumuloStoreConstants.DISTINCT_ADJACENT_ID_ITERATOR_NAME)
+                .setIteratorDescription("Only returns the first edge from each seed to each adjacent vertex")
+                .build();
+    }
+}
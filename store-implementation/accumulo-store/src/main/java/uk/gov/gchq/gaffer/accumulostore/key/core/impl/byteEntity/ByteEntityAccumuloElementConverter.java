@@ -19,6 +19,7 @@ package uk.gov.gchq.gaffer.accumulostore.key.core.impl.byteEntity;
 import org.apache.accumulo.core.data.Key;
 import uk.gov.gchq.gaffer.accumulostore.key.core.AbstractCoreKeyAccumuloElementConverter;
 import uk.gov.gchq.gaffer.accumulostore.key.exception.AccumuloElementConversionException;
+import uk.gov.gchq.gaffer.accumulostore.utils.ByteUtils;
 import uk.gov.gchq.gaffer.commonutil.ByteArrayEscapeUtils;
 import uk.gov.gchq.gaffer.commonutil.pair.Pair;
 import uk.gov.gchq.gaffer.data.element.Edge;
@@ -29,7 +30,6 @@ import uk.gov.gchq.gaffer.exception.SerialisationException;
 import uk.gov.gchq.gaffer.operation.data.EntitySeed;
 import uk.gov.gchq.gaffer.serialisation.ToBytesSerialiser;
 import uk.gov.gchq.gaffer.store.schema.Schema;
-import java.util.Arrays;
 
 /**
  * The ByteEntityAccumuloElementConverter converts Gaffer Elements to Accumulo
@@ -66,9 +66,7 @@ public class ByteEntityAccumuloElementConverter extends AbstractCoreKeyAccumuloE
     @Override
     protected EntityId getEntityId(final byte[] row) {
         try {
-            return new EntitySeed(((ToBytesSerialiser) schema.getVertexSerialiser())
-                    .deserialise(ByteArrayEscapeUtils.unEscape(Arrays.copyOfRange(row, 0,
-                            row.length - 2))));
+            return new EntitySeed(deserialiseVertex(row, 0, row.length - 2));
         } catch (final SerialisationException e) {
             throw new AccumuloElementConversionException("Failed to create EntityId from Accumulo row key", e);
         }
@@ -88,31 +86,32 @@ public class ByteEntityAccumuloElementConverter extends AbstractCoreKeyAccumuloE
 
     @Override
     protected Pair<byte[], byte[]> getRowKeysFromEdge(final Edge edge) {
-        byte[] source = getSerialisedSource(edge);
-        byte[] destination = getSerialisedDestination(edge);
+        // The source and destination are escaped straight into the row keys
+        final byte[] source = getUnescapedSerialisedSource(edge);
+        final byte[] destination = getUnescapedSerialisedDestination(edge);
+        final int sourceLength = ByteArrayEscapeUtils.getEscapedLength(source, 0, source.length);
+        final int destinationLength = ByteArrayEscapeUtils.getEscapedLength(destination, 0, destination.length);
 
         byte directionFlag = edge.isDirected() ? ByteEntityPositions.CORRECT_WAY_DIRECTED_EDGE : ByteEntityPositions.UNDIRECTED_EDGE;
-        final byte[] rowKey1 = getRowKey(source, destination, directionFlag);
+        final byte[] rowKey1 = getRowKey(source, sourceLength, destination, destinationLength, directionFlag);
 
         byte[] rowKey2 = null;
         if (!selfEdge(edge)) {
             byte invertDirectedFlag = (directionFlag == ByteEntityPositions.CORRECT_WAY_DIRECTED_EDGE) ? ByteEntityPositions.INCORRECT_WAY_DIRECTED_EDGE : directionFlag;
-            rowKey2 = getRowKey(destination, source, invertDirectedFlag);
+            rowKey2 = getRowKey(destination, destinationLength, source, sourceLength, invertDirectedFlag);
         }
 
         return new Pair<>(rowKey1, rowKey2);
     }
 
-    private byte[] getRowKey(final byte[] first, final byte[] second, final byte directionFlag) {
-        int carriage = first.length;
-        int secondLen = second.length;
-        byte[] rowKey = new byte[carriage + secondLen + 5];
-        System.arraycopy(first, 0, rowKey, 0, carriage);
+    private byte[] getRowKey(final byte[] first, final int firstEscapedLength,
+                             final byte[] second, final int secondEscapedLength, final byte directionFlag) {
+        byte[] rowKey = new byte[firstEscapedLength + secondEscapedLength + 5];
+        int carriage = ByteArrayEscapeUtils.escape(first, rowKey, 0);
         rowKey[carriage++] = ByteArrayEscapeUtils.DELIMITER;
         rowKey[carriage++] = directionFlag;
         rowKey[carriage++] = ByteArrayEscapeUtils.DELIMITER;
-        System.arraycopy(second, 0, rowKey, carriage, secondLen);
-        carriage += secondLen;
+        carriage = ByteArrayEscapeUtils.escape(second, rowKey, carriage);
         rowKey[carriage++] = ByteArrayEscapeUtils.DELIMITER;
         rowKey[carriage] = directionFlag;
         return rowKey;
@@ -126,8 +125,7 @@ public class ByteEntityAccumuloElementConverter extends AbstractCoreKeyAccumuloE
     @Override
     protected Entity getEntityFromKey(final Key key, final byte[] row) {
         try {
-            final Entity entity = new Entity(getGroupFromKey(key), ((ToBytesSerialiser) schema.getVertexSerialiser())
-                    .deserialise(ByteArrayEscapeUtils.unEscape(row, 0, row.length - 2)));
+            final Entity entity = new Entity(getGroupFromKey(key), deserialiseVertex(row, 0, row.length - 2));
             addPropertiesToElement(entity, key);
             return entity;
         } catch (final SerialisationException e) {
@@ -138,23 +136,7 @@ public class ByteEntityAccumuloElementConverter extends AbstractCoreKeyAccumuloE
     @Override
     protected EdgeDirection getSourceAndDestinationFromRowKey(final byte[] rowKey, final byte[][] sourceDestValues) {
         // Get element class, sourceValue, destinationValue and directed flag from row key
-        // Expect to find 3 delimiters (4 fields)
-        final int[] positionsOfDelimiters = new int[3];
-        short numDelims = 0;
-        // Last byte will be directional flag so don't count it
-        for (int i = 0; i < rowKey.length - 1; ++i) {
-            if (rowKey[i] == ByteArrayEscapeUtils.DELIMITER) {
-                if (numDelims >= 3) {
-                    throw new AccumuloElementConversionException(
-                            "Too many delimiters found in row key - found more than the expected 3.");
-                }
-                positionsOfDelimiters[numDelims++] = i;
-            }
-        }
-        if (numDelims != 3) {
-            throw new AccumuloElementConversionException(
-                    "Wrong number of delimiters found in row key - found " + numDelims + ", expected 3.");
-        }
+        final int[] positionsOfDelimiters = getPositionsOfDelimiters(rowKey);
         // If edge is undirected then create edge
         // (no need to worry about which direction the vertices should go in).
         // If the edge is directed then need to decide which way round the vertices should go.
@@ -192,4 +174,40 @@ public class ByteEntityAccumuloElementConverter extends AbstractCoreKeyAccumuloE
         }
         return rtn;
     }
+
+    /**
+     * Compares the first and second vertices in an edge row key, without
+     * unescaping them. This is used to pick one of the two row keys of an
+     * undirected edge.
+     *
+     * @param rowKey the edge row key
+     * @return a negative integer, zero, or a positive integer as the first
+     * vertex is less than, equal to, or greater than the second
+     */
+    protected int compareVerticesInRowKey(final byte[] rowKey) {
+        final int[] positionsOfDelimiters = getPositionsOfDelimiters(rowKey);
+        return ByteUtils.compareBytes(rowKey, 0, positionsOfDelimiters[0],
+                rowKey, positionsOfDelimiters[1] + 1, positionsOfDelimiters[2] - positionsOfDelimiters[1] - 1);
+    }
+
+    int[] getPositionsOfDelimiters(final byte[] rowKey) {
+        // Expect to find 3 delimiters (4 fields)
+        final int[] positionsOfDelimiters = new int[3];
+        short numDelims = 0;
+        // Last byte will be directional flag so don't count it
+        for (int i = 0; i < rowKey.length - 1; ++i) {
+            if (rowKey[i] == ByteArrayEscapeUtils.DELIMITER) {
+                if (numDelims >= 3) {
+                    throw new AccumuloElementConversionException(
+                            "Too many delimiters found in row key - found more than the expected 3.");
+                }
+                positionsOfDelimiters[numDelims++] = i;
+            }
+        }
+        if (numDelims != 3) {
+            throw new AccumuloElementConversionException(
+                    "Wrong number of delimiters found in row key - found " + numDelims + ", expected 3.");
+        }
+        return positionsOfDelimiters;
+    }
 }
@@ -65,4 +65,8 @@ public class ByteEntityIteratorSettingsFactory extends AbstractCoreKeyIteratorSe
                 .build();
     }
 
+    @Override
+    protected Class<ByteEntityDistinctAdjacentIdIterator> getDistinctAdjacentIdIteratorClass() {
+        return ByteEntityDistinctAdjacentIdIterator.class;
+    }
 }
@@ -25,7 +25,6 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import uk.gov.gchq.gaffer.accumulostore.key.exception.AccumuloElementConversionException;
 import uk.gov.gchq.gaffer.accumulostore.utils.AccumuloStoreConstants;
-import uk.gov.gchq.gaffer.accumulostore.utils.ByteUtils;
 import uk.gov.gchq.gaffer.accumulostore.utils.IteratorOptionsBuilder;
 import java.io.IOException;
 import java.util.Map;
@@ -89,9 +88,7 @@ public class ByteEntityRangeElementPropertyFilterIterator extends Filter {
     private boolean checkForDuplicateUndirectedEdge(final Key key) {
         boolean isCorrect = false;
         try {
-            final byte[][] sourceDestValues = new byte[3][];
-            converter.getSourceAndDestinationFromRowKey(key.getRowData().getBackingArray(), sourceDestValues);
-            isCorrect = ByteUtils.compareBytes(sourceDestValues[0], sourceDestValues[1]) <= 0;
+            isCorrect = converter.compareVerticesInRowKey(key.getRowData().getBackingArray()) <= 0;
         } catch (final AccumuloElementConversionException e) {
             LOGGER.warn(e.getMessage(), e);
         }
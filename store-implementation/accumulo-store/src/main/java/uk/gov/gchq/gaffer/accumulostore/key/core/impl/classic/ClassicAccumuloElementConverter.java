@@ -19,6 +19,7 @@ package uk.gov.gchq.gaffer.accumulostore.key.core.impl.classic;
 import org.apache.accumulo.core.data.Key;
 import uk.gov.gchq.gaffer.accumulostore.key.core.AbstractCoreKeyAccumuloElementConverter;
 import uk.gov.gchq.gaffer.accumulostore.key.exception.AccumuloElementConversionException;
+import uk.gov.gchq.gaffer.accumulostore.utils.ByteUtils;
 import uk.gov.gchq.gaffer.commonutil.ByteArrayEscapeUtils;
 import uk.gov.gchq.gaffer.commonutil.pair.Pair;
 import uk.gov.gchq.gaffer.data.element.Edge;
@@ -38,8 +39,7 @@ public class ClassicAccumuloElementConverter extends AbstractCoreKeyAccumuloElem
     @Override
     protected EntityId getEntityId(final byte[] row) {
         try {
-            return new EntitySeed(((ToBytesSerialiser) schema.getVertexSerialiser())
-                    .deserialise(ByteArrayEscapeUtils.unEscape(row)));
+            return new EntitySeed(deserialiseVertex(row, 0, row.length));
         } catch (final SerialisationException e) {
             throw new AccumuloElementConversionException("Failed to create EntityId from Accumulo row key", e);
         }
@@ -67,13 +67,16 @@ public class ClassicAccumuloElementConverter extends AbstractCoreKeyAccumuloElem
         // in the key is the source, i.e. they need flipping around.
         byte directionFlag = edge.isDirected() ? ClassicBytePositions.CORRECT_WAY_DIRECTED_EDGE : ClassicBytePositions.UNDIRECTED_EDGE;
 
-        // Serialise source and destination to byte arrays, escaping if necessary
-        final byte[] source = getSerialisedSource(edge);
-        final byte[] destination = getSerialisedDestination(edge);
+        // Serialise source and destination to byte arrays. These are escaped
+        // straight into the row keys.
+        final byte[] source = getUnescapedSerialisedSource(edge);
+        final byte[] destination = getUnescapedSerialisedDestination(edge);
+        final int sourceLength = ByteArrayEscapeUtils.getEscapedLength(source, 0, source.length);
+        final int destinationLength = ByteArrayEscapeUtils.getEscapedLength(destination, 0, destination.length);
 
         // Create first key: source DELIMITER destination
         // DELIMITER (CORRECT_WAY_DIRECTED_EDGE or UNDIRECTED_EDGE)
-        final byte[] rowKey1 = getRowKey(source, destination, directionFlag);
+        final byte[] rowKey1 = getRowKey(source, sourceLength, destination, destinationLength, directionFlag);
 
 
         // Is this a self-edge? If so then return null for the second rowKey as
@@ -83,23 +86,21 @@ public class ClassicAccumuloElementConverter extends AbstractCoreKeyAccumuloElem
             final byte invertDirectedFlag = (directionFlag == ClassicBytePositions.CORRECT_WAY_DIRECTED_EDGE) ? ClassicBytePositions.INCORRECT_WAY_DIRECTED_EDGE : directionFlag;
             // Create second key: destination DELIMITER source
             // DELIMITER (INCORRECT_WAY_DIRECTED_EDGE or UNDIRECTED_EDGE)
-            rowKey2 = getRowKey(destination, source, invertDirectedFlag);
+            rowKey2 = getRowKey(destination, destinationLength, source, sourceLength, invertDirectedFlag);
         }
         return new Pair<>(rowKey1, rowKey2);
     }
 
-    private byte[] getRowKey(final byte[] first, final byte[] second, final byte invertDirectedFlag) {
-        // Length of row key is the length of the first plus the length of the second
+    private byte[] getRowKey(final byte[] first, final int firstEscapedLength,
+                             final byte[] second, final int secondEscapedLength, final byte invertDirectedFlag) {
+        // Length of row key is the escaped length of the first plus the escaped length of the second
         // plus one for the delimiter in between the first and second
         // plus one for the delimiter in between the second and the direction flag
         // plus one for the direction flag at the end.
-        int carriage = first.length;
-        int secondLen = second.length;
-        final byte[] rowKey = new byte[carriage + secondLen + 3];
-        System.arraycopy(first, 0, rowKey, 0, carriage);
+        final byte[] rowKey = new byte[firstEscapedLength + secondEscapedLength + 3];
+        int carriage = ByteArrayEscapeUtils.escape(first, rowKey, 0);
         rowKey[carriage++] = ByteArrayEscapeUtils.DELIMITER;
-        System.arraycopy(second, 0, rowKey, carriage, secondLen);
-        carriage += second.length;
+        carriage = ByteArrayEscapeUtils.escape(second, rowKey, carriage);
         rowKey[carriage++] = ByteArrayEscapeUtils.DELIMITER;
         rowKey[carriage] = invertDirectedFlag;
         //carriage++;
@@ -126,8 +127,7 @@ public class ClassicAccumuloElementConverter extends AbstractCoreKeyAccumuloElem
     @Override
     protected Entity getEntityFromKey(final Key key, final byte[] row) {
         try {
-            final Entity entity = new Entity(getGroupFromKey(key), ((ToBytesSerialiser) schema.getVertexSerialiser())
-                    .deserialise(ByteArrayEscapeUtils.unEscape(row)));
+            final Entity entity = new Entity(getGroupFromKey(key), deserialiseVertex(row, 0, row.length));
             addPropertiesToElement(entity, key);
             return entity;
         } catch (final SerialisationException e) {
@@ -138,22 +138,7 @@ public class ClassicAccumuloElementConverter extends AbstractCoreKeyAccumuloElem
     @Override
     protected EdgeDirection getSourceAndDestinationFromRowKey(final byte[] rowKey, final byte[][] sourceDestValue) {
         // Get sourceValue, destinationValue and directed flag from row key
-        // Expect to find 2 delimiters (3 fields)
-        final int[] positionsOfDelimiters = new int[2];
-        short numDelims = 0;
-        for (int i = 0; i < rowKey.length; i++) {
-            if (rowKey[i] == ByteArrayEscapeUtils.DELIMITER) {
-                if (numDelims >= 2) {
-                    throw new AccumuloElementConversionException(
-                            "Too many delimiters found in row key - found more than the expected 2.");
-                }
-                positionsOfDelimiters[numDelims++] = i;
-            }
-        }
-        if (numDelims != 2) {
-            throw new AccumuloElementConversionException(
-                    "Wrong number of delimiters found in row key - found " + numDelims + ", expected 2.");
-        }
+        final int[] positionsOfDelimiters = getPositionsOfDelimiters(rowKey);
         // If edge is undirected then create edge
         // (no need to worry about which direction the vertices should go in).
         // If the edge is directed then need to decide which way round the vertices should go.
@@ -184,4 +169,39 @@ public class ClassicAccumuloElementConverter extends AbstractCoreKeyAccumuloElem
         }
         return rtn;
     }
+
+    /**
+     * Compares the first and second vertices in an edge row key, without
+     * unescaping them. This is used to pick one of the two row keys of an
+     * undirected edge.
+     *
+     * @param rowKey the edge row key
+     * @return a negative integer, zero, or a positive integer as the first
+     * vertex is less than, equal to, or greater than the second
+     */
+    protected int compareVerticesInRowKey(final byte[] rowKey) {
+        final int[] positionsOfDelimiters = getPositionsOfDelimiters(rowKey);
+        return ByteUtils.compareBytes(rowKey, 0, positionsOfDelimiters[0],
+                rowKey, positionsOfDelimiters[0] + 1, positionsOfDelimiters[1] - positionsOfDelimiters[0] - 1);
+    }
+
+    int[] getPositionsOfDelimiters(final byte[] rowKey) {
+        // Expect to find 2 delimiters (3 fields)
+        final int[] positionsOfDelimiters = new int[2];
+        short numDelims = 0;
+        for (int i = 0; i < rowKey.length; i++) {
+            if (rowKey[i] == ByteArrayEscapeUtils.DELIMITER) {
+                if (numDelims >= 2) {
+                    throw new AccumuloElementConversionException(
+                            "Too many delimiters found in row key - found more than the expected 2.");
+                }
+                positionsOfDelimiters[numDelims++] = i;
+            }
+        }
+        if (numDelims != 2) {
+            throw new AccumuloElementConversionException(
+                    "Wrong number of delimiters found in row key - found " + numDelims + ", expected 2.");
+        }
+        return positionsOfDelimiters;
+    }
 }
@@ -0,0 +1,35 @@
+/*
+ * Copyright 2017 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.gov.gchq.gaffer.accumulostore.key.core.impl.classic;
+
+import uk.gov.gchq.gaffer.accumulostore.key.core.impl.CoreKeyDistinctAdjacentIdIterator;
+
+public class ClassicDistinctAdjacentIdIterator extends CoreKeyDistinctAdjacentIdIterator {
+    // This converter does not have the schema so not all converter methods can be used.
+    private final ClassicAccumuloElementConverter converter = new ClassicAccumuloElementConverter(null);
+
+    @Override
+    protected boolean getVertexPositions(final byte[] row, final int[] positions) {
+        if (converter.doesKeyRepresentEntity(row)) {
+            return false;
+        }
+        final int[] positionsOfDelimiters = converter.getPositionsOfDelimiters(row);
+        positions[0] = positionsOfDelimiters[0];
+        positions[1] = positionsOfDelimiters[0] + 1;
+        positions[2] = positionsOfDelimiters[1];
+        return true;
+    }
+}
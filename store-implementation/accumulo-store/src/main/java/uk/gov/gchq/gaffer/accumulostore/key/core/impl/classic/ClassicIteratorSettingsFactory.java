@@ -77,4 +77,8 @@ public class ClassicIteratorSettingsFactory extends AbstractCoreKeyIteratorSetti
                 .build();
     }
 
+    @Override
+    protected Class<ClassicDistinctAdjacentIdIterator> getDistinctAdjacentIdIteratorClass() {
+        return ClassicDistinctAdjacentIdIterator.class;
+    }
 }
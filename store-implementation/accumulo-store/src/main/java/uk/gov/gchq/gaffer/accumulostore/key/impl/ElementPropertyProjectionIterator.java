@@ -0,0 +1,142 @@
+/*
+ * Copyright 2017 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.gov.gchq.gaffer.accumulostore.key.impl;
+
+import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+import org.apache.accumulo.core.data.ByteSequence;
+import org.apache.accumulo.core.data.Key;
+import org.apache.accumulo.core.data.Range;
+import org.apache.accumulo.core.data.Value;
+import org.apache.accumulo.core.iterators.IteratorEnvironment;
+import org.apache.accumulo.core.iterators.OptionDescriber;
+import org.apache.accumulo.core.iterators.SortedKeyValueIterator;
+import org.apache.accumulo.core.iterators.WrappingIterator;
+import uk.gov.gchq.gaffer.accumulostore.key.AccumuloElementConverter;
+import uk.gov.gchq.gaffer.accumulostore.key.exception.ElementFilterException;
+import uk.gov.gchq.gaffer.accumulostore.utils.AccumuloStoreConstants;
+import uk.gov.gchq.gaffer.accumulostore.utils.IteratorDefinitionCache;
+import uk.gov.gchq.gaffer.accumulostore.utils.IteratorOptionsBuilder;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * The ElementPropertyProjectionIterator removes the properties stored in the
+ * Accumulo value that are not in the {@link AccumuloStoreConstants#PROPERTIES}
+ * option, so they are not sent back to the client. The removed properties are
+ * written with a length of 0 rather than being deserialised, so the values can
+ * still be read by the element converter.
+ * <p>
+ * This iterator should be applied after any iterators that filter or aggregate
+ * on the full set of properties.
+ */
+public class ElementPropertyProjectionIterator extends WrappingIterator implements OptionDescriber {
+    @SuppressFBWarnings(value = "UWF_FIELD_NOT_INITIALIZED_IN_CONSTRUCTOR", justification = "elementConverter is initialised in init method, which is always called first")
+    private AccumuloElementConverter elementConverter;
+
+    private Set<String> properties = Collections.emptySet();
+    private Value topValue;
+
+    /**
+     * The projected value is created the first time it is requested after
+     * each call to next or seek, and then reused.
+     *
+     * @return the value of the top key, with only the given properties
+     */
+    @Override
+    public Value getTopValue() {
+        if (null == topValue) {
+            topValue = projectValue(super.getTopValue());
+        }
+        return topValue;
+    }
+
+    @Override
+    public void next() throws IOException {
+        topValue = null;
+        super.next();
+    }
+
+    @Override
+    public void seek(final Range range, final Collection<ByteSequence> columnFamilies, final boolean inclusive) throws IOException {
+        topValue = null;
+        super.seek(range, columnFamilies, inclusive);
+    }
+
+    @Override
+    public void init(final SortedKeyValueIterator<Key, Value> source,
+                     final Map<String, String> options,
+                     final IteratorEnvironment env) throws IOException {
+        validateOptions(options);
+        super.init(source, options, env);
+
+        try {
+            elementConverter = IteratorDefinitionCache.getElementConverter(options);
+        } catch (final ReflectiveOperationException | IllegalArgumentException | SecurityException e) {
+            throw new ElementFilterException("Failed to load element converter from class name provided : "
+                    + options.get(AccumuloStoreConstants.ACCUMULO_ELEMENT_CONVERTER_CLASS), e);
+        }
+
+        final String propertiesOption = options.get(AccumuloStoreConstants.PROPERTIES);
+        if (null != propertiesOption && !propertiesOption.isEmpty()) {
+            properties = new HashSet<>(Arrays.asList(propertiesOption.split(",")));
+        }
+    }
+
+    @Override
+    public SortedKeyValueIterator<Key, Value> deepCopy(final IteratorEnvironment env) {
+        final ElementPropertyProjectionIterator copy = new ElementPropertyProjectionIterator();
+        copy.setSource(getSource().deepCopy(env));
+        copy.elementConverter = elementConverter;
+        copy.properties = properties;
+        return copy;
+    }
+
+    @Override
+    public IteratorOptions describeOptions() {
+        return new IteratorOptionsBuilder(AccumuloStoreConstants.ELEMENT_PROPERTY_PROJECTION_ITERATOR_NAME,
+                "Only returns the given properties in the values of elements")
+                .addSchemaNamedOption()
+                .addElementConverterClassNamedOption()
+                .addNamedOption(AccumuloStoreConstants.PROPERTIES,
+                        "Optional: A comma separated list of the properties to return")
+                .build();
+    }
+
+    private Value projectValue(final Value value) {
+        if (null == value || 0 == value.getSize()) {
+            return value;
+        }
+
+        final String group = elementConverter.getGroupFromColumnFamily(getTopKey().getColumnFamilyData().getBackingArray());
+        return new Value(elementConverter.getSerialisedPropertiesFromValue(group, value).retain(properties), false);
+    }
+
+    @Override
+    public boolean validateOptions(final Map<String, String> options) {
+        if (!options.containsKey(AccumuloStoreConstants.ACCUMULO_ELEMENT_CONVERTER_CLASS)) {
+            throw new IllegalArgumentException("Must specify the " + AccumuloStoreConstants.ACCUMULO_ELEMENT_CONVERTER_CLASS);
+        }
+        if (!options.containsKey(AccumuloStoreConstants.SCHEMA)) {
+            throw new IllegalArgumentException("Must specify the " + AccumuloStoreConstants.SCHEMA);
+        }
+        return true;
+    }
+}
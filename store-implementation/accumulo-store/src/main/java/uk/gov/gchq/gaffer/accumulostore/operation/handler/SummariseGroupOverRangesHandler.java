@@ -20,7 +20,7 @@ import uk.gov.gchq.gaffer.accumulostore.AccumuloStore;
 import uk.gov.gchq.gaffer.accumulostore.key.IteratorSettingFactory;
 import uk.gov.gchq.gaffer.accumulostore.key.exception.IteratorSettingException;
 import uk.gov.gchq.gaffer.accumulostore.operation.impl.SummariseGroupOverRanges;
-import uk.gov.gchq.gaffer.accumulostore.retriever.impl.AccumuloRangeIDRetriever;
+import uk.gov.gchq.gaffer.accumulostore.retriever.impl.AccumuloRangeSummaryRetriever;
 import uk.gov.gchq.gaffer.commonutil.iterable.CloseableIterable;
 import uk.gov.gchq.gaffer.data.element.Element;
 import uk.gov.gchq.gaffer.operation.OperationException;
@@ -57,9 +57,8 @@ public class SummariseGroupOverRangesHandler implements OutputOperationHandler<S
 
         final IteratorSettingFactory itrFactory = store.getKeyPackage().getIteratorFactory();
         try {
-            return new AccumuloRangeIDRetriever<>(store, operation, user,
+            return new AccumuloRangeSummaryRetriever(store, operation, user, columnFamily,
                     itrFactory.getElementPreAggregationFilterIteratorSetting(operation.getView(), store),
-                    itrFactory.getElementPostAggregationFilterIteratorSetting(operation.getView(), store),
                     itrFactory.getEdgeEntityDirectionFilterIteratorSetting(operation),
                     itrFactory.getElementPropertyRangeQueryFilter(operation),
                     itrFactory.getRowIDAggregatorIteratorSetting(store, columnFamily));
@@ -106,11 +106,16 @@ public class AccumuloSampleDataForSplitPointsJobFactory implements SampleDataFor
         jobConf.set(MAPPER_GENERATOR, operation.getMapperGeneratorClassName());
         jobConf.set(VALIDATE, String.valueOf(operation.isValidate()));
         jobConf.set(PROPORTION_TO_SAMPLE, String.valueOf(operation.getProportionToSample()));
+        jobConf.setInt(MAX_SAMPLES_PER_MAPPER, operation.getMaxSamplesPerMapper());
         final Integer numTasks = operation.getNumMapTasks();
         if (null != numTasks) {
             jobConf.setNumMapTasks(numTasks);
         }
-        jobConf.setNumReduceTasks(1);
+
+        // The sorted output of each reducer is merged when the splits are
+        // created, so the samples can be sorted by several reducers.
+        final Integer numReduceTasks = operation.getNumReduceTasks();
+        jobConf.setNumReduceTasks(null != numReduceTasks ? numReduceTasks : 1);
 
         jobConf.set(AccumuloStoreConstants.ACCUMULO_ELEMENT_CONVERTER_CLASS,
                 ((AccumuloStore) store).getKeyPackage().getKeyConverter().getClass().getName());
@@ -123,6 +128,7 @@ public class AccumuloSampleDataForSplitPointsJobFactory implements SampleDataFor
         job.setJobName(getJobName(operation.getMapperGeneratorClassName(), new Path(operation.getOutputPath())));
 
         setupMapper(job);
+        setupCombiner(job);
         setupReducer(job);
 
         setupOutput(job, operation, store);
@@ -138,6 +144,10 @@ public class AccumuloSampleDataForSplitPointsJobFactory implements SampleDataFor
         job.setMapOutputValueClass(Value.class);
     }
 
+    protected void setupCombiner(final Job job) throws IOException {
+        job.setCombinerClass(AccumuloKeyValueReducer.class);
+    }
+
     protected void setupReducer(final Job job)
             throws IOException {
         job.setReducerClass(AccumuloKeyValueReducer.class);
@@ -26,24 +26,40 @@ import uk.gov.gchq.gaffer.commonutil.pair.Pair;
 import uk.gov.gchq.gaffer.data.element.Element;
 import uk.gov.gchq.gaffer.data.elementdefinition.exception.SchemaException;
 import uk.gov.gchq.gaffer.hdfs.operation.mapper.GafferMapper;
+import uk.gov.gchq.gaffer.hdfs.operation.mapper.SampleReservoir;
 import uk.gov.gchq.gaffer.store.schema.Schema;
 import java.io.IOException;
 import java.io.UnsupportedEncodingException;
 import java.lang.reflect.InvocationTargetException;
+import java.util.Random;
 
 /**
  * Mapper class used for estimating the split points to ensure even distribution of
  * data in Accumulo after initial insert.
+ * <p>
+ * Each element is a candidate for the sample with probability proportionToSample.
+ * The candidates are reservoir sampled, using a {@link SampleReservoir}, so at
+ * most maxSamplesPerMapper elements are held in memory and output when the
+ * mapper finishes, however many elements the mapper reads. Input splits are normally of a similar size, so
+ * each mapper's sample represents a similar share of the data.
  */
 public class SampleDataForSplitPointsMapper<KEY_IN, VALUE_IN> extends GafferMapper<KEY_IN, VALUE_IN, Key, Value> {
-
     private float proportionToSample;
     private AccumuloElementConverter elementConverter;
+    private Random random;
+    private SampleReservoir<Pair<Pair<Key, Key>, Value>> reservoir;
+    private long numElements;
 
     @Override
     protected void setup(final Context context) {
         super.setup(context);
         proportionToSample = context.getConfiguration().getFloat(AccumuloSampleDataForSplitPointsJobFactory.PROPORTION_TO_SAMPLE, 0.001f);
+        final int maxSamples = context.getConfiguration().getInt(AccumuloSampleDataForSplitPointsJobFactory.MAX_SAMPLES_PER_MAPPER, Integer.MAX_VALUE);
+        numElements = 0;
+
+        // Seed the random sampling with the task id so a re-run task samples the same elements.
+        random = new Random(context.getTaskAttemptID().getTaskID().hashCode());
+        reservoir = new SampleReservoir<>(maxSamples, random);
         final Schema schema;
         try {
             schema = Schema.fromJson(context.getConfiguration()
@@ -66,28 +82,45 @@ public class SampleDataForSplitPointsMapper<KEY_IN, VALUE_IN> extends GafferMapp
 
     @Override
     protected void map(final Element element, final Context context) throws IOException, InterruptedException {
-        if (Math.random() < proportionToSample) {
-            context.getCounter("Split points", "Number sampled").increment(1L);
-            final Pair<Key, Key> keyPair;
-            try {
-                keyPair = elementConverter.getKeysFromElement(element);
-            } catch (final AccumuloElementConversionException e) {
-                throw new IllegalArgumentException(e.getMessage(), e);
-            }
+        numElements++;
+        if (random.nextFloat() >= proportionToSample) {
+            return;
+        }
 
-            final Value value;
-            try {
-                value = elementConverter.getValueFromElement(element);
-            } catch (final AccumuloElementConversionException e) {
-                throw new IllegalArgumentException(e.getMessage(), e);
-            }
+        reservoir.offer(() -> new Pair<>(getKeys(element), getValue(element)));
+    }
+
+    @Override
+    protected void cleanup(final Context context) throws IOException, InterruptedException {
+        final int numSampled = reservoir.getSamples().size();
+        for (final Pair<Pair<Key, Key>, Value> sample : reservoir.getSamples()) {
+            final Pair<Key, Key> keyPair = sample.getFirst();
+            final Value value = sample.getSecond();
             context.write(keyPair.getFirst(), value);
             if (keyPair.getSecond() != null) {
                 context.write(keyPair.getSecond(), value);
             }
-        } else {
-            context.getCounter("Split points", "Number not sampled").increment(1L);
+        }
+
+        context.getCounter("Split points", "Number sampled").increment(numSampled);
+        context.getCounter("Split points", "Number not sampled").increment(numElements - numSampled);
+        reservoir.clear();
+        super.cleanup(context);
+    }
+
+    private Pair<Key, Key> getKeys(final Element element) {
+        try {
+            return elementConverter.getKeysFromElement(element);
+        } catch (final AccumuloElementConversionException e) {
+            throw new IllegalArgumentException(e.getMessage(), e);
         }
     }
 
+    private Value getValue(final Element element) {
+        try {
+            return elementConverter.getValueFromElement(element);
+        } catch (final AccumuloElementConversionException e) {
+            throw new IllegalArgumentException(e.getMessage(), e);
+        }
+    }
 }
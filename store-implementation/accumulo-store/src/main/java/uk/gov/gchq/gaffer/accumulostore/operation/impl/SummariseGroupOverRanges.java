@@ -34,10 +34,13 @@ import java.util.Map;
 /**
  * A <code>SummariseGroupOverRanges</code> operation will return an
  * {@link uk.gov.gchq.gaffer.data.element.Element} that represents the aggregated form of all data between the provided range for the provided group.
- * Note that one result per tablet on which data in the desired range resides will be returned, with large data sets and/or large ranges
- * more likely to produce multiple results and you will need to cache the results and aggregate them again to get a final answer.
- * For this reason it is recommended your provided ranges do not over-lap as you will be unable to tell for a given result which range the result is from.
- * Standard filtering will still occur before the final aggregation of the vertices.
+ * One result is returned for each range that contains data: the partial results from each tablet on which data in the range resides are
+ * aggregated again before they are returned.
+ * The ranges are read in chunks of at most the store's maximum number of entries for a batch scanner, and the results of each chunk are
+ * returned sorted by the start of their ranges, not in the order the ranges were provided. A range that overlaps another range in the
+ * same chunk is deferred to a later chunk, so the results are only sorted overall if the ranges do not over-lap and fit in a single chunk.
+ * Standard filtering will still occur before the final aggregation of the vertices, and post aggregation filters are applied to the
+ * final results.
  */
 public class SummariseGroupOverRanges
         implements Operation,
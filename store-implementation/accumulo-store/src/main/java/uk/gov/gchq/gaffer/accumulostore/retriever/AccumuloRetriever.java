@@ -16,16 +16,25 @@
 
 package uk.gov.gchq.gaffer.accumulostore.retriever;
 
+import org.apache.accumulo.core.client.AccumuloException;
 import org.apache.accumulo.core.client.BatchScanner;
 import org.apache.accumulo.core.client.IteratorSetting;
 import org.apache.accumulo.core.client.TableNotFoundException;
+import org.apache.accumulo.core.conf.AccumuloConfiguration;
+import org.apache.accumulo.core.conf.Property;
+import org.apache.accumulo.core.data.Key;
 import org.apache.accumulo.core.data.Range;
+import org.apache.accumulo.core.data.Value;
 import org.apache.accumulo.core.security.Authorizations;
 import org.apache.hadoop.io.Text;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import uk.gov.gchq.gaffer.accumulostore.AccumuloStore;
 import uk.gov.gchq.gaffer.accumulostore.key.AccumuloElementConverter;
 import uk.gov.gchq.gaffer.accumulostore.key.IteratorSettingFactory;
 import uk.gov.gchq.gaffer.accumulostore.key.RangeFactory;
+import uk.gov.gchq.gaffer.accumulostore.key.exception.RangeFactoryException;
+import uk.gov.gchq.gaffer.accumulostore.utils.TabletSplits;
 import uk.gov.gchq.gaffer.commonutil.iterable.CloseableIterable;
 import uk.gov.gchq.gaffer.commonutil.iterable.CloseableIterator;
 import uk.gov.gchq.gaffer.data.element.Element;
@@ -36,9 +45,21 @@ import uk.gov.gchq.gaffer.operation.graph.GraphFilters;
 import uk.gov.gchq.gaffer.operation.io.Output;
 import uk.gov.gchq.gaffer.store.StoreException;
 import uk.gov.gchq.gaffer.user.User;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map.Entry;
+import java.util.NoSuchElementException;
 import java.util.Set;
 
 public abstract class AccumuloRetriever<OP extends Output & GraphFilters, O_ITEM> implements CloseableIterable<O_ITEM> {
+    private static final Logger LOGGER = LoggerFactory.getLogger(AccumuloRetriever.class);
+
     protected CloseableIterator<O_ITEM> iterator;
     protected final AccumuloStore store;
     protected final Authorizations authorisations;
@@ -131,6 +152,29 @@ public abstract class AccumuloRetriever<OP extends Output & GraphFilters, O_ITEM
         return scanner;
     }
 
+    /**
+     * Estimates the memory used by a {@link BatchScanner} to buffer results
+     * that have not yet been consumed. Each of the scanner's query threads
+     * can have a batch of results queued and another being fetched, and each
+     * batch is limited by the table's {@link Property#TABLE_SCAN_MAXMEM}.
+     *
+     * @return the estimated size in bytes of the results buffered by a batch
+     * scanner
+     */
+    protected long getScannerBufferBytes() {
+        long scanMaxMemory = AccumuloConfiguration.getMemoryInBytes(Property.TABLE_SCAN_MAXMEM.getDefaultValue());
+        try {
+            for (final Entry<String, String> property : store.getConnection().tableOperations().getProperties(store.getTableName())) {
+                if (Property.TABLE_SCAN_MAXMEM.getKey().equals(property.getKey())) {
+                    scanMaxMemory = AccumuloConfiguration.getMemoryInBytes(property.getValue());
+                }
+            }
+        } catch (final AccumuloException | TableNotFoundException | StoreException e) {
+            LOGGER.debug("Unable to read {} for table {}, using the default value", Property.TABLE_SCAN_MAXMEM.getKey(), store.getTableName(), e);
+        }
+        return 2L * store.getProperties().getThreadsForBatchScanner() * scanMaxMemory;
+    }
+
     protected void transform(final Element element, final ElementTransformer transformer) {
         if (transformer != null) {
             transformer.apply(element);
@@ -140,4 +184,311 @@ public abstract class AccumuloRetriever<OP extends Output & GraphFilters, O_ITEM
     protected boolean postFilter(final Element element, final ElementFilter postFilter) {
         return postFilter == null || postFilter.test(element);
     }
+
+    /**
+     * Adds the {@link Range}s required to retrieve a single seed to a set of ranges.
+     *
+     * @param <I_ITEM> the type of seed
+     */
+    protected interface SeedRangeAdder<I_ITEM> {
+        void addToRanges(final I_ITEM seed, final Set<Range> ranges) throws RangeFactoryException;
+    }
+
+    /**
+     * A {@code BatchedScannerIterator} reads the provided seeds in chunks of at
+     * most {@link uk.gov.gchq.gaffer.accumulostore.AccumuloProperties#getMaxEntriesForBatchScanner()}
+     * and iterates through the results of a {@link BatchScanner} for each chunk in turn.
+     * <p>
+     * Up to {@link uk.gov.gchq.gaffer.accumulostore.AccumuloProperties#getMaxBatchScannersInFlight()}
+     * scanners are running at any one time: whilst the results of the current
+     * scanner are being consumed, the ranges for the next chunks of seeds are
+     * built and their scanners are started, so the tablet servers can begin
+     * returning results before they are requested. No further scanners are
+     * started ahead of the current one once their estimated memory exceeds
+     * {@link uk.gov.gchq.gaffer.accumulostore.AccumuloProperties#getMaxPrefetchMemoryForBatchScannersInBytes()}.
+     * The estimate for each scanner is the size of its ranges plus the results
+     * it may buffer, see {@link #getScannerBufferBytes()}.
+     * <p>
+     * The chunks of seeds are created by a {@link TabletPartitionedSeedBatches},
+     * which can partition them by tablet, so each scanner queries all of the
+     * tablets holding the seeds.
+     *
+     * @param <I_ITEM> the type of seed
+     */
+    protected class BatchedScannerIterator<I_ITEM> implements CloseableIterator<Entry<Key, Value>> {
+        private final TabletPartitionedSeedBatches<I_ITEM> seeds;
+        private final int maxBatchScannersInFlight;
+        private final long maxPrefetchMemory;
+        private final long scannerBufferBytes;
+        private final Deque<ScannerBatch> prefetchedBatches = new ArrayDeque<>();
+        private long prefetchedBytes;
+        private ScannerBatch currentBatch;
+
+        public BatchedScannerIterator(final Iterator<? extends I_ITEM> seeds, final SeedRangeAdder<I_ITEM> rangeAdder)
+                throws TableNotFoundException, StoreException {
+            this.seeds = new TabletPartitionedSeedBatches<>(seeds, rangeAdder);
+            this.maxBatchScannersInFlight = Math.max(1, store.getProperties().getMaxBatchScannersInFlight());
+            this.maxPrefetchMemory = store.getProperties().getMaxPrefetchMemoryForBatchScannersInBytes();
+            this.scannerBufferBytes = maxBatchScannersInFlight > 1 ? getScannerBufferBytes() : 0;
+            try {
+                nextBatch();
+            } catch (final TableNotFoundException | StoreException e) {
+                close();
+                throw e;
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            while (null != currentBatch) {
+                if (currentBatch.results.hasNext()) {
+                    return true;
+                }
+                // If the current scanner is spent then move on to the next
+                // scanner, which may already have been started.
+                try {
+                    nextBatch();
+                } catch (final TableNotFoundException | StoreException e) {
+                    LOGGER.error("{} returning iterator doesn't have any more elements", e.getMessage(), e);
+                    close();
+                    return false;
+                }
+            }
+            return false;
+        }
+
+        @Override
+        public Entry<Key, Value> next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            return currentBatch.results.next();
+        }
+
+        @Override
+        public void remove() {
+            throw new UnsupportedOperationException("Unable to remove entries from this iterator");
+        }
+
+        @Override
+        public void close() {
+            if (null != currentBatch) {
+                currentBatch.scanner.close();
+                currentBatch = null;
+            }
+            for (final ScannerBatch batch : prefetchedBatches) {
+                batch.scanner.close();
+            }
+            prefetchedBatches.clear();
+            prefetchedBytes = 0;
+        }
+
+        private void nextBatch() throws TableNotFoundException, StoreException {
+            if (null != currentBatch) {
+                currentBatch.scanner.close();
+                currentBatch = null;
+            }
+            if (prefetchedBatches.isEmpty()) {
+                startBatch();
+            }
+            currentBatch = prefetchedBatches.poll();
+            if (null != currentBatch) {
+                prefetchedBytes -= currentBatch.memoryBytes;
+
+                // Start the scanners for the next chunks of seeds, so they
+                // run whilst the current batch is being consumed.
+                while (prefetchedBatches.size() < maxBatchScannersInFlight - 1
+                        && prefetchedBytes < maxPrefetchMemory
+                        && seeds.hasNext()) {
+                    startBatch();
+                }
+            }
+        }
+
+        private void startBatch() throws TableNotFoundException, StoreException {
+            Set<Range> ranges = new HashSet<>();
+            while (ranges.isEmpty() && seeds.hasNext()) {
+                ranges = seeds.next().getRanges();
+            }
+            if (ranges.isEmpty()) {
+                return;
+            }
+
+            long memoryBytes = scannerBufferBytes;
+            for (final Range range : ranges) {
+                memoryBytes += getSize(range.getStartKey()) + getSize(range.getEndKey());
+            }
+
+            final BatchScanner scanner = getScanner(ranges);
+            // Requesting the iterator starts the scanner's lookups against
+            // the tablet servers in the background.
+            prefetchedBatches.add(new ScannerBatch(scanner, scanner.iterator(), memoryBytes));
+            prefetchedBytes += memoryBytes;
+        }
+
+        private long getSize(final Key key) {
+            return null != key ? key.getSize() : 0;
+        }
+    }
+
+    /**
+     * A chunk of seeds and the {@link Range}s required to retrieve them.
+     *
+     * @param <I_ITEM> the type of seed
+     */
+    protected static final class SeedBatch<I_ITEM> {
+        private final List<I_ITEM> seeds = new ArrayList<>();
+        private final Set<Range> ranges = new HashSet<>();
+
+        public List<I_ITEM> getSeeds() {
+            return seeds;
+        }
+
+        public Set<Range> getRanges() {
+            return ranges;
+        }
+    }
+
+    /**
+     * A {@code TabletPartitionedSeedBatches} splits the provided seeds into
+     * chunks of at most {@link uk.gov.gchq.gaffer.accumulostore.AccumuloProperties#getMaxEntriesForBatchScanner()}
+     * seeds.
+     * <p>
+     * Up to {@link uk.gov.gchq.gaffer.accumulostore.AccumuloProperties#getTabletPartitioningChunks()}
+     * chunks of seeds are read at once. The seeds are ordered by the tablet
+     * holding their first range, using the table's split points, then dealt
+     * out to the chunks in turn. Each chunk therefore holds seeds from all of
+     * the tablets, rather than the chunks of a sorted set of seeds each
+     * querying only a few tablets. The split points are only read once more
+     * than one chunk of seeds has been provided, so small queries do not pay
+     * for the lookup.
+     *
+     * @param <I_ITEM> the type of seed
+     */
+    protected class TabletPartitionedSeedBatches<I_ITEM> implements Iterator<SeedBatch<I_ITEM>> {
+        private final Iterator<? extends I_ITEM> seeds;
+        private final SeedRangeAdder<I_ITEM> rangeAdder;
+        private final int maxEntriesForBatchScanner;
+        private final int maxChunks;
+        private final Deque<SeedBatch<I_ITEM>> batches = new ArrayDeque<>();
+        private TabletSplits splits;
+        private boolean splitsUnavailable;
+
+        public TabletPartitionedSeedBatches(final Iterator<? extends I_ITEM> seeds, final SeedRangeAdder<I_ITEM> rangeAdder) {
+            this.seeds = seeds;
+            this.rangeAdder = rangeAdder;
+            this.maxEntriesForBatchScanner = Math.max(1, store.getProperties().getMaxEntriesForBatchScanner());
+            this.maxChunks = Math.max(1, store.getProperties().getTabletPartitioningChunks());
+        }
+
+        @Override
+        public boolean hasNext() {
+            return !batches.isEmpty() || seeds.hasNext();
+        }
+
+        @Override
+        public SeedBatch<I_ITEM> next() {
+            if (batches.isEmpty()) {
+                readChunks();
+            }
+            if (batches.isEmpty()) {
+                throw new NoSuchElementException();
+            }
+            return batches.poll();
+        }
+
+        @Override
+        public void remove() {
+            throw new UnsupportedOperationException("Unable to remove seeds from this iterator");
+        }
+
+        private void readChunks() {
+            final long maxSeeds = (long) maxEntriesForBatchScanner * maxChunks;
+            final List<I_ITEM> chunkSeeds = new ArrayList<>();
+            final List<Set<Range>> chunkRanges = new ArrayList<>();
+            while (seeds.hasNext() && chunkSeeds.size() < maxSeeds) {
+                final I_ITEM seed = seeds.next();
+                final Set<Range> seedRanges = new HashSet<>();
+                try {
+                    rangeAdder.addToRanges(seed, seedRanges);
+                } catch (final RangeFactoryException e) {
+                    LOGGER.error("Failed to create a range from given seed", e);
+                }
+                chunkSeeds.add(seed);
+                chunkRanges.add(seedRanges);
+            }
+
+            final int numSeeds = chunkSeeds.size();
+            final int numChunks = (numSeeds + maxEntriesForBatchScanner - 1) / maxEntriesForBatchScanner;
+            if (0 == numChunks) {
+                return;
+            }
+
+            final List<SeedBatch<I_ITEM>> chunks = new ArrayList<>(numChunks);
+            for (int i = 0; i < numChunks; i++) {
+                chunks.add(new SeedBatch<>());
+            }
+
+            final TabletSplits tabletSplits = numChunks > 1 ? getSplits() : null;
+            if (null == tabletSplits) {
+                for (int i = 0; i < numSeeds; i++) {
+                    addToBatch(chunks.get(i / maxEntriesForBatchScanner), chunkSeeds.get(i), chunkRanges.get(i));
+                }
+            } else {
+                final int[] tablets = new int[numSeeds];
+                final Integer[] order = new Integer[numSeeds];
+                for (int i = 0; i < numSeeds; i++) {
+                    tablets[i] = getTabletIndex(tabletSplits, chunkRanges.get(i));
+                    order[i] = i;
+                }
+                Arrays.sort(order, Comparator.comparingInt(i -> tablets[i]));
+                for (int i = 0; i < numSeeds; i++) {
+                    addToBatch(chunks.get(i % numChunks), chunkSeeds.get(order[i]), chunkRanges.get(order[i]));
+                }
+            }
+            batches.addAll(chunks);
+        }
+
+        private void addToBatch(final SeedBatch<I_ITEM> batch, final I_ITEM seed, final Set<Range> ranges) {
+            batch.seeds.add(seed);
+            batch.ranges.addAll(ranges);
+        }
+
+        private int getTabletIndex(final TabletSplits tabletSplits, final Set<Range> ranges) {
+            int tablet = 0;
+            boolean first = true;
+            for (final Range range : ranges) {
+                final int rangeTablet = tabletSplits.getTabletIndex(range);
+                if (first || rangeTablet < tablet) {
+                    tablet = rangeTablet;
+                    first = false;
+                }
+            }
+            return tablet;
+        }
+
+        private TabletSplits getSplits() {
+            if (null == splits && !splitsUnavailable) {
+                try {
+                    splits = TabletSplits.getSplits(store);
+                } catch (final StoreException e) {
+                    LOGGER.warn("{}, the seeds will not be partitioned by tablet", e.getMessage(), e);
+                    splitsUnavailable = true;
+                }
+            }
+            return splits;
+        }
+    }
+
+    private static final class ScannerBatch {
+        private final BatchScanner scanner;
+        private final Iterator<Entry<Key, Value>> results;
+        private final long memoryBytes;
+
+        private ScannerBatch(final BatchScanner scanner, final Iterator<Entry<Key, Value>> results, final long memoryBytes) {
+            this.scanner = scanner;
+            this.results = results;
+            this.memoryBytes = memoryBytes;
+        }
+    }
 }
@@ -28,8 +28,8 @@ import org.slf4j.LoggerFactory;
 import uk.gov.gchq.gaffer.accumulostore.AccumuloStore;
 import uk.gov.gchq.gaffer.accumulostore.key.exception.AccumuloElementConversionException;
 import uk.gov.gchq.gaffer.accumulostore.key.exception.IteratorSettingException;
-import uk.gov.gchq.gaffer.accumulostore.key.exception.RangeFactoryException;
 import uk.gov.gchq.gaffer.accumulostore.retriever.impl.AccumuloSingleIDRetriever;
+import uk.gov.gchq.gaffer.accumulostore.utils.BlockedBloomFilter;
 import uk.gov.gchq.gaffer.accumulostore.utils.BloomFilterUtils;
 import uk.gov.gchq.gaffer.commonutil.CloseableUtil;
 import uk.gov.gchq.gaffer.commonutil.iterable.CloseableIterable;
@@ -45,6 +45,7 @@ import uk.gov.gchq.gaffer.operation.io.InputOutput;
 import uk.gov.gchq.gaffer.store.StoreException;
 import uk.gov.gchq.gaffer.user.User;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.Map.Entry;
@@ -144,21 +145,44 @@ public abstract class AccumuloSetRetriever<OP extends InputOutput<Iterable<? ext
         }
     }
 
-    protected void addToBloomFilter(final Iterator<? extends EntityId> seeds, final BloomFilter filter1,
-                                    final BloomFilter filter2) throws RetrieverException {
+    protected void addToBloomFilter(final Iterator<? extends EntityId> seeds, final BloomFilter filter,
+                                    final BlockedBloomFilter clientSideFilter) throws RetrieverException {
         try {
             while (seeds.hasNext()) {
-                addToBloomFilter(seeds.next(), filter1, filter2);
+                addToBloomFilter(seeds.next(), filter, clientSideFilter);
             }
         } finally {
             CloseableUtil.close(seeds);
         }
     }
 
-    protected void addToBloomFilter(final EntityId seed, final BloomFilter filter1, final BloomFilter filter2)
-            throws RetrieverException {
-        addToBloomFilter(seed.getVertex(), filter1);
-        addToBloomFilter(seed.getVertex(), filter2);
+    protected void addToBloomFilter(final EntityId seed, final BloomFilter filter,
+                                    final BlockedBloomFilter clientSideFilter) throws RetrieverException {
+        final byte[] serialisedVertex;
+        try {
+            serialisedVertex = elementConverter.serialiseVertex(seed.getVertex());
+        } catch (final AccumuloElementConversionException e) {
+            throw new RetrieverException("Failed to add identifier to the bloom key", e);
+        }
+        filter.add(new org.apache.hadoop.util.bloom.Key(serialisedVertex));
+        clientSideFilter.add(serialisedVertex);
+    }
+
+    /**
+     * Returns the number of seeds that will be added to the Bloom filters, so
+     * that they can be sized for the seeds rather than for the maximum sizes
+     * in the store properties. If the seeds are not a {@link Collection} the
+     * number of seeds is not known, so the maximum number of entries for a
+     * batch scanner is used instead.
+     *
+     * @param seeds the seeds that will be added to the Bloom filters
+     * @return the expected number of seeds
+     */
+    protected int getNumSeedsForBloomFilters(final Iterable<? extends EntityId> seeds) {
+        if (seeds instanceof Collection) {
+            return Math.max(1, ((Collection<?>) seeds).size());
+        }
+        return store.getProperties().getMaxEntriesForBatchScanner();
     }
 
     private void addToBloomFilter(final Object vertex, final BloomFilter filter) throws RetrieverException {
@@ -267,20 +291,35 @@ public abstract class AccumuloSetRetriever<OP extends InputOutput<Iterable<? ext
         protected Iterator<? extends EntityId> idsAIterator;
         // The Bloom filter that is maintained client-side
         // as a secondary defeat of false positives.
-        protected BloomFilter clientSideFilter;
+        protected BlockedBloomFilter clientSideFilter;
         protected Set<Object> currentSeeds;
         protected BatchScanner scanner;
         protected BloomFilter filter;
+        private TabletPartitionedSeedBatches<EntityId> seedBatches;
         private Iterator<Entry<Key, Value>> scannerIterator;
         private Element nextElm;
         private int count;
 
         public AbstractElementIteratorFromBatches() {
+            this(store.getProperties().getMaxEntriesForBatchScanner());
+        }
+
+        /**
+         * Both Bloom filters are sized for the number of seeds that will be
+         * added to them and the false positive rate, rather than for the
+         * maximum sizes in the store properties, which are only upper limits.
+         *
+         * @param numSeedsInBloomFilters the number of seeds that will be added
+         *                               to the Bloom filters
+         */
+        public AbstractElementIteratorFromBatches(final int numSeedsInBloomFilters) {
             // Set up client side filter
-            clientSideFilter = BloomFilterUtils.getBloomFilter(store.getProperties().getClientSideBloomFilterSize());
+            clientSideFilter = BloomFilterUtils.getBlockedBloomFilter(store.getProperties().getFalsePositiveRate(),
+                    numSeedsInBloomFilters,
+                    store.getProperties().getClientSideBloomFilterSize());
             // Create Bloom filter to be passed to iterators.
             filter = BloomFilterUtils.getBloomFilter(store.getProperties().getFalsePositiveRate(),
-                    store.getProperties().getMaxEntriesForBatchScanner(),
+                    numSeedsInBloomFilters,
                     store.getProperties().getMaxBloomFilterToPassToAnIterator());
             currentSeeds = new HashSet<>();
         }
@@ -342,21 +381,25 @@ public abstract class AccumuloSetRetriever<OP extends InputOutput<Iterable<? ext
         protected abstract void updateBloomFilterIfRequired(final EntityId seed) throws RetrieverException;
 
         protected void updateScanner() throws RetrieverException {
-            // Read through the first N entities (where N =
-            // maxEntriesForBatchScanner), create the associated ranges
-            // and add them to a set.
+            // Take the next chunk of at most N entities (where N =
+            // maxEntriesForBatchScanner), partitioned by tablet, and their
+            // associated ranges.
+            if (null == seedBatches) {
+                seedBatches = new TabletPartitionedSeedBatches<>(idsAIterator,
+                        (seed, ranges) -> ranges.addAll(rangeFactory.getRange(seed, operation)));
+            }
             count = 0;
-            final Set<Range> ranges = new HashSet<>();
-            while (idsAIterator.hasNext() && count < store.getProperties().getMaxEntriesForBatchScanner()) {
-                final EntityId seed = idsAIterator.next();
-                currentSeeds.add(seed.getVertex());
-                count++;
-                try {
-                    ranges.addAll(rangeFactory.getRange(seed, operation));
-                } catch (final RangeFactoryException e) {
-                    LOGGER.error("Failed to create a range from given seed", e);
+            final Set<Range> ranges;
+            if (seedBatches.hasNext()) {
+                final SeedBatch<EntityId> batch = seedBatches.next();
+                for (final EntityId seed : batch.getSeeds()) {
+                    currentSeeds.add(seed.getVertex());
+                    count++;
+                    updateBloomFilterIfRequired(seed);
                 }
-                updateBloomFilterIfRequired(seed);
+                ranges = batch.getRanges();
+            } else {
+                ranges = new HashSet<>();
             }
 
             try {
@@ -394,7 +437,7 @@ public abstract class AccumuloSetRetriever<OP extends InputOutput<Iterable<? ext
             // through the provided entities, and see if there are more.
             // If so create the next scanner, if there are no more entities
             // then return false.
-            while (idsAIterator.hasNext() && !scannerIterator.hasNext()) {
+            while (seedBatches.hasNext() && !scannerIterator.hasNext()) {
                 updateScanner();
             }
             if (!scannerIterator.hasNext()) {
@@ -18,7 +18,6 @@ package uk.gov.gchq.gaffer.accumulostore.retriever.impl;
 
 import org.apache.accumulo.core.client.IteratorSetting;
 import org.apache.hadoop.util.bloom.BloomFilter;
-import org.apache.hadoop.util.bloom.Key;
 import uk.gov.gchq.gaffer.accumulostore.AccumuloStore;
 import uk.gov.gchq.gaffer.accumulostore.key.exception.AccumuloElementConversionException;
 import uk.gov.gchq.gaffer.accumulostore.operation.impl.GetElementsBetweenSets;
@@ -61,11 +60,13 @@ import java.util.Set;
  * <p>
  * In the second mode, where there are too many seeds to be loaded into memory,
  * the seeds in set A are queried for in batches. The seeds in set B are loaded
- * into two {@link org.apache.hadoop.util.bloom.BloomFilter}s. The first of
- * these is relatively small and is passed to the filtering iterator to filter
- * out edges that are definitely not to set B. The second, larger,
- * {@link org.apache.hadoop.util.bloom.BloomFilter} is used client-side to
- * further reduce the chances of false positives making it to the user.
+ * into two Bloom filters, both sized for the number of seeds in set B. The
+ * first of these is a {@link org.apache.hadoop.util.bloom.BloomFilter} that is
+ * passed to the filtering iterator to filter out edges that are definitely not
+ * to set B. The second, a
+ * {@link uk.gov.gchq.gaffer.accumulostore.utils.BlockedBloomFilter}, is used
+ * client-side to further reduce the chances of false positives making it to
+ * the user.
  */
 public class AccumuloIDBetweenSetsRetriever extends AccumuloSetRetriever<GetElementsBetweenSets> {
     private Iterable<? extends EntityId> seedSetA;
@@ -148,6 +149,7 @@ public class AccumuloIDBetweenSetsRetriever extends AccumuloSetRetriever<GetElem
 
     private class ElementIteratorFromBatches extends AbstractElementIteratorFromBatches {
         ElementIteratorFromBatches() throws RetrieverException {
+            super(getNumSeedsForBloomFilters(seedSetB));
             try {
                 addToBloomFilter(seedSetBIter, filter, clientSideFilter);
                 idsAIterator = seedSetAIter;
@@ -176,8 +178,7 @@ public class AccumuloIDBetweenSetsRetriever extends AccumuloSetRetriever<GetElem
             final boolean sourceIsInCurrent = currentSeeds.contains(source);
             boolean destMatchesClientFilter;
             try {
-                destMatchesClientFilter = clientSideFilter.membershipTest(
-                        new Key(elementConverter.serialiseVertex(destination)));
+                destMatchesClientFilter = clientSideFilter.membershipTest(elementConverter.serialiseVertex(destination));
             } catch (final AccumuloElementConversionException e) {
                 return false;
             }
@@ -187,8 +188,7 @@ public class AccumuloIDBetweenSetsRetriever extends AccumuloSetRetriever<GetElem
             final boolean destIsInCurrent = currentSeeds.contains(destination);
             boolean sourceMatchesClientFilter;
             try {
-                sourceMatchesClientFilter = clientSideFilter.membershipTest(
-                        new Key(elementConverter.serialiseVertex(source)));
+                sourceMatchesClientFilter = clientSideFilter.membershipTest(elementConverter.serialiseVertex(source));
             } catch (final AccumuloElementConversionException e) {
                 return false;
             }
@@ -18,7 +18,6 @@ package uk.gov.gchq.gaffer.accumulostore.retriever.impl;
 
 import org.apache.accumulo.core.client.IteratorSetting;
 import org.apache.hadoop.util.bloom.BloomFilter;
-import org.apache.hadoop.util.bloom.Key;
 import uk.gov.gchq.gaffer.accumulostore.AccumuloStore;
 import uk.gov.gchq.gaffer.accumulostore.key.exception.AccumuloElementConversionException;
 import uk.gov.gchq.gaffer.accumulostore.operation.impl.GetElementsWithinSet;
@@ -67,8 +66,9 @@ import java.util.Set;
  * queried for. This is best thought of as a square split into a grid (with the
  * same number of squares in both dimensions). As there are too many seeds to
  * load into memory, we use a client-side
- * {@link org.apache.hadoop.util.bloom.BloomFilter} to further reduce the
- * chances of false positives making it to the user.
+ * {@link uk.gov.gchq.gaffer.accumulostore.utils.BlockedBloomFilter} to further
+ * reduce the chances of false positives making it to the user. Both Bloom
+ * filters are sized for the number of seeds when it is known.
  */
 public class AccumuloIDWithinSetRetriever extends AccumuloSetRetriever<GetElementsWithinSet> {
     private Iterable<? extends EntityId> seeds;
@@ -140,6 +140,7 @@ public class AccumuloIDWithinSetRetriever extends AccumuloSetRetriever<GetElemen
 
     private class ElementIteratorFromBatches extends AbstractElementIteratorFromBatches {
         ElementIteratorFromBatches() throws RetrieverException {
+            super(getNumSeedsForBloomFilters(seeds));
             idsAIterator = seedsIter;
             updateScanner();
         }
@@ -170,8 +171,7 @@ public class AccumuloIDWithinSetRetriever extends AccumuloSetRetriever<GetElemen
             }
             boolean destMatchesClientFilter;
             try {
-                destMatchesClientFilter = clientSideFilter.membershipTest(
-                        new Key(elementConverter.serialiseVertex(destination)));
+                destMatchesClientFilter = clientSideFilter.membershipTest(elementConverter.serialiseVertex(destination));
             } catch (final AccumuloElementConversionException e) {
                 return false;
             }
@@ -180,8 +180,7 @@ public class AccumuloIDWithinSetRetriever extends AccumuloSetRetriever<GetElemen
             }
             boolean sourceMatchesClientFilter;
             try {
-                sourceMatchesClientFilter = clientSideFilter.membershipTest(
-                        new Key(elementConverter.serialiseVertex(source)));
+                sourceMatchesClientFilter = clientSideFilter.membershipTest(elementConverter.serialiseVertex(source));
             } catch (final AccumuloElementConversionException e) {
                 return false;
             }
@@ -0,0 +1,274 @@
+/*
+ * Copyright 2017 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.gov.gchq.gaffer.accumulostore.retriever.impl;
+
+import org.apache.accumulo.core.client.BatchScanner;
+import org.apache.accumulo.core.client.IteratorSetting;
+import org.apache.accumulo.core.client.TableNotFoundException;
+import org.apache.accumulo.core.data.Key;
+import org.apache.accumulo.core.data.Range;
+import org.apache.accumulo.core.data.Value;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import uk.gov.gchq.gaffer.accumulostore.AccumuloStore;
+import uk.gov.gchq.gaffer.accumulostore.key.exception.AccumuloElementConversionException;
+import uk.gov.gchq.gaffer.accumulostore.key.exception.RangeFactoryException;
+import uk.gov.gchq.gaffer.accumulostore.operation.impl.SummariseGroupOverRanges;
+import uk.gov.gchq.gaffer.accumulostore.retriever.AccumuloRetriever;
+import uk.gov.gchq.gaffer.accumulostore.utils.TabletSplits;
+import uk.gov.gchq.gaffer.commonutil.CloseableUtil;
+import uk.gov.gchq.gaffer.commonutil.iterable.CloseableIterator;
+import uk.gov.gchq.gaffer.commonutil.iterable.EmptyCloseableIterator;
+import uk.gov.gchq.gaffer.commonutil.pair.Pair;
+import uk.gov.gchq.gaffer.data.element.Element;
+import uk.gov.gchq.gaffer.data.element.function.ElementAggregator;
+import uk.gov.gchq.gaffer.data.element.id.ElementId;
+import uk.gov.gchq.gaffer.store.ElementValidator;
+import uk.gov.gchq.gaffer.store.StoreException;
+import uk.gov.gchq.gaffer.user.User;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map.Entry;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * Summarises a single group over each of the ranges of a
+ * {@link SummariseGroupOverRanges} operation.
+ * <p>
+ * Each range is split at the tablet boundaries of the table, and the parts are
+ * all scanned by one {@link BatchScanner}, so the tablets are summarised
+ * concurrently. The {@link uk.gov.gchq.gaffer.accumulostore.key.impl.RowIDAggregator}
+ * returns a partial summary for each part, which are merged using the schema
+ * aggregator to give a single summary for each range. The ranges are read in
+ * chunks of at most {@link uk.gov.gchq.gaffer.accumulostore.AccumuloProperties#getMaxEntriesForBatchScanner()}.
+ * Ranges that overlap another range in the chunk are deferred to a later chunk,
+ * so each partial summary belongs to exactly one range. The post aggregation
+ * filters in the view are applied to the merged summaries, rather than to the
+ * partial summaries on the tablet servers.
+ */
+public class AccumuloRangeSummaryRetriever extends AccumuloRetriever<SummariseGroupOverRanges, Element> {
+    private static final Logger LOGGER = LoggerFactory.getLogger(AccumuloRangeSummaryRetriever.class);
+
+    private final ElementAggregator aggregator;
+    private final ElementValidator postAggregationValidator;
+    private final Iterable<? extends Pair<? extends ElementId, ? extends ElementId>> ids;
+
+    public AccumuloRangeSummaryRetriever(final AccumuloStore store, final SummariseGroupOverRanges operation,
+                                         final User user, final String group,
+                                         final IteratorSetting... iteratorSettings) throws StoreException {
+        super(store, operation, user, iteratorSettings);
+        this.aggregator = store.getSchema().getElement(group).getFullAggregator();
+        this.postAggregationValidator = operation.getView().hasPostAggregationFilters()
+                ? new ElementValidator(operation.getView()) : null;
+        this.ids = operation.getInput();
+    }
+
+    /**
+     * Only 1 iterator can be open at a time.
+     *
+     * @return a closeable iterator of the range summaries.
+     */
+    @Override
+    public CloseableIterator<Element> iterator() {
+        CloseableUtil.close(iterator);
+
+        if (null == ids) {
+            return new EmptyCloseableIterator<>();
+        }
+
+        try {
+            iterator = new SummaryIterator(ids.iterator(), TabletSplits.getSplits(store));
+        } catch (final StoreException e) {
+            LOGGER.error("{} returning empty iterator", e.getMessage(), e);
+            return new EmptyCloseableIterator<>();
+        }
+        return iterator;
+    }
+
+    private class SummaryIterator implements CloseableIterator<Element> {
+        private final Iterator<? extends Pair<? extends ElementId, ? extends ElementId>> idIterator;
+        private final TabletSplits splits;
+        private final int maxRangesPerChunk;
+        private final Deque<Range> deferredRanges = new ArrayDeque<>();
+        private Iterator<Element> summaries = Collections.emptyIterator();
+        private BatchScanner scanner;
+
+        SummaryIterator(final Iterator<? extends Pair<? extends ElementId, ? extends ElementId>> idIterator,
+                        final TabletSplits splits) {
+            this.idIterator = idIterator;
+            this.splits = splits;
+            this.maxRangesPerChunk = Math.max(1, store.getProperties().getMaxEntriesForBatchScanner());
+        }
+
+        @Override
+        public boolean hasNext() {
+            while (!summaries.hasNext()) {
+                if (deferredRanges.isEmpty() && !idIterator.hasNext()) {
+                    return false;
+                }
+                try {
+                    summaries = summariseNextChunk();
+                } catch (final TableNotFoundException | StoreException e) {
+                    LOGGER.error("{} returning iterator doesn't have any more elements", e.getMessage(), e);
+                    close();
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        @Override
+        public Element next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            return summaries.next();
+        }
+
+        @Override
+        public void remove() {
+            throw new UnsupportedOperationException("Unable to remove elements from this iterator");
+        }
+
+        @Override
+        public void close() {
+            if (null != scanner) {
+                scanner.close();
+                scanner = null;
+            }
+            deferredRanges.clear();
+            summaries = Collections.emptyIterator();
+            CloseableUtil.close(idIterator);
+            CloseableUtil.close(ids);
+        }
+
+        private Iterator<Element> summariseNextChunk() throws TableNotFoundException, StoreException {
+            final List<Range> ranges = getNextChunk();
+            if (ranges.isEmpty()) {
+                return Collections.emptyIterator();
+            }
+
+            final Set<Range> parts = new HashSet<>();
+            for (final Range range : ranges) {
+                parts.addAll(splits.split(range));
+            }
+
+            final Element[] rangeSummaries = new Element[ranges.size()];
+            final Key[] rangeSummaryKeys = new Key[ranges.size()];
+            final List<Element> results = new ArrayList<>();
+            scanner = getScanner(parts);
+            try {
+                for (final Entry<Key, Value> entry : scanner) {
+                    final Element element;
+                    try {
+                        element = elementConverter.getFullElement(entry.getKey(), entry.getValue(), false);
+                    } catch (final AccumuloElementConversionException e) {
+                        LOGGER.error("Failed to re-create an element from a key value entry set, skipping the entry", e);
+                        continue;
+                    }
+
+                    final int index = indexOf(ranges, entry.getKey());
+                    if (index < 0) {
+                        results.add(element);
+                    } else if (null == rangeSummaries[index]) {
+                        rangeSummaries[index] = element;
+                        rangeSummaryKeys[index] = entry.getKey();
+                    } else if (entry.getKey().compareTo(rangeSummaryKeys[index]) > 0) {
+                        // Keep the identifiers of the last row in the range,
+                        // as a single RowIDAggregator summary would.
+                        rangeSummaries[index] = aggregator.apply(element, rangeSummaries[index]);
+                        rangeSummaryKeys[index] = entry.getKey();
+                    } else {
+                        aggregator.apply(rangeSummaries[index], element);
+                    }
+                }
+            } finally {
+                scanner.close();
+                scanner = null;
+            }
+
+            for (final Element summary : rangeSummaries) {
+                if (null != summary) {
+                    results.add(summary);
+                }
+            }
+
+            final List<Element> filteredResults = new ArrayList<>(results.size());
+            for (final Element result : results) {
+                if (null != postAggregationValidator && !postAggregationValidator.validateAggregation(result)) {
+                    continue;
+                }
+                doTransformation(result);
+                if (doPostFilter(result)) {
+                    filteredResults.add(result);
+                }
+            }
+            return filteredResults.iterator();
+        }
+
+        /**
+         * @return the next chunk of ranges, sorted and without any overlapping ranges
+         */
+        @SuppressWarnings("unchecked")
+        private List<Range> getNextChunk() {
+            final List<Range> candidates = new ArrayList<>();
+            while (!deferredRanges.isEmpty() && candidates.size() < maxRangesPerChunk) {
+                candidates.add(deferredRanges.poll());
+            }
+            while (idIterator.hasNext() && candidates.size() < maxRangesPerChunk) {
+                try {
+                    candidates.add(rangeFactory.getRangeFromPair((Pair<ElementId, ElementId>) idIterator.next(), operation));
+                } catch (final RangeFactoryException e) {
+                    LOGGER.error("Failed to create a range from given seed", e);
+                }
+            }
+
+            Collections.sort(candidates);
+            final List<Range> ranges = new ArrayList<>(candidates.size());
+            for (final Range candidate : candidates) {
+                if (!ranges.isEmpty() && null != ranges.get(ranges.size() - 1).clip(candidate, true)) {
+                    deferredRanges.add(candidate);
+                } else {
+                    ranges.add(candidate);
+                }
+            }
+            return ranges;
+        }
+
+        private int indexOf(final List<Range> ranges, final Key key) {
+            int low = 0;
+            int high = ranges.size() - 1;
+            while (low <= high) {
+                final int mid = (low + high) >>> 1;
+                final Range range = ranges.get(mid);
+                if (range.beforeStartKey(key)) {
+                    high = mid - 1;
+                } else if (range.afterEndKey(key)) {
+                    low = mid + 1;
+                } else {
+                    return mid;
+                }
+            }
+            return -1;
+        }
+    }
+}
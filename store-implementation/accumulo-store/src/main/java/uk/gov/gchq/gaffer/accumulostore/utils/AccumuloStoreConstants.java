@@ -28,6 +28,8 @@ public final class AccumuloStoreConstants {
     public static final String COLUMN_QUALIFIER_AGGREGATOR_ITERATOR_NAME = "Column_Qualifier_Aggregator";
     public static final String ROW_ID_AGGREGATOR_ITERATOR_NAME = "Row_ID_Aggregator";
     public static final String RANGE_ELEMENT_PROPERTY_FILTER_ITERATOR_NAME = "Range_Element_Property_Filter";
+    public static final String DISTINCT_ADJACENT_ID_ITERATOR_NAME = "Distinct_Adjacent_Id";
+    public static final String ELEMENT_PROPERTY_PROJECTION_ITERATOR_NAME = "Element_Property_Projection";
 
     // Converter class to be used in iterators must be on classpath of all
     // iterators
@@ -36,6 +38,8 @@ public final class AccumuloStoreConstants {
     // Iterator options
     public static final String VIEW = "View";
     public static final String SCHEMA = "Schema";
+    public static final String VIEW_HASH = "View_Hash";
+    public static final String SCHEMA_HASH = "Schema_Hash";
     public static final String INCLUDE_ENTITIES = "Include_All_Entities";
     public static final String INCLUDE_EDGES = "Include_All_Edges";
     public static final String DIRECTED_EDGE_ONLY = "Directed_Edges_Only";
@@ -46,6 +50,8 @@ public final class AccumuloStoreConstants {
     public static final String BLOOM_FILTER = "Bloom_Filter";
     public static final String BLOOM_FILTER_CHARSET = "ISO-8859-1";
     public static final String COLUMN_FAMILY = "columnFamily";
+    public static final String PASS_THROUGH_GROUPS = "Pass_Through_Groups";
+    public static final String PROPERTIES = "Properties";
 
     // Iterator priorities
     // Applied during major compactions, minor compactions  and scans.
@@ -66,6 +72,10 @@ public final class AccumuloStoreConstants {
     public static final int COLUMN_QUALIFIER_AGGREGATOR_ITERATOR_PRIORITY = 36;
     // Applied only during scans.
     public static final int ELEMENT_POST_AGGREGATION_FILTER_ITERATOR_PRIORITY = 37;
+    // Applied only during scans.
+    public static final int DISTINCT_ADJACENT_ID_ITERATOR_PRIORITY = 38;
+    // Applied only during scans.
+    public static final int ELEMENT_PROPERTY_PROJECTION_ITERATOR_PRIORITY = 39;
 
     // Operations options
     public static final String ADD_ELEMENTS_FROM_HDFS_SKIP_IMPORT = "accumulostore.operation.hdfs.skip_import";
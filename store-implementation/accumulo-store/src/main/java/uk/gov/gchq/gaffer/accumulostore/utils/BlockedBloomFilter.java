@@ -0,0 +1,173 @@
+/*
+ * Copyright 2017 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.gov.gchq.gaffer.accumulostore.utils;
+
+import org.apache.hadoop.util.hash.Hash;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A BlockedBloomFilter is a Bloom filter that sets all of the bits for an
+ * item within a single 512 bit block, i.e. a single cache line, so adding an
+ * item or testing for its membership touches one block of memory rather than
+ * one random location per hash function.
+ * <p>
+ * The filter is sized for the expected number of items and the desired false
+ * positive rate. If more items are added than were expected, a new segment
+ * twice the size of the previous one is added, with half the false positive
+ * rate, so the overall false positive rate stays within about twice the
+ * desired rate. The filter never grows beyond the given maximum size in bits;
+ * once that is reached items are added to the last segment.
+ * <p>
+ * This is only used client-side. The Bloom filters passed to iterators are
+ * {@link org.apache.hadoop.util.bloom.BloomFilter}s.
+ */
+public class BlockedBloomFilter {
+    private static final int LOG2_BITS_PER_BLOCK = 9;
+    private static final int BITS_PER_BLOCK = 1 << LOG2_BITS_PER_BLOCK;
+    private static final int WORDS_PER_BLOCK = BITS_PER_BLOCK / Long.SIZE;
+    private static final int MAX_HASHES = 16;
+    // Blocked Bloom filters need slightly more bits than standard Bloom
+    // filters for the same false positive rate, as the blocks are unevenly
+    // loaded.
+    private static final double BLOCKED_SIZE_FACTOR = 1.2;
+    private static final int[] SALTS = {
+            0x47b6137b, 0x44974d91, 0x8824ad5b, 0xa2b7289d,
+            0x705495c7, 0x2df1424b, 0x9efc4947, 0x5c6bfb31,
+            0x9e3779b1, 0x85ebca6b, 0xc2b2ae35, 0x27d4eb2f,
+            0x165667b1, 0xd3a2646d, 0xfd7046c5, 0xb55a4f09};
+    private static final Hash HASH = Hash.getInstance(Hash.MURMUR_HASH);
+
+    private final List<Segment> segments = new ArrayList<>();
+    private final long maximumSize;
+    private long size;
+    private Segment current;
+
+    /**
+     * @param falsePositiveRate the desired false positive rate
+     * @param numItemsToBeAdded the number of items expected to be added
+     * @param maximumSize       the maximum size of the filter in bits
+     */
+    public BlockedBloomFilter(final double falsePositiveRate, final int numItemsToBeAdded, final long maximumSize) {
+        if (falsePositiveRate <= 0 || falsePositiveRate >= 1) {
+            throw new IllegalArgumentException("The false positive rate must be between 0 and 1, but was " + falsePositiveRate);
+        }
+        this.maximumSize = Math.max(BITS_PER_BLOCK, maximumSize);
+        addSegment(falsePositiveRate, Math.max(1, numItemsToBeAdded));
+    }
+
+    public void add(final byte[] bytes) {
+        if (current.numItems >= current.capacity) {
+            final long remaining = maximumSize - size;
+            if (remaining >= BITS_PER_BLOCK) {
+                addSegment(current.falsePositiveRate / 2, current.capacity * 2L);
+            }
+        }
+
+        final int hash1 = HASH.hash(bytes, bytes.length, 0);
+        final int hash2 = HASH.hash(bytes, bytes.length, hash1);
+        current.add(hash1, hash2);
+    }
+
+    public boolean membershipTest(final byte[] bytes) {
+        final int hash1 = HASH.hash(bytes, bytes.length, 0);
+        final int hash2 = HASH.hash(bytes, bytes.length, hash1);
+        for (final Segment segment : segments) {
+            if (segment.membershipTest(hash1, hash2)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return the total size of the filter in bits
+     */
+    public long getSize() {
+        return size;
+    }
+
+    public long getNumItems() {
+        long numItems = 0;
+        for (final Segment segment : segments) {
+            numItems += segment.numItems;
+        }
+        return numItems;
+    }
+
+    private void addSegment(final double falsePositiveRate, final long numItemsToBeAdded) {
+        final double optimalSize = -numItemsToBeAdded * Math.log(falsePositiveRate)
+                / Math.pow(Math.log(2.0), 2.0) * BLOCKED_SIZE_FACTOR;
+        final long segmentSize = Math.min((long) Math.ceil(optimalSize), maximumSize - size);
+        final int numBlocks = (int) Math.max(1, Math.min(Integer.MAX_VALUE / WORDS_PER_BLOCK, segmentSize / BITS_PER_BLOCK));
+        final long capacity = Math.max(1, Math.min(numItemsToBeAdded,
+                (long) (numBlocks * (double) BITS_PER_BLOCK * Math.pow(Math.log(2.0), 2.0) / -Math.log(falsePositiveRate))));
+        final int numHashes = (int) Math.max(1, Math.min(MAX_HASHES,
+                Math.round((double) numBlocks * BITS_PER_BLOCK / capacity * Math.log(2.0))));
+
+        current = new Segment(numBlocks, numHashes, capacity, falsePositiveRate);
+        segments.add(current);
+        size += (long) numBlocks * BITS_PER_BLOCK;
+    }
+
+    private static final class Segment {
+        private final long[] words;
+        private final int numBlocks;
+        private final int numHashes;
+        private final long capacity;
+        private final double falsePositiveRate;
+        private long numItems;
+
+        private Segment(final int numBlocks, final int numHashes, final long capacity, final double falsePositiveRate) {
+            this.words = new long[numBlocks * WORDS_PER_BLOCK];
+            this.numBlocks = numBlocks;
+            this.numHashes = numHashes;
+            this.capacity = capacity;
+            this.falsePositiveRate = falsePositiveRate;
+        }
+
+        private void add(final int hash1, final int hash2) {
+            final int blockOffset = getBlockOffset(hash1);
+            for (int i = 0; i < numHashes; i++) {
+                final int bitInBlock = getBitInBlock(hash2, i);
+                words[blockOffset + (bitInBlock >>> 6)] |= 1L << bitInBlock;
+            }
+            numItems++;
+        }
+
+        private boolean membershipTest(final int hash1, final int hash2) {
+            final int blockOffset = getBlockOffset(hash1);
+            for (int i = 0; i < numHashes; i++) {
+                final int bitInBlock = getBitInBlock(hash2, i);
+                if (0 == (words[blockOffset + (bitInBlock >>> 6)] & (1L << bitInBlock))) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private int getBlockOffset(final int hash) {
+            // Maps the hash onto [0, numBlocks) without a division.
+            return (int) (((hash & 0xffffffffL) * numBlocks) >>> 32) * WORDS_PER_BLOCK;
+        }
+
+        private static int getBitInBlock(final int hash, final int i) {
+            // Multiplying by a different odd salt for each hash function and
+            // taking the top bits gives independent positions in the block.
+            return (hash * SALTS[i]) >>> (Integer.SIZE - LOG2_BITS_PER_BLOCK);
+        }
+    }
+}
@@ -16,7 +16,6 @@
 
 package uk.gov.gchq.gaffer.accumulostore.utils;
 
-import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
 import org.apache.hadoop.util.bloom.BloomFilter;
 import org.apache.hadoop.util.hash.Hash;
 
@@ -40,11 +39,10 @@ public final class BloomFilterUtils {
      * @param maximumSize       the maximum size
      * @return An Integer representing the size of the bloom filter needed.
      */
-    @SuppressFBWarnings(value = "ICAST_IDIV_CAST_TO_DOUBLE", justification = "the value is cast to an int after the division")
     public static int calculateBloomFilterSize(final double falsePositiveRate, final int numItemsToBeAdded,
             final int maximumSize) {
-        final int size = (int) (-numItemsToBeAdded * Math.log(falsePositiveRate) / Math.pow(Math.log(2.0), 2.0));
-        return Math.min(size, maximumSize);
+        final double size = -Math.max(1, numItemsToBeAdded) * Math.log(falsePositiveRate) / Math.pow(Math.log(2.0), 2.0);
+        return (int) Math.max(1, Math.min(Math.ceil(size), maximumSize));
     }
 
     /**
@@ -56,9 +54,8 @@ public final class BloomFilterUtils {
      * @param numItemsToBeAdded the number of items to be added
      * @return An integer representing the optimal number of hashes to use
      */
-    @SuppressFBWarnings(value = "ICAST_IDIV_CAST_TO_DOUBLE", justification = "the value is cast to an int after the division")
     public static int calculateNumHashes(final int bloomFilterSize, final int numItemsToBeAdded) {
-        return Math.max(1, (int) ((bloomFilterSize / numItemsToBeAdded) * Math.log(2.0)));
+        return Math.max(1, (int) Math.round((double) bloomFilterSize / Math.max(1, numItemsToBeAdded) * Math.log(2.0)));
     }
 
     /**
@@ -85,8 +82,26 @@ public final class BloomFilterUtils {
      *
      * @param size the size of the bloom filter to create
      * @return A new BloomFilter of the desired size
+     * @deprecated the number of hash functions is not tuned to the number of
+     * items, use {@link #getBloomFilter(double, int, int)} instead.
      */
+    @Deprecated
     public static BloomFilter getBloomFilter(final int size) {
         return new BloomFilter(size, 13, Hash.MURMUR_HASH);
     }
+
+    /**
+     * Returns a {@link BlockedBloomFilter} sized to achieve the given false
+     * positive rate for the given number of items, which grows if more items
+     * are added, up to the given maximum size.
+     *
+     * @param falsePositiveRate the false positive rate
+     * @param numItemsToBeAdded the number of items expected to be added
+     * @param maximumSize       the maximum size in bits
+     * @return A new BlockedBloomFilter with the desired Settings
+     */
+    public static BlockedBloomFilter getBlockedBloomFilter(final double falsePositiveRate, final int numItemsToBeAdded,
+                                                           final long maximumSize) {
+        return new BlockedBloomFilter(falsePositiveRate, numItemsToBeAdded, maximumSize);
+    }
 }
@@ -36,6 +36,34 @@ public final class ByteUtils {
         return bytes1.length - bytes2.length;
     }
 
+    /**
+     * Compares ranges of two byte arrays in the same way as
+     * {@link #compareBytes(byte[], byte[])}, without copying the ranges.
+     * Escaping with {@link uk.gov.gchq.gaffer.commonutil.ByteArrayEscapeUtils}
+     * preserves this ordering, so escaped vertices in a row key can be
+     * compared without unescaping them.
+     *
+     * @param bytes1  the first array of bytes
+     * @param offset1 the position of the first range, inclusive
+     * @param length1 the length of the first range
+     * @param bytes2  the second array of bytes
+     * @param offset2 the position of the second range, inclusive
+     * @param length2 the length of the second range
+     * @return a negative integer, zero, or a positive integer as the first
+     * range is less than, equal to, or greater than the second
+     */
+    public static int compareBytes(final byte[] bytes1, final int offset1, final int length1,
+                                   final byte[] bytes2, final int offset2, final int length2) {
+        final int minLength = Math.min(length1, length2);
+        for (int i = 0; i < minLength; i++) {
+            if (bytes1[offset1 + i] != bytes2[offset2 + i]) {
+                return Byte.compare(bytes1[offset1 + i], bytes2[offset2 + i]);
+            }
+        }
+
+        return length1 - length2;
+    }
+
     /**
      * Copy of the isEqual method in {@link org.apache.accumulo.core.data.Key}.
      *
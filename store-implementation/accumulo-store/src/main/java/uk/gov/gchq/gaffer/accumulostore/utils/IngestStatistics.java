@@ -0,0 +1,268 @@
+/*
+ * Copyright 2017 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.gov.gchq.gaffer.accumulostore.utils;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * An IngestStatistics summarises the elements added to an
+ * {@link uk.gov.gchq.gaffer.accumulostore.AccumuloStore}, either in a single
+ * call to add elements or in total since the store was created. The elements are
+ * converted into mutations in batches and a {@link BatchStatistics} is
+ * recorded for each batch, holding the number of elements, the number of
+ * mutations, the number of failures and the time taken. The totals cover every
+ * batch, but only the most recent {@link #MAX_RECENT_BATCHES} batches are
+ * kept, so the statistics for a long running ingest do not grow without bound.
+ */
+public class IngestStatistics {
+    public static final int MAX_RECENT_BATCHES = 100;
+
+    private final Deque<BatchStatistics> recentBatches = new ArrayDeque<>(MAX_RECENT_BATCHES);
+    private long batches;
+    private long elements;
+    private long mutations;
+    private long mutationBytes;
+    private long failedElements;
+    private long rejectedMutations;
+    private long conversionTimeInMilliseconds;
+    private long writeTimeInMilliseconds;
+    private boolean writerFailed;
+
+    public IngestStatistics() {
+    }
+
+    public IngestStatistics(final IngestStatistics statistics) {
+        add(statistics);
+    }
+
+    public void addBatch(final BatchStatistics batch) {
+        batches++;
+        elements += batch.getElements();
+        mutations += batch.getMutations();
+        mutationBytes += batch.getMutationBytes();
+        failedElements += batch.getFailedElements();
+        rejectedMutations += batch.getRejectedMutations();
+        conversionTimeInMilliseconds += batch.getConversionTimeInMilliseconds();
+        writeTimeInMilliseconds += batch.getWriteTimeInMilliseconds();
+
+        addRecentBatch(batch);
+    }
+
+    /**
+     * Adds the totals and recent batches from another IngestStatistics to
+     * this one.
+     *
+     * @param statistics the statistics to add
+     */
+    public void add(final IngestStatistics statistics) {
+        batches += statistics.batches;
+        elements += statistics.elements;
+        mutations += statistics.mutations;
+        mutationBytes += statistics.mutationBytes;
+        failedElements += statistics.failedElements;
+        rejectedMutations += statistics.rejectedMutations;
+        conversionTimeInMilliseconds += statistics.conversionTimeInMilliseconds;
+        writeTimeInMilliseconds += statistics.writeTimeInMilliseconds;
+        writerFailed = writerFailed || statistics.writerFailed;
+
+        for (final BatchStatistics batch : statistics.recentBatches) {
+            addRecentBatch(batch);
+        }
+    }
+
+    /**
+     * @return the statistics for the most recent batches, in the order the
+     * batches were added to the batch writer
+     */
+    public List<BatchStatistics> getRecentBatches() {
+        return Collections.unmodifiableList(new ArrayList<>(recentBatches));
+    }
+
+    public long getBatches() {
+        return batches;
+    }
+
+    public long getElements() {
+        return elements;
+    }
+
+    public long getMutations() {
+        return mutations;
+    }
+
+    /**
+     * @return the estimated memory used by all of the mutations
+     */
+    public long getMutationBytes() {
+        return mutationBytes;
+    }
+
+    /**
+     * @return the number of elements that could not be converted into mutations
+     */
+    public long getFailedElements() {
+        return failedElements;
+    }
+
+    /**
+     * @return the number of mutations rejected when they were added to the
+     * batch writer
+     */
+    public long getRejectedMutations() {
+        return rejectedMutations;
+    }
+
+    /**
+     * @return the total time spent converting elements, summed over the
+     * threads that converted them
+     */
+    public long getConversionTimeInMilliseconds() {
+        return conversionTimeInMilliseconds;
+    }
+
+    public long getWriteTimeInMilliseconds() {
+        return writeTimeInMilliseconds;
+    }
+
+    /**
+     * The batch writer sends mutations to the tablet servers asynchronously,
+     * so mutations may also be rejected when it is closed. These rejections
+     * cannot be attributed to a batch.
+     *
+     * @return true if the batch writer failed to flush all of its mutations
+     */
+    public boolean isWriterFailed() {
+        return writerFailed;
+    }
+
+    public void setWriterFailed(final boolean writerFailed) {
+        this.writerFailed = writerFailed;
+    }
+
+    public boolean hasFailures() {
+        return writerFailed || failedElements > 0 || rejectedMutations > 0;
+    }
+
+    private void addRecentBatch(final BatchStatistics batch) {
+        if (recentBatches.size() >= MAX_RECENT_BATCHES) {
+            recentBatches.poll();
+        }
+        recentBatches.add(batch);
+    }
+
+    @Override
+    public String toString() {
+        return "IngestStatistics{"
+                + "batches=" + batches
+                + ", elements=" + elements
+                + ", mutations=" + mutations
+                + ", mutationBytes=" + mutationBytes
+                + ", failedElements=" + failedElements
+                + ", rejectedMutations=" + rejectedMutations
+                + ", conversionTimeInMilliseconds=" + conversionTimeInMilliseconds
+                + ", writeTimeInMilliseconds=" + writeTimeInMilliseconds
+                + ", writerFailed=" + writerFailed
+                + '}';
+    }
+
+    /**
+     * The statistics for a single batch of elements.
+     */
+    public static class BatchStatistics {
+        private final long batchNumber;
+        private final long elements;
+        private final long mutations;
+        private final long mutationBytes;
+        private final long failedElements;
+        private final long rejectedMutations;
+        private final long conversionTimeInMilliseconds;
+        private final long writeTimeInMilliseconds;
+
+        public BatchStatistics(final long batchNumber, final long elements, final long mutations,
+                               final long mutationBytes, final long failedElements, final long rejectedMutations,
+                               final long conversionTimeInMilliseconds, final long writeTimeInMilliseconds) {
+            this.batchNumber = batchNumber;
+            this.elements = elements;
+            this.mutations = mutations;
+            this.mutationBytes = mutationBytes;
+            this.failedElements = failedElements;
+            this.rejectedMutations = rejectedMutations;
+            this.conversionTimeInMilliseconds = conversionTimeInMilliseconds;
+            this.writeTimeInMilliseconds = writeTimeInMilliseconds;
+        }
+
+        public long getBatchNumber() {
+            return batchNumber;
+        }
+
+        public long getElements() {
+            return elements;
+        }
+
+        public long getMutations() {
+            return mutations;
+        }
+
+        /**
+         * @return the estimated memory used by the mutations in this batch
+         */
+        public long getMutationBytes() {
+            return mutationBytes;
+        }
+
+        public long getFailedElements() {
+            return failedElements;
+        }
+
+        public long getRejectedMutations() {
+            return rejectedMutations;
+        }
+
+        public long getConversionTimeInMilliseconds() {
+            return conversionTimeInMilliseconds;
+        }
+
+        public long getWriteTimeInMilliseconds() {
+            return writeTimeInMilliseconds;
+        }
+
+        /**
+         * @return the number of elements converted per second by the thread
+         * that converted this batch
+         */
+        public double getElementsPerSecond() {
+            return elements * 1000.0 / Math.max(1, conversionTimeInMilliseconds);
+        }
+
+        @Override
+        public String toString() {
+            return "BatchStatistics{"
+                    + "batchNumber=" + batchNumber
+                    + ", elements=" + elements
+                    + ", mutations=" + mutations
+                    + ", mutationBytes=" + mutationBytes
+                    + ", failedElements=" + failedElements
+                    + ", rejectedMutations=" + rejectedMutations
+                    + ", conversionTimeInMilliseconds=" + conversionTimeInMilliseconds
+                    + ", writeTimeInMilliseconds=" + writeTimeInMilliseconds
+                    + '}';
+        }
+    }
+}
@@ -0,0 +1,237 @@
+/*
+ * Copyright 2017 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.gov.gchq.gaffer.accumulostore.utils;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.accumulo.core.client.IteratorSetting;
+import uk.gov.gchq.gaffer.accumulostore.key.AccumuloElementConverter;
+import uk.gov.gchq.gaffer.commonutil.StringUtil;
+import uk.gov.gchq.gaffer.data.elementdefinition.exception.SchemaException;
+import uk.gov.gchq.gaffer.data.elementdefinition.view.View;
+import uk.gov.gchq.gaffer.jsonserialisation.JSONSerialiser;
+import uk.gov.gchq.gaffer.store.schema.Schema;
+import java.io.IOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * The IteratorDefinitionCache holds the parsed json of the {@link Schema}s and
+ * {@link View}s used by iterators running on a tablet server, along with the
+ * {@link AccumuloElementConverter}s for each schema. Entries are keyed on a
+ * hash of the schema or view json, which is passed to the iterators in the
+ * {@link AccumuloStoreConstants#SCHEMA_HASH} and
+ * {@link AccumuloStoreConstants#VIEW_HASH} options. Tablet servers initialise
+ * iterators on every scan, seek and compaction, so this saves re-reading the
+ * json text each time.
+ * <p>
+ * Schemas and views hold the aggregation and filter functions, which may keep
+ * per-call state, so every call to {@link #getSchema(Map)} and
+ * {@link #getView(Map)} builds a new instance that belongs to the calling
+ * iterator and its deep copies. Element converters only use the serialisers
+ * in the schema, so a converter, along with its own copy of the schema, is
+ * shared by all iterators.
+ */
+public final class IteratorDefinitionCache {
+    private static final int MAX_CACHED_SCHEMAS = 20;
+    private static final int MAX_CACHED_VIEWS = 200;
+    private static final int MAX_CACHED_CONVERTERS = 20;
+    private static final String HASH_ALGORITHM = "SHA-256";
+
+    private static final ObjectMapper MAPPER = JSONSerialiser.createDefaultMapper();
+
+    private static final Map<String, JsonNode> SCHEMAS = createLruMap(MAX_CACHED_SCHEMAS);
+    private static final Map<String, JsonNode> VIEWS = createLruMap(MAX_CACHED_VIEWS);
+    private static final Map<String, AccumuloElementConverter> CONVERTERS = createLruMap(MAX_CACHED_CONVERTERS);
+
+    private IteratorDefinitionCache() {
+        // private to prevent this class being instantiated.
+        // All methods are static and should be called directly.
+    }
+
+    /**
+     * Adds the {@link AccumuloStoreConstants#SCHEMA_HASH} and
+     * {@link AccumuloStoreConstants#VIEW_HASH} options to an iterator setting
+     * that has a schema or view option.
+     *
+     * @param setting the iterator setting to update
+     * @return the updated iterator setting
+     */
+    public static IteratorSetting addHashOptions(final IteratorSetting setting) {
+        if (null != setting) {
+            final Map<String, String> options = setting.getOptions();
+            final String schemaJson = options.get(AccumuloStoreConstants.SCHEMA);
+            if (null != schemaJson) {
+                setting.addOption(AccumuloStoreConstants.SCHEMA_HASH, hash(schemaJson));
+            }
+            final String viewJson = options.get(AccumuloStoreConstants.VIEW);
+            if (null != viewJson) {
+                setting.addOption(AccumuloStoreConstants.VIEW_HASH, hash(viewJson));
+            }
+        }
+        return setting;
+    }
+
+    /**
+     * Creates a new {@link Schema} from the iterator options, only parsing the
+     * schema json if it has not been seen before.
+     *
+     * @param options the iterator options
+     * @return a new schema, which is not shared with any other caller
+     */
+    public static Schema getSchema(final Map<String, String> options) {
+        final JsonNode json = getJson(SCHEMAS, options, AccumuloStoreConstants.SCHEMA_HASH, AccumuloStoreConstants.SCHEMA);
+        return new Schema.Builder()
+                .merge(fromJson(json, Schema.class, "schema"))
+                .build();
+    }
+
+    /**
+     * Creates a new {@link View} from the iterator options, only parsing the
+     * view json if it has not been seen before.
+     *
+     * @param options the iterator options
+     * @return a new view, which is not shared with any other caller
+     */
+    public static View getView(final Map<String, String> options) {
+        final JsonNode json = getJson(VIEWS, options, AccumuloStoreConstants.VIEW_HASH, AccumuloStoreConstants.VIEW);
+        return new View.Builder()
+                .merge(fromJson(json, View.class, "view"))
+                .build();
+    }
+
+    /**
+     * Gets the {@link AccumuloElementConverter} named in the iterator options
+     * for the schema in the iterator options, only creating a new converter
+     * if one has not already been created for that converter class and schema.
+     *
+     * @param options the iterator options
+     * @return the element converter
+     * @throws ReflectiveOperationException if the element converter could not be created
+     */
+    public static AccumuloElementConverter getElementConverter(final Map<String, String> options)
+            throws ReflectiveOperationException {
+        final String converterClass = options.get(AccumuloStoreConstants.ACCUMULO_ELEMENT_CONVERTER_CLASS);
+        final String schemaKey = getHash(options, AccumuloStoreConstants.SCHEMA_HASH, AccumuloStoreConstants.SCHEMA);
+        final String key = converterClass + ":" + schemaKey;
+        AccumuloElementConverter converter = CONVERTERS.get(key);
+        if (null == converter) {
+            converter = Class.forName(converterClass)
+                    .asSubclass(AccumuloElementConverter.class)
+                    .getConstructor(Schema.class)
+                    .newInstance(getSchema(options));
+            // Only cache the converter if its schema json was cached.
+            if (SCHEMAS.containsKey(schemaKey)) {
+                CONVERTERS.put(key, converter);
+            }
+        }
+        return converter;
+    }
+
+    /**
+     * Removes all cached definitions.
+     */
+    public static void clear() {
+        SCHEMAS.clear();
+        VIEWS.clear();
+        CONVERTERS.clear();
+    }
+
+    public static String hash(final String json) {
+        try {
+            final MessageDigest digest = MessageDigest.getInstance(HASH_ALGORITHM);
+            return Base64.getEncoder().encodeToString(digest.digest(StringUtil.toBytes(json)));
+        } catch (final NoSuchAlgorithmException e) {
+            throw new IllegalStateException("Unable to create " + HASH_ALGORITHM + " message digest", e);
+        }
+    }
+
+    private static JsonNode getJson(final Map<String, JsonNode> cache, final Map<String, String> options,
+                                    final String hashOption, final String jsonOption) {
+        final String key = getHash(options, hashOption, jsonOption);
+        JsonNode json = cache.get(key);
+        if (null == json) {
+            final String jsonString = options.get(jsonOption);
+            json = readTree(jsonString, jsonOption);
+            if (isHashOf(key, jsonString)) {
+                cache.put(key, json);
+            }
+        }
+        return json;
+    }
+
+    private static String getHash(final Map<String, String> options, final String hashOption, final String jsonOption) {
+        final String hash = options.get(hashOption);
+        if (null != hash) {
+            return hash;
+        }
+
+        // Iterators configured before the hash options were added will not
+        // have a hash, so it is calculated from the json instead.
+        final String json = options.get(jsonOption);
+        if (null == json) {
+            throw new IllegalArgumentException("Must specify the " + jsonOption);
+        }
+        return hash(json);
+    }
+
+    /**
+     * Only definitions whose json matches the hash they were requested with
+     * are cached, so an iterator setting with an incorrect hash option cannot
+     * affect the definitions used by other iterators.
+     */
+    private static boolean isHashOf(final String hash, final String json) {
+        return null != json && hash.equals(hash(json));
+    }
+
+    private static JsonNode readTree(final String json, final String name) {
+        if (null == json) {
+            throw new IllegalArgumentException("Must specify the " + name);
+        }
+        try {
+            return MAPPER.readTree(StringUtil.toBytes(json));
+        } catch (final IOException e) {
+            throw new SchemaException("Unable to deserialise the " + name, e);
+        }
+    }
+
+    /**
+     * Binds a cached json tree to a new object. The tree itself is only read,
+     * so it can be shared between threads.
+     */
+    private static <T> T fromJson(final JsonNode json, final Class<T> clazz, final String name) {
+        try {
+            return MAPPER.treeToValue(json, clazz);
+        } catch (final IOException e) {
+            throw new SchemaException("Unable to deserialise the " + name, e);
+        }
+    }
+
+    private static <V> Map<String, V> createLruMap(final int maxSize) {
+        return Collections.synchronizedMap(new LinkedHashMap<String, V>(maxSize, 0.75f, true) {
+            private static final long serialVersionUID = -2429405458404582718L;
+
+            @Override
+            protected boolean removeEldestEntry(final Map.Entry<String, V> eldest) {
+                return size() > maxSize;
+            }
+        });
+    }
+}
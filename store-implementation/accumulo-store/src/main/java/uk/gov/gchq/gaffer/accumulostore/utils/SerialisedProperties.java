@@ -0,0 +1,198 @@
+/*
+ * Copyright 2017 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.gov.gchq.gaffer.accumulostore.utils;
+
+import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+import uk.gov.gchq.gaffer.accumulostore.key.exception.AccumuloElementConversionException;
+import uk.gov.gchq.gaffer.data.element.Properties;
+import uk.gov.gchq.gaffer.exception.SerialisationException;
+import uk.gov.gchq.gaffer.serialisation.ToBytesSerialiser;
+import uk.gov.gchq.gaffer.serialisation.implementation.raw.CompactRawSerialisationUtils;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * A SerialisedProperties indexes the positions of the properties serialised
+ * into a byte array, such as an Accumulo column qualifier or value, so that
+ * a single property can be deserialised without deserialising the others.
+ * <p>
+ * The positions are found in one pass over the length prefixes of the
+ * properties. Each property is deserialised when it is requested.
+ */
+public class SerialisedProperties {
+    private static final int NOT_PRESENT = -1;
+
+    private final byte[] bytes;
+    private final String[] propertyNames;
+    private final ToBytesSerialiser[] serialisers;
+    private final int[] offsets;
+    private final int[] lengths;
+
+    @SuppressFBWarnings(value = "EI_EXPOSE_REP2", justification = "The arrays are only read, to avoid copying them for every entry.")
+    public SerialisedProperties(final byte[] bytes, final String[] propertyNames, final ToBytesSerialiser[] serialisers) {
+        this.bytes = bytes;
+        this.propertyNames = propertyNames;
+        this.serialisers = serialisers;
+        this.offsets = new int[propertyNames.length];
+        this.lengths = new int[propertyNames.length];
+
+        int delimiterPosition = 0;
+        final int arrayLength = null != bytes ? bytes.length : 0;
+        for (int i = 0; i < propertyNames.length; i++) {
+            if (null != serialisers[i] && delimiterPosition < arrayLength) {
+                final int numBytesForLength = CompactRawSerialisationUtils.decodeVIntSize(bytes[delimiterPosition]);
+                final int currentPropLength = getCurrentPropLength(delimiterPosition);
+                offsets[i] = delimiterPosition + numBytesForLength;
+                lengths[i] = currentPropLength;
+                delimiterPosition = offsets[i] + currentPropLength;
+            } else {
+                offsets[i] = NOT_PRESENT;
+            }
+        }
+    }
+
+    /**
+     * Wraps properties that have already been deserialised, for element
+     * converters that cannot index their serialised properties.
+     *
+     * @param properties the deserialised properties
+     * @param serialiser serialises the retained properties back into the
+     *                   layout the properties were read from
+     * @return a SerialisedProperties backed by the deserialised properties
+     */
+    public static SerialisedProperties fromProperties(final Properties properties, final Function<Properties, byte[]> serialiser) {
+        return new DeserialisedProperties(properties, serialiser);
+    }
+
+    /**
+     * @param propertyName the name of the property
+     * @return true if the property is serialised in the bytes
+     */
+    public boolean contains(final String propertyName) {
+        final int index = indexOf(propertyName);
+        return NOT_PRESENT != index && NOT_PRESENT != offsets[index];
+    }
+
+    /**
+     * Deserialises a single property.
+     *
+     * @param propertyName the name of the property
+     * @return the deserialised property, or null if the property is not
+     * serialised in the bytes
+     */
+    public Object get(final String propertyName) {
+        final int index = indexOf(propertyName);
+        if (NOT_PRESENT == index || NOT_PRESENT == offsets[index]) {
+            return null;
+        }
+
+        try {
+            // Don't initialise with #deserialiseEmpty() as this might initialise
+            // a complex empty structure to be immediately overwritten
+            if (lengths[index] > 0) {
+                return serialisers[index].deserialise(bytes, offsets[index], lengths[index]);
+            }
+            return serialisers[index].deserialiseEmpty();
+        } catch (final SerialisationException e) {
+            throw new AccumuloElementConversionException("Failed to deserialise property " + propertyName, e);
+        }
+    }
+
+    /**
+     * Serialises the bytes again, keeping only the given properties. The other
+     * properties are written with a length of 0, so the layout of the
+     * properties is unchanged and the bytes can still be read by the element
+     * converter.
+     *
+     * @param propertiesToRetain the names of the properties to keep
+     * @return the projected bytes
+     */
+    public byte[] retain(final Set<String> propertiesToRetain) {
+        if (null == bytes) {
+            return null;
+        }
+
+        final ByteArrayOutputStream stream = new ByteArrayOutputStream(bytes.length);
+        try {
+            for (int i = 0; i < propertyNames.length; i++) {
+                if (NOT_PRESENT != offsets[i]) {
+                    if (propertiesToRetain.contains(propertyNames[i])) {
+                        CompactRawSerialisationUtils.write(lengths[i], stream);
+                        stream.write(bytes, offsets[i], lengths[i]);
+                    } else {
+                        CompactRawSerialisationUtils.write(0, stream);
+                    }
+                }
+            }
+        } catch (final IOException e) {
+            throw new AccumuloElementConversionException("Failed to write projected properties", e);
+        }
+        return stream.toByteArray();
+    }
+
+    private int indexOf(final String propertyName) {
+        for (int i = 0; i < propertyNames.length; i++) {
+            if (propertyNames[i].equals(propertyName)) {
+                return i;
+            }
+        }
+        return NOT_PRESENT;
+    }
+
+    private int getCurrentPropLength(final int pos) {
+        try {
+            //This value will be no bigger than an int, no casting issues should occur.
+            return (int) CompactRawSerialisationUtils.readLong(bytes, pos);
+        } catch (final SerialisationException e) {
+            throw new AccumuloElementConversionException("Exception reading length of property", e);
+        }
+    }
+
+    private static final class DeserialisedProperties extends SerialisedProperties {
+        private final Properties properties;
+        private final Function<Properties, byte[]> serialiser;
+
+        private DeserialisedProperties(final Properties properties, final Function<Properties, byte[]> serialiser) {
+            super(null, new String[0], new ToBytesSerialiser[0]);
+            this.properties = properties;
+            this.serialiser = serialiser;
+        }
+
+        @Override
+        public boolean contains(final String propertyName) {
+            return properties.containsKey(propertyName);
+        }
+
+        @Override
+        public Object get(final String propertyName) {
+            return properties.get(propertyName);
+        }
+
+        @Override
+        public byte[] retain(final Set<String> propertiesToRetain) {
+            final Properties retained = new Properties();
+            for (final Map.Entry<String, Object> entry : properties.entrySet()) {
+                if (propertiesToRetain.contains(entry.getKey())) {
+                    retained.put(entry.getKey(), entry.getValue());
+                }
+            }
+            return serialiser.apply(retained);
+        }
+    }
+}
@@ -0,0 +1,116 @@
+/*
+ * Copyright 2017 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.gov.gchq.gaffer.accumulostore.utils;
+
+import org.apache.accumulo.core.client.AccumuloException;
+import org.apache.accumulo.core.client.AccumuloSecurityException;
+import org.apache.accumulo.core.client.TableNotFoundException;
+import org.apache.accumulo.core.data.Key;
+import org.apache.accumulo.core.data.Range;
+import org.apache.hadoop.io.Text;
+import uk.gov.gchq.gaffer.accumulostore.AccumuloStore;
+import uk.gov.gchq.gaffer.store.StoreException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The split points of an Accumulo table, used to find the tablets that a
+ * {@link Range} covers. Tablet i holds the rows after split point i - 1, up to
+ * and including split point i. The last tablet holds the rows after the last
+ * split point.
+ */
+public class TabletSplits {
+    private final List<Text> splits;
+
+    public TabletSplits(final Collection<Text> splits) {
+        this.splits = new ArrayList<>(splits);
+        Collections.sort(this.splits);
+    }
+
+    /**
+     * Reads the current split points of the store's table.
+     *
+     * @param store the accumulo store
+     * @return the split points of the table
+     * @throws StoreException if the split points could not be read
+     */
+    public static TabletSplits getSplits(final AccumuloStore store) throws StoreException {
+        try {
+            return new TabletSplits(store.getConnection().tableOperations().listSplits(store.getTableName()));
+        } catch (final TableNotFoundException | AccumuloSecurityException | AccumuloException e) {
+            throw new StoreException("Failed to get the split points of table " + store.getTableName(), e);
+        }
+    }
+
+    public int getNumTablets() {
+        return splits.size() + 1;
+    }
+
+    /**
+     * @param range the range
+     * @return the index of the tablet holding the start of the range
+     */
+    public int getTabletIndex(final Range range) {
+        final Key startKey = range.getStartKey();
+        if (null == startKey) {
+            return 0;
+        }
+        return getTabletIndex(startKey.getRow());
+    }
+
+    /**
+     * @param row the row
+     * @return the index of the tablet holding the row
+     */
+    public int getTabletIndex(final Text row) {
+        final int index = Collections.binarySearch(splits, row);
+        return index >= 0 ? index : -index - 1;
+    }
+
+    /**
+     * Splits a range at the tablet boundaries, so each of the returned ranges
+     * is held by a single tablet.
+     *
+     * @param range the range to split
+     * @return the parts of the range held by each tablet, in order
+     */
+    public List<Range> split(final Range range) {
+        if (splits.isEmpty()) {
+            return Collections.singletonList(range);
+        }
+
+        final List<Range> parts = new ArrayList<>();
+        for (int i = getTabletIndex(range); i < getNumTablets(); i++) {
+            final Range part = getTabletRange(i).clip(range, true);
+            if (null == part) {
+                break;
+            }
+            parts.add(part);
+        }
+        if (parts.isEmpty()) {
+            parts.add(range);
+        }
+        return parts;
+    }
+
+    private Range getTabletRange(final int index) {
+        final Text prevEndRow = index > 0 ? splits.get(index - 1) : null;
+        final Text endRow = index < splits.size() ? splits.get(index) : null;
+        return new Range(prevEndRow, false, endRow, true);
+    }
+}
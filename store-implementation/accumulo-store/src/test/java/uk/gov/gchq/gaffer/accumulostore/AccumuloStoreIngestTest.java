@@ -0,0 +1,218 @@
+/*
+ * Copyright 2017 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.gov.gchq.gaffer.accumulostore;
+
+import com.google.common.collect.Iterables;
+import org.apache.accumulo.core.client.Scanner;
+import org.apache.accumulo.core.security.Authorizations;
+import org.junit.After;
+import org.junit.Test;
+import uk.gov.gchq.gaffer.accumulostore.operation.handler.AddElementsHandler;
+import uk.gov.gchq.gaffer.accumulostore.utils.IngestStatistics;
+import uk.gov.gchq.gaffer.commonutil.TestGroups;
+import uk.gov.gchq.gaffer.commonutil.TestPropertyNames;
+import uk.gov.gchq.gaffer.commonutil.TestTypes;
+import uk.gov.gchq.gaffer.data.element.Element;
+import uk.gov.gchq.gaffer.data.element.Entity;
+import uk.gov.gchq.gaffer.operation.impl.add.AddElements;
+import uk.gov.gchq.gaffer.store.Context;
+import uk.gov.gchq.gaffer.store.schema.Schema;
+import uk.gov.gchq.gaffer.store.schema.SchemaEntityDefinition;
+import uk.gov.gchq.gaffer.store.schema.TypeDefinition;
+import uk.gov.gchq.koryphe.impl.binaryoperator.Sum;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class AccumuloStoreIngestTest {
+    private static final String GRAPH_ID = "ingestTestGraph";
+    private static final int NUM_ELEMENTS = 95;
+
+    private static final Schema SCHEMA = new Schema.Builder()
+            .type(TestTypes.ID_STRING, new TypeDefinition.Builder()
+                    .clazz(String.class)
+                    .build())
+            .type(TestTypes.PROP_COUNT, new TypeDefinition.Builder()
+                    .clazz(Long.class)
+                    .aggregateFunction(new Sum())
+                    .build())
+            .entity(TestGroups.ENTITY, new SchemaEntityDefinition.Builder()
+                    .vertex(TestTypes.ID_STRING)
+                    .property(TestPropertyNames.COUNT, TestTypes.PROP_COUNT)
+                    .build())
+            .build();
+
+    private AccumuloStore store;
+
+    @After
+    public void shutdownStore() {
+        if (null != store) {
+            store.shutdownIngestExecutor();
+        }
+    }
+
+    @Test
+    public void shouldAddElementsInBatchesOnTheCallingThread() throws Exception {
+        // Given
+        store = createStore("1", "10", null);
+
+        // When
+        store.addElements(createElements(0, NUM_ELEMENTS));
+
+        // Then
+        final IngestStatistics statistics = store.getIngestStatistics();
+        assertEquals(10, statistics.getBatches());
+        assertEquals(NUM_ELEMENTS, statistics.getElements());
+        assertEquals(NUM_ELEMENTS, statistics.getMutations());
+        assertFalse(statistics.hasFailures());
+        assertBatchesInOrder(statistics, 10);
+        assertEquals(NUM_ELEMENTS, countEntries());
+    }
+
+    @Test
+    public void shouldAddElementsInBatchesOnMultipleThreads() throws Exception {
+        // Given
+        store = createStore("4", "10", null);
+
+        // When
+        store.addElements(createElements(0, NUM_ELEMENTS));
+
+        // Then
+        final IngestStatistics statistics = store.getIngestStatistics();
+        assertEquals(10, statistics.getBatches());
+        assertEquals(NUM_ELEMENTS, statistics.getElements());
+        assertEquals(NUM_ELEMENTS, statistics.getMutations());
+        assertFalse(statistics.hasFailures());
+        assertBatchesInOrder(statistics, 10);
+        assertEquals(NUM_ELEMENTS, countEntries());
+    }
+
+    @Test
+    public void shouldAddAllElementsWhenMemoryInFlightIsExceededByEveryBatch() throws Exception {
+        // Given
+        store = createStore("4", "3", "1");
+
+        // When
+        store.addElements(createElements(0, NUM_ELEMENTS));
+
+        // Then
+        final IngestStatistics statistics = store.getIngestStatistics();
+        assertEquals(32, statistics.getBatches());
+        assertEquals(NUM_ELEMENTS, statistics.getElements());
+        assertTrue(statistics.getMutationBytes() > 0);
+        assertBatchesInOrder(statistics, 32);
+        assertEquals(NUM_ELEMENTS, countEntries());
+    }
+
+    @Test
+    public void shouldTotalIngestStatisticsOverEachCallToAddElements() throws Exception {
+        // Given
+        store = createStore("4", "10", null);
+
+        // When
+        store.addElements(createElements(0, 25));
+        final IngestStatistics firstStatistics = store.getIngestStatistics();
+        store.addElements(createElements(25, 50));
+
+        // Then
+        assertEquals(3, firstStatistics.getBatches());
+        assertEquals(25, firstStatistics.getElements());
+        final IngestStatistics statistics = store.getIngestStatistics();
+        assertEquals(6, statistics.getBatches());
+        assertEquals(50, statistics.getElements());
+        assertEquals(6, statistics.getRecentBatches().size());
+        assertEquals(50, countEntries());
+    }
+
+    @Test
+    public void shouldAddElementsAfterTheStoreIsReinitialised() throws Exception {
+        // Given
+        store = createStore("4", "10", null);
+        store.addElements(createElements(0, 25));
+
+        // When
+        store.initialise(GRAPH_ID, SCHEMA, store.getProperties());
+        store.addElements(createElements(25, 50));
+
+        // Then
+        assertEquals(50, store.getIngestStatistics().getElements());
+    }
+
+    @Test
+    public void shouldNotAddIngestStatisticsToTheOperationOptions() throws Exception {
+        // Given
+        store = createStore("4", "10", null);
+        final AddElements addElements = new AddElements.Builder()
+                .input(createElements(0, NUM_ELEMENTS))
+                .option("testOption", "true")
+                .build();
+
+        // When
+        new AddElementsHandler().doOperation(addElements, new Context(), store);
+
+        // Then
+        assertEquals(Collections.singletonMap("testOption", "true"), addElements.getOptions());
+        assertEquals(NUM_ELEMENTS, store.getIngestStatistics().getElements());
+    }
+
+    private static AccumuloStore createStore(final String numThreads, final String maxElementsPerBatch,
+                                             final String maxMemoryInFlight) throws Exception {
+        final AccumuloProperties properties = new AccumuloProperties();
+        properties.setStoreClass(SingleUseMockAccumuloStore.class.getName());
+        properties.setInstance("instance");
+        properties.setZookeepers("zookeepers");
+        properties.setUser("user01");
+        properties.setPassword("password");
+        properties.setNumThreadsForIngest(numThreads);
+        properties.setMaxElementsPerIngestBatch(maxElementsPerBatch);
+        if (null != maxMemoryInFlight) {
+            properties.setMaxIngestMemoryInFlightInBytes(maxMemoryInFlight);
+        }
+
+        final AccumuloStore store = new SingleUseMockAccumuloStore();
+        store.initialise(GRAPH_ID, SCHEMA, properties);
+        return store;
+    }
+
+    private static List<Element> createElements(final int start, final int end) {
+        final List<Element> elements = new ArrayList<>();
+        for (int i = start; i < end; i++) {
+            elements.add(new Entity.Builder()
+                    .group(TestGroups.ENTITY)
+                    .vertex("vertex" + i)
+                    .property(TestPropertyNames.COUNT, 1L)
+                    .build());
+        }
+        return elements;
+    }
+
+    private static void assertBatchesInOrder(final IngestStatistics statistics, final int expectedBatches) {
+        final List<IngestStatistics.BatchStatistics> batches = statistics.getRecentBatches();
+        assertEquals(expectedBatches, batches.size());
+        for (int i = 0; i < expectedBatches; i++) {
+            assertEquals(i, batches.get(i).getBatchNumber());
+        }
+    }
+
+    private int countEntries() throws Exception {
+        final Scanner scanner = store.getConnection().createScanner(store.getTableName(), new Authorizations());
+        return Iterables.size(scanner);
+    }
+}
@@ -0,0 +1,187 @@
+/*
+ * Copyright 2017 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.gov.gchq.gaffer.accumulostore.inputformat;
+
+import org.apache.accumulo.core.client.IteratorSetting;
+import org.apache.accumulo.core.client.mapreduce.AccumuloInputFormat;
+import org.apache.accumulo.core.client.mapreduce.lib.impl.InputConfigurator;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.io.NullWritable;
+import org.apache.hadoop.mapreduce.InputSplit;
+import org.apache.hadoop.mapreduce.Job;
+import org.apache.hadoop.mapreduce.RecordReader;
+import org.apache.hadoop.mapreduce.TaskAttemptContext;
+import org.apache.hadoop.mapreduce.TaskAttemptID;
+import org.apache.hadoop.mapreduce.task.TaskAttemptContextImpl;
+import org.junit.Test;
+import uk.gov.gchq.gaffer.accumulostore.AccumuloProperties;
+import uk.gov.gchq.gaffer.accumulostore.AccumuloStore;
+import uk.gov.gchq.gaffer.accumulostore.SingleUseMockAccumuloStore;
+import uk.gov.gchq.gaffer.accumulostore.utils.AccumuloStoreConstants;
+import uk.gov.gchq.gaffer.commonutil.TestGroups;
+import uk.gov.gchq.gaffer.commonutil.TestPropertyNames;
+import uk.gov.gchq.gaffer.commonutil.TestTypes;
+import uk.gov.gchq.gaffer.data.element.Element;
+import uk.gov.gchq.gaffer.data.element.Entity;
+import uk.gov.gchq.gaffer.data.element.function.ElementFilter;
+import uk.gov.gchq.gaffer.data.elementdefinition.view.View;
+import uk.gov.gchq.gaffer.data.elementdefinition.view.ViewElementDefinition;
+import uk.gov.gchq.gaffer.operation.impl.get.GetAllElements;
+import uk.gov.gchq.gaffer.store.schema.Schema;
+import uk.gov.gchq.gaffer.store.schema.SchemaEntityDefinition;
+import uk.gov.gchq.gaffer.store.schema.TypeDefinition;
+import uk.gov.gchq.gaffer.user.User;
+import uk.gov.gchq.koryphe.impl.predicate.IsMoreThan;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class ElementInputFormatTest {
+    private static final int NUM_ENTITIES = 5;
+
+    private static final Schema SCHEMA = new Schema.Builder()
+            .type(TestTypes.ID_STRING, new TypeDefinition.Builder()
+                    .clazz(String.class)
+                    .build())
+            .type(TestTypes.PROP_COUNT, new TypeDefinition.Builder()
+                    .clazz(Long.class)
+                    .build())
+            .type(TestTypes.PROP_STRING, new TypeDefinition.Builder()
+                    .clazz(String.class)
+                    .build())
+            .entity(TestGroups.ENTITY, new SchemaEntityDefinition.Builder()
+                    .vertex(TestTypes.ID_STRING)
+                    .property(TestPropertyNames.COUNT, TestTypes.PROP_COUNT)
+                    .property(TestPropertyNames.PROP_1, TestTypes.PROP_STRING)
+                    .aggregate(false)
+                    .build())
+            .build();
+
+    private static final View POST_TRANSFORM_FILTER_VIEW = new View.Builder()
+            .entity(TestGroups.ENTITY, new ViewElementDefinition.Builder()
+                    .postTransformFilter(new ElementFilter.Builder()
+                            .select(TestPropertyNames.COUNT)
+                            .execute(new IsMoreThan(3L))
+                            .build())
+                    .build())
+            .build();
+
+    @Test
+    public void shouldApplyPostTransformFiltersInRecordReader() throws Exception {
+        // Given
+        final Configuration conf = createConfiguration(POST_TRANSFORM_FILTER_VIEW, null);
+
+        // When
+        final List<Element> elements = readElements(conf);
+
+        // Then
+        assertEquals(2, elements.size());
+        for (final Element element : elements) {
+            assertTrue((Long) element.getProperty(TestPropertyNames.COUNT) > 3L);
+            assertEquals(2, element.getProperties().size());
+        }
+    }
+
+    @Test
+    public void shouldApplyPostTransformFiltersToPropertiesThatAreNotReturned() throws Exception {
+        // Given
+        final Configuration conf = createConfiguration(POST_TRANSFORM_FILTER_VIEW,
+                Collections.singleton(TestPropertyNames.PROP_1));
+
+        // When
+        final List<Element> elements = readElements(conf);
+
+        // Then
+        final Set<Object> values = new HashSet<>();
+        for (final Element element : elements) {
+            assertEquals(Collections.singleton(TestPropertyNames.PROP_1), element.getProperties().keySet());
+            values.add(element.getProperty(TestPropertyNames.PROP_1));
+        }
+        assertEquals(new HashSet<>(Arrays.asList("value4", "value5")), values);
+    }
+
+    @Test
+    public void shouldRemovePropertiesThatAreNotRequiredWhenViewHasNoGroups() throws Exception {
+        // Given
+        final Configuration conf = createConfiguration(new View(), Collections.singleton(TestPropertyNames.COUNT));
+
+        // When
+        final List<Element> elements = readElements(conf);
+
+        // Then
+        boolean hasProjectionIterator = false;
+        for (final IteratorSetting setting : InputConfigurator.getIterators(AccumuloInputFormat.class, conf)) {
+            hasProjectionIterator |= AccumuloStoreConstants.ELEMENT_PROPERTY_PROJECTION_ITERATOR_NAME.equals(setting.getName());
+        }
+        assertTrue(hasProjectionIterator);
+        assertEquals(NUM_ENTITIES, elements.size());
+        for (final Element element : elements) {
+            assertEquals(Collections.singleton(TestPropertyNames.COUNT), element.getProperties().keySet());
+        }
+    }
+
+    private static Configuration createConfiguration(final View view, final Set<String> properties) throws Exception {
+        final AccumuloProperties storeProperties = new AccumuloProperties();
+        storeProperties.setStoreClass(SingleUseMockAccumuloStore.class.getName());
+        storeProperties.setInstance("instance");
+        storeProperties.setZookeepers("zookeepers");
+        storeProperties.setUser("user01");
+        storeProperties.setPassword("password");
+
+        final AccumuloStore store = new SingleUseMockAccumuloStore();
+        store.initialise("inputFormatTestGraph", SCHEMA, storeProperties);
+
+        final List<Element> elements = new ArrayList<>();
+        for (int i = 1; i <= NUM_ENTITIES; i++) {
+            elements.add(new Entity.Builder()
+                    .group(TestGroups.ENTITY)
+                    .vertex("vertex" + i)
+                    .property(TestPropertyNames.COUNT, (long) i)
+                    .property(TestPropertyNames.PROP_1, "value" + i)
+                    .build());
+        }
+        store.addElements(elements);
+
+        final Configuration conf = new Configuration();
+        if (null != properties) {
+            ElementInputFormat.setProperties(conf, properties);
+        }
+        store.updateConfiguration(conf, new GetAllElements.Builder().view(view).build(), new User());
+        return conf;
+    }
+
+    private static List<Element> readElements(final Configuration conf) throws Exception {
+        final Job job = Job.getInstance(conf);
+        final ElementInputFormat inputFormat = new ElementInputFormat();
+        final List<Element> elements = new ArrayList<>();
+        for (final InputSplit split : inputFormat.getSplits(job)) {
+            final TaskAttemptContext context = new TaskAttemptContextImpl(job.getConfiguration(), new TaskAttemptID());
+            try (final RecordReader<Element, NullWritable> reader = inputFormat.createRecordReader(split, context)) {
+                reader.initialize(split, context);
+                while (reader.nextKeyValue()) {
+                    elements.add(reader.getCurrentKey());
+                }
+            }
+        }
+        return elements;
+    }
+}
@@ -0,0 +1,181 @@
+/*
+ * Copyright 2017 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.gov.gchq.gaffer.accumulostore.key.core;
+
+import org.apache.accumulo.core.data.Key;
+import org.apache.accumulo.core.data.Value;
+import org.junit.Test;
+import uk.gov.gchq.gaffer.accumulostore.key.AccumuloElementConverter;
+import uk.gov.gchq.gaffer.accumulostore.key.core.impl.byteEntity.ByteEntityAccumuloElementConverter;
+import uk.gov.gchq.gaffer.accumulostore.key.core.impl.classic.ClassicAccumuloElementConverter;
+import uk.gov.gchq.gaffer.commonutil.TestGroups;
+import uk.gov.gchq.gaffer.commonutil.TestPropertyNames;
+import uk.gov.gchq.gaffer.commonutil.TestTypes;
+import uk.gov.gchq.gaffer.data.element.Edge;
+import uk.gov.gchq.gaffer.data.element.Element;
+import uk.gov.gchq.gaffer.data.element.Entity;
+import uk.gov.gchq.gaffer.serialisation.implementation.StringSerialiser;
+import uk.gov.gchq.gaffer.serialisation.implementation.raw.CompactRawLongSerialiser;
+import uk.gov.gchq.gaffer.store.schema.Schema;
+import uk.gov.gchq.gaffer.store.schema.SchemaEdgeDefinition;
+import uk.gov.gchq.gaffer.store.schema.SchemaEntityDefinition;
+import uk.gov.gchq.gaffer.store.schema.TypeDefinition;
+import java.io.ByteArrayOutputStream;
+import java.util.Arrays;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+public class AbstractCoreKeyAccumuloElementConverterTest {
+    private static final Schema SCHEMA = new Schema.Builder()
+            .vertexSerialiser(new StringSerialiser())
+            .type(TestTypes.ID_STRING, new TypeDefinition.Builder()
+                    .clazz(String.class)
+                    .serialiser(new StringSerialiser())
+                    .build())
+            .type(TestTypes.DIRECTED_TRUE, new TypeDefinition.Builder()
+                    .clazz(Boolean.class)
+                    .build())
+            .type(TestTypes.PROP_STRING, new TypeDefinition.Builder()
+                    .clazz(String.class)
+                    .serialiser(new StringSerialiser())
+                    .build())
+            .type(TestTypes.PROP_COUNT, new TypeDefinition.Builder()
+                    .clazz(Long.class)
+                    .serialiser(new CompactRawLongSerialiser())
+                    .build())
+            .entity(TestGroups.ENTITY, new SchemaEntityDefinition.Builder()
+                    .vertex(TestTypes.ID_STRING)
+                    .property(TestPropertyNames.STRING, TestTypes.PROP_STRING)
+                    .aggregate(false)
+                    .build())
+            .edge(TestGroups.EDGE, new SchemaEdgeDefinition.Builder()
+                    .source(TestTypes.ID_STRING)
+                    .destination(TestTypes.ID_STRING)
+                    .directed(TestTypes.DIRECTED_TRUE)
+                    .property(TestPropertyNames.PROP_1, TestTypes.PROP_STRING)
+                    .property(TestPropertyNames.COUNT, TestTypes.PROP_COUNT)
+                    .groupBy(TestPropertyNames.PROP_1)
+                    .aggregate(false)
+                    .build())
+            .edge(TestGroups.EDGE_2, new SchemaEdgeDefinition.Builder()
+                    .source(TestTypes.ID_STRING)
+                    .destination(TestTypes.ID_STRING)
+                    .directed(TestTypes.DIRECTED_TRUE)
+                    .property(TestPropertyNames.COUNT, TestTypes.PROP_COUNT)
+                    .property(TestPropertyNames.PROP_2, TestTypes.PROP_STRING)
+                    .aggregate(false)
+                    .build())
+            .build();
+
+    @Test
+    public void shouldRoundTripElementsOfEachGroupWithByteEntityConverter() {
+        shouldRoundTripElementsOfEachGroup(new ByteEntityAccumuloElementConverter(SCHEMA));
+    }
+
+    @Test
+    public void shouldRoundTripElementsOfEachGroupWithClassicConverter() {
+        shouldRoundTripElementsOfEachGroup(new ClassicAccumuloElementConverter(SCHEMA));
+    }
+
+    @Test
+    public void shouldReuseBufferForSmallElements() {
+        // Given
+        final AccumuloElementConverter converter = new ByteEntityAccumuloElementConverter(SCHEMA);
+        final ByteArrayOutputStream buffer = AbstractCoreKeyAccumuloElementConverter.BUFFER.get();
+
+        // When
+        roundTrip(converter, createEdge(TestGroups.EDGE, "a value", 1L));
+
+        // Then
+        assertSame(buffer, AbstractCoreKeyAccumuloElementConverter.BUFFER.get());
+    }
+
+    @Test
+    public void shouldDiscardOversizedBufferAndStillRoundTripLaterElements() {
+        // Given
+        final AccumuloElementConverter converter = new ByteEntityAccumuloElementConverter(SCHEMA);
+        final char[] chars = new char[AbstractCoreKeyAccumuloElementConverter.MAX_REUSED_BUFFER_SIZE + 1];
+        Arrays.fill(chars, 'a');
+        final Edge largeEdge = createEdge(TestGroups.EDGE_2, new String(chars), 1L);
+        final Edge smallEdge = createEdge(TestGroups.EDGE_2, "a value", 2L);
+        final ByteArrayOutputStream buffer = AbstractCoreKeyAccumuloElementConverter.BUFFER.get();
+
+        // When
+        final Element largeResult = roundTrip(converter, largeEdge);
+        final ByteArrayOutputStream bufferAfterLargeEdge = AbstractCoreKeyAccumuloElementConverter.BUFFER.get();
+        final Element smallResult = roundTrip(converter, smallEdge);
+
+        // Then
+        assertNotSame(buffer, bufferAfterLargeEdge);
+        assertEquals(largeEdge, largeResult);
+        assertEquals(smallEdge, smallResult);
+    }
+
+    @SuppressWarnings("deprecation")
+    @Test
+    public void shouldSerialiseSizeAndPropertyValueWithDeprecatedMethod() throws Exception {
+        // Given
+        final AbstractCoreKeyAccumuloElementConverter converter = new ByteEntityAccumuloElementConverter(SCHEMA);
+        final Edge edge = createEdge(TestGroups.EDGE, "a value", 1L);
+        final ByteArrayOutputStream stream = new ByteArrayOutputStream();
+
+        // When
+        converter.serialiseSizeAndPropertyValue(TestPropertyNames.PROP_1, SCHEMA.getEdge(TestGroups.EDGE), edge.getProperties(), stream);
+
+        // Then
+        assertEquals(edge.getProperty(TestPropertyNames.PROP_1),
+                converter.getPropertiesFromColumnQualifier(TestGroups.EDGE, stream.toByteArray()).get(TestPropertyNames.PROP_1));
+    }
+
+    private static void shouldRoundTripElementsOfEachGroup(final AccumuloElementConverter converter) {
+        // Given
+        final Entity entity = new Entity.Builder()
+                .group(TestGroups.ENTITY)
+                .vertex("vertex")
+                .property(TestPropertyNames.STRING, "an entity value")
+                .build();
+        final Edge edge = createEdge(TestGroups.EDGE, "a value", 1L);
+        final Edge edge2 = createEdge(TestGroups.EDGE_2, "another value", 2L);
+
+        // When / Then
+        // Convert each element twice, so the second conversion uses the cached group layouts
+        for (int i = 0; i < 2; i++) {
+            assertEquals(entity, roundTrip(converter, entity));
+            assertEquals(edge, roundTrip(converter, edge));
+            assertEquals(edge2, roundTrip(converter, edge2));
+        }
+    }
+
+    private static Element roundTrip(final AccumuloElementConverter converter, final Element element) {
+        final Key key = converter.getKeysFromElement(element).getFirst();
+        final Value value = converter.getValueFromElement(element);
+        return converter.getFullElement(key, value, false);
+    }
+
+    private static Edge createEdge(final String group, final String stringProperty, final long count) {
+        final String stringPropertyName = TestGroups.EDGE.equals(group) ? TestPropertyNames.PROP_1 : TestPropertyNames.PROP_2;
+        return new Edge.Builder()
+                .group(group)
+                .source("source")
+                .dest("destination")
+                .directed(true)
+                .property(stringPropertyName, stringProperty)
+                .property(TestPropertyNames.COUNT, count)
+                .build();
+    }
+}
@@ -0,0 +1,272 @@
+/*
+ * Copyright 2017 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.gov.gchq.gaffer.accumulostore.key.core.impl;
+
+import org.apache.accumulo.core.client.IteratorSetting;
+import org.apache.accumulo.core.data.Key;
+import org.apache.accumulo.core.data.Range;
+import org.apache.accumulo.core.data.Value;
+import org.apache.accumulo.core.iterators.SortedMapIterator;
+import org.apache.hadoop.io.Text;
+import org.junit.Test;
+import uk.gov.gchq.gaffer.accumulostore.key.core.impl.byteEntity.ByteEntityAccumuloElementConverter;
+import uk.gov.gchq.gaffer.accumulostore.key.core.impl.byteEntity.ByteEntityDistinctAdjacentIdIterator;
+import uk.gov.gchq.gaffer.accumulostore.key.core.impl.byteEntity.ByteEntityIteratorSettingsFactory;
+import uk.gov.gchq.gaffer.accumulostore.utils.AccumuloStoreConstants;
+import uk.gov.gchq.gaffer.commonutil.TestGroups;
+import uk.gov.gchq.gaffer.commonutil.TestPropertyNames;
+import uk.gov.gchq.gaffer.commonutil.TestTypes;
+import uk.gov.gchq.gaffer.commonutil.pair.Pair;
+import uk.gov.gchq.gaffer.data.element.Edge;
+import uk.gov.gchq.gaffer.data.element.Entity;
+import uk.gov.gchq.gaffer.data.element.function.ElementFilter;
+import uk.gov.gchq.gaffer.data.elementdefinition.view.View;
+import uk.gov.gchq.gaffer.data.elementdefinition.view.ViewElementDefinition;
+import uk.gov.gchq.gaffer.store.schema.Schema;
+import uk.gov.gchq.gaffer.store.schema.SchemaEdgeDefinition;
+import uk.gov.gchq.gaffer.store.schema.SchemaEntityDefinition;
+import uk.gov.gchq.gaffer.store.schema.TypeDefinition;
+import uk.gov.gchq.koryphe.impl.predicate.IsMoreThan;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+public class CoreKeyDistinctAdjacentIdIteratorTest {
+    private static final Value EMPTY_VALUE = new Value(new byte[0]);
+
+    private static final Schema SCHEMA = new Schema.Builder()
+            .type(TestTypes.ID_STRING, new TypeDefinition.Builder()
+                    .clazz(String.class)
+                    .build())
+            .type(TestTypes.DIRECTED_TRUE, new TypeDefinition.Builder()
+                    .clazz(Boolean.class)
+                    .build())
+            .type(TestTypes.PROP_COUNT, new TypeDefinition.Builder()
+                    .clazz(Long.class)
+                    .build())
+            .entity(TestGroups.ENTITY, new SchemaEntityDefinition.Builder()
+                    .vertex(TestTypes.ID_STRING)
+                    .build())
+            .edge(TestGroups.EDGE, new SchemaEdgeDefinition.Builder()
+                    .source(TestTypes.ID_STRING)
+                    .destination(TestTypes.ID_STRING)
+                    .directed(TestTypes.DIRECTED_TRUE)
+                    .property(TestPropertyNames.COUNT, TestTypes.PROP_COUNT)
+                    .aggregate(false)
+                    .build())
+            .edge(TestGroups.EDGE_2, new SchemaEdgeDefinition.Builder()
+                    .source(TestTypes.ID_STRING)
+                    .destination(TestTypes.ID_STRING)
+                    .directed(TestTypes.DIRECTED_TRUE)
+                    .property(TestPropertyNames.COUNT, TestTypes.PROP_COUNT)
+                    .aggregate(false)
+                    .build())
+            .build();
+
+    private final ByteEntityAccumuloElementConverter converter = new ByteEntityAccumuloElementConverter(SCHEMA);
+
+    @Test
+    public void shouldReturnEachAdjacentIdOncePerSeed() throws IOException {
+        // Given
+        final SortedMap<Key, Value> data = new TreeMap<>();
+        addEdge(data, TestGroups.EDGE, "A", "B");
+        addEdge(data, TestGroups.EDGE_2, "A", "B");
+        addEdge(data, TestGroups.EDGE, "A", "C");
+        addEdge(data, TestGroups.EDGE_2, "B", "C");
+        addEntity(data, "A");
+
+        // When
+        final List<Key> keys = scan(data, Collections.emptyMap());
+
+        // Then
+        // Each edge has a row for its source and a row for its destination
+        // A-B, A-C, B-A, B-C, C-A, C-B and the entity for A
+        assertEquals(7, keys.size());
+        assertEquals(7, getRows(keys).size());
+    }
+
+    @Test
+    public void shouldForgetAdjacentIdsWhenSeeked() throws IOException {
+        // Given
+        final SortedMap<Key, Value> data = new TreeMap<>();
+        addEdge(data, TestGroups.EDGE, "A", "B");
+        addEdge(data, TestGroups.EDGE_2, "A", "B");
+        final CoreKeyDistinctAdjacentIdIterator iterator = createIterator(data, Collections.emptyMap());
+
+        // When
+        final List<Key> firstKeys = read(iterator);
+        final List<Key> secondKeys = read(iterator);
+
+        // Then
+        assertEquals(2, firstKeys.size());
+        assertEquals(firstKeys, secondKeys);
+    }
+
+    @Test
+    public void shouldReturnDuplicateAdjacentIdsOnceTheMaximumNumberPerSeedIsRemembered() throws IOException {
+        // Given
+        final int numAdjacentIds = CoreKeyDistinctAdjacentIdIterator.MAX_ADJACENT_IDS_PER_SEED + 1;
+        final SortedMap<Key, Value> data = new TreeMap<>();
+        for (int i = 0; i < numAdjacentIds; i++) {
+            final String adjacentId = String.format("vertex%06d", i);
+            addSourceKey(data, TestGroups.EDGE, "A", adjacentId);
+            addSourceKey(data, TestGroups.EDGE_2, "A", adjacentId);
+        }
+
+        // When
+        final List<Key> keys = scan(data, Collections.emptyMap());
+
+        // Then
+        // The last adjacent id is not remembered, so it is returned for both groups
+        assertEquals(numAdjacentIds + 1, keys.size());
+        assertEquals(numAdjacentIds, getRows(keys).size());
+        final Key lastKey = keys.get(keys.size() - 1);
+        final Key secondLastKey = keys.get(keys.size() - 2);
+        assertEquals(lastKey.getRow(), secondLastKey.getRow());
+    }
+
+    @Test
+    public void shouldReturnEveryEdgeInPassThroughGroups() throws IOException {
+        // Given
+        final SortedMap<Key, Value> data = new TreeMap<>();
+        addSourceKey(data, TestGroups.EDGE, "A", "B");
+        addSourceKey(data, TestGroups.EDGE, "A", "B", 1);
+        addSourceKey(data, TestGroups.EDGE_2, "A", "B");
+        addSourceKey(data, TestGroups.EDGE_2, "A", "B", 1);
+        final Map<String, String> options = Collections.singletonMap(AccumuloStoreConstants.PASS_THROUGH_GROUPS, TestGroups.EDGE_2);
+
+        // When
+        final List<Key> keys = scan(data, options);
+
+        // Then
+        assertEquals(3, keys.size());
+        assertEquals(TestGroups.EDGE, keys.get(0).getColumnFamily().toString());
+        assertEquals(TestGroups.EDGE_2, keys.get(1).getColumnFamily().toString());
+        assertEquals(TestGroups.EDGE_2, keys.get(2).getColumnFamily().toString());
+    }
+
+    @Test
+    public void shouldPassThroughOnlyGroupsWithPostTransformFilters() {
+        // Given
+        final View view = new View.Builder()
+                .edge(TestGroups.EDGE)
+                .edge(TestGroups.EDGE_2, new ViewElementDefinition.Builder()
+                        .postTransformFilter(new ElementFilter.Builder()
+                                .select(TestPropertyNames.COUNT)
+                                .execute(new IsMoreThan(1L))
+                                .build())
+                        .build())
+                .build();
+
+        // When
+        final IteratorSetting setting = new ByteEntityIteratorSettingsFactory().getDistinctAdjacentIdIteratorSetting(view);
+
+        // Then
+        assertEquals(ByteEntityDistinctAdjacentIdIterator.class.getName(), setting.getIteratorClass());
+        assertEquals(TestGroups.EDGE_2, setting.getOptions().get(AccumuloStoreConstants.PASS_THROUGH_GROUPS));
+    }
+
+    @Test
+    public void shouldNotPassThroughAnyGroupsWithoutPostTransformFilters() {
+        // Given
+        final View view = new View.Builder()
+                .edge(TestGroups.EDGE)
+                .edge(TestGroups.EDGE_2)
+                .build();
+
+        // When
+        final IteratorSetting setting = new ByteEntityIteratorSettingsFactory().getDistinctAdjacentIdIteratorSetting(view);
+
+        // Then
+        assertFalse(setting.getOptions().containsKey(AccumuloStoreConstants.PASS_THROUGH_GROUPS));
+    }
+
+    private void addEdge(final SortedMap<Key, Value> data, final String group, final String source, final String destination) {
+        final Edge edge = new Edge.Builder()
+                .group(group)
+                .source(source)
+                .dest(destination)
+                .directed(true)
+                .build();
+        final Pair<Key, Key> keys = converter.getKeysFromEdge(edge);
+        data.put(keys.getFirst(), EMPTY_VALUE);
+        data.put(keys.getSecond(), EMPTY_VALUE);
+    }
+
+    private void addSourceKey(final SortedMap<Key, Value> data, final String group, final String source, final String destination) {
+        addSourceKey(data, group, source, destination, 0);
+    }
+
+    private void addSourceKey(final SortedMap<Key, Value> data, final String group, final String source,
+                              final String destination, final long timestamp) {
+        final Edge edge = new Edge.Builder()
+                .group(group)
+                .source(source)
+                .dest(destination)
+                .directed(true)
+                .build();
+        final Key key = converter.getKeysFromEdge(edge).getFirst();
+        key.setTimestamp(timestamp);
+        data.put(key, EMPTY_VALUE);
+    }
+
+    private void addEntity(final SortedMap<Key, Value> data, final String vertex) {
+        final Entity entity = new Entity.Builder()
+                .group(TestGroups.ENTITY)
+                .vertex(vertex)
+                .build();
+        data.put(converter.getKeyFromEntity(entity), EMPTY_VALUE);
+    }
+
+    private static List<Key> scan(final SortedMap<Key, Value> data, final Map<String, String> options) throws IOException {
+        return read(createIterator(data, options));
+    }
+
+    private static CoreKeyDistinctAdjacentIdIterator createIterator(final SortedMap<Key, Value> data,
+                                                                    final Map<String, String> options) throws IOException {
+        final CoreKeyDistinctAdjacentIdIterator iterator = new ByteEntityDistinctAdjacentIdIterator();
+        iterator.init(new SortedMapIterator(data), new HashMap<>(options), null);
+        return iterator;
+    }
+
+    private static List<Key> read(final CoreKeyDistinctAdjacentIdIterator iterator) throws IOException {
+        iterator.seek(new Range(), Collections.emptyList(), false);
+        final List<Key> keys = new ArrayList<>();
+        while (iterator.hasTop()) {
+            keys.add(new Key(iterator.getTopKey()));
+            iterator.next();
+        }
+        return keys;
+    }
+
+    private static Set<Text> getRows(final List<Key> keys) {
+        final Set<Text> rows = new HashSet<>();
+        for (final Key key : keys) {
+            rows.add(key.getRow());
+        }
+        return rows;
+    }
+}
@@ -0,0 +1,112 @@
+/*
+ * Copyright 2017 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.gov.gchq.gaffer.accumulostore.key.impl;
+
+import org.apache.accumulo.core.data.Key;
+import org.apache.accumulo.core.data.Range;
+import org.apache.accumulo.core.data.Value;
+import org.apache.accumulo.core.iterators.SortedMapIterator;
+import org.junit.Test;
+import uk.gov.gchq.gaffer.accumulostore.AccumuloProperties;
+import uk.gov.gchq.gaffer.accumulostore.AccumuloStore;
+import uk.gov.gchq.gaffer.accumulostore.SingleUseMockAccumuloStore;
+import uk.gov.gchq.gaffer.accumulostore.key.AccumuloElementConverter;
+import uk.gov.gchq.gaffer.commonutil.TestGroups;
+import uk.gov.gchq.gaffer.commonutil.TestPropertyNames;
+import uk.gov.gchq.gaffer.commonutil.TestTypes;
+import uk.gov.gchq.gaffer.data.element.Entity;
+import uk.gov.gchq.gaffer.data.element.Properties;
+import uk.gov.gchq.gaffer.store.schema.Schema;
+import uk.gov.gchq.gaffer.store.schema.SchemaEntityDefinition;
+import uk.gov.gchq.gaffer.store.schema.TypeDefinition;
+import java.util.Collections;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+public class ElementPropertyProjectionIteratorTest {
+    private static final Schema SCHEMA = new Schema.Builder()
+            .type(TestTypes.ID_STRING, new TypeDefinition.Builder()
+                    .clazz(String.class)
+                    .build())
+            .type(TestTypes.PROP_COUNT, new TypeDefinition.Builder()
+                    .clazz(Long.class)
+                    .build())
+            .type(TestTypes.PROP_STRING, new TypeDefinition.Builder()
+                    .clazz(String.class)
+                    .build())
+            .entity(TestGroups.ENTITY, new SchemaEntityDefinition.Builder()
+                    .vertex(TestTypes.ID_STRING)
+                    .property(TestPropertyNames.COUNT, TestTypes.PROP_COUNT)
+                    .property(TestPropertyNames.PROP_1, TestTypes.PROP_STRING)
+                    .aggregate(false)
+                    .build())
+            .build();
+
+    @Test
+    public void shouldProjectTopValueOnceForEachEntry() throws Exception {
+        // Given
+        final AccumuloStore store = createStore();
+        final AccumuloElementConverter converter = store.getKeyPackage().getKeyConverter();
+        final SortedMap<Key, Value> data = new TreeMap<>();
+        for (int i = 1; i <= 2; i++) {
+            final Entity entity = new Entity.Builder()
+                    .group(TestGroups.ENTITY)
+                    .vertex("vertex" + i)
+                    .property(TestPropertyNames.COUNT, (long) i)
+                    .property(TestPropertyNames.PROP_1, "value" + i)
+                    .build();
+            data.put(converter.getKeyFromEntity(entity), converter.getValueFromElement(entity));
+        }
+
+        final ElementPropertyProjectionIterator iterator = new ElementPropertyProjectionIterator();
+        iterator.init(new SortedMapIterator(data), store.getKeyPackage().getIteratorFactory()
+                .getElementPropertyProjectionIteratorSetting(Collections.singleton(TestPropertyNames.COUNT), store)
+                .getOptions(), null);
+
+        // When
+        iterator.seek(new Range(), Collections.emptyList(), false);
+        final Value firstValue = iterator.getTopValue();
+        final Value firstValueAgain = iterator.getTopValue();
+        iterator.next();
+        final Value secondValue = iterator.getTopValue();
+
+        // Then
+        assertSame(firstValue, firstValueAgain);
+        assertNotSame(firstValue, secondValue);
+        final Properties firstProperties = converter.getPropertiesFromValue(TestGroups.ENTITY, firstValue);
+        assertEquals(1L, firstProperties.get(TestPropertyNames.COUNT));
+        assertFalse("value1".equals(firstProperties.get(TestPropertyNames.PROP_1)));
+        assertEquals(2L, converter.getPropertiesFromValue(TestGroups.ENTITY, secondValue).get(TestPropertyNames.COUNT));
+    }
+
+    private static AccumuloStore createStore() throws Exception {
+        final AccumuloProperties properties = new AccumuloProperties();
+        properties.setStoreClass(SingleUseMockAccumuloStore.class.getName());
+        properties.setInstance("instance");
+        properties.setZookeepers("zookeepers");
+        properties.setUser("user01");
+        properties.setPassword("password");
+
+        final AccumuloStore store = new SingleUseMockAccumuloStore();
+        store.initialise("projectionTestGraph", SCHEMA, properties);
+        return store;
+    }
+}
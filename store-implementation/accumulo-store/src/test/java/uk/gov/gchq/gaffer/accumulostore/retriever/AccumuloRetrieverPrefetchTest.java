@@ -0,0 +1,192 @@
+/*
+ * Copyright 2017 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.gov.gchq.gaffer.accumulostore.retriever;
+
+import org.apache.accumulo.core.conf.Property;
+import org.junit.Test;
+import uk.gov.gchq.gaffer.accumulostore.AccumuloProperties;
+import uk.gov.gchq.gaffer.accumulostore.AccumuloStore;
+import uk.gov.gchq.gaffer.accumulostore.SingleUseMockAccumuloStore;
+import uk.gov.gchq.gaffer.accumulostore.retriever.impl.AccumuloSingleIDRetriever;
+import uk.gov.gchq.gaffer.commonutil.TestGroups;
+import uk.gov.gchq.gaffer.commonutil.TestPropertyNames;
+import uk.gov.gchq.gaffer.commonutil.TestTypes;
+import uk.gov.gchq.gaffer.commonutil.iterable.CloseableIterator;
+import uk.gov.gchq.gaffer.data.element.Element;
+import uk.gov.gchq.gaffer.data.element.Entity;
+import uk.gov.gchq.gaffer.data.elementdefinition.view.View;
+import uk.gov.gchq.gaffer.operation.data.EntitySeed;
+import uk.gov.gchq.gaffer.operation.impl.get.GetElements;
+import uk.gov.gchq.gaffer.store.schema.Schema;
+import uk.gov.gchq.gaffer.store.schema.SchemaEntityDefinition;
+import uk.gov.gchq.gaffer.store.schema.TypeDefinition;
+import uk.gov.gchq.gaffer.user.User;
+import uk.gov.gchq.koryphe.impl.binaryoperator.Sum;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class AccumuloRetrieverPrefetchTest {
+    private static final int NUM_SEEDS = 20;
+
+    private static final Schema SCHEMA = new Schema.Builder()
+            .type(TestTypes.ID_STRING, new TypeDefinition.Builder()
+                    .clazz(String.class)
+                    .build())
+            .type(TestTypes.PROP_COUNT, new TypeDefinition.Builder()
+                    .clazz(Long.class)
+                    .aggregateFunction(new Sum())
+                    .build())
+            .entity(TestGroups.ENTITY, new SchemaEntityDefinition.Builder()
+                    .vertex(TestTypes.ID_STRING)
+                    .property(TestPropertyNames.COUNT, TestTypes.PROP_COUNT)
+                    .build())
+            .build();
+
+    @Test
+    public void shouldRetrieveAllElementsWithOneScannerInFlight() throws Exception {
+        // Given
+        final AccumuloStore store = createStore("1", "50000000");
+
+        // When
+        final Set<String> vertices = getVertices(store);
+
+        // Then
+        assertEquals(createVertices(), vertices);
+    }
+
+    @Test
+    public void shouldRetrieveAllElementsWithMultipleScannersInFlight() throws Exception {
+        // Given
+        final AccumuloStore store = createStore("4", "50000000");
+
+        // When
+        final Set<String> vertices = getVertices(store);
+
+        // Then
+        assertEquals(createVertices(), vertices);
+    }
+
+    @Test
+    public void shouldRetrieveAllElementsWhenPrefetchMemoryIsExceededByOneScanner() throws Exception {
+        // Given
+        final AccumuloStore store = createStore("4", "1");
+
+        // When
+        final Set<String> vertices = getVertices(store);
+
+        // Then
+        assertEquals(createVertices(), vertices);
+    }
+
+    @Test
+    public void shouldCloseScannersInFlightWhenClosedBeforeAllResultsAreRead() throws Exception {
+        // Given
+        final AccumuloStore store = createStore("4", "50000000");
+        final AccumuloSingleIDRetriever<GetElements> retriever = createRetriever(store);
+
+        // When
+        final CloseableIterator<Element> itr = retriever.iterator();
+        final Element element = itr.next();
+        itr.close();
+
+        // Then
+        assertTrue(createVertices().contains(((Entity) element).getVertex()));
+        assertFalse(itr.hasNext());
+    }
+
+    @Test
+    public void shouldEstimateScannerBufferFromThreadsAndTableScanMemory() throws Exception {
+        // Given
+        final AccumuloStore store = createStore("4", "50000000");
+        store.getConnection().tableOperations().setProperty(store.getTableName(), Property.TABLE_SCAN_MAXMEM.getKey(), "1M");
+        final AccumuloSingleIDRetriever<GetElements> retriever = createRetriever(store);
+
+        // When
+        final long bufferBytes = retriever.getScannerBufferBytes();
+
+        // Then
+        assertEquals(2L * 3 * 1024 * 1024, bufferBytes);
+    }
+
+    private static AccumuloStore createStore(final String maxBatchScannersInFlight, final String maxPrefetchMemory) throws Exception {
+        final AccumuloProperties properties = new AccumuloProperties();
+        properties.setStoreClass(SingleUseMockAccumuloStore.class.getName());
+        properties.setInstance("instance");
+        properties.setZookeepers("zookeepers");
+        properties.setUser("user01");
+        properties.setPassword("password");
+        properties.setThreadsForBatchScanner("3");
+        properties.setMaxEntriesForBatchScanner("3");
+        properties.setTabletPartitioningChunks("1");
+        properties.setMaxBatchScannersInFlight(maxBatchScannersInFlight);
+        properties.setMaxPrefetchMemoryForBatchScannersInBytes(maxPrefetchMemory);
+
+        final AccumuloStore store = new SingleUseMockAccumuloStore();
+        store.initialise("prefetchTestGraph", SCHEMA, properties);
+
+        final List<Element> elements = new ArrayList<>();
+        for (final String vertex : createVertices()) {
+            elements.add(new Entity.Builder()
+                    .group(TestGroups.ENTITY)
+                    .vertex(vertex)
+                    .property(TestPropertyNames.COUNT, 1L)
+                    .build());
+        }
+        store.addElements(elements);
+        return store;
+    }
+
+    private static AccumuloSingleIDRetriever<GetElements> createRetriever(final AccumuloStore store) throws Exception {
+        final List<EntitySeed> seeds = new ArrayList<>();
+        for (final String vertex : createVertices()) {
+            seeds.add(new EntitySeed(vertex));
+        }
+        final GetElements operation = new GetElements.Builder()
+                .input(seeds)
+                .view(new View.Builder()
+                        .entity(TestGroups.ENTITY)
+                        .build())
+                .build();
+        return new AccumuloSingleIDRetriever<>(store, operation, new User());
+    }
+
+    private static Set<String> getVertices(final AccumuloStore store) throws Exception {
+        final Set<String> vertices = new HashSet<>();
+        int count = 0;
+        try (final AccumuloSingleIDRetriever<GetElements> retriever = createRetriever(store)) {
+            for (final Element element : retriever) {
+                vertices.add((String) ((Entity) element).getVertex());
+                count++;
+            }
+        }
+        assertEquals(NUM_SEEDS, count);
+        return vertices;
+    }
+
+    private static Set<String> createVertices() {
+        final Set<String> vertices = new HashSet<>();
+        for (int i = 0; i < NUM_SEEDS; i++) {
+            vertices.add("vertex" + i);
+        }
+        return vertices;
+    }
+}
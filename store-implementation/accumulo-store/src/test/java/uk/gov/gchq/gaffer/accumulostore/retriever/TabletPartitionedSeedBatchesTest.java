@@ -0,0 +1,280 @@
+/*
+ * Copyright 2017 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.gov.gchq.gaffer.accumulostore.retriever;
+
+import org.apache.accumulo.core.data.Range;
+import org.apache.hadoop.io.Text;
+import org.junit.Test;
+import uk.gov.gchq.gaffer.accumulostore.AccumuloProperties;
+import uk.gov.gchq.gaffer.accumulostore.AccumuloStore;
+import uk.gov.gchq.gaffer.accumulostore.SingleUseMockAccumuloStore;
+import uk.gov.gchq.gaffer.accumulostore.operation.handler.GetElementsWithinSetHandler;
+import uk.gov.gchq.gaffer.accumulostore.operation.impl.GetElementsWithinSet;
+import uk.gov.gchq.gaffer.accumulostore.retriever.AccumuloRetriever.SeedBatch;
+import uk.gov.gchq.gaffer.accumulostore.retriever.impl.AccumuloSingleIDRetriever;
+import uk.gov.gchq.gaffer.commonutil.TestGroups;
+import uk.gov.gchq.gaffer.commonutil.TestPropertyNames;
+import uk.gov.gchq.gaffer.commonutil.TestTypes;
+import uk.gov.gchq.gaffer.commonutil.iterable.CloseableIterable;
+import uk.gov.gchq.gaffer.data.element.Edge;
+import uk.gov.gchq.gaffer.data.element.Element;
+import uk.gov.gchq.gaffer.data.element.Entity;
+import uk.gov.gchq.gaffer.data.element.id.EntityId;
+import uk.gov.gchq.gaffer.data.elementdefinition.view.View;
+import uk.gov.gchq.gaffer.operation.data.EntitySeed;
+import uk.gov.gchq.gaffer.operation.impl.get.GetElements;
+import uk.gov.gchq.gaffer.store.schema.Schema;
+import uk.gov.gchq.gaffer.store.schema.SchemaEdgeDefinition;
+import uk.gov.gchq.gaffer.store.schema.SchemaEntityDefinition;
+import uk.gov.gchq.gaffer.store.schema.TypeDefinition;
+import uk.gov.gchq.gaffer.user.User;
+import uk.gov.gchq.koryphe.impl.binaryoperator.Sum;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class TabletPartitionedSeedBatchesTest {
+    private static final int NUM_SEEDS = 40;
+    private static final int MAX_ENTRIES_FOR_BATCH_SCANNER = 3;
+
+    private static final Schema SCHEMA = new Schema.Builder()
+            .type(TestTypes.ID_STRING, new TypeDefinition.Builder()
+                    .clazz(String.class)
+                    .build())
+            .type(TestTypes.DIRECTED_TRUE, new TypeDefinition.Builder()
+                    .clazz(Boolean.class)
+                    .build())
+            .type(TestTypes.PROP_COUNT, new TypeDefinition.Builder()
+                    .clazz(Long.class)
+                    .aggregateFunction(new Sum())
+                    .build())
+            .entity(TestGroups.ENTITY, new SchemaEntityDefinition.Builder()
+                    .vertex(TestTypes.ID_STRING)
+                    .property(TestPropertyNames.COUNT, TestTypes.PROP_COUNT)
+                    .build())
+            .edge(TestGroups.EDGE, new SchemaEdgeDefinition.Builder()
+                    .source(TestTypes.ID_STRING)
+                    .destination(TestTypes.ID_STRING)
+                    .directed(TestTypes.DIRECTED_TRUE)
+                    .property(TestPropertyNames.COUNT, TestTypes.PROP_COUNT)
+                    .build())
+            .build();
+
+    @Test
+    public void shouldBatchSeedsInOrderWhenPartitioningIsDisabled() throws Exception {
+        // Given
+        final AccumuloStore store = createStore("1");
+
+        // When
+        final List<SeedBatch<EntityId>> batches = getBatches(store);
+
+        // Then
+        assertEveryBatchMatchesItsSeeds(store, batches);
+        assertEquals(Arrays.asList(createSeed(0), createSeed(1), createSeed(2)), batches.get(0).getSeeds());
+        assertEquals(Arrays.asList(createSeed(3), createSeed(4), createSeed(5)), batches.get(1).getSeeds());
+    }
+
+    @Test
+    public void shouldDealSeedsOrderedByTabletToEachBatchInTurn() throws Exception {
+        // Given
+        final AccumuloStore store = createStore("4");
+
+        // When
+        final List<SeedBatch<EntityId>> batches = getBatches(store);
+
+        // Then
+        assertEveryBatchMatchesItsSeeds(store, batches);
+        // The first 4 batches share the first 12 seeds, one seed in turn
+        for (int i = 0; i < 4; i++) {
+            assertEquals(Arrays.asList(createSeed(i), createSeed(i + 4), createSeed(i + 8)), batches.get(i).getSeeds());
+        }
+    }
+
+    @Test
+    public void shouldDealSeedsFromEveryTabletToEachBatch() throws Exception {
+        // Given
+        final AccumuloStore store = createStore("4");
+        final List<EntityId> seeds = new ArrayList<>();
+        // 3 seeds from each of the 4 tablets, ordered by tablet in reverse
+        for (final int tablet : new int[]{3, 2, 1, 0}) {
+            for (int i = 0; i < MAX_ENTRIES_FOR_BATCH_SCANNER; i++) {
+                seeds.add(createSeed(tablet * 10 + i));
+            }
+        }
+
+        // When
+        final List<SeedBatch<EntityId>> batches = getBatches(store, seeds);
+
+        // Then
+        assertEveryBatchMatchesItsSeeds(store, batches);
+        assertEquals(4, batches.size());
+        for (final SeedBatch<EntityId> batch : batches) {
+            final Set<Character> tablets = new HashSet<>();
+            for (final EntityId seed : batch.getSeeds()) {
+                tablets.add(((String) seed.getVertex()).charAt(1));
+            }
+            assertEquals(MAX_ENTRIES_FOR_BATCH_SCANNER, tablets.size());
+        }
+    }
+
+    @Test
+    public void shouldReturnTheSameElementsWithinSetWhenSeedsArePartitionedByTablet() throws Exception {
+        // Given
+        final List<Element> expectedElements = getElementsWithinSet(createStore("1"));
+
+        // When
+        final List<Element> elements = getElementsWithinSet(createStore("4"));
+
+        // Then
+        final Set<Element> expectedEdges = new HashSet<>();
+        for (int i = 0; i < NUM_SEEDS - 1; i++) {
+            expectedEdges.add(createEdge(getVertex(i), getVertex(i + 1)));
+        }
+        assertEquals(expectedEdges, new HashSet<>(expectedElements));
+        assertEquals(expectedEdges, new HashSet<>(elements));
+        assertEquals(expectedElements.size(), elements.size());
+    }
+
+    private static AccumuloStore createStore(final String tabletPartitioningChunks) throws Exception {
+        final AccumuloProperties properties = new AccumuloProperties();
+        properties.setStoreClass(SingleUseMockAccumuloStore.class.getName());
+        properties.setInstance("instance");
+        properties.setZookeepers("zookeepers");
+        properties.setUser("user01");
+        properties.setPassword("password");
+        properties.setMaxEntriesForBatchScanner(String.valueOf(MAX_ENTRIES_FOR_BATCH_SCANNER));
+        properties.setTabletPartitioningChunks(tabletPartitioningChunks);
+
+        final AccumuloStore store = new SingleUseMockAccumuloStore();
+        store.initialise("seedBatchesTestGraph", SCHEMA, properties);
+        // The tablets hold the vertices v00 to v09, v10 to v19, v20 to v29 and v30 to v39
+        store.getConnection().tableOperations().addSplits(store.getTableName(),
+                new TreeSet<>(Arrays.asList(new Text("v1"), new Text("v2"), new Text("v3"))));
+
+        final List<Element> elements = new ArrayList<>();
+        for (int i = 0; i < NUM_SEEDS; i++) {
+            elements.add(new Entity.Builder()
+                    .group(TestGroups.ENTITY)
+                    .vertex(getVertex(i))
+                    .property(TestPropertyNames.COUNT, 1L)
+                    .build());
+            if (i < NUM_SEEDS - 1) {
+                elements.add(createEdge(getVertex(i), getVertex(i + 1)));
+            }
+            elements.add(createEdge(getVertex(i), "x" + i));
+        }
+        store.addElements(elements);
+        return store;
+    }
+
+    private static List<SeedBatch<EntityId>> getBatches(final AccumuloStore store) throws Exception {
+        final List<EntityId> seeds = new ArrayList<>();
+        for (int i = 0; i < NUM_SEEDS; i++) {
+            seeds.add(createSeed(i));
+        }
+        return getBatches(store, seeds);
+    }
+
+    private static List<SeedBatch<EntityId>> getBatches(final AccumuloStore store, final List<EntityId> seeds) throws Exception {
+        final GetElements operation = createGetElements(seeds);
+        final AccumuloSingleIDRetriever<GetElements> retriever = new AccumuloSingleIDRetriever<>(store, operation, new User());
+        final AccumuloRetriever<GetElements, Element>.TabletPartitionedSeedBatches<EntityId> seedBatches =
+                retriever.new TabletPartitionedSeedBatches<EntityId>(seeds.iterator(),
+                        (seed, ranges) -> ranges.addAll(store.getKeyPackage().getRangeFactory().getRange(seed, operation)));
+
+        final List<SeedBatch<EntityId>> batches = new ArrayList<>();
+        final List<EntityId> batchedSeeds = new ArrayList<>();
+        while (seedBatches.hasNext()) {
+            final SeedBatch<EntityId> batch = seedBatches.next();
+            assertTrue(batch.getSeeds().size() <= MAX_ENTRIES_FOR_BATCH_SCANNER);
+            batches.add(batch);
+            batchedSeeds.addAll(batch.getSeeds());
+        }
+
+        // Every seed is in exactly one batch
+        assertEquals(seeds.size(), batchedSeeds.size());
+        assertEquals(new HashSet<>(seeds), new HashSet<>(batchedSeeds));
+        return batches;
+    }
+
+    private static void assertEveryBatchMatchesItsSeeds(final AccumuloStore store, final List<SeedBatch<EntityId>> batches)
+            throws Exception {
+        for (final SeedBatch<EntityId> batch : batches) {
+            final GetElements operation = createGetElements(batch.getSeeds());
+            final Set<Range> expectedRanges = new HashSet<>();
+            for (final EntityId seed : batch.getSeeds()) {
+                expectedRanges.addAll(store.getKeyPackage().getRangeFactory().getRange(seed, operation));
+            }
+            assertEquals(expectedRanges, batch.getRanges());
+        }
+    }
+
+    private static List<Element> getElementsWithinSet(final AccumuloStore store) throws Exception {
+        final List<EntitySeed> seeds = new ArrayList<>();
+        for (int i = 0; i < NUM_SEEDS; i++) {
+            seeds.add(createSeed(i));
+        }
+        final GetElementsWithinSet operation = new GetElementsWithinSet.Builder()
+                .input(seeds)
+                .view(new View.Builder()
+                        .edge(TestGroups.EDGE)
+                        .build())
+                .build();
+
+        final List<Element> elements = new ArrayList<>();
+        try (final CloseableIterable<? extends Element> results = new GetElementsWithinSetHandler()
+                .doOperation(operation, new User(), store)) {
+            for (final Element element : results) {
+                elements.add(element);
+            }
+        }
+        return elements;
+    }
+
+    private static GetElements createGetElements(final List<? extends EntityId> seeds) {
+        return new GetElements.Builder()
+                .input(seeds)
+                .view(new View.Builder()
+                        .entity(TestGroups.ENTITY)
+                        .edge(TestGroups.EDGE)
+                        .build())
+                .build();
+    }
+
+    private static Edge createEdge(final String source, final String destination) {
+        return new Edge.Builder()
+                .group(TestGroups.EDGE)
+                .source(source)
+                .dest(destination)
+                .directed(true)
+                .property(TestPropertyNames.COUNT, 1L)
+                .build();
+    }
+
+    private static EntitySeed createSeed(final int i) {
+        return new EntitySeed(getVertex(i));
+    }
+
+    private static String getVertex(final int i) {
+        return String.format("v%02d", i);
+    }
+}
@@ -0,0 +1,218 @@
+/*
+ * Copyright 2017 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.gov.gchq.gaffer.accumulostore.retriever.impl;
+
+import org.apache.hadoop.io.Text;
+import org.junit.Test;
+import uk.gov.gchq.gaffer.accumulostore.AccumuloProperties;
+import uk.gov.gchq.gaffer.accumulostore.AccumuloStore;
+import uk.gov.gchq.gaffer.accumulostore.SingleUseMockAccumuloStore;
+import uk.gov.gchq.gaffer.accumulostore.operation.handler.SummariseGroupOverRangesHandler;
+import uk.gov.gchq.gaffer.accumulostore.operation.impl.SummariseGroupOverRanges;
+import uk.gov.gchq.gaffer.commonutil.TestGroups;
+import uk.gov.gchq.gaffer.commonutil.TestPropertyNames;
+import uk.gov.gchq.gaffer.commonutil.TestTypes;
+import uk.gov.gchq.gaffer.commonutil.iterable.CloseableIterable;
+import uk.gov.gchq.gaffer.commonutil.pair.Pair;
+import uk.gov.gchq.gaffer.data.element.Element;
+import uk.gov.gchq.gaffer.data.element.Entity;
+import uk.gov.gchq.gaffer.data.element.function.ElementFilter;
+import uk.gov.gchq.gaffer.data.elementdefinition.view.View;
+import uk.gov.gchq.gaffer.data.elementdefinition.view.ViewElementDefinition;
+import uk.gov.gchq.gaffer.operation.data.EntitySeed;
+import uk.gov.gchq.gaffer.store.schema.Schema;
+import uk.gov.gchq.gaffer.store.schema.SchemaEntityDefinition;
+import uk.gov.gchq.gaffer.store.schema.TypeDefinition;
+import uk.gov.gchq.gaffer.user.User;
+import uk.gov.gchq.koryphe.impl.binaryoperator.Sum;
+import uk.gov.gchq.koryphe.impl.predicate.IsMoreThan;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.TreeSet;
+
+import static org.junit.Assert.assertEquals;
+
+public class AccumuloRangeSummaryRetrieverTest {
+    // With splits at b and d, the tablets hold a, then b and c, then d, e and f
+    private static final String VERTICES = "abcdef";
+
+    private static final Schema SCHEMA = new Schema.Builder()
+            .type(TestTypes.ID_STRING, new TypeDefinition.Builder()
+                    .clazz(String.class)
+                    .build())
+            .type(TestTypes.PROP_COUNT, new TypeDefinition.Builder()
+                    .clazz(Long.class)
+                    .aggregateFunction(new Sum())
+                    .build())
+            .entity(TestGroups.ENTITY, new SchemaEntityDefinition.Builder()
+                    .vertex(TestTypes.ID_STRING)
+                    .property(TestPropertyNames.COUNT, TestTypes.PROP_COUNT)
+                    .build())
+            .build();
+
+    private static final View VIEW = new View.Builder()
+            .entity(TestGroups.ENTITY)
+            .build();
+
+    @Test
+    public void shouldMergePartialSummariesOfRangeSplitAcrossTablets() throws Exception {
+        // Given
+        final AccumuloStore store = createStore("50000", "b", "d");
+
+        // When
+        final List<Element> summaries = summarise(store, VIEW, createRange("a", "f"));
+
+        // Then
+        assertEquals(1, summaries.size());
+        assertSummary("f", 6L, summaries.get(0));
+    }
+
+    @Test
+    public void shouldSummariseRangeWithinOneTablet() throws Exception {
+        // Given
+        final AccumuloStore store = createStore("50000", "b", "d");
+
+        // When
+        final List<Element> summaries = summarise(store, VIEW, createRange("d", "e"));
+
+        // Then
+        assertEquals(1, summaries.size());
+        assertSummary("e", 2L, summaries.get(0));
+    }
+
+    @Test
+    public void shouldReturnOneSummaryForEachRangeInOrderOfTheirStart() throws Exception {
+        // Given
+        final AccumuloStore store = createStore("50000", "b", "d");
+
+        // When
+        final List<Element> summaries = summarise(store, VIEW, createRange("d", "f"), createRange("a", "b"));
+
+        // Then
+        assertEquals(2, summaries.size());
+        assertSummary("b", 2L, summaries.get(0));
+        assertSummary("f", 3L, summaries.get(1));
+    }
+
+    @Test
+    public void shouldDeferOverlappingRangesToALaterChunk() throws Exception {
+        // Given
+        final AccumuloStore store = createStore("50000", "b", "d");
+
+        // When
+        final List<Element> summaries = summarise(store, VIEW, createRange("c", "f"), createRange("a", "d"));
+
+        // Then
+        assertEquals(2, summaries.size());
+        assertSummary("d", 4L, summaries.get(0));
+        assertSummary("f", 4L, summaries.get(1));
+    }
+
+    @Test
+    public void shouldSummariseRangesInChunksOfMaxEntriesForBatchScanner() throws Exception {
+        // Given
+        final AccumuloStore store = createStore("1", "b", "d");
+
+        // When
+        final List<Element> summaries = summarise(store, VIEW, createRange("d", "f"), createRange("a", "c"));
+
+        // Then
+        assertEquals(2, summaries.size());
+        assertSummary("f", 3L, summaries.get(0));
+        assertSummary("c", 3L, summaries.get(1));
+    }
+
+    @Test
+    public void shouldApplyPostAggregationFiltersToMergedSummaries() throws Exception {
+        // Given
+        final AccumuloStore store = createStore("50000", "b", "d");
+        final View view = new View.Builder()
+                .entity(TestGroups.ENTITY, new ViewElementDefinition.Builder()
+                        .postAggregationFilter(new ElementFilter.Builder()
+                                .select(TestPropertyNames.COUNT)
+                                .execute(new IsMoreThan(3L))
+                                .build())
+                        .build())
+                .build();
+
+        // When
+        final List<Element> summaries = summarise(store, view, createRange("a", "b"), createRange("c", "f"));
+
+        // Then
+        // The tablets hold 1 and 3 of the entities in c to f
+        assertEquals(1, summaries.size());
+        assertSummary("f", 4L, summaries.get(0));
+    }
+
+    private static AccumuloStore createStore(final String maxEntriesForBatchScanner, final String... splits) throws Exception {
+        final AccumuloProperties properties = new AccumuloProperties();
+        properties.setStoreClass(SingleUseMockAccumuloStore.class.getName());
+        properties.setInstance("instance");
+        properties.setZookeepers("zookeepers");
+        properties.setUser("user01");
+        properties.setPassword("password");
+        properties.setMaxEntriesForBatchScanner(maxEntriesForBatchScanner);
+
+        final AccumuloStore store = new SingleUseMockAccumuloStore();
+        store.initialise("rangeSummaryTestGraph", SCHEMA, properties);
+
+        final TreeSet<Text> splitPoints = new TreeSet<>();
+        for (final String split : splits) {
+            splitPoints.add(new Text(split));
+        }
+        store.getConnection().tableOperations().addSplits(store.getTableName(), splitPoints);
+
+        final List<Element> elements = new ArrayList<>();
+        for (final char vertex : VERTICES.toCharArray()) {
+            elements.add(new Entity.Builder()
+                    .group(TestGroups.ENTITY)
+                    .vertex(String.valueOf(vertex))
+                    .property(TestPropertyNames.COUNT, 1L)
+                    .build());
+        }
+        store.addElements(elements);
+        return store;
+    }
+
+    @SafeVarargs
+    private static List<Element> summarise(final AccumuloStore store, final View view,
+                                           final Pair<EntitySeed, EntitySeed>... ranges) throws Exception {
+        final SummariseGroupOverRanges operation = new SummariseGroupOverRanges.Builder()
+                .input(Arrays.asList(ranges))
+                .view(view)
+                .build();
+
+        final List<Element> summaries = new ArrayList<>();
+        try (final CloseableIterable<? extends Element> results = new SummariseGroupOverRangesHandler()
+                .doOperation(operation, new User(), store)) {
+            for (final Element summary : results) {
+                summaries.add(summary);
+            }
+        }
+        return summaries;
+    }
+
+    private static Pair<EntitySeed, EntitySeed> createRange(final String start, final String end) {
+        return new Pair<>(new EntitySeed(start), new EntitySeed(end));
+    }
+
+    private static void assertSummary(final String expectedVertex, final long expectedCount, final Element summary) {
+        assertEquals(TestGroups.ENTITY, summary.getGroup());
+        assertEquals(expectedVertex, ((Entity) summary).getVertex());
+        assertEquals(expectedCount, summary.getProperty(TestPropertyNames.COUNT));
+    }
+}
@@ -0,0 +1,136 @@
+/*
+ * Copyright 2017 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.gov.gchq.gaffer.accumulostore.utils;
+
+import org.junit.Test;
+import uk.gov.gchq.gaffer.commonutil.StringUtil;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class BlockedBloomFilterTest {
+    private static final double FALSE_POSITIVE_RATE = 0.01;
+    private static final int NUM_TESTS = 100000;
+
+    @Test
+    public void shouldNotReturnFalseNegatives() {
+        // Given
+        final BlockedBloomFilter filter = new BlockedBloomFilter(FALSE_POSITIVE_RATE, 10000, Long.MAX_VALUE);
+
+        // When
+        addItems(filter, 0, 10000);
+
+        // Then
+        assertAllItemsPresent(filter, 0, 10000);
+        assertEquals(10000, filter.getNumItems());
+    }
+
+    @Test
+    public void shouldHaveFalsePositiveRateWithinDesiredRate() {
+        // Given
+        final BlockedBloomFilter filter = new BlockedBloomFilter(FALSE_POSITIVE_RATE, 10000, Long.MAX_VALUE);
+        addItems(filter, 0, 10000);
+
+        // When
+        final double falsePositiveRate = getFalsePositiveRate(filter, 10000);
+
+        // Then
+        assertTrue("False positive rate was " + falsePositiveRate, falsePositiveRate <= FALSE_POSITIVE_RATE * 1.2);
+    }
+
+    @Test
+    public void shouldAddSegmentsWhenMoreItemsThanExpectedAreAdded() {
+        // Given
+        final BlockedBloomFilter filter = new BlockedBloomFilter(FALSE_POSITIVE_RATE, 1000, Long.MAX_VALUE);
+        addItems(filter, 0, 1000);
+        final long initialSize = filter.getSize();
+
+        // When
+        addItems(filter, 1000, 20000);
+
+        // Then
+        assertTrue(filter.getSize() > initialSize);
+        assertAllItemsPresent(filter, 0, 20000);
+        final double falsePositiveRate = getFalsePositiveRate(filter, 20000);
+        assertTrue("False positive rate was " + falsePositiveRate, falsePositiveRate <= FALSE_POSITIVE_RATE * 2);
+    }
+
+    @Test
+    public void shouldNotGrowBeyondMaximumSize() {
+        // Given
+        final long maximumSize = 8192;
+        final BlockedBloomFilter filter = new BlockedBloomFilter(FALSE_POSITIVE_RATE, 100, maximumSize);
+
+        // When
+        addItems(filter, 0, 10000);
+
+        // Then
+        assertTrue("Size was " + filter.getSize(), filter.getSize() <= maximumSize);
+        assertAllItemsPresent(filter, 0, 10000);
+    }
+
+    @Test
+    public void shouldUseOneBlockWhenMaximumSizeIsSmallerThanABlock() {
+        // Given
+        final BlockedBloomFilter filter = new BlockedBloomFilter(FALSE_POSITIVE_RATE, 1000, 1);
+
+        // When
+        addItems(filter, 0, 1000);
+
+        // Then
+        assertEquals(512, filter.getSize());
+        assertAllItemsPresent(filter, 0, 1000);
+    }
+
+    @Test
+    public void shouldRejectInvalidFalsePositiveRates() {
+        for (final double falsePositiveRate : new double[]{0, 1, -0.1, 1.1}) {
+            try {
+                new BlockedBloomFilter(falsePositiveRate, 1000, Long.MAX_VALUE);
+                fail("Exception expected for " + falsePositiveRate);
+            } catch (final IllegalArgumentException e) {
+                assertTrue(e.getMessage().contains(String.valueOf(falsePositiveRate)));
+            }
+        }
+    }
+
+    private static void addItems(final BlockedBloomFilter filter, final int start, final int end) {
+        for (int i = start; i < end; i++) {
+            filter.add(getItem(i));
+        }
+    }
+
+    private static void assertAllItemsPresent(final BlockedBloomFilter filter, final int start, final int end) {
+        for (int i = start; i < end; i++) {
+            assertTrue("Item " + i + " should be present", filter.membershipTest(getItem(i)));
+        }
+    }
+
+    private static double getFalsePositiveRate(final BlockedBloomFilter filter, final int numItemsAdded) {
+        int falsePositives = 0;
+        for (int i = numItemsAdded; i < numItemsAdded + NUM_TESTS; i++) {
+            if (filter.membershipTest(getItem(i))) {
+                falsePositives++;
+            }
+        }
+        return (double) falsePositives / NUM_TESTS;
+    }
+
+    private static byte[] getItem(final int i) {
+        return StringUtil.toBytes("item" + i);
+    }
+}
@@ -0,0 +1,111 @@
+/*
+ * Copyright 2017 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.gov.gchq.gaffer.accumulostore.utils;
+
+import org.apache.hadoop.util.bloom.BloomFilter;
+import org.apache.hadoop.util.bloom.Key;
+import org.junit.Test;
+import uk.gov.gchq.gaffer.commonutil.StringUtil;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class BloomFilterUtilsTest {
+    private static final double FALSE_POSITIVE_RATE = 0.01;
+
+    @Test
+    public void shouldCalculateOptimalSizeAndNumberOfHashes() {
+        // When
+        final int size = BloomFilterUtils.calculateBloomFilterSize(FALSE_POSITIVE_RATE, 1000, Integer.MAX_VALUE);
+        final int numHashes = BloomFilterUtils.calculateNumHashes(size, 1000);
+
+        // Then
+        assertEquals(9586, size);
+        assertEquals(7, numHashes);
+    }
+
+    @Test
+    public void shouldLimitSizeToMaximumSize() {
+        // When
+        final int size = BloomFilterUtils.calculateBloomFilterSize(FALSE_POSITIVE_RATE, 1000000, 5000);
+
+        // Then
+        assertEquals(5000, size);
+        assertEquals(1, BloomFilterUtils.calculateNumHashes(size, 1000000));
+    }
+
+    @Test
+    public void shouldSizeForOneItemWhenNoItemsAreToBeAdded() {
+        // When
+        final int size = BloomFilterUtils.calculateBloomFilterSize(FALSE_POSITIVE_RATE, 0, Integer.MAX_VALUE);
+
+        // Then
+        assertEquals(BloomFilterUtils.calculateBloomFilterSize(FALSE_POSITIVE_RATE, 1, Integer.MAX_VALUE), size);
+        assertEquals(7, BloomFilterUtils.calculateNumHashes(size, 0));
+    }
+
+    @Test
+    public void shouldHaveFalsePositiveRateWithinDesiredRate() {
+        // Given
+        final BloomFilter filter = BloomFilterUtils.getBloomFilter(FALSE_POSITIVE_RATE, 10000, Integer.MAX_VALUE);
+        for (int i = 0; i < 10000; i++) {
+            filter.add(getKey(i));
+        }
+
+        // When
+        int falsePositives = 0;
+        for (int i = 10000; i < 110000; i++) {
+            if (filter.membershipTest(getKey(i))) {
+                falsePositives++;
+            }
+        }
+
+        // Then
+        assertTrue("False positives: " + falsePositives, falsePositives <= 100000 * FALSE_POSITIVE_RATE * 1.2);
+    }
+
+    @Test
+    public void shouldKeepMembershipWhenSerialisedAndDeserialised() throws IOException {
+        // Given
+        final BloomFilter filter = BloomFilterUtils.getBloomFilter(FALSE_POSITIVE_RATE, 1000, Integer.MAX_VALUE);
+        for (int i = 0; i < 1000; i++) {
+            filter.add(getKey(i));
+        }
+
+        // When
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        filter.write(new DataOutputStream(bytes));
+        final BloomFilter deserialisedFilter = new BloomFilter();
+        deserialisedFilter.readFields(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())));
+
+        // Then
+        for (int i = 0; i < 1000; i++) {
+            assertTrue(deserialisedFilter.membershipTest(getKey(i)));
+        }
+        for (int i = 1000; i < 2000; i++) {
+            assertEquals(filter.membershipTest(getKey(i)), deserialisedFilter.membershipTest(getKey(i)));
+        }
+    }
+
+    private static Key getKey(final int i) {
+        return new Key(StringUtil.toBytes("item" + i));
+    }
+}
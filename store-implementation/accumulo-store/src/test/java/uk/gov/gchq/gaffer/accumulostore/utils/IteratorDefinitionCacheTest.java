@@ -0,0 +1,304 @@
+/*
+ * Copyright 2017 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.gov.gchq.gaffer.accumulostore.utils;
+
+import org.apache.accumulo.core.client.IteratorSetting;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import uk.gov.gchq.gaffer.accumulostore.key.AccumuloElementConverter;
+import uk.gov.gchq.gaffer.accumulostore.key.core.impl.byteEntity.ByteEntityAccumuloElementConverter;
+import uk.gov.gchq.gaffer.commonutil.StringUtil;
+import uk.gov.gchq.gaffer.commonutil.TestGroups;
+import uk.gov.gchq.gaffer.commonutil.TestPropertyNames;
+import uk.gov.gchq.gaffer.commonutil.TestTypes;
+import uk.gov.gchq.gaffer.data.element.function.ElementFilter;
+import uk.gov.gchq.gaffer.data.elementdefinition.exception.SchemaException;
+import uk.gov.gchq.gaffer.data.elementdefinition.view.View;
+import uk.gov.gchq.gaffer.data.elementdefinition.view.ViewElementDefinition;
+import uk.gov.gchq.gaffer.store.schema.Schema;
+import uk.gov.gchq.gaffer.store.schema.SchemaEntityDefinition;
+import uk.gov.gchq.gaffer.store.schema.TypeDefinition;
+import uk.gov.gchq.koryphe.impl.binaryoperator.Sum;
+import uk.gov.gchq.koryphe.impl.predicate.IsMoreThan;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
+
+public class IteratorDefinitionCacheTest {
+    private static final String INVALID_JSON = "not json";
+
+    private static final Schema SCHEMA = new Schema.Builder()
+            .type(TestTypes.ID_STRING, new TypeDefinition.Builder()
+                    .clazz(String.class)
+                    .build())
+            .type(TestTypes.PROP_COUNT, new TypeDefinition.Builder()
+                    .clazz(Long.class)
+                    .aggregateFunction(new Sum())
+                    .build())
+            .entity(TestGroups.ENTITY, new SchemaEntityDefinition.Builder()
+                    .vertex(TestTypes.ID_STRING)
+                    .property(TestPropertyNames.COUNT, TestTypes.PROP_COUNT)
+                    .build())
+            .build();
+
+    private static final View VIEW = new View.Builder()
+            .entity(TestGroups.ENTITY, new ViewElementDefinition.Builder()
+                    .preAggregationFilter(new ElementFilter.Builder()
+                            .select(TestPropertyNames.COUNT)
+                            .execute(new IsMoreThan(1L))
+                            .build())
+                    .build())
+            .build();
+
+    private static final String SCHEMA_JSON = StringUtil.toString(SCHEMA.toCompactJson());
+    private static final String VIEW_JSON = StringUtil.toString(VIEW.toCompactJson());
+
+    @Before
+    @After
+    public void clearCache() {
+        IteratorDefinitionCache.clear();
+    }
+
+    @Test
+    public void shouldAddHashOptionsForSchemaAndView() {
+        // Given
+        final IteratorSetting setting = new IteratorSetting(1, "test", "TestIterator");
+        setting.addOption(AccumuloStoreConstants.SCHEMA, SCHEMA_JSON);
+        setting.addOption(AccumuloStoreConstants.VIEW, VIEW_JSON);
+
+        // When
+        IteratorDefinitionCache.addHashOptions(setting);
+
+        // Then
+        assertEquals(IteratorDefinitionCache.hash(SCHEMA_JSON), setting.getOptions().get(AccumuloStoreConstants.SCHEMA_HASH));
+        assertEquals(IteratorDefinitionCache.hash(VIEW_JSON), setting.getOptions().get(AccumuloStoreConstants.VIEW_HASH));
+    }
+
+    @Test
+    public void shouldNotAddHashOptionsWithoutSchemaOrView() {
+        // Given
+        final IteratorSetting setting = new IteratorSetting(1, "test", "TestIterator");
+
+        // When
+        IteratorDefinitionCache.addHashOptions(setting);
+
+        // Then
+        assertFalse(setting.getOptions().containsKey(AccumuloStoreConstants.SCHEMA_HASH));
+        assertFalse(setting.getOptions().containsKey(AccumuloStoreConstants.VIEW_HASH));
+    }
+
+    @Test
+    public void shouldGetSchemaAndViewFromHashOptions() {
+        // Given
+        final Map<String, String> options = createOptions();
+
+        // When
+        final Schema schema = IteratorDefinitionCache.getSchema(options);
+        final View view = IteratorDefinitionCache.getView(options);
+
+        // Then
+        assertArrayEquals(SCHEMA.toCompactJson(), schema.toCompactJson());
+        assertArrayEquals(VIEW.toCompactJson(), view.toCompactJson());
+    }
+
+    @Test
+    public void shouldGetSchemaAndViewWithoutHashOptions() {
+        // Given
+        final Map<String, String> options = createOptions();
+        options.remove(AccumuloStoreConstants.SCHEMA_HASH);
+        options.remove(AccumuloStoreConstants.VIEW_HASH);
+
+        // When
+        final Schema schema = IteratorDefinitionCache.getSchema(options);
+        final View view = IteratorDefinitionCache.getView(options);
+
+        // Then
+        assertArrayEquals(SCHEMA.toCompactJson(), schema.toCompactJson());
+        assertArrayEquals(VIEW.toCompactJson(), view.toCompactJson());
+    }
+
+    @Test
+    public void shouldNotParseJsonAgainWhenHashHasBeenSeen() {
+        // Given
+        IteratorDefinitionCache.getSchema(createOptions());
+        IteratorDefinitionCache.getView(createOptions());
+
+        final Map<String, String> options = createOptions();
+        options.put(AccumuloStoreConstants.SCHEMA, INVALID_JSON);
+        options.put(AccumuloStoreConstants.VIEW, INVALID_JSON);
+
+        // When
+        final Schema schema = IteratorDefinitionCache.getSchema(options);
+        final View view = IteratorDefinitionCache.getView(options);
+
+        // Then
+        assertArrayEquals(SCHEMA.toCompactJson(), schema.toCompactJson());
+        assertArrayEquals(VIEW.toCompactJson(), view.toCompactJson());
+    }
+
+    @Test
+    public void shouldParseJsonWhenHashHasNotBeenSeen() {
+        // Given
+        final Map<String, String> options = createOptions();
+        options.put(AccumuloStoreConstants.SCHEMA, INVALID_JSON);
+
+        // When / Then
+        try {
+            IteratorDefinitionCache.getSchema(options);
+            fail("Exception expected");
+        } catch (final SchemaException e) {
+            assertEquals("Unable to deserialise the " + AccumuloStoreConstants.SCHEMA, e.getMessage());
+        }
+    }
+
+    @Test
+    public void shouldParseJsonAgainAfterClear() {
+        // Given
+        IteratorDefinitionCache.getSchema(createOptions());
+        IteratorDefinitionCache.clear();
+
+        final Map<String, String> options = createOptions();
+        options.put(AccumuloStoreConstants.SCHEMA, INVALID_JSON);
+
+        // When / Then
+        try {
+            IteratorDefinitionCache.getSchema(options);
+            fail("Exception expected");
+        } catch (final SchemaException e) {
+            assertEquals("Unable to deserialise the " + AccumuloStoreConstants.SCHEMA, e.getMessage());
+        }
+    }
+
+    @Test
+    public void shouldNotCacheJsonThatDoesNotMatchItsHash() {
+        // Given
+        final Map<String, String> options = createOptions();
+        options.put(AccumuloStoreConstants.SCHEMA_HASH, IteratorDefinitionCache.hash("other schema"));
+        IteratorDefinitionCache.getSchema(options);
+
+        options.put(AccumuloStoreConstants.SCHEMA, INVALID_JSON);
+
+        // When / Then
+        try {
+            IteratorDefinitionCache.getSchema(options);
+            fail("Exception expected");
+        } catch (final SchemaException e) {
+            assertEquals("Unable to deserialise the " + AccumuloStoreConstants.SCHEMA, e.getMessage());
+        }
+    }
+
+    @Test
+    public void shouldCreateNewSchemaAndViewForEachCaller() {
+        // Given
+        final Map<String, String> options = createOptions();
+
+        // When
+        final Schema schema1 = IteratorDefinitionCache.getSchema(options);
+        final Schema schema2 = IteratorDefinitionCache.getSchema(options);
+        final View view1 = IteratorDefinitionCache.getView(options);
+        final View view2 = IteratorDefinitionCache.getView(options);
+
+        // Then
+        assertNotSame(schema1, schema2);
+        assertNotSame(schema1.getType(TestTypes.PROP_COUNT).getAggregateFunction(),
+                schema2.getType(TestTypes.PROP_COUNT).getAggregateFunction());
+        assertNotSame(view1, view2);
+        assertNotSame(view1.getEntity(TestGroups.ENTITY).getPreAggregationFilter(),
+                view2.getEntity(TestGroups.ENTITY).getPreAggregationFilter());
+    }
+
+    @Test
+    public void shouldShareElementConverterForTheSameSchema() throws ReflectiveOperationException {
+        // Given
+        final Map<String, String> options = createOptions();
+
+        // When
+        final AccumuloElementConverter converter1 = IteratorDefinitionCache.getElementConverter(options);
+        final AccumuloElementConverter converter2 = IteratorDefinitionCache.getElementConverter(options);
+
+        // Then
+        assertSame(converter1, converter2);
+        assertEquals(ByteEntityAccumuloElementConverter.class, converter1.getClass());
+    }
+
+    @Test
+    public void shouldGiveConcurrentIteratorsTheirOwnSchemaAndView() throws Exception {
+        // Given
+        final int numIterators = 200;
+        final ExecutorService executor = Executors.newFixedThreadPool(8);
+        final List<Callable<Object[]>> inits = new ArrayList<>();
+        for (int i = 0; i < numIterators; i++) {
+            inits.add(() -> {
+                final Map<String, String> options = createOptions();
+                return new Object[]{
+                        IteratorDefinitionCache.getSchema(options),
+                        IteratorDefinitionCache.getView(options),
+                        IteratorDefinitionCache.getElementConverter(options)
+                };
+            });
+        }
+
+        // When
+        final List<Future<Object[]>> results;
+        try {
+            results = executor.invokeAll(inits);
+        } finally {
+            executor.shutdownNow();
+        }
+
+        // Then
+        final Set<Object> schemas = Collections.newSetFromMap(new IdentityHashMap<>());
+        final Set<Object> views = Collections.newSetFromMap(new IdentityHashMap<>());
+        final Set<Object> converters = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (final Future<Object[]> result : results) {
+            final Object[] definitions = result.get();
+            assertArrayEquals(SCHEMA.toCompactJson(), ((Schema) definitions[0]).toCompactJson());
+            assertArrayEquals(VIEW.toCompactJson(), ((View) definitions[1]).toCompactJson());
+            schemas.add(definitions[0]);
+            views.add(definitions[1]);
+            converters.add(definitions[2]);
+        }
+        assertEquals(numIterators, schemas.size());
+        assertEquals(numIterators, views.size());
+        assertEquals(1, converters.size());
+    }
+
+    private static Map<String, String> createOptions() {
+        final IteratorSetting setting = new IteratorSetting(1, "test", "TestIterator");
+        setting.addOption(AccumuloStoreConstants.SCHEMA, SCHEMA_JSON);
+        setting.addOption(AccumuloStoreConstants.VIEW, VIEW_JSON);
+        setting.addOption(AccumuloStoreConstants.ACCUMULO_ELEMENT_CONVERTER_CLASS,
+                ByteEntityAccumuloElementConverter.class.getName());
+        IteratorDefinitionCache.addHashOptions(setting);
+        return new HashMap<>(setting.getOptions());
+    }
+}
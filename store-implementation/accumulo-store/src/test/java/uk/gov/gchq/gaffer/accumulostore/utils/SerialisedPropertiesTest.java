@@ -0,0 +1,141 @@
+/*
+ * Copyright 2017 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.gov.gchq.gaffer.accumulostore.utils;
+
+import org.junit.Test;
+import uk.gov.gchq.gaffer.data.element.Properties;
+import uk.gov.gchq.gaffer.serialisation.ToBytesSerialiser;
+import uk.gov.gchq.gaffer.serialisation.implementation.StringSerialiser;
+import uk.gov.gchq.gaffer.serialisation.implementation.raw.CompactRawLongSerialiser;
+import uk.gov.gchq.gaffer.serialisation.implementation.raw.CompactRawSerialisationUtils;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class SerialisedPropertiesTest {
+    private static final String[] PROPERTY_NAMES = {"name", "count", "description"};
+    private static final StringSerialiser STRING_SERIALISER = new StringSerialiser();
+    private static final CompactRawLongSerialiser LONG_SERIALISER = new CompactRawLongSerialiser();
+    private static final ToBytesSerialiser[] SERIALISERS = {STRING_SERIALISER, LONG_SERIALISER, STRING_SERIALISER};
+
+    @Test
+    public void shouldGetEachProperty() throws Exception {
+        // Given
+        final byte[] bytes = serialise(STRING_SERIALISER.serialise("a name"), LONG_SERIALISER.serialise(5L),
+                STRING_SERIALISER.serialise("a description"));
+
+        // When
+        final SerialisedProperties properties = new SerialisedProperties(bytes, PROPERTY_NAMES, SERIALISERS);
+
+        // Then
+        assertEquals("a name", properties.get("name"));
+        assertEquals(5L, properties.get("count"));
+        assertEquals("a description", properties.get("description"));
+        assertFalse(properties.contains("unknown"));
+        assertNull(properties.get("unknown"));
+    }
+
+    @Test
+    public void shouldRetainOnlyGivenPropertiesAndKeepTheLayoutOfTheOthers() throws Exception {
+        // Given
+        final byte[] name = STRING_SERIALISER.serialise("a name");
+        final byte[] count = LONG_SERIALISER.serialise(5L);
+        final byte[] description = STRING_SERIALISER.serialise("a description");
+        final SerialisedProperties properties = new SerialisedProperties(serialise(name, count, description),
+                PROPERTY_NAMES, SERIALISERS);
+
+        // When
+        final byte[] retained = properties.retain(new HashSet<>(Arrays.asList("name", "description")));
+
+        // Then
+        assertArrayEquals(serialise(name, new byte[0], description), retained);
+        final SerialisedProperties retainedProperties = new SerialisedProperties(retained, PROPERTY_NAMES, SERIALISERS);
+        assertEquals("a name", retainedProperties.get("name"));
+        assertTrue(retainedProperties.contains("count"));
+        assertEquals("a description", retainedProperties.get("description"));
+    }
+
+    @Test
+    public void shouldSkipPropertiesWithoutSerialisersWhenRetaining() throws Exception {
+        // Given
+        final ToBytesSerialiser[] serialisers = {STRING_SERIALISER, null, STRING_SERIALISER};
+        final byte[] name = STRING_SERIALISER.serialise("a name");
+        final byte[] description = STRING_SERIALISER.serialise("a description");
+        final SerialisedProperties properties = new SerialisedProperties(serialise(name, description),
+                PROPERTY_NAMES, serialisers);
+
+        // When
+        final byte[] retained = properties.retain(Collections.singleton("description"));
+
+        // Then
+        assertFalse(properties.contains("count"));
+        assertArrayEquals(serialise(new byte[0], description), retained);
+        assertEquals("a description", new SerialisedProperties(retained, PROPERTY_NAMES, serialisers).get("description"));
+    }
+
+    @Test
+    public void shouldRetainNothingFromNullBytes() {
+        // Given
+        final SerialisedProperties properties = new SerialisedProperties(null, PROPERTY_NAMES, SERIALISERS);
+
+        // When
+        final byte[] retained = properties.retain(Collections.singleton("name"));
+
+        // Then
+        assertNull(retained);
+        assertFalse(properties.contains("name"));
+    }
+
+    @Test
+    public void shouldGetAndRetainDeserialisedProperties() {
+        // Given
+        final Properties deserialised = new Properties();
+        deserialised.put("name", "a name");
+        deserialised.put("count", 5L);
+        final Properties[] retainedProperties = new Properties[1];
+        final SerialisedProperties properties = SerialisedProperties.fromProperties(deserialised, retained -> {
+            retainedProperties[0] = retained;
+            return new byte[]{1};
+        });
+
+        // When
+        final byte[] retained = properties.retain(Collections.singleton("count"));
+
+        // Then
+        assertEquals("a name", properties.get("name"));
+        assertTrue(properties.contains("count"));
+        assertFalse(properties.contains("description"));
+        assertArrayEquals(new byte[]{1}, retained);
+        assertEquals(new Properties("count", 5L), retainedProperties[0]);
+    }
+
+    private static byte[] serialise(final byte[]... properties) throws IOException {
+        final ByteArrayOutputStream stream = new ByteArrayOutputStream();
+        for (final byte[] property : properties) {
+            CompactRawSerialisationUtils.write(property.length, stream);
+            stream.write(property);
+        }
+        return stream.toByteArray();
+    }
+}
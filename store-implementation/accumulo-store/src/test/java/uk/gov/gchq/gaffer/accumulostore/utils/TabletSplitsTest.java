@@ -0,0 +1,96 @@
+/*
+ * Copyright 2017 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.gov.gchq.gaffer.accumulostore.utils;
+
+import org.apache.accumulo.core.data.Range;
+import org.apache.hadoop.io.Text;
+import org.junit.Test;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+public class TabletSplitsTest {
+    private static final TabletSplits SPLITS = new TabletSplits(Arrays.asList(new Text("m"), new Text("f"), new Text("t")));
+
+    @Test
+    public void shouldFindTabletHoldingEachRow() {
+        // Then
+        assertEquals(4, SPLITS.getNumTablets());
+        assertEquals(0, SPLITS.getTabletIndex(new Text("a")));
+        assertEquals(0, SPLITS.getTabletIndex(new Text("f")));
+        assertEquals(1, SPLITS.getTabletIndex(new Text("f0")));
+        assertEquals(1, SPLITS.getTabletIndex(new Text("m")));
+        assertEquals(2, SPLITS.getTabletIndex(new Text("m0")));
+        assertEquals(3, SPLITS.getTabletIndex(new Text("z")));
+        assertEquals(0, SPLITS.getTabletIndex(new Range(null, new Text("b"))));
+    }
+
+    @Test
+    public void shouldSplitRangeAtTabletBoundaries() {
+        // Given
+        final Range range = new Range(new Text("c"), new Text("p"));
+
+        // When
+        final List<Range> parts = SPLITS.split(range);
+
+        // Then
+        assertEquals(Arrays.asList(
+                new Range(new Text("c"), true, new Text("f"), true),
+                new Range(new Text("f"), false, new Text("m"), true),
+                new Range(new Text("m"), false, new Text("p"), true)), parts);
+    }
+
+    @Test
+    public void shouldSplitInfiniteRangeIntoEveryTablet() {
+        // When
+        final List<Range> parts = SPLITS.split(new Range());
+
+        // Then
+        assertEquals(Arrays.asList(
+                new Range(null, false, new Text("f"), true),
+                new Range(new Text("f"), false, new Text("m"), true),
+                new Range(new Text("m"), false, new Text("t"), true),
+                new Range(new Text("t"), false, null, true)), parts);
+    }
+
+    @Test
+    public void shouldNotSplitRangeWithinOneTablet() {
+        // Given
+        final Range range = new Range(new Text("g"), new Text("k"));
+
+        // When
+        final List<Range> parts = SPLITS.split(range);
+
+        // Then
+        assertEquals(Collections.singletonList(range), parts);
+    }
+
+    @Test
+    public void shouldNotSplitRangeWhenThereAreNoSplitPoints() {
+        // Given
+        final TabletSplits splits = new TabletSplits(Collections.emptyList());
+        final Range range = new Range(new Text("c"), new Text("p"));
+
+        // When
+        final List<Range> parts = splits.split(range);
+
+        // Then
+        assertEquals(1, splits.getNumTablets());
+        assertEquals(Collections.singletonList(range), parts);
+    }
+}